@@ -0,0 +1,412 @@
+/* ******************************************************************************
+ * Java Wordnet Interface Library (JWI) v2.4.0
+ * Copyright (c) 2007-2015 Mark A. Finlayson
+ *
+ * JWI is distributed under the terms of the Creative Commons Attribution 4.0
+ * International Public License, which means it may be freely used for all
+ * purposes, as long as proper acknowledgment is made.  See the license file
+ * included with this distribution for more details.
+ *******************************************************************************/
+
+package edu.mit.jwi;
+
+import edu.mit.jwi.item.*;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * <p>
+ * A facade over a dictionary whose lookups return futures rather than block.
+ * Each lookup runs on an executor, and completes its future with the item
+ * found, <code>null</code> if there is none, or the exception the dictionary
+ * threw.
+ * </p>
+ * <p>
+ * A lookup asked for while the same lookup is still running is not run again:
+ * both wait for the one that is running. Each caller gets its own future, so
+ * that one caller cancelling its future does not cancel the lookup for the
+ * others.
+ * </p>
+ * <p>
+ * The default executor runs each lookup on a virtual thread on Java 21 and
+ * later, and on a pool of daemon threads that grows as needed otherwise.
+ * Lookups block while they read the files of the dictionary, so an executor
+ * with a fixed, small number of threads limits the number of lookups in
+ * flight.
+ * </p>
+ * <p>
+ * This class is thread-safe if the wrapped dictionary is.
+ * </p>
+ *
+ * @author Mark A. Finlayson
+ * @version 2.4.0
+ * @since JWI 2.4.1
+ */
+public class AsyncDictionary
+{
+    // the executor made the first time a facade uses the default one
+    @Nullable
+    private static Executor defaultExecutor;
+
+    @NonNull
+    private final IDictionary dict;
+    @NonNull
+    private final Executor executor;
+
+    // lookups in flight, one table per kind of lookup, as the same key
+    // may stand for a word and for a sense entry
+    private final InFlight<ISynsetID, ISynset> synsets;
+    private final InFlight<IIndexWordID, IIndexWord> indexWords;
+    private final InFlight<IWordID, IWord> wordsByID;
+    private final InFlight<ISenseKey, IWord> wordsByKey;
+    private final InFlight<ISenseKey, ISenseEntry> senseEntries;
+
+    /**
+     * Constructs a new facade over the specified dictionary, which runs its
+     * lookups on the default executor.
+     *
+     * @param dict the dictionary; may not be <code>null</code>
+     * @throws NullPointerException if the dictionary is <code>null</code>
+     * @since JWI 2.4.1
+     */
+    public AsyncDictionary(@NonNull IDictionary dict)
+    {
+        this(dict, getDefaultExecutor());
+    }
+
+    /**
+     * Constructs a new facade over the specified dictionary, which runs its
+     * lookups on the specified executor.
+     *
+     * @param dict     the dictionary; may not be <code>null</code>
+     * @param executor the executor; may not be <code>null</code>
+     * @throws NullPointerException if either argument is <code>null</code>
+     * @since JWI 2.4.1
+     */
+    public AsyncDictionary(@Nullable IDictionary dict, @Nullable Executor executor)
+    {
+        if (dict == null)
+        {
+            throw new NullPointerException();
+        }
+        if (executor == null)
+        {
+            throw new NullPointerException();
+        }
+        this.dict = dict;
+        this.executor = executor;
+        this.synsets = new InFlight<>(dict::getSynset, Function.identity());
+        this.indexWords = new InFlight<>(dict::getIndexWord, Function.identity());
+        // word ids with a number and word ids with a lemma equal each other,
+        // though they may not designate the same word
+        this.wordsByID = new InFlight<>(dict::getWord, id -> Arrays.asList(id.getSynsetID(), id.getWordNumber(), id.getLemma()));
+        this.wordsByKey = new InFlight<>(dict::getWord, Function.identity());
+        this.senseEntries = new InFlight<>(dict::getSenseEntry, Function.identity());
+    }
+
+    /**
+     * Returns the dictionary that this facade looks items up in.
+     *
+     * @return the dictionary; will not be <code>null</code>
+     * @since JWI 2.4.1
+     */
+    @NonNull
+    public IDictionary getDictionary()
+    {
+        return dict;
+    }
+
+    /**
+     * Returns the executor that this facade runs its lookups on.
+     *
+     * @return the executor; will not be <code>null</code>
+     * @since JWI 2.4.1
+     */
+    @NonNull
+    public Executor getExecutor()
+    {
+        return executor;
+    }
+
+    /**
+     * Looks up the synset with the specified id, as
+     * {@link IDictionary#getSynset(ISynsetID)} does.
+     *
+     * @param id the id of the synset; may not be <code>null</code>
+     * @return a future of the synset, or of <code>null</code> if it is not
+     * found
+     * @throws NullPointerException if the id is <code>null</code>
+     * @since JWI 2.4.1
+     */
+    @NonNull
+    public CompletableFuture<ISynset> getSynset(ISynsetID id)
+    {
+        return synsets.get(id);
+    }
+
+    /**
+     * Looks up the synsets with the specified ids as a batch, as
+     * {@link IDictionary#getSynsets(Collection)} does. Batches are not merged
+     * with other lookups.
+     *
+     * @param ids the ids of the synsets; may not be <code>null</code>
+     * @return a future of the synsets, in the order of the ids
+     * @throws NullPointerException if the collection is <code>null</code>
+     * @since JWI 2.4.1
+     */
+    @NonNull
+    public CompletableFuture<List<ISynset>> getSynsets(@NonNull Collection<? extends ISynsetID> ids)
+    {
+        if (ids == null)
+        {
+            throw new NullPointerException();
+        }
+        return CompletableFuture.supplyAsync(() -> dict.getSynsets(ids), executor);
+    }
+
+    /**
+     * Looks up the index word with the specified id, as
+     * {@link IDictionary#getIndexWord(IIndexWordID)} does.
+     *
+     * @param id the id of the index word; may not be <code>null</code>
+     * @return a future of the index word, or of <code>null</code> if it is
+     * not found
+     * @throws NullPointerException if the id is <code>null</code>
+     * @since JWI 2.4.1
+     */
+    @NonNull
+    public CompletableFuture<IIndexWord> getIndexWord(IIndexWordID id)
+    {
+        return indexWords.get(id);
+    }
+
+    /**
+     * Looks up the index word with the specified lemma and part of speech, as
+     * {@link IDictionary#getIndexWord(String, POS)} does.
+     *
+     * @param lemma the lemma; may not be <code>null</code>, empty, or all
+     *              whitespace
+     * @param pos   the part of speech; may not be <code>null</code>
+     * @return a future of the index word, or of <code>null</code> if it is
+     * not found
+     * @throws NullPointerException     if either argument is <code>null</code>
+     * @throws IllegalArgumentException if the lemma is empty or all whitespace
+     * @since JWI 2.4.1
+     */
+    @NonNull
+    public CompletableFuture<IIndexWord> getIndexWord(String lemma, POS pos)
+    {
+        return indexWords.get(new IndexWordID(lemma, pos));
+    }
+
+    /**
+     * Looks up the word with the specified id, as
+     * {@link IDictionary#getWord(IWordID)} does.
+     *
+     * @param id the id of the word; may not be <code>null</code>
+     * @return a future of the word, or of <code>null</code> if it is not
+     * found
+     * @throws NullPointerException if the id is <code>null</code>
+     * @since JWI 2.4.1
+     */
+    @NonNull
+    public CompletableFuture<IWord> getWord(IWordID id)
+    {
+        return wordsByID.get(id);
+    }
+
+    /**
+     * Looks up the word with the specified sense key, as
+     * {@link IDictionary#getWord(ISenseKey)} does.
+     *
+     * @param key the sense key of the word; may not be <code>null</code>
+     * @return a future of the word, or of <code>null</code> if it is not
+     * found
+     * @throws NullPointerException if the key is <code>null</code>
+     * @since JWI 2.4.1
+     */
+    @NonNull
+    public CompletableFuture<IWord> getWord(ISenseKey key)
+    {
+        return wordsByKey.get(key);
+    }
+
+    /**
+     * Looks up the sense entry for the specified sense key, as
+     * {@link IDictionary#getSenseEntry(ISenseKey)} does.
+     *
+     * @param key the sense key of the entry; may not be <code>null</code>
+     * @return a future of the sense entry, or of <code>null</code> if it is
+     * not found
+     * @throws NullPointerException if the key is <code>null</code>
+     * @since JWI 2.4.1
+     */
+    @NonNull
+    public CompletableFuture<ISenseEntry> getSenseEntry(ISenseKey key)
+    {
+        return senseEntries.get(key);
+    }
+
+    /**
+     * Returns the number of lookups that are running or waiting for a thread.
+     *
+     * @return the number of lookups in flight
+     * @since JWI 2.4.1
+     */
+    public int getInFlightCount()
+    {
+        return synsets.running.size() + indexWords.running.size() + wordsByID.running.size() + wordsByKey.running.size() + senseEntries.running.size();
+    }
+
+    /**
+     * Returns the executor that facades constructed without one use. It runs
+     * each lookup on a new virtual thread when the platform has them (Java 21
+     * and later), and otherwise on a pool of daemon threads that grows as
+     * needed and lets threads go after a minute without work.
+     *
+     * @return the default executor
+     * @since JWI 2.4.1
+     */
+    @NonNull
+    public static synchronized Executor getDefaultExecutor()
+    {
+        if (defaultExecutor == null)
+        {
+            defaultExecutor = makeVirtualThreadExecutor();
+        }
+        if (defaultExecutor == null)
+        {
+            AtomicInteger count = new AtomicInteger();
+            defaultExecutor = Executors.newCachedThreadPool(r ->
+            {
+                Thread t = new Thread(r, "jwi-async-" + count.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            });
+        }
+        return defaultExecutor;
+    }
+
+    /**
+     * Makes an executor that runs each task on a new virtual thread, if the
+     * platform has them. The library is built for Java 8, so the executor is
+     * found by reflection.
+     *
+     * @return the executor, or <code>null</code> if the platform has no
+     * virtual threads
+     */
+    @Nullable
+    private static Executor makeVirtualThreadExecutor()
+    {
+        try
+        {
+            return (Executor) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        }
+        catch (ReflectiveOperationException | RuntimeException e)
+        {
+            return null;
+        }
+    }
+
+    /**
+     * The lookups of one kind that are in flight, by key.
+     *
+     * @param <K> the type of the keys
+     * @param <V> the type of the items looked up
+     */
+    private class InFlight<K, V>
+    {
+        @NonNull
+        private final Function<K, V> lookup;
+
+        // turns keys into keys that are equal only for the same lookup
+        @NonNull
+        private final Function<? super K, ?> exact;
+
+        private final ConcurrentMap<Object, CompletableFuture<V>> running = new ConcurrentHashMap<>();
+
+        /**
+         * Constructs a new table for lookups made with the specified function.
+         *
+         * @param lookup the lookup
+         * @param exact  turns keys into keys that are only equal if they make
+         *               the same lookup
+         */
+        public InFlight(@NonNull Function<K, V> lookup, @NonNull Function<? super K, ?> exact)
+        {
+            this.lookup = lookup;
+            this.exact = exact;
+        }
+
+        /**
+         * Returns a future of the item with the specified key, joining the
+         * lookup in flight for the key if there is one, and starting one
+         * otherwise.
+         *
+         * @param key the key; may not be <code>null</code>
+         * @return a future of the item, of the caller's own
+         * @throws NullPointerException if the key is <code>null</code>
+         */
+        @NonNull
+        public CompletableFuture<V> get(@Nullable K key)
+        {
+            if (key == null)
+            {
+                throw new NullPointerException();
+            }
+            Object k = exact.apply(key);
+            CompletableFuture<V> future = running.get(k);
+            if (future == null)
+            {
+                CompletableFuture<V> created = new CompletableFuture<>();
+                future = running.putIfAbsent(k, created);
+                if (future == null)
+                {
+                    future = created;
+                    start(key, k, created);
+                }
+            }
+            // a dependent future, so that cancelling it leaves the lookup be
+            return future.thenApply(Function.identity());
+        }
+
+        /**
+         * Starts the lookup of the item with the specified key, which
+         * completes the specified future.
+         *
+         * @param key    the key
+         * @param k      the exact key, under which the future is in flight
+         * @param future the future
+         */
+        private void start(@NonNull K key, @NonNull Object k, @NonNull CompletableFuture<V> future)
+        {
+            try
+            {
+                executor.execute(() ->
+                {
+                    try
+                    {
+                        V item = lookup.apply(key);
+                        running.remove(k, future);
+                        future.complete(item);
+                    }
+                    catch (Throwable e)
+                    {
+                        running.remove(k, future);
+                        future.completeExceptionally(e);
+                    }
+                });
+            }
+            catch (RejectedExecutionException e)
+            {
+                running.remove(k, future);
+                future.completeExceptionally(e);
+            }
+        }
+    }
+}
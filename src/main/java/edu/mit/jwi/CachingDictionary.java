@@ -10,18 +10,19 @@
 
 package edu.mit.jwi;
 
+import edu.mit.jwi.data.ContentType;
 import edu.mit.jwi.data.ContentTypeKey;
+import edu.mit.jwi.data.DataType;
+import edu.mit.jwi.data.IContentType;
 import edu.mit.jwi.data.compare.ILineComparator;
 import edu.mit.jwi.item.*;
 
 import java.io.IOException;
 import java.nio.charset.Charset;
-import java.util.Iterator;
-import java.util.LinkedHashMap;
-import java.util.Map;
-import java.util.Set;
+import java.util.*;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
 
 /**
  * A dictionary that caches the results of another dictionary
@@ -37,6 +38,8 @@ public class CachingDictionary implements ICachingDictionary
     private final IDictionary backing;
     @NonNull
     private final IItemCache cache;
+    @NonNull
+    private final MissCache missCache;
 
     /**
      * Constructs a new caching dictionary that caches the results of the
@@ -53,6 +56,7 @@ public class CachingDictionary implements ICachingDictionary
         }
         this.cache = createCache();
         this.backing = backing;
+        this.missCache = createMissCache();
     }
 
     /**
@@ -72,7 +76,8 @@ public class CachingDictionary implements ICachingDictionary
      * This operation creates the cache that is used by the dictionary. It is
      * set inside its own method for ease of subclassing. It is called only
      * when an instance of this class is created. It is marked protected for
-     * ease of subclassing.
+     * ease of subclassing. The default cache may be used by any number of
+     * threads at once (see {@link ConcurrentItemCache}).
      *
      * @return the item cache to be used by this dictionary
      * @since JWI 2.2.0
@@ -81,7 +86,62 @@ public class CachingDictionary implements ICachingDictionary
     @SuppressWarnings("WeakerAccess")
     protected IItemCache createCache()
     {
-        return new ItemCache();
+        return new ConcurrentItemCache();
+    }
+
+    /**
+     * This operation creates the cache of index words and exception entries
+     * that the backing dictionary does not have. It is called only when an
+     * instance of this class is created, after the backing dictionary is
+     * set. If the backing dictionary reads its data from a provider, the
+     * cache filters out absent keys with the files of that provider (see
+     * {@link MissCache}).
+     *
+     * @return the miss cache to be used by this dictionary
+     * @since JWI 2.4.1
+     */
+    @NonNull
+    @SuppressWarnings("WeakerAccess")
+    protected MissCache createMissCache()
+    {
+        IDictionary dict = getBackingDictionary();
+        return new MissCache(dict instanceof IDataSourceDictionary ? ((IDataSourceDictionary) dict).getDataProvider() : null);
+    }
+
+    /**
+     * Returns the cache of index words and exception entries that the
+     * backing dictionary does not have.
+     *
+     * @return the miss cache of this dictionary
+     * @since JWI 2.4.1
+     */
+    @NonNull
+    public MissCache getMissCache()
+    {
+        return missCache;
+    }
+
+    /**
+     * Returns the misses of the file of the specified type and part of
+     * speech.
+     *
+     * @param dataType the data type, either index or exception
+     * @param pos      the part of speech
+     * @return the misses of the file
+     */
+    @NonNull
+    private MissCache.Filter getMisses(@NonNull DataType<?> dataType, @NonNull POS pos)
+    {
+        IContentType<?> contentType = null;
+        if (backing instanceof IDataSourceDictionary)
+        {
+            contentType = ((IDataSourceDictionary) backing).getDataProvider().resolveContentType(dataType, pos);
+        }
+        if (contentType == null)
+        {
+            contentType = dataType == DataType.EXCEPTION ? ContentType.getExceptionContentType(pos) : ContentType.getIndexContentType(pos);
+        }
+        return missCache.getFilter(contentType);
     }
 
     /**
@@ -187,6 +247,7 @@ public class CachingDictionary implements ICachingDictionary
             return true;
         }
         cache.open();
+        missCache.clear();
         assert backing != null;
         return backing.open();
     }
@@ -214,6 +275,7 @@ public class CachingDictionary implements ICachingDictionary
             return;
         }
         getCache().close();
+        missCache.clear();
         assert backing != null;
         backing.close();
     }
@@ -243,12 +305,21 @@ public class CachingDictionary implements ICachingDictionary
         IIndexWord item = getCache().retrieveItem(id);
         if (item == null)
         {
+            MissCache.Filter filter = getMisses(DataType.INDEX, id.getPOS());
+            if (filter.isMiss(id.getLemma()))
+            {
+                return null;
+            }
             assert backing != null;
             item = backing.getIndexWord(id);
             if (item != null)
             {
                 getCache().cacheItem(item);
             }
+            else
+            {
+                filter.recordMiss(id.getLemma());
+            }
         }
         return item;
     }
@@ -265,16 +336,84 @@ public class CachingDictionary implements ICachingDictionary
         IIndexWord item = getCache().retrieveItem(id);
         if (item == null)
         {
+            MissCache.Filter filter = getMisses(DataType.INDEX, id.getPOS());
+            if (filter.isMiss(id.getLemma()))
+            {
+                return null;
+            }
             assert backing != null;
             item = backing.getIndexWord(id);
             if (item != null)
             {
                 getCache().cacheItem(item);
             }
+            else
+            {
+                filter.recordMiss(id.getLemma());
+            }
         }
         return item;
     }
 
+    /*
+     * (non-Javadoc)
+     *
+     * @see edu.mit.jwi.IDictionary#getIndexWords(java.util.Collection)
+     */
+    @NonNull
+    public List<IIndexWord> getIndexWords(@NonNull Collection<? extends IIndexWordID> ids)
+    {
+        checkOpen();
+        List<IIndexWord> result = new ArrayList<>(ids.size());
+        List<IIndexWordID> misses = new ArrayList<>();
+        List<MissCache.Filter> filters = new ArrayList<>();
+        boolean[] lookedUp = new boolean[ids.size()];
+        int i = 0;
+        for (IIndexWordID id : ids)
+        {
+            IIndexWord item = getCache().retrieveItem(id);
+            result.add(item);
+            if (item == null)
+            {
+                // known misses are left out of the lookup
+                MissCache.Filter filter = getMisses(DataType.INDEX, id.getPOS());
+                if (!filter.isMiss(id.getLemma()))
+                {
+                    misses.add(id);
+                    filters.add(filter);
+                    lookedUp[i] = true;
+                }
+            }
+            i++;
+        }
+        if (misses.isEmpty())
+        {
+            return result;
+        }
+
+        // look the misses up together, and put them in their places
+        assert backing != null;
+        Iterator<IIndexWord> found = backing.getIndexWords(misses).iterator();
+        for (int j = 0, k = 0; j < result.size(); j++)
+        {
+            if (lookedUp[j])
+            {
+                IIndexWord item = found.next();
+                if (item != null)
+                {
+                    getCache().cacheItem(item);
+                    result.set(j, item);
+                }
+                else
+                {
+                    filters.get(k).recordMiss(misses.get(k).getLemma());
+                }
+                k++;
+            }
+        }
+        return result;
+    }
+
     /*
      * (non-Javadoc)
      *
@@ -286,6 +425,17 @@ public class CachingDictionary implements ICachingDictionary
         return backing.getIndexWordIterator(pos);
     }
 
+    /*
+     * (non-Javadoc)
+     *
+     * @see edu.mit.jwi.IDictionary#getIndexWordStream(edu.edu.mit.jwi.item.POS)
+     */
+    public Stream<IIndexWord> getIndexWordStream(POS pos)
+    {
+        assert backing != null;
+        return backing.getIndexWordStream(pos);
+    }
+
     /*
      * (non-Javadoc)
      *
@@ -298,11 +448,19 @@ public class CachingDictionary implements ICachingDictionary
         IWord item = getCache().retrieveItem(id);
         if (item == null)
         {
+            // the words of a cached lazy synset may not have been cached yet
+            ISynset synset = getCache().retrieveItem(id.getSynsetID());
+            if (synset instanceof LazySynset)
+            {
+                item = findWord(synset, id);
+                cacheSynset(synset);
+                return item;
+            }
             assert backing != null;
             item = backing.getWord(id);
             if (item != null)
             {
-                Synset s = (Synset) item.getSynset();
+                ISynset s = item.getSynset();
                 assert s != null;
                 cacheSynset(s);
             }
@@ -310,6 +468,60 @@ public class CachingDictionary implements ICachingDictionary
         return item;
     }
 
+    /*
+     * (non-Javadoc)
+     *
+     * @see edu.mit.jwi.IDictionary#getWords(java.util.Collection)
+     */
+    @NonNull
+    public List<IWord> getWords(@NonNull Collection<? extends IWordID> ids)
+    {
+        checkOpen();
+        List<IWord> result = new ArrayList<>(ids.size());
+        List<IWordID> misses = new ArrayList<>();
+        BitSet missed = new BitSet();
+        for (IWordID id : ids)
+        {
+            IWord item = getCache().retrieveItem(id);
+            if (item == null)
+            {
+                // the words of a cached lazy synset may not have been cached yet
+                ISynset synset = getCache().retrieveItem(id.getSynsetID());
+                if (synset instanceof LazySynset)
+                {
+                    item = findWord(synset, id);
+                    cacheSynset(synset);
+                }
+                else
+                {
+                    missed.set(result.size());
+                    misses.add(id);
+                }
+            }
+            result.add(item);
+        }
+        if (misses.isEmpty())
+        {
+            return result;
+        }
+
+        // look the misses up together, and put them in their places
+        assert backing != null;
+        Iterator<IWord> found = backing.getWords(misses).iterator();
+        for (int i = missed.nextSetBit(0); i >= 0; i = missed.nextSetBit(i + 1))
+        {
+            IWord item = found.next();
+            if (item != null)
+            {
+                ISynset s = item.getSynset();
+                assert s != null;
+                cacheSynset(s);
+                result.set(i, item);
+            }
+        }
+        return result;
+    }
+
     /*
      * (non-Javadoc)
      *
@@ -326,7 +538,7 @@ public class CachingDictionary implements ICachingDictionary
             item = backing.getWord(key);
             if (item != null)
             {
-                Synset s = (Synset) item.getSynset();
+                ISynset s = item.getSynset();
                 assert s != null;
                 cacheSynset(s);
             }
@@ -356,8 +568,84 @@ public class CachingDictionary implements ICachingDictionary
         return item;
     }
 
+    /*
+     * (non-Javadoc)
+     *
+     * @see edu.mit.jwi.IDictionary#getSynsets(java.util.Collection)
+     */
+    @NonNull
+    public List<ISynset> getSynsets(@NonNull Collection<? extends ISynsetID> ids)
+    {
+        checkOpen();
+        List<ISynset> result = new ArrayList<>(ids.size());
+        List<ISynsetID> misses = new ArrayList<>();
+        for (ISynsetID id : ids)
+        {
+            ISynset item = getCache().retrieveItem(id);
+            result.add(item);
+            if (item == null)
+            {
+                misses.add(id);
+            }
+        }
+        if (misses.isEmpty())
+        {
+            return result;
+        }
+
+        // look the misses up together, and put them in their places
+        assert backing != null;
+        Iterator<ISynset> found = backing.getSynsets(misses).iterator();
+        for (int i = 0; i < result.size(); i++)
+        {
+            if (result.get(i) == null)
+            {
+                ISynset item = found.next();
+                if (item != null)
+                {
+                    cacheSynset(item);
+                    result.set(i, item);
+                }
+            }
+        }
+        return result;
+    }
+
     /**
-     * Caches the specified synset and its words.
+     * Returns the word of the specified synset that the specified id
+     * designates, by number or by lemma.
+     *
+     * @param synset the synset
+     * @param id     the word id
+     * @return the word, or <code>null</code> if there is none
+     * @throws IllegalArgumentException if the id has neither a word number
+     *                                  nor a lemma
+     */
+    @Nullable
+    private static IWord findWord(@NonNull ISynset synset, @NonNull IWordID id)
+    {
+        if (id.getWordNumber() > 0)
+        {
+            return synset.getWord(id.getWordNumber());
+        }
+        if (id.getLemma() == null)
+        {
+            throw new IllegalArgumentException("Not enough information in IWordID instance to retrieve word.");
+        }
+        for (IWord word : synset.getWords())
+        {
+            if (id.getLemma().equalsIgnoreCase(word.getLemma()))
+            {
+                return word;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Caches the specified synset and its words. The words of a
+     * {@link LazySynset} are only cached if they have been parsed already, so
+     * that caching the synset does not parse them.
      *
      * @param synset the synset to be cached; may not be <code>null</code>
      * @throws NullPointerException if the specified synset is <code>null</code>
@@ -368,6 +656,10 @@ public class CachingDictionary implements ICachingDictionary
     {
         IItemCache cache = getCache();
         cache.cacheItem(synset);
+        if (synset instanceof LazySynset && !((LazySynset) synset).hasWords())
+        {
+            return;
+        }
         for (IWord word : synset.getWords())
         {
             cache.cacheItem(word);
@@ -386,6 +678,17 @@ public class CachingDictionary implements ICachingDictionary
         return backing.getSynsetIterator(pos);
     }
 
+    /*
+     * (non-Javadoc)
+     *
+     * @see edu.mit.jwi.IDictionary#getSynsetStream(edu.edu.mit.jwi.item.POS)
+     */
+    public Stream<ISynset> getSynsetStream(POS pos)
+    {
+        assert backing != null;
+        return backing.getSynsetStream(pos);
+    }
+
     /*
      * (non-Javadoc)
      *
@@ -419,6 +722,17 @@ public class CachingDictionary implements ICachingDictionary
         return backing.getSenseEntryIterator();
     }
 
+    /*
+     * (non-Javadoc)
+     *
+     * @see edu.mit.jwi.IDictionary#getSenseEntryStream()
+     */
+    public Stream<ISenseEntry> getSenseEntryStream()
+    {
+        assert backing != null;
+        return backing.getSenseEntryStream();
+    }
+
     /*
      * (non-Javadoc)
      *
@@ -432,12 +746,21 @@ public class CachingDictionary implements ICachingDictionary
         IExceptionEntry item = getCache().retrieveItem(id);
         if (item == null)
         {
+            MissCache.Filter filter = getMisses(DataType.EXCEPTION, id.getPOS());
+            if (filter.isMiss(id.getSurfaceForm()))
+            {
+                return null;
+            }
             assert backing != null;
             item = backing.getExceptionEntry(id);
             if (item != null)
             {
                 getCache().cacheItem(item);
             }
+            else
+            {
+                filter.recordMiss(id.getSurfaceForm());
+            }
         }
         return item;
     }
@@ -454,12 +777,21 @@ public class CachingDictionary implements ICachingDictionary
         IExceptionEntry item = getCache().retrieveItem(id);
         if (item == null)
         {
+            MissCache.Filter filter = getMisses(DataType.EXCEPTION, id.getPOS());
+            if (filter.isMiss(id.getSurfaceForm()))
+            {
+                return null;
+            }
             assert backing != null;
             item = backing.getExceptionEntry(id);
             if (item != null)
             {
                 getCache().cacheItem(item);
             }
+            else
+            {
+                filter.recordMiss(id.getSurfaceForm());
+            }
         }
         return item;
     }
@@ -475,8 +807,21 @@ public class CachingDictionary implements ICachingDictionary
         return backing.getExceptionEntryIterator(pos);
     }
 
+    /*
+     * (non-Javadoc)
+     *
+     * @see edu.mit.jwi.IDictionary#getExceptionEntryStream(edu.edu.mit.jwi.item.POS)
+     */
+    public Stream<IExceptionEntry> getExceptionEntryStream(POS pos)
+    {
+        assert backing != null;
+        return backing.getExceptionEntryStream(pos);
+    }
+
     /**
-     * An LRU cache for objects in JWI.
+     * An LRU cache for objects in JWI. Even retrieving an item changes the
+     * order of its maps, so this cache must not be used by several threads at
+     * once; {@link ConcurrentItemCache} may be.
      *
      * @author Mark A. Finlayson
      * @version 2.4.0
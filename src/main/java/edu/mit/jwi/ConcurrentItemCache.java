@@ -0,0 +1,862 @@
+/* ******************************************************************************
+ * Java Wordnet Interface Library (JWI) v2.4.0
+ * Copyright (c) 2007-2015 Mark A. Finlayson
+ *
+ * JWI is distributed under the terms of the Creative Commons Attribution 4.0
+ * International Public License, which means it may be freely used for all
+ * purposes, as long as proper acknowledgment is made.  See the license file
+ * included with this distribution for more details.
+ *******************************************************************************/
+
+package edu.mit.jwi;
+
+import edu.mit.jwi.ICachingDictionary.IItemCache;
+import edu.mit.jwi.item.*;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * <p>
+ * A cache for objects in JWI that any number of threads may use at once. Each
+ * kind of item is held in a concurrent hash map, and evicted by the CLOCK
+ * algorithm, which approximates least-recently-used eviction: a hit only sets
+ * a flag on the entry, so that retrieving an item takes no lock and changes no
+ * shared structure. When a cache grows past its maximum capacity, the thread
+ * that cached the item sweeps the entries in the order they were cached,
+ * evicting the first whose flag is clear, and clearing the flags it passes.
+ * </p>
+ * <p>
+ * As with {@link CachingDictionary.ItemCache}, the maximum capacity applies to
+ * each kind of item separately: items by id, words by sense key, and sense
+ * entries. The cache may also be given a maximum weight, which bounds the
+ * estimated number of bytes held by all kinds of items together (see
+ * {@link ItemWeigher}). When the items weigh more than that, entries are
+ * evicted from whichever kind weighs the most, so that large items such as
+ * synsets make room before small ones such as sense entries do.
+ * </p>
+ *
+ * @author Mark A. Finlayson
+ * @version 2.4.0
+ * @since JWI 2.4.1
+ */
+public class ConcurrentItemCache implements IItemCache
+{
+    // default configuration
+    public static final int DEFAULT_INITIAL_CAPACITY = 16;
+    public static final int DEFAULT_MAXIMUM_CAPACITY = 512;
+
+    protected final Lock lifecycleLock = new ReentrantLock();
+
+    // held while evicting items to bring the weight under the maximum
+    private final Lock weightLock = new ReentrantLock();
+
+    private volatile boolean isEnabled = true;
+
+    private int initialCapacity;
+
+    private volatile int maximumCapacity;
+
+    private volatile long maximumWeight;
+
+    // the caches themselves
+    @Nullable
+    protected volatile CacheMap<IItemID<?>, IItem<?>> itemCache;
+    @Nullable
+    protected volatile CacheMap<ISenseKey, IWord> keyCache;
+    @Nullable
+    protected volatile CacheMap<ISenseKey, ISenseEntry> senseCache;
+
+    /**
+     * Constructs a new cache with the default initial and maximum capacities,
+     * with caching enabled.
+     *
+     * @since JWI 2.4.1
+     */
+    public ConcurrentItemCache()
+    {
+        this(DEFAULT_INITIAL_CAPACITY, DEFAULT_MAXIMUM_CAPACITY, true);
+    }
+
+    /**
+     * Constructs a new cache with the specified initial and maximum
+     * capacities, and initial state of caching.
+     *
+     * @param initialCapacity the initial capacity of the cache
+     * @param maxCapacity     the maximum capacity of the cache; if less than
+     *                        one, the cache size is unlimited
+     * @param enabled         whether the cache starts out enabled
+     * @since JWI 2.4.1
+     */
+    public ConcurrentItemCache(int initialCapacity, int maxCapacity, boolean enabled)
+    {
+        setInitialCapacity(initialCapacity);
+        setMaximumCapacity(maxCapacity);
+        setEnabled(enabled);
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see edu.edu.mit.jwi.data.IHasLifecycle#open()
+     */
+    public boolean open()
+    {
+        if (isOpen())
+        {
+            return true;
+        }
+        try
+        {
+            lifecycleLock.lock();
+            // another thread may have opened the cache in the meantime
+            if (!isOpen())
+            {
+                keyCache = makeCache(initialCapacity);
+                senseCache = makeCache(initialCapacity);
+                itemCache = makeCache(initialCapacity);
+            }
+        }
+        finally
+        {
+            lifecycleLock.unlock();
+        }
+        return true;
+    }
+
+    /**
+     * Creates a map that backs this cache. This implementation makes maps
+     * evicted by the CLOCK algorithm; subclasses override it to use another
+     * eviction policy.
+     *
+     * @param <K>             the key type
+     * @param <V>             the value type
+     * @param initialCapacity the initial capacity
+     * @return the new map
+     * @since JWI 2.4.1
+     */
+    @NonNull
+    protected <K, V> CacheMap<K, V> makeCache(int initialCapacity)
+    {
+        return new ClockCache<>(initialCapacity);
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see edu.edu.mit.jwi.data.IHasLifecycle#isOpen()
+     */
+    public boolean isOpen()
+    {
+        return itemCache != null;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see edu.edu.mit.jwi.data.IClosable#close()
+     */
+    public void close()
+    {
+        if (!isOpen())
+        {
+            return;
+        }
+        try
+        {
+            lifecycleLock.lock();
+            itemCache = null;
+            keyCache = null;
+            senseCache = null;
+        }
+        finally
+        {
+            lifecycleLock.unlock();
+        }
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see edu.mit.jwi.ICachingDictionary.IItemCache#clear()
+     */
+    public void clear()
+    {
+        CacheMap<?, ?> cache;
+        if ((cache = itemCache) != null)
+        {
+            cache.clear();
+        }
+        if ((cache = keyCache) != null)
+        {
+            cache.clear();
+        }
+        if ((cache = senseCache) != null)
+        {
+            cache.clear();
+        }
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see edu.mit.jwi.ICachingDictionary.IItemCache#isEnabled()
+     */
+    public boolean isEnabled()
+    {
+        return isEnabled;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see edu.mit.jwi.ICachingDictionary.IItemCache#setEnabled(boolean)
+     */
+    public void setEnabled(boolean isEnabled)
+    {
+        this.isEnabled = isEnabled;
+    }
+
+    /**
+     * Returns the initial capacity of this cache.
+     *
+     * @return the initial capacity of this cache.
+     * @since JWI 2.4.1
+     */
+    public int getInitialCapacity()
+    {
+        return initialCapacity;
+    }
+
+    /**
+     * Sets the initial capacity of the cache, which takes effect the next
+     * time the cache is opened.
+     *
+     * @param capacity the initial capacity
+     * @since JWI 2.4.1
+     */
+    public void setInitialCapacity(int capacity)
+    {
+        initialCapacity = capacity < 1 ? DEFAULT_INITIAL_CAPACITY : capacity;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see edu.mit.jwi.ICachingDictionary.IItemCache#getMaximumCapacity()
+     */
+    public int getMaximumCapacity()
+    {
+        return maximumCapacity;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see edu.mit.jwi.ICachingDictionary.IItemCache#setMaximumCapacity(int)
+     */
+    public void setMaximumCapacity(int capacity)
+    {
+        maximumCapacity = capacity;
+        CacheMap<?, ?> cache;
+        if ((cache = itemCache) != null)
+        {
+            cache.evict(capacity);
+        }
+        if ((cache = keyCache) != null)
+        {
+            cache.evict(capacity);
+        }
+        if ((cache = senseCache) != null)
+        {
+            cache.evict(capacity);
+        }
+    }
+
+    /**
+     * Returns the maximum weight of this cache, in estimated bytes.
+     *
+     * @return the maximum weight of this cache; if less than one, the weight
+     * of the cache is unlimited
+     * @since JWI 2.4.1
+     */
+    public long getMaximumWeight()
+    {
+        return maximumWeight;
+    }
+
+    /**
+     * Sets the maximum weight of this cache, in estimated bytes, shared by
+     * all kinds of items. If the items cached weigh more, entries are evicted
+     * right away. Items are not weighed while the weight of the cache is
+     * unlimited, so the entries cached until then are dropped when a maximum
+     * weight is first set.
+     *
+     * @param weight the maximum weight; if less than one, the weight of the
+     *               cache is unlimited, and only the maximum capacity bounds
+     *               it
+     * @since JWI 2.4.1
+     */
+    public void setMaximumWeight(long weight)
+    {
+        long old = maximumWeight;
+        maximumWeight = weight;
+        if (old < 1 && weight > 0)
+        {
+            clear();
+        }
+        evictByWeight();
+    }
+
+    /**
+     * Returns the estimated number of bytes held by the items in this cache.
+     * Items are only weighed while the cache has a maximum weight; this is
+     * <code>0</code> if it has none.
+     *
+     * @return the estimated number of bytes held by the items in this cache
+     * @throws ObjectClosedException if this cache is closed
+     * @since JWI 2.4.1
+     */
+    public long getWeight()
+    {
+        return getCache(itemCache).getWeight() + getCache(keyCache).getWeight() + getCache(senseCache).getWeight();
+    }
+
+    /**
+     * Returns the weight of the specified item, as counted against the
+     * maximum weight of this cache. This implementation uses the estimates of
+     * {@link ItemWeigher}; subclasses may override it to weigh items
+     * otherwise.
+     *
+     * @param item the item
+     * @return the weight of the item, not negative
+     * @since JWI 2.4.1
+     */
+    protected int weigh(@NonNull Object item)
+    {
+        return ItemWeigher.weigh(item);
+    }
+
+    /**
+     * Returns the weight of the specified item, or <code>0</code> without
+     * weighing it if the weight of this cache is unlimited.
+     *
+     * @param item the item
+     * @return the weight of the item, not negative
+     */
+    private int weightOf(@NonNull Object item)
+    {
+        return maximumWeight < 1 ? 0 : weigh(item);
+    }
+
+    /**
+     * Evicts entries from whichever kind of item weighs the most, until the
+     * items weigh no more than the maximum weight.
+     */
+    private void evictByWeight()
+    {
+        long max = maximumWeight;
+        CacheMap<?, ?> items = itemCache, keys = keyCache, senses = senseCache;
+        if (max < 1 || items == null || keys == null || senses == null)
+        {
+            return;
+        }
+        if (items.getWeight() + keys.getWeight() + senses.getWeight() <= max)
+        {
+            return;
+        }
+        try
+        {
+            weightLock.lock();
+            while (items.getWeight() + keys.getWeight() + senses.getWeight() > max)
+            {
+                CacheMap<?, ?> heaviest = items;
+                if (keys.getWeight() > heaviest.getWeight())
+                {
+                    heaviest = keys;
+                }
+                if (senses.getWeight() > heaviest.getWeight())
+                {
+                    heaviest = senses;
+                }
+                if (!heaviest.evictOne())
+                {
+                    break;
+                }
+            }
+        }
+        finally
+        {
+            weightLock.unlock();
+        }
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see edu.mit.jwi.ICachingDictionary.IItemCache#size()
+     */
+    public int size()
+    {
+        return getCache(itemCache).size() + getCache(keyCache).size() + getCache(senseCache).size();
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see edu.mit.jwi.ICachingDictionary.IItemCache#cacheItem(edu.edu.mit.jwi.item.IItem)
+     */
+    public void cacheItem(@NonNull IItem<?> item)
+    {
+        CacheMap<IItemID<?>, IItem<?>> cache = getCache(itemCache);
+        if (!isEnabled())
+        {
+            return;
+        }
+        IItemID<?> id = item.getID();
+        assert id != null;
+        cache.put(id, item, weightOf(item), maximumCapacity);
+        evictByWeight();
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see edu.mit.jwi.ICachingDictionary.IItemCache#cacheWordByKey(edu.edu.mit.jwi.item.IWord)
+     */
+    public void cacheWordByKey(@NonNull IWord word)
+    {
+        CacheMap<ISenseKey, IWord> cache = getCache(keyCache);
+        if (!isEnabled())
+        {
+            return;
+        }
+        cache.put(word.getSenseKey(), word, weightOf(word), maximumCapacity);
+        evictByWeight();
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see edu.mit.jwi.ICachingDictionary.IItemCache#cacheSenseEntry(edu.edu.mit.jwi.item.ISenseEntry)
+     */
+    public void cacheSenseEntry(@NonNull ISenseEntry entry)
+    {
+        CacheMap<ISenseKey, ISenseEntry> cache = getCache(senseCache);
+        if (!isEnabled())
+        {
+            return;
+        }
+        ISenseKey sk = entry.getSenseKey();
+        assert sk != null;
+        cache.put(sk, entry, weightOf(entry), maximumCapacity);
+        evictByWeight();
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see edu.mit.jwi.ICachingDictionary.IItemCache#retrieveItem(edu.edu.mit.jwi.item.IItemID)
+     */
+    @Nullable
+    public <T extends IItem<D>, D extends IItemID<T>> T retrieveItem(D id)
+    {
+        // items are only cached under their own ids
+        @SuppressWarnings("unchecked") T item = (T) getCache(itemCache).get(id);
+        return item;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see edu.mit.jwi.ICachingDictionary.IItemCache#retrieveWord(edu.edu.mit.jwi.item.ISenseKey)
+     */
+    @Nullable
+    public IWord retrieveWord(ISenseKey key)
+    {
+        return getCache(keyCache).get(key);
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see edu.mit.jwi.ICachingDictionary.IItemCache#retrieveSenseEntry(edu.edu.mit.jwi.item.ISenseKey)
+     */
+    @Nullable
+    public ISenseEntry retrieveSenseEntry(ISenseKey key)
+    {
+        return getCache(senseCache).get(key);
+    }
+
+    /**
+     * Returns the specified cache, read once from its field, if this cache is
+     * open.
+     *
+     * @param cache the cache
+     * @return the cache
+     * @throws ObjectClosedException if this cache is closed
+     */
+    @NonNull
+    private static <K, V> CacheMap<K, V> getCache(@Nullable CacheMap<K, V> cache)
+    {
+        if (cache == null)
+        {
+            throw new ObjectClosedException();
+        }
+        return cache;
+    }
+
+    /**
+     * A map of cached items of one kind, which evicts items by its own
+     * policy. Implementations must allow any number of threads to use them at
+     * once.
+     *
+     * @param <K> the key type
+     * @param <V> the value type
+     * @author Mark A. Finlayson
+     * @version 2.4.0
+     * @since JWI 2.4.1
+     */
+    protected static abstract class CacheMap<K, V>
+    {
+        private final AtomicLong weight = new AtomicLong();
+
+        /**
+         * Returns the item cached under the specified key, and records the
+         * use of the item.
+         *
+         * @param key the key
+         * @return the item, or <code>null</code> if none is cached under the
+         * key
+         * @throws NullPointerException if the key is <code>null</code>
+         * @since JWI 2.4.1
+         */
+        @Nullable
+        public abstract V get(K key);
+
+        /**
+         * Caches the specified item under the specified key, then evicts
+         * items until no more than the specified number are left.
+         *
+         * @param key      the key
+         * @param value    the item
+         * @param weight   the weight of the item
+         * @param capacity the maximum number of items; if less than one,
+         *                 nothing is evicted
+         * @throws NullPointerException if the key or item is <code>null</code>
+         * @since JWI 2.4.1
+         */
+        public abstract void put(K key, V value, int weight, int capacity);
+
+        /**
+         * Evicts items until no more than the specified number are left.
+         *
+         * @param capacity the maximum number of items; if less than one,
+         *                 nothing is evicted
+         * @since JWI 2.4.1
+         */
+        public abstract void evict(int capacity);
+
+        /**
+         * Evicts the item that the policy of this map would evict next.
+         *
+         * @return <code>true</code> if an item was evicted;
+         * <code>false</code> if the map is empty
+         * @since JWI 2.4.1
+         */
+        public abstract boolean evictOne();
+
+        /**
+         * Returns the total weight of the items cached.
+         *
+         * @return the total weight of the items cached
+         * @since JWI 2.4.1
+         */
+        public long getWeight()
+        {
+            return weight.get();
+        }
+
+        /**
+         * Adds the specified amount to the total weight of the items cached.
+         * Implementations call this as items come and go.
+         *
+         * @param delta the amount to add; negative when items are removed
+         * @since JWI 2.4.1
+         */
+        protected void addWeight(long delta)
+        {
+            weight.addAndGet(delta);
+        }
+
+        /**
+         * Returns the number of items cached.
+         *
+         * @return the number of items cached
+         * @since JWI 2.4.1
+         */
+        public abstract int size();
+
+        /**
+         * Removes all items.
+         *
+         * @since JWI 2.4.1
+         */
+        public abstract void clear();
+    }
+
+    /**
+     * A map of cached items evicted by the CLOCK algorithm. Lookups take no
+     * lock; caching an item takes a lock only when the map is over capacity.
+     *
+     * @param <K> the key type
+     * @param <V> the value type
+     * @author Mark A. Finlayson
+     * @version 2.4.0
+     * @since JWI 2.4.1
+     */
+    protected static class ClockCache<K, V> extends CacheMap<K, V>
+    {
+        @NonNull
+        private final ConcurrentMap<K, Node<K, V>> map;
+
+        // the entries in the order the clock hand visits them
+        private final Queue<Node<K, V>> clock = new ConcurrentLinkedQueue<>();
+
+        private final Lock evictionLock = new ReentrantLock();
+
+        /**
+         * Constructs a new, empty map with the specified initial capacity.
+         *
+         * @param initialCapacity the initial capacity
+         * @since JWI 2.4.1
+         */
+        public ClockCache(int initialCapacity)
+        {
+            this.map = new ConcurrentHashMap<>(initialCapacity);
+        }
+
+        /**
+         * Returns the item cached under the specified key, and marks it as
+         * used, so that the next sweep of the clock hand passes it by.
+         *
+         * @param key the key
+         * @return the item, or <code>null</code> if none is cached under the
+         * key
+         * @throws NullPointerException if the key is <code>null</code>
+         * @since JWI 2.4.1
+         */
+        @Nullable
+        public V get(K key)
+        {
+            Node<K, V> node = map.get(key);
+            if (node == null)
+            {
+                return null;
+            }
+            // only write when needed, to keep the entry's cache line shared
+            if (!node.referenced)
+            {
+                node.referenced = true;
+            }
+            return node.value;
+        }
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see edu.mit.jwi.ConcurrentItemCache.CacheMap#put(java.lang.Object, java.lang.Object, int, int)
+         */
+        public void put(K key, V value, int weight, int capacity)
+        {
+            Node<K, V> node = new Node<>(key, value, weight);
+            // counted before the entry can be seen, so that it is never
+            // subtracted first
+            addWeight(weight);
+            Node<K, V> old = map.putIfAbsent(key, node);
+            if (old != null)
+            {
+                addWeight(-weight);
+                if (old.weight != weight)
+                {
+                    reweigh(key, old, weight);
+                }
+                old.value = value;
+                old.referenced = true;
+                return;
+            }
+            clock.offer(node);
+            evict(capacity);
+        }
+
+        /**
+         * Changes the weight of the specified entry, unless it was evicted.
+         *
+         * @param key    the key of the entry
+         * @param node   the entry
+         * @param weight the new weight
+         */
+        private void reweigh(K key, @NonNull Node<K, V> node, int weight)
+        {
+            try
+            {
+                evictionLock.lock();
+                if (map.get(key) == node)
+                {
+                    addWeight(weight - node.weight);
+                    node.weight = weight;
+                }
+            }
+            finally
+            {
+                evictionLock.unlock();
+            }
+        }
+
+        /**
+         * Evicts items until no more than the specified number are left.
+         * Items used since the clock hand last passed them get another
+         * round.
+         *
+         * @param capacity the maximum number of items; if less than one,
+         *                 nothing is evicted
+         * @since JWI 2.4.1
+         */
+        public void evict(int capacity)
+        {
+            if (capacity < 1 || map.size() <= capacity)
+            {
+                return;
+            }
+            try
+            {
+                evictionLock.lock();
+                while (map.size() > capacity)
+                {
+                    if (!evictNext())
+                    {
+                        break;
+                    }
+                }
+            }
+            finally
+            {
+                evictionLock.unlock();
+            }
+        }
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see edu.mit.jwi.ConcurrentItemCache.CacheMap#evictOne()
+         */
+        public boolean evictOne()
+        {
+            try
+            {
+                evictionLock.lock();
+                return evictNext();
+            }
+            finally
+            {
+                evictionLock.unlock();
+            }
+        }
+
+        /**
+         * Moves the clock hand to the next entry not used since the hand last
+         * passed it, and evicts it. Must be called under the eviction lock.
+         *
+         * @return <code>true</code> if an entry was evicted;
+         * <code>false</code> if there are none left
+         */
+        private boolean evictNext()
+        {
+            Node<K, V> node;
+            while ((node = clock.poll()) != null)
+            {
+                if (node.referenced)
+                {
+                    node.referenced = false;
+                    clock.offer(node);
+                }
+                // entries already cleared are dropped from the clock
+                else if (map.remove(node.key, node))
+                {
+                    addWeight(-node.weight);
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see edu.mit.jwi.ConcurrentItemCache.CacheMap#size()
+         */
+        public int size()
+        {
+            return map.size();
+        }
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see edu.mit.jwi.ConcurrentItemCache.CacheMap#clear()
+         */
+        public void clear()
+        {
+            try
+            {
+                evictionLock.lock();
+                // cleared first, so that entries cached meanwhile and left
+                // in the map are still on the clock
+                clock.clear();
+                for (Node<K, V> node : map.values())
+                {
+                    if (map.remove(node.key, node))
+                    {
+                        addWeight(-node.weight);
+                    }
+                }
+            }
+            finally
+            {
+                evictionLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * An entry of a {@link ClockCache}.
+     *
+     * @param <K> the key type
+     * @param <V> the value type
+     */
+    private static final class Node<K, V>
+    {
+        @NonNull
+        final K key;
+        @NonNull
+        volatile V value;
+
+        // set on each hit, cleared as the clock hand passes
+        volatile boolean referenced;
+
+        // changed under the eviction lock
+        volatile int weight;
+
+        Node(@NonNull K key, @NonNull V value, int weight)
+        {
+            this.key = key;
+            this.value = value;
+            this.weight = weight;
+        }
+    }
+}
@@ -7,6 +7,9 @@ import java.nio.charset.Charset;
 public class Config
 {
     public Boolean checkLexicalId;
+    public Boolean indexLines;
+    public Boolean hashIndexes;
+    public Boolean unmapOnClose;
 
     public String indexSensePattern;
     public ILineComparator indexNounComparator;
@@ -11,13 +11,21 @@
 package edu.mit.jwi;
 
 import edu.mit.jwi.data.*;
+import edu.mit.jwi.data.FileProvider.Snapshot;
+import edu.mit.jwi.data.compare.ByteLines;
 import edu.mit.jwi.data.compare.ILineComparator;
+import edu.mit.jwi.data.parse.IByteLineParser;
 import edu.mit.jwi.data.parse.ILineParser;
 import edu.mit.jwi.item.*;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
 import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Basic implementation of the {@code IDictionary} interface. A path to the
@@ -40,6 +48,35 @@ public class DataSourceDictionary implements IDataSourceDictionary
         return t;
     }
 
+    // whether parsers of a class parse bytes as they parse strings: not if
+    // the class overrides the string parsing only
+    private static final ClassValue<Boolean> parsesBytes = new ClassValue<Boolean>()
+    {
+        @NonNull
+        protected Boolean computeValue(@NonNull Class<?> type)
+        {
+            return !ByteLines.overridesStringOnly(type, "parseLine", new Class<?>[]{String.class}, "parseLine", new Class<?>[]{ByteBuffer.class, Charset.class});
+        }
+    };
+
+    // whether file iterators of a class take their string parsing from this
+    // class, rather than override it
+    private static final ClassValue<Boolean> iteratesBytes = new ClassValue<Boolean>()
+    {
+        @NonNull
+        protected Boolean computeValue(@NonNull Class<?> type)
+        {
+            try
+            {
+                return type.getMethod("parseLine", String.class).getDeclaringClass().getEnclosingClass() == DataSourceDictionary.class;
+            }
+            catch (NoSuchMethodException e)
+            {
+                return false;
+            }
+        }
+    };
+
     @Nullable
     private final IDataProvider provider;
 
@@ -190,18 +227,65 @@ public class DataSourceDictionary implements IDataSourceDictionary
     {
         checkOpen();
         IContentType<IIndexWord> content = provider.resolveContentType(DataType.INDEX, id.getPOS());
-        IDataSource<?> file = provider.getSource(content);
-        assert file != null;
-        String line = file.getLine(id.getLemma());
-        if (line == null)
+        Snapshot sources = pin();
+        try
         {
-            return null;
+            IDataSource<?> file = getSource(sources, content);
+            assert file != null;
+            assert content != null;
+            IDataType<IIndexWord> dataType = content.getDataType();
+            ILineParser<IIndexWord> parser = dataType.getParser();
+            assert parser != null;
+            return lookup(file, id.getLemma(), parser);
         }
-        assert content != null;
-        IDataType<IIndexWord> dataType = content.getDataType();
-        ILineParser<IIndexWord> parser = dataType.getParser();
-        assert parser != null;
-        return parser.parseLine(line);
+        finally
+        {
+            unpin(sources);
+        }
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see edu.mit.jwi.IDictionary#getIndexWords(java.util.Collection)
+     */
+    @NonNull
+    public List<IIndexWord> getIndexWords(@NonNull Collection<? extends IIndexWordID> ids)
+    {
+        checkOpen();
+        IIndexWordID[] requested = ids.toArray(new IIndexWordID[0]);
+        IIndexWord[] result = new IIndexWord[requested.length];
+        IDataSource<?> file = null;
+        ILineParser<IIndexWord> parser = null;
+        POS pos = null;
+        int last = -1;
+        Snapshot sources = pin();
+        try
+        {
+            for (int i : sortedOrder(requested, Comparator.comparing(IIndexWordID::getPOS).thenComparing(IIndexWordID::getLemma)))
+            {
+                IIndexWordID id = requested[i];
+                if (last != -1 && id.equals(requested[last]))
+                {
+                    result[i] = result[last];
+                    continue;
+                }
+                if (id.getPOS() != pos)
+                {
+                    pos = id.getPOS();
+                    IContentType<IIndexWord> content = requireNonNull(provider.resolveContentType(DataType.INDEX, pos));
+                    file = requireNonNull(getSource(sources, content));
+                    parser = requireNonNull(content.getDataType().getParser());
+                }
+                result[i] = lookup(file, id.getLemma(), parser);
+                last = i;
+            }
+        }
+        finally
+        {
+            unpin(sources);
+        }
+        return Arrays.asList(result);
     }
 
     @NonNull
@@ -233,34 +317,42 @@ public class DataSourceDictionary implements IDataSourceDictionary
         ILineParser<IIndexWord> parser = dataType.getParser();
         assert parser != null;
 
-        IDataSource<?> file = provider.getSource(content);
-        assert file != null;
-
-        boolean found = false;
-        Iterator<String> lines = file.iterator(start);
-        while (lines.hasNext())
+        Snapshot sources = pin();
+        try
         {
-            String line = lines.next();
-            if (line != null)
+            IDataSource<?> file = getSource(sources, content);
+            assert file != null;
+
+            boolean found = false;
+            Iterator<String> lines = file.iterator(start);
+            while (lines.hasNext())
             {
-                boolean match = line.startsWith(start);
-                if (match)
-                {
-                    IIndexWord index = parser.parseLine(line);
-                    String lemma = index.getLemma();
-                    result.add(lemma);
-                    found = true;
-                }
-                else if (found)
+                String line = lines.next();
+                if (line != null)
                 {
-                    break;
-                }
-                if (limit > 0 && result.size() >= limit)
-                {
-                    break;
+                    boolean match = line.startsWith(start);
+                    if (match)
+                    {
+                        IIndexWord index = parser.parseLine(line);
+                        String lemma = index.getLemma();
+                        result.add(lemma);
+                        found = true;
+                    }
+                    else if (found)
+                    {
+                        break;
+                    }
+                    if (limit > 0 && result.size() >= limit)
+                    {
+                        break;
+                    }
                 }
             }
         }
+        finally
+        {
+            unpin(sources);
+        }
         return result;
     }
 
@@ -276,11 +368,48 @@ public class DataSourceDictionary implements IDataSourceDictionary
         ISynsetID sid = id.getSynsetID();
         assert sid != null;
         ISynset synset = getSynset(sid);
-        if (synset == null)
+        return synset == null ? null : findWord(synset, id);
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see edu.mit.jwi.IDictionary#getWords(java.util.Collection)
+     */
+    @NonNull
+    public List<IWord> getWords(@NonNull Collection<? extends IWordID> ids)
+    {
+        checkOpen();
+        List<ISynsetID> sids = new ArrayList<>(ids.size());
+        for (IWordID id : ids)
         {
-            return null;
+            sids.add(requireNonNull(id.getSynsetID()));
+        }
+        List<ISynset> synsets = getSynsets(sids);
+        IWord[] result = new IWord[synsets.size()];
+        int i = 0;
+        for (IWordID id : ids)
+        {
+            ISynset synset = synsets.get(i);
+            result[i++] = synset == null ? null : findWord(synset, id);
         }
+        return Arrays.asList(result);
+    }
 
+    /**
+     * Returns the word of the specified synset that the specified id
+     * designates.
+     *
+     * @param synset the synset of the word
+     * @param id     the word id
+     * @return the word, or <code>null</code> if the synset has no word with
+     * the lemma of the id
+     * @throws IllegalArgumentException if the id has neither a word number
+     *                                  nor a lemma
+     */
+    @Nullable
+    private static IWord findWord(@NonNull ISynset synset, @NonNull IWordID id)
+    {
         // One or the other of the WordID number or lemma may not exist,
         // depending on whence the word id came, so we have to check
         // them before trying.
@@ -384,18 +513,21 @@ public class DataSourceDictionary implements IDataSourceDictionary
     {
         checkOpen();
         IContentType<ISenseEntry> content = provider.resolveContentType(DataType.SENSE, null);
-        IDataSource<ISenseEntry> file = provider.getSource(content);
-        assert file != null;
-        String line = file.getLine(key.toString());
-        if (line == null)
+        Snapshot sources = pin();
+        try
         {
-            return null;
+            IDataSource<ISenseEntry> file = getSource(sources, content);
+            assert file != null;
+            assert content != null;
+            IDataType<ISenseEntry> dataType = content.getDataType();
+            ILineParser<ISenseEntry> parser = dataType.getParser();
+            assert parser != null;
+            return lookup(file, key.toString(), parser);
+        }
+        finally
+        {
+            unpin(sources);
         }
-        assert content != null;
-        IDataType<ISenseEntry> dataType = content.getDataType();
-        ILineParser<ISenseEntry> parser = dataType.getParser();
-        assert parser != null;
-        return parser.parseLine(line);
     }
 
     /*
@@ -408,9 +540,18 @@ public class DataSourceDictionary implements IDataSourceDictionary
     {
         checkOpen();
         IContentType<ISenseEntry[]> content = provider.resolveContentType(DataType.SENSES, null);
-        IDataSource<ISenseEntry[]> file = provider.getSource(content);
-        assert file != null;
-        String line = file.getLine(key.toString());
+        String line;
+        Snapshot sources = pin();
+        try
+        {
+            IDataSource<ISenseEntry[]> file = getSource(sources, content);
+            assert file != null;
+            line = file.getLine(key.toString());
+        }
+        finally
+        {
+            unpin(sources);
+        }
         if (line == null)
         {
             return null;
@@ -432,19 +573,23 @@ public class DataSourceDictionary implements IDataSourceDictionary
     {
         checkOpen();
         IContentType<ISynset> content = provider.resolveContentType(DataType.DATA, id.getPOS());
-        IDataSource<ISynset> file = provider.getSource(content);
         String zeroFilledOffset = Synset.zeroFillOffset(id.getOffset());
-        assert file != null;
-        String line = file.getLine(zeroFilledOffset);
-        if (line == null)
-        {
-            return null;
-        }
         assert content != null;
         IDataType<ISynset> dataType = content.getDataType();
         ILineParser<ISynset> parser = dataType.getParser();
         assert parser != null;
-        ISynset result = parser.parseLine(line);
+        ISynset result;
+        Snapshot sources = pin();
+        try
+        {
+            IDataSource<ISynset> file = getSource(sources, content);
+            assert file != null;
+            result = lookup(file, zeroFilledOffset, parser);
+        }
+        finally
+        {
+            unpin(sources);
+        }
         if (result != null)
         {
             setHeadWord(result);
@@ -452,6 +597,162 @@ public class DataSourceDictionary implements IDataSourceDictionary
         return result;
     }
 
+    /*
+     * (non-Javadoc)
+     *
+     * @see edu.mit.jwi.IDictionary#getSynsets(java.util.Collection)
+     */
+    @NonNull
+    public List<ISynset> getSynsets(@NonNull Collection<? extends ISynsetID> ids)
+    {
+        checkOpen();
+        ISynsetID[] requested = ids.toArray(new ISynsetID[0]);
+        ISynset[] result = new ISynset[requested.length];
+        IDataSource<ISynset> file = null;
+        ILineParser<ISynset> parser = null;
+        POS pos = null;
+        int last = -1;
+        Snapshot sources = pin();
+        try
+        {
+            for (int i : sortedOrder(requested, Comparator.comparing(ISynsetID::getPOS).thenComparingInt(ISynsetID::getOffset)))
+            {
+                ISynsetID id = requested[i];
+                if (last != -1 && id.equals(requested[last]))
+                {
+                    result[i] = result[last];
+                    continue;
+                }
+                if (id.getPOS() != pos)
+                {
+                    pos = id.getPOS();
+                    IContentType<ISynset> content = requireNonNull(provider.resolveContentType(DataType.DATA, pos));
+                    file = requireNonNull(getSource(sources, content));
+                    parser = requireNonNull(content.getDataType().getParser());
+                }
+                result[i] = lookup(file, Synset.zeroFillOffset(id.getOffset()), parser);
+                if (result[i] != null)
+                {
+                    setHeadWord(result[i]);
+                }
+                last = i;
+            }
+        }
+        finally
+        {
+            unpin(sources);
+        }
+        return Arrays.asList(result);
+    }
+
+    /**
+     * Returns the indexes of the specified items, in the order the specified
+     * comparator puts the items in. Equal items keep their order.
+     *
+     * @param items      the items; may not contain <code>null</code>
+     * @param comparator the comparator
+     * @param <T>        the type of the items
+     * @return the indexes of the items, sorted
+     * @throws NullPointerException if an item is <code>null</code>
+     */
+    @NonNull
+    private static <T> Integer[] sortedOrder(@NonNull T[] items, @NonNull Comparator<? super T> comparator)
+    {
+        Integer[] order = new Integer[items.length];
+        for (int i = 0; i < items.length; i++)
+        {
+            requireNonNull(items[i]);
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> comparator.compare(items[a], items[b]));
+        return order;
+    }
+
+    /**
+     * Pins the sources of the provider for a lookup on the calling thread, if
+     * the provider can replace them while it is open (see
+     * {@link FileProvider#pin()}).
+     *
+     * @return the pinned sources, or <code>null</code> if the sources of the
+     * provider are not pinned
+     */
+    @Nullable
+    private Snapshot pin()
+    {
+        return provider instanceof FileProvider ? ((FileProvider) provider).pin() : null;
+    }
+
+    /**
+     * Unpins the specified sources, if any.
+     *
+     * @param sources the sources pinned by {@link #pin()}; may be
+     *                <code>null</code>
+     */
+    private static void unpin(@Nullable Snapshot sources)
+    {
+        if (sources != null)
+        {
+            sources.unpin();
+        }
+    }
+
+    /**
+     * Returns the source of the specified content type from the specified
+     * pinned sources, or from the provider if they are not pinned.
+     *
+     * @param sources the sources pinned by {@link #pin()}; may be
+     *                <code>null</code>
+     * @param content the content type
+     * @param <T>     the type of the content
+     * @return the source, or <code>null</code> if there is none
+     */
+    @Nullable
+    private <T> IDataSource<T> getSource(@Nullable Snapshot sources, @NonNull IContentType<T> content)
+    {
+        assert provider != null;
+        return sources != null ? sources.getSource(content) : provider.getSource(content);
+    }
+
+    /**
+     * Returns whether lines of the specified file may be parsed from their
+     * bytes with the specified parser: the file and the parser must both work
+     * on bytes, and the class of the parser must not override the parsing of
+     * strings only, which the parsing of bytes would then bypass.
+     *
+     * @param file   the file; may not be <code>null</code>
+     * @param parser the parser; may be <code>null</code>
+     * @return <code>true</code> if the lines may be parsed from bytes;
+     * <code>false</code> if they must be decoded and parsed as strings
+     */
+    private static boolean parsesBytes(@NonNull IDataSource<?> file, @Nullable ILineParser<?> parser)
+    {
+        return file instanceof IByteLineSource && parser instanceof IByteLineParser && parsesBytes.get(parser.getClass());
+    }
+
+    /**
+     * Finds the line indexed by the specified key in the specified file, and
+     * parses it. When both the file and the parser work on bytes, the line is
+     * parsed where it lies in the file, without being decoded first.
+     *
+     * @param file   the file; may not be <code>null</code>
+     * @param key    the key of the line; may not be <code>null</code>
+     * @param parser the parser; may not be <code>null</code>
+     * @param <T>    the type of object the parser produces
+     * @return the parsed line, or <code>null</code> if there is no line for
+     * the key
+     */
+    @Nullable
+    @SuppressWarnings("unchecked")
+    private static <T> T lookup(@NonNull IDataSource<?> file, @NonNull String key, @NonNull ILineParser<T> parser)
+    {
+        if (parsesBytes(file, parser))
+        {
+            return ((IByteLineSource) file).parseLine(key, (IByteLineParser<T>) parser);
+        }
+        String line = file.getLine(key);
+        return line == null ? null : parser.parseLine(line);
+    }
+
     /**
      * This method sets the head word on the specified synset by searching in
      * the dictionary to find the head of its cluster. We will assume the head
@@ -533,22 +834,26 @@ public class DataSourceDictionary implements IDataSourceDictionary
     {
         checkOpen();
         IContentType<IExceptionEntryProxy> content = provider.resolveContentType(DataType.EXCEPTION, id.getPOS());
-        IDataSource<IExceptionEntryProxy> file = provider.getSource(content);
-        // fix for bug 010
-        if (file == null)
+        IExceptionEntryProxy proxy;
+        Snapshot sources = pin();
+        try
         {
-            return null;
+            IDataSource<IExceptionEntryProxy> file = getSource(sources, content);
+            // fix for bug 010
+            if (file == null)
+            {
+                return null;
+            }
+            assert content != null;
+            IDataType<IExceptionEntryProxy> dataType = content.getDataType();
+            ILineParser<IExceptionEntryProxy> parser = dataType.getParser();
+            assert parser != null;
+            proxy = lookup(file, id.getSurfaceForm(), parser);
         }
-        String line = file.getLine(id.getSurfaceForm());
-        if (line == null)
+        finally
         {
-            return null;
+            unpin(sources);
         }
-        assert content != null;
-        IDataType<IExceptionEntryProxy> dataType = content.getDataType();
-        ILineParser<IExceptionEntryProxy> parser = dataType.getParser();
-        assert parser != null;
-        IExceptionEntryProxy proxy = parser.parseLine(line);
         if (proxy == null)
         {
             return null;
@@ -604,6 +909,205 @@ public class DataSourceDictionary implements IDataSourceDictionary
         return new SenseEntryFileIterator();
     }
 
+    /*
+     * (non-Javadoc)
+     *
+     * @see edu.mit.jwi.IDictionary#getIndexWordStream(edu.edu.mit.jwi.item.POS)
+     */
+    @NonNull
+    public Stream<IIndexWord> getIndexWordStream(POS pos)
+    {
+        checkOpen();
+        return stream(DataType.INDEX, pos, Function.identity());
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see edu.mit.jwi.IDictionary#getSynsetStream(edu.edu.mit.jwi.item.POS)
+     */
+    @NonNull
+    public Stream<ISynset> getSynsetStream(POS pos)
+    {
+        checkOpen();
+        return stream(DataType.DATA, pos, synset ->
+        {
+            if (pos == POS.ADJECTIVE)
+            {
+                setHeadWord(synset);
+            }
+            return synset;
+        });
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see edu.mit.jwi.IDictionary#getExceptionEntryStream(edu.edu.mit.jwi.item.POS)
+     */
+    @NonNull
+    public Stream<IExceptionEntry> getExceptionEntryStream(POS pos)
+    {
+        checkOpen();
+        return stream(DataType.EXCEPTION, pos, proxy -> new ExceptionEntry(proxy, pos));
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see edu.mit.jwi.IDictionary#getSenseEntryStream()
+     */
+    @NonNull
+    public Stream<ISenseEntry> getSenseEntryStream()
+    {
+        checkOpen();
+        return stream(DataType.SENSE, null, Function.identity());
+    }
+
+    /**
+     * Returns a stream of the lines of the file of the specified type and part
+     * of speech, parsed and converted. When both the file and its parser work
+     * on bytes, the stream splits the file at line boundaries, and each part
+     * parses its own lines. Otherwise the lines are read in order, and only
+     * parsed in parallel.
+     *
+     * @param dataType the data type of the file
+     * @param pos      the part of speech of the file, or <code>null</code>
+     * @param convert  turns parsed lines into stream elements
+     * @param <T>      the type of object the parser produces
+     * @param <N>      the type of the stream elements
+     * @return the stream
+     */
+    @NonNull
+    @SuppressWarnings("unchecked")
+    private <T, N> Stream<N> stream(@NonNull IDataType<T> dataType, @Nullable POS pos, @NonNull Function<? super T, ? extends N> convert)
+    {
+        assert provider != null;
+        IContentType<T> content = requireNonNull(provider.resolveContentType(dataType, pos));
+        Snapshot sources = pin();
+        try
+        {
+            IDataSource<T> file = getSource(sources, content);
+            if (file == null)
+            {
+                return Stream.empty();
+            }
+            ILineParser<T> parser = content.getDataType().getParser();
+            assert parser != null;
+            Stream<T> parsed;
+            if (parsesBytes(file, parser))
+            {
+                Spliterator<T> split = ((IByteLineSource) file).parsingSpliterator((IByteLineParser<T>) parser);
+                parsed = StreamSupport.stream(retain(sources, split), false);
+            }
+            else
+            {
+                Spliterator<String> lines = Spliterators.spliteratorUnknownSize(file.iterator(), Spliterator.ORDERED | Spliterator.NONNULL);
+                parsed = StreamSupport.stream(retain(sources, lines), false).map(parser::parseLine);
+            }
+            return parsed.map(convert);
+        }
+        finally
+        {
+            unpin(sources);
+        }
+    }
+
+    /**
+     * Keeps the specified pinned sources open until the specified spliterator,
+     * and those split from it, have run out.
+     *
+     * @param sources     the sources pinned by {@link #pin()}; may be
+     *                    <code>null</code>
+     * @param spliterator the spliterator over one of the sources
+     * @param <E>         the type of the elements
+     * @return the spliterator to use in its place
+     */
+    @NonNull
+    private static <E> Spliterator<E> retain(@Nullable Snapshot sources, @NonNull Spliterator<E> spliterator)
+    {
+        if (sources == null)
+        {
+            return spliterator;
+        }
+        sources.retain();
+        return new RetainingSpliterator<>(sources, spliterator);
+    }
+
+    /**
+     * A spliterator that keeps the sources it reads from open until it has
+     * run out. A spliterator split from it keeps them open too.
+     *
+     * @param <E> the type of the elements
+     */
+    private static class RetainingSpliterator<E> implements Spliterator<E>
+    {
+        @NonNull
+        private final Snapshot sources;
+        @NonNull
+        private final Spliterator<E> spliterator;
+        private boolean isReleased = false;
+
+        RetainingSpliterator(@NonNull Snapshot sources, @NonNull Spliterator<E> spliterator)
+        {
+            this.sources = sources;
+            this.spliterator = spliterator;
+        }
+
+        public boolean tryAdvance(Consumer<? super E> action)
+        {
+            if (spliterator.tryAdvance(action))
+            {
+                return true;
+            }
+            release();
+            return false;
+        }
+
+        public void forEachRemaining(Consumer<? super E> action)
+        {
+            try
+            {
+                spliterator.forEachRemaining(action);
+            }
+            finally
+            {
+                release();
+            }
+        }
+
+        @Nullable
+        public Spliterator<E> trySplit()
+        {
+            Spliterator<E> split = spliterator.trySplit();
+            return split == null ? null : retain(sources, split);
+        }
+
+        public long estimateSize()
+        {
+            return spliterator.estimateSize();
+        }
+
+        public int characteristics()
+        {
+            return spliterator.characteristics();
+        }
+
+        public Comparator<? super E> getComparator()
+        {
+            return spliterator.getComparator();
+        }
+
+        private void release()
+        {
+            if (!isReleased)
+            {
+                isReleased = true;
+                sources.release();
+            }
+        }
+    }
+
     /**
      * Abstract class used for iterating over line-based files.
      */
@@ -617,6 +1121,18 @@ public class DataSourceDictionary implements IDataSourceDictionary
         protected final ILineParser<T> fParser;
         protected String currentLine;
 
+        // the lines parsed from the bytes of the file, if it can be done
+        @Nullable
+        private final Iterator<ParsedLine<T>> parsed;
+
+        // the line last returned from the bytes of the file
+        @Nullable
+        private ParsedLine<T> current;
+
+        // the sources kept open until the iterator runs out, if they are pinned
+        @Nullable
+        private Snapshot sources;
+
         public FileIterator(@NonNull IContentType<T> content)
         {
             this(content, null);
@@ -624,29 +1140,74 @@ public class DataSourceDictionary implements IDataSourceDictionary
 
         public FileIterator(@NonNull IContentType<T> content, String startKey)
         {
-            assert provider != null;
-            this.fFile = provider.getSource(content);
-            IDataType<T> dataType = content.getDataType();
-            this.fParser = dataType.getParser();
-            if (fFile == null)
+            this(content, startKey, false);
+        }
+
+        /**
+         * Constructs a new file iterator with the specified content type and
+         * start key. If bytes may be parsed, and the file and its parser both
+         * work on bytes, and the iteration starts at the beginning of the
+         * file, the lines are parsed from the bytes of the file and passed to
+         * {@link #convert(Object)} rather than decoded and passed to
+         * {@link #parseLine(String)}. They are not if the class of this
+         * iterator overrides {@link #parseLine(String)}, or the class of the
+         * parser overrides its parsing of strings only.
+         *
+         * @param content    content type
+         * @param startKey   start key; may be <code>null</code>
+         * @param parseBytes whether lines may be parsed from bytes
+         * @since JWI 2.4.1
+         */
+        @SuppressWarnings("unchecked")
+        public FileIterator(@NonNull IContentType<T> content, @Nullable String startKey, boolean parseBytes)
+        {
+            Snapshot pinned = pin();
+            try
             {
-                // Fix for Bug018
-                this.iterator = Collections.emptyIterator();
+                this.fFile = getSource(pinned, content);
+                IDataType<T> dataType = content.getDataType();
+                this.fParser = dataType.getParser();
+                if (fFile == null)
+                {
+                    // Fix for Bug018
+                    this.iterator = Collections.emptyIterator();
+                    this.parsed = null;
+                }
+                else if (parseBytes && (startKey == null || startKey.trim().isEmpty()) && parsesBytes(fFile, fParser) && iteratesBytes.get(getClass()))
+                {
+                    this.iterator = Collections.emptyIterator();
+                    this.parsed = ((IByteLineSource) fFile).parsingIterator(new LineRecorder<>((IByteLineParser<T>) fParser));
+                }
+                else
+                {
+                    this.iterator = fFile.iterator(startKey);
+                    this.parsed = null;
+                }
+                if (pinned != null && fFile != null)
+                {
+                    pinned.retain();
+                    this.sources = pinned;
+                }
             }
-            else
+            finally
             {
-                this.iterator = fFile.iterator(startKey);
+                unpin(pinned);
             }
         }
 
         /**
-         * Returns the current line.
+         * Returns the current line. When lines are parsed from the bytes of
+         * the file, the line is only decoded when this method is called.
          *
          * @return the current line
          * @since JWI 2.2.0
          */
         public String getCurrentLine()
         {
+            if (currentLine == null && current != null)
+            {
+                currentLine = current.getLine();
+            }
             return currentLine;
         }
 
@@ -671,7 +1232,16 @@ public class DataSourceDictionary implements IDataSourceDictionary
          */
         public boolean hasNext()
         {
-            return iterator.hasNext();
+            boolean hasNext = parsed != null ? parsed.hasNext() : iterator.hasNext();
+            if (!hasNext && sources != null)
+            {
+                // run out; the sources may be closed if they were replaced,
+                // so the last line is decoded while they are open
+                getCurrentLine();
+                sources.release();
+                sources = null;
+            }
+            return hasNext;
         }
 
         /*
@@ -682,6 +1252,12 @@ public class DataSourceDictionary implements IDataSourceDictionary
         @Nullable
         public N next()
         {
+            if (parsed != null)
+            {
+                currentLine = null;
+                current = parsed.next();
+                return convert(current.item);
+            }
             currentLine = iterator.next();
             return parseLine(currentLine);
         }
@@ -693,7 +1269,14 @@ public class DataSourceDictionary implements IDataSourceDictionary
          */
         public void remove()
         {
-            iterator.remove();
+            if (parsed != null)
+            {
+                parsed.remove();
+            }
+            else
+            {
+                iterator.remove();
+            }
         }
 
         /**
@@ -704,6 +1287,121 @@ public class DataSourceDictionary implements IDataSourceDictionary
          */
         @Nullable
         public abstract N parseLine(String line);
+
+        /**
+         * Turns an object parsed by the parser provided at construction time
+         * into an object returned by this iterator. This implementation
+         * returns the object itself, which suits iterators that return
+         * objects of the type of the data source.
+         *
+         * @param parsed the parsed object; may be <code>null</code>
+         * @return the object to return
+         * @since JWI 2.4.1
+         */
+        @Nullable
+        @SuppressWarnings("unchecked")
+        protected N convert(@Nullable T parsed)
+        {
+            return (N) parsed;
+        }
+    }
+
+    /**
+     * A line parsed by a file iterator from the bytes of the file, with where
+     * it lies in the file, so that it can be decoded if it is asked for.
+     *
+     * @param <T> the type of the parsed object
+     */
+    private static final class ParsedLine<T>
+    {
+        @Nullable
+        final T item;
+
+        // the line if it was decoded to be parsed, or else its bytes
+        @Nullable
+        private final String line;
+        @Nullable
+        private final ByteBuffer buf;
+        private final int start;
+        private final int end;
+        @Nullable
+        private final Charset cs;
+
+        ParsedLine(@Nullable T item, @NonNull String line)
+        {
+            this.item = item;
+            this.line = line;
+            this.buf = null;
+            this.start = this.end = 0;
+            this.cs = null;
+        }
+
+        ParsedLine(@Nullable T item, @NonNull ByteBuffer buf, int start, int end, @Nullable Charset cs)
+        {
+            this.item = item;
+            this.line = null;
+            this.buf = buf;
+            this.start = start;
+            this.end = end;
+            this.cs = cs;
+        }
+
+        /**
+         * Returns the line, decoding it if it was parsed from bytes.
+         *
+         * @return the line
+         */
+        @NonNull
+        String getLine()
+        {
+            if (line != null)
+            {
+                return line;
+            }
+            assert buf != null;
+            return ByteLines.decode(buf, start, end, cs);
+        }
+    }
+
+    /**
+     * Parses lines with another parser, and records where each lies along
+     * with what it was parsed to.
+     *
+     * @param <T> the type of object the other parser produces
+     */
+    private static final class LineRecorder<T> implements IByteLineParser<ParsedLine<T>>
+    {
+        @NonNull
+        private final IByteLineParser<T> parser;
+
+        LineRecorder(@NonNull IByteLineParser<T> parser)
+        {
+            this.parser = parser;
+        }
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see edu.mit.jwi.data.parse.ILineParser#parseLine(java.lang.String)
+         */
+        @NonNull
+        public ParsedLine<T> parseLine(@NonNull String line)
+        {
+            return new ParsedLine<>(parser.parseLine(line), line);
+        }
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see edu.mit.jwi.data.parse.IByteLineParser#parseLine(java.nio.ByteBuffer, java.nio.charset.Charset)
+         */
+        @NonNull
+        public ParsedLine<T> parseLine(@NonNull ByteBuffer line, @Nullable Charset cs)
+        {
+            int start = line.position();
+            int end = line.limit();
+            return new ParsedLine<>(parser.parseLine(line, cs), line, start, end, cs);
+        }
     }
 
     /**
@@ -737,6 +1435,20 @@ public class DataSourceDictionary implements IDataSourceDictionary
         {
             super(content, startKey);
         }
+
+        /**
+         * Constructs a new file iterator with the specified content type and
+         * start key, which may parse lines from bytes.
+         *
+         * @param content    content type
+         * @param startKey   start key
+         * @param parseBytes whether lines may be parsed from bytes
+         * @since JWI 2.4.1
+         */
+        public FileIterator2(@NonNull IContentType<T> content, String startKey, boolean parseBytes)
+        {
+            super(content, startKey, parseBytes);
+        }
     }
 
     /**
@@ -751,7 +1463,7 @@ public class DataSourceDictionary implements IDataSourceDictionary
 
         public IndexFileIterator(POS pos, String pattern)
         {
-            super(requireNonNull(requireNonNull(provider).resolveContentType(DataType.INDEX, pos)), pattern);
+            super(requireNonNull(requireNonNull(provider).resolveContentType(DataType.INDEX, pos)), pattern, true);
         }
 
         /*
@@ -773,7 +1485,7 @@ public class DataSourceDictionary implements IDataSourceDictionary
     {
         public SenseEntryFileIterator()
         {
-            super(requireNonNull(requireNonNull(provider).resolveContentType(DataType.SENSE, null)));
+            super(requireNonNull(requireNonNull(provider).resolveContentType(DataType.SENSE, null)), null, true);
         }
 
         /*
@@ -795,7 +1507,7 @@ public class DataSourceDictionary implements IDataSourceDictionary
     {
         public DataFileIterator(POS pos)
         {
-            super(requireNonNull(requireNonNull(provider).resolveContentType(DataType.DATA, pos)));
+            super(requireNonNull(requireNonNull(provider).resolveContentType(DataType.DATA, pos)), null, true);
         }
 
         /*
@@ -804,20 +1516,24 @@ public class DataSourceDictionary implements IDataSourceDictionary
          * @see edu.mit.wordnet.core.base.dict.Dictionary.FileIterator#parseLine(java.lang.String)
          */
         public ISynset parseLine(String line)
+        {
+            assert fParser != null;
+            return convert(fParser.parseLine(line));
+        }
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see edu.mit.jwi.DataSourceDictionary.FileIterator#convert(java.lang.Object)
+         */
+        protected ISynset convert(ISynset synset)
         {
             if (getPOS() == POS.ADJECTIVE)
             {
-                assert fParser != null;
-                ISynset synset = fParser.parseLine(line);
                 assert synset != null;
                 setHeadWord(synset);
-                return synset;
-            }
-            else
-            {
-                assert fParser != null;
-                return fParser.parseLine(line);
             }
+            return synset;
         }
     }
 
@@ -828,7 +1544,7 @@ public class DataSourceDictionary implements IDataSourceDictionary
     {
         public ExceptionFileIterator(POS pos)
         {
-            super(requireNonNull(requireNonNull(provider).resolveContentType(DataType.EXCEPTION, pos)));
+            super(requireNonNull(requireNonNull(provider).resolveContentType(DataType.EXCEPTION, pos)), null, true);
         }
 
         /*
@@ -840,7 +1556,17 @@ public class DataSourceDictionary implements IDataSourceDictionary
         public IExceptionEntry parseLine(String line)
         {
             assert fParser != null;
-            IExceptionEntryProxy proxy = fParser.parseLine(line);
+            return convert(fParser.parseLine(line));
+        }
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see edu.mit.jwi.DataSourceDictionary.FileIterator#convert(java.lang.Object)
+         */
+        @Nullable
+        protected IExceptionEntry convert(@Nullable IExceptionEntryProxy proxy)
+        {
             return (proxy == null) ? null : new ExceptionEntry(proxy, getPOS());
         }
     }
@@ -12,6 +12,7 @@ package edu.mit.jwi;
 
 import edu.mit.jwi.data.ContentTypeKey;
 import edu.mit.jwi.data.FileProvider;
+import edu.mit.jwi.data.WordnetFile;
 import edu.mit.jwi.item.Word;
 
 import java.io.File;
@@ -103,6 +104,18 @@ public class Dictionary extends CachingDictionary
         {
             Word.setCheckLexicalId(config.checkLexicalId);
         }
+        if (config.indexLines != null)
+        {
+            WordnetFile.setIndexLines(config.indexLines);
+        }
+        if (config.hashIndexes != null)
+        {
+            WordnetFile.setHashIndexes(config.hashIndexes);
+        }
+        if (config.unmapOnClose != null)
+        {
+            WordnetFile.setUnmapOnClose(config.unmapOnClose);
+        }
 
         // dictionary params
         if (config.indexNounComparator != null)
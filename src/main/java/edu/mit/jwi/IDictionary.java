@@ -18,8 +18,15 @@ import edu.mit.jwi.item.*;
 import edu.mit.jwi.morph.IStemmer;
 
 import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Objects that implement this interface are intended as the main entry point to
@@ -107,6 +114,36 @@ public interface IDictionary extends IHasVersion, IHasLifecycle, IHasCharset
     @Nullable
     IIndexWord getIndexWord(IIndexWordID id);
 
+    /**
+     * Retrieves the index words with the specified ids from the database. This
+     * implementation looks each id up with {@link #getIndexWord(IIndexWordID)},
+     * in turn; implementations backed by files override it to look the ids up
+     * by part of speech and in the order of the index files, which reads the
+     * files in sequence rather than at random.
+     *
+     * @param ids the ids of the index words to search for; may not be
+     *            <code>null</code> or contain <code>null</code>
+     * @return the index words, in the order of the ids, with
+     * <code>null</code> for each id that is not found
+     * @throws NullPointerException if the collection or one of its ids is
+     *                              <code>null</code>
+     * @since JWI 2.4.1
+     */
+    @NonNull
+    default List<IIndexWord> getIndexWords(Collection<? extends IIndexWordID> ids)
+    {
+        List<IIndexWord> result = new ArrayList<>(ids.size());
+        for (IIndexWordID id : ids)
+        {
+            if (id == null)
+            {
+                throw new NullPointerException();
+            }
+            result.add(getIndexWord(id));
+        }
+        return result;
+    }
+
     /**
      * Returns an iterator that will iterate over all index words of the
      * specified part of speech.
@@ -120,6 +157,24 @@ public interface IDictionary extends IHasVersion, IHasLifecycle, IHasCharset
      */
     Iterator<IIndexWord> getIndexWordIterator(POS pos);
 
+    /**
+     * Returns a stream of all index words of the specified part of speech, in
+     * the order of {@link #getIndexWordIterator(POS)}. This implementation
+     * streams the iterator, which splits poorly; implementations that can
+     * split the index words, so that they are made in parallel when the
+     * stream is made parallel, override it.
+     *
+     * @param pos the part of speech; may not be <code>null</code>
+     * @return a stream of all index words of the specified part of speech
+     * @throws NullPointerException if the argument is <code>null</code>
+     * @since JWI 2.4.1
+     */
+    @NonNull
+    default Stream<IIndexWord> getIndexWordStream(POS pos)
+    {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(getIndexWordIterator(pos), Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
     /**
      * Retrieves the word with the specified id from the database. If the
      * specified word is not found, returns {@code null}
@@ -132,6 +187,37 @@ public interface IDictionary extends IHasVersion, IHasLifecycle, IHasCharset
     @Nullable
     IWord getWord(IWordID id);
 
+    /**
+     * Retrieves the words with the specified ids from the database. This
+     * implementation looks each id up with {@link #getWord(IWordID)}, in
+     * turn; implementations backed by files override it to look the synsets
+     * of the words up as {@link #getSynsets(Collection)} does.
+     *
+     * @param ids the ids of the words to search for; may not be
+     *            <code>null</code> or contain <code>null</code>
+     * @return the words, in the order of the ids, with <code>null</code> for
+     * each id that is not found
+     * @throws NullPointerException     if the collection or one of its ids is
+     *                                  <code>null</code>
+     * @throws IllegalArgumentException if an id has neither a word number nor
+     *                                  a lemma
+     * @since JWI 2.4.1
+     */
+    @NonNull
+    default List<IWord> getWords(Collection<? extends IWordID> ids)
+    {
+        List<IWord> result = new ArrayList<>(ids.size());
+        for (IWordID id : ids)
+        {
+            if (id == null)
+            {
+                throw new NullPointerException();
+            }
+            result.add(getWord(id));
+        }
+        return result;
+    }
+
     /**
      * Retrieves the word with the specified sense key from the database. If the
      * specified word is not found, returns {@code null}
@@ -158,6 +244,36 @@ public interface IDictionary extends IHasVersion, IHasLifecycle, IHasCharset
     @Nullable
     ISynset getSynset(ISynsetID id);
 
+    /**
+     * Retrieves the synsets with the specified ids from the database. This
+     * implementation looks each id up with {@link #getSynset(ISynsetID)}, in
+     * turn; implementations backed by files override it to look the ids up by
+     * part of speech and in order of offset, which reads the data files in
+     * sequence rather than at random.
+     *
+     * @param ids the ids of the synsets to search for; may not be
+     *            <code>null</code> or contain <code>null</code>
+     * @return the synsets, in the order of the ids, with <code>null</code>
+     * for each id that is not found
+     * @throws NullPointerException if the collection or one of its ids is
+     *                              <code>null</code>
+     * @since JWI 2.4.1
+     */
+    @NonNull
+    default List<ISynset> getSynsets(Collection<? extends ISynsetID> ids)
+    {
+        List<ISynset> result = new ArrayList<>(ids.size());
+        for (ISynsetID id : ids)
+        {
+            if (id == null)
+            {
+                throw new NullPointerException();
+            }
+            result.add(getSynset(id));
+        }
+        return result;
+    }
+
     /**
      * Returns an iterator that will iterate over all synsets of the specified
      * part of speech.
@@ -171,6 +287,22 @@ public interface IDictionary extends IHasVersion, IHasLifecycle, IHasCharset
      */
     Iterator<ISynset> getSynsetIterator(POS pos);
 
+    /**
+     * Returns a stream of all synsets of the specified part of speech, in the
+     * order of {@link #getSynsetIterator(POS)}. This implementation streams
+     * the iterator; implementations that can split the synsets override it.
+     *
+     * @param pos the part of speech; may not be <code>null</code>
+     * @return a stream of all synsets of the specified part of speech
+     * @throws NullPointerException if the argument is <code>null</code>
+     * @since JWI 2.4.1
+     */
+    @NonNull
+    default Stream<ISynset> getSynsetStream(POS pos)
+    {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(getSynsetIterator(pos), Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
     /**
      * Retrieves the sense entry for the specified sense key from the database.
      * If the specified sense key has no associated sense entry, returns
@@ -194,6 +326,20 @@ public interface IDictionary extends IHasVersion, IHasLifecycle, IHasCharset
      */
     Iterator<ISenseEntry> getSenseEntryIterator();
 
+    /**
+     * Returns a stream of all sense entries in the dictionary, in the order of
+     * {@link #getSenseEntryIterator()}. This implementation streams the
+     * iterator; implementations that can split the sense entries override it.
+     *
+     * @return a stream of all sense entries
+     * @since JWI 2.4.1
+     */
+    @NonNull
+    default Stream<ISenseEntry> getSenseEntryStream()
+    {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(getSenseEntryIterator(), Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
     /**
      * Retrieves the exception entry for the specified surface form and part of
      * speech from the database. If the specified surface form/ part of speech
@@ -235,6 +381,24 @@ public interface IDictionary extends IHasVersion, IHasLifecycle, IHasCharset
      */
     Iterator<IExceptionEntry> getExceptionEntryIterator(POS pos);
 
+    /**
+     * Returns a stream of all exception entries of the specified part of
+     * speech, in the order of {@link #getExceptionEntryIterator(POS)}. This
+     * implementation streams the iterator; implementations that can split the
+     * exception entries override it.
+     *
+     * @param pos the part of speech; may not be <code>null</code>
+     * @return a stream of all exception entries of the specified part of
+     * speech
+     * @throws NullPointerException if the argument is <code>null</code>
+     * @since JWI 2.4.1
+     */
+    @NonNull
+    default Stream<IExceptionEntry> getExceptionEntryStream(POS pos)
+    {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(getExceptionEntryIterator(pos), Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
     /**
      * Returns list of lemmas that have the given start.
      *
@@ -0,0 +1,414 @@
+/* ******************************************************************************
+ * Java Wordnet Interface Library (JWI) v2.4.0
+ * Copyright (c) 2007-2015 Mark A. Finlayson
+ *
+ * JWI is distributed under the terms of the Creative Commons Attribution 4.0
+ * International Public License, which means it may be freely used for all
+ * purposes, as long as proper acknowledgment is made.  See the license file
+ * included with this distribution for more details.
+ *******************************************************************************/
+
+package edu.mit.jwi;
+
+import edu.mit.jwi.item.*;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * <p>
+ * Estimates the number of bytes of heap that items retain, so that caches can
+ * be sized against a heap budget rather than a number of items. The estimates
+ * assume a 64-bit virtual machine with compressed references and compact
+ * strings, and count the objects an item holds on its own: the synset of a
+ * word, and the words of an index word, are not counted in the word or the
+ * index word. Ids shared through the id pool (see {@link IDPool}) are counted
+ * as if they were not shared.
+ * </p>
+ * <p>
+ * Lazy synsets are weighed by their line, and by what they retain once
+ * parsed. Until a section of the line is parsed, what it retains is estimated
+ * from the counts of words, pointers and frames read off the line, so that
+ * weighing does not parse it, and the synset does not outgrow the weight it
+ * was cached with when it is.
+ * </p>
+ *
+ * @author Mark A. Finlayson
+ * @version 2.4.0
+ * @since JWI 2.4.1
+ */
+public final class ItemWeigher
+{
+    // object header
+    private static final int HEADER = 12;
+    private static final int REFERENCE = 4;
+
+    // a synset, word or index word id, without its lemma
+    private static final int ID = 24;
+
+    // a sense key, without its lemma
+    private static final int SENSE_KEY = 48;
+
+    // a list or map object, without its array or entries
+    private static final int LIST = 24;
+    private static final int MAP = 48;
+    private static final int MAP_ENTRY = 32;
+
+    // the cache entry holding an item: its map node and cache node
+    private static final int ENTRY = 64;
+
+    /**
+     * This constructor is marked private so the class cannot be instantiated.
+     */
+    private ItemWeigher()
+    {
+    }
+
+    /**
+     * Returns the estimated number of bytes that the specified item retains
+     * in a cache, including the entry of the cache that holds it. Items of
+     * types this class does not know are given the weight of an entry alone.
+     *
+     * @param item the item; may not be <code>null</code>
+     * @return the estimated number of bytes
+     * @throws NullPointerException if the item is <code>null</code>
+     * @since JWI 2.4.1
+     */
+    public static int weigh(@NonNull Object item)
+    {
+        if (item == null)
+        {
+            throw new NullPointerException();
+        }
+        long weight = ENTRY;
+        if (item instanceof ISynset)
+        {
+            weight += weighSynset((ISynset) item);
+        }
+        else if (item instanceof IWord)
+        {
+            weight += weighWord((IWord) item);
+        }
+        else if (item instanceof IIndexWord)
+        {
+            weight += weighIndexWord((IIndexWord) item);
+        }
+        else if (item instanceof ISenseEntry)
+        {
+            weight += weighSenseEntry((ISenseEntry) item);
+        }
+        else if (item instanceof IExceptionEntryProxy)
+        {
+            weight += weighExceptionEntry((IExceptionEntryProxy) item);
+        }
+        return (int) Math.min(weight, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Returns the estimated number of bytes that the specified synset retains,
+     * with its words.
+     *
+     * @param synset the synset
+     * @return the estimated number of bytes
+     */
+    private static long weighSynset(@NonNull ISynset synset)
+    {
+        long weight = object(8) + ID;
+        boolean words = true, related = true, gloss = true;
+        if (synset instanceof LazySynset)
+        {
+            LazySynset lazy = (LazySynset) synset;
+            weight += string(lazy.getLine());
+            words = lazy.hasWords();
+            related = lazy.hasRelated();
+            gloss = lazy.hasGloss();
+            if (!words || !related || !gloss)
+            {
+                weight += estimateParsed(lazy.getLine(), !words, !related, !gloss);
+            }
+        }
+        if (gloss)
+        {
+            weight += string(synset.getGloss());
+        }
+        if (words)
+        {
+            List<IWord> list = synset.getWords();
+            weight += list(list.size());
+            for (IWord word : list)
+            {
+                weight += weighWord(word);
+            }
+        }
+        if (related)
+        {
+            weight += idMap(synset.getRelatedMap());
+            weight += list(synset.getRelatedSynsets().size()) + (long) ID * synset.getRelatedSynsets().size();
+        }
+        return weight;
+    }
+
+    /**
+     * Returns the estimated number of bytes that the specified sections of a
+     * synset parsed from the specified data line retain, as
+     * {@link #weighSynset(ISynset)} would find once they are parsed, read off
+     * the counts of the line without parsing it. Pointers of the same type are
+     * assumed to be listed next to each other, as they are in the Wordnet
+     * files.
+     *
+     * @param line    the data line
+     * @param words   whether to count the words, with their pointers and
+     *                frames
+     * @param related whether to count the synset pointers
+     * @param gloss   whether to count the gloss
+     * @return the estimated number of bytes, or 0 if the line is not
+     * well-formed
+     */
+    private static long estimateParsed(@NonNull String line, boolean words, boolean related, boolean gloss)
+    {
+        try
+        {
+            // offset, lexical file number and synset type
+            int i = skipToken(line, skipToken(line, skipToken(line, 0)));
+
+            // words
+            int end = tokenEnd(line, i);
+            int wordCount = parseInt(line, i, end, 16);
+            i = end + 1;
+            long wordWeight = list(wordCount);
+            for (int w = 0; w < wordCount; w++)
+            {
+                end = tokenEnd(line, i);
+                wordWeight += object(8) + ID + SENSE_KEY + 2 * string(end - i) + MAP;
+                i = skipToken(line, end + 1);
+            }
+
+            // pointers: those of the synset, and those of its words, each
+            // grouped by type
+            end = tokenEnd(line, i);
+            int pointerCount = parseInt(line, i, end, 10);
+            i = end + 1;
+            int semantic = 0, semanticTypes = 0, lexical = 0, lexicalTypes = 0;
+            int type = -1, typeEnd = -1, sourceTarget;
+            for (int p = 0; p < pointerCount; p++)
+            {
+                end = tokenEnd(line, i);
+                boolean sameType = type >= 0 && line.regionMatches(type, line, i, end - i) && typeEnd - type == end - i;
+                type = i;
+                typeEnd = end;
+                i = skipToken(line, skipToken(line, end + 1));
+                end = tokenEnd(line, i);
+                sourceTarget = parseInt(line, i, end, 16);
+                i = end + 1;
+                if (sourceTarget == 0)
+                {
+                    semantic++;
+                    semanticTypes += sameType ? 0 : 1;
+                }
+                else
+                {
+                    lexical++;
+                    lexicalTypes += sameType ? 0 : 1;
+                }
+            }
+            long relatedWeight = MAP + (long) semanticTypes * (MAP_ENTRY + list(0)) + (long) semantic * (REFERENCE + ID);
+            relatedWeight += list(semantic) + (long) ID * semantic;
+            wordWeight += (long) lexicalTypes * (MAP_ENTRY + list(0)) + (long) lexical * (REFERENCE + ID);
+            wordWeight += (long) wordCount * list(0) + (long) lexical * (REFERENCE + ID);
+
+            // frames, of all the words or of one
+            int frames = 0;
+            if (i < line.length() && line.charAt(i) != '|')
+            {
+                end = tokenEnd(line, i);
+                int frameCount = parseInt(line, i, end, 10);
+                i = end + 1;
+                for (int f = 0; f < frameCount; f++)
+                {
+                    i = skipToken(line, skipToken(line, i));
+                    end = tokenEnd(line, i);
+                    frames += parseInt(line, i, end, 16) == 0 ? wordCount : 1;
+                    i = end + 1;
+                }
+            }
+            wordWeight += (long) wordCount * list(0) + (long) REFERENCE * frames;
+
+            // gloss
+            long glossWeight = 0;
+            int glossStart = line.indexOf("| ");
+            if (glossStart >= 0)
+            {
+                glossWeight = string(line.trim().length() - glossStart - 2);
+            }
+            return (words ? wordWeight : 0) + (related ? relatedWeight : 0) + (gloss ? glossWeight : 0);
+        }
+        catch (RuntimeException e)
+        {
+            // not a data line
+            return 0;
+        }
+    }
+
+    /**
+     * Returns the offset at which the token starting at the specified offset
+     * ends.
+     */
+    private static int tokenEnd(@NonNull String line, int start)
+    {
+        int end = line.indexOf(' ', start);
+        return end < 0 ? line.length() : end;
+    }
+
+    /**
+     * Returns the offset of the token following the one starting at the
+     * specified offset.
+     */
+    private static int skipToken(@NonNull String line, int start)
+    {
+        return tokenEnd(line, start) + 1;
+    }
+
+    /**
+     * Parses the number between the specified offsets in the specified radix.
+     *
+     * @throws NumberFormatException if the range holds anything else
+     */
+    private static int parseInt(@NonNull String line, int start, int end, int radix)
+    {
+        if (start >= end)
+        {
+            throw new NumberFormatException();
+        }
+        int value = 0, digit;
+        for (int i = start; i < end; i++)
+        {
+            digit = Character.digit(line.charAt(i), radix);
+            if (digit < 0)
+            {
+                throw new NumberFormatException();
+            }
+            value = value * radix + digit;
+        }
+        return value;
+    }
+
+    /**
+     * Returns the estimated number of bytes that the specified word retains,
+     * without its synset.
+     *
+     * @param word the word
+     * @return the estimated number of bytes
+     */
+    private static long weighWord(@NonNull IWord word)
+    {
+        long weight = object(8) + ID + SENSE_KEY;
+        weight += 2 * string(word.getLemma());
+        weight += list(word.getVerbFrames().size());
+        weight += idMap(word.getRelatedMap());
+        weight += list(word.getRelatedWords().size()) + (long) ID * word.getRelatedWords().size();
+        return weight;
+    }
+
+    /**
+     * Returns the estimated number of bytes that the specified index word
+     * retains, without its words.
+     *
+     * @param word the index word
+     * @return the estimated number of bytes
+     */
+    private static long weighIndexWord(@NonNull IIndexWord word)
+    {
+        long weight = object(4) + ID + string(word.getLemma());
+        weight += MAP + (long) MAP_ENTRY * word.getPointers().size();
+        weight += list(word.getWordIDs().size()) + (long) ID * word.getWordIDs().size();
+        return weight;
+    }
+
+    /**
+     * Returns the estimated number of bytes that the specified sense entry
+     * retains.
+     *
+     * @param entry the sense entry
+     * @return the estimated number of bytes
+     */
+    private static long weighSenseEntry(@NonNull ISenseEntry entry)
+    {
+        return object(4) + SENSE_KEY + string(entry.getSenseKey().getLemma());
+    }
+
+    /**
+     * Returns the estimated number of bytes that the specified exception entry
+     * retains.
+     *
+     * @param entry the exception entry
+     * @return the estimated number of bytes
+     */
+    private static long weighExceptionEntry(@NonNull IExceptionEntryProxy entry)
+    {
+        long weight = object(4) + ID + string(entry.getSurfaceForm());
+        List<String> roots = entry.getRootForms();
+        weight += list(roots.size());
+        for (String root : roots)
+        {
+            weight += string(root);
+        }
+        return weight;
+    }
+
+    /**
+     * Returns the estimated size of a map from pointers to lists of ids.
+     *
+     * @param map the map
+     * @return the estimated number of bytes
+     */
+    private static long idMap(@NonNull Map<IPointer, ? extends Collection<?>> map)
+    {
+        long weight = MAP;
+        for (Collection<?> ids : map.values())
+        {
+            weight += MAP_ENTRY + list(ids.size()) + (long) ID * ids.size();
+        }
+        return weight;
+    }
+
+    /**
+     * Returns the size of an object with the specified number of fields.
+     */
+    private static long object(int fields)
+    {
+        return align(HEADER + (long) REFERENCE * fields);
+    }
+
+    /**
+     * Returns the size of a list of the specified size, with its array.
+     */
+    private static long list(int size)
+    {
+        return LIST + align(16 + (long) REFERENCE * size);
+    }
+
+    /**
+     * Returns the size of a string, with its array.
+     */
+    private static long string(@Nullable String s)
+    {
+        return s == null ? 0 : string(s.length());
+    }
+
+    /**
+     * Returns the size of a string of the specified length, with its array.
+     */
+    private static long string(int length)
+    {
+        return 24 + align(16 + length);
+    }
+
+    /**
+     * Rounds the specified size up to the alignment of objects.
+     */
+    private static long align(long size)
+    {
+        return (size + 7) & ~7;
+    }
+}
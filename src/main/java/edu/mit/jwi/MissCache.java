@@ -0,0 +1,370 @@
+/* ******************************************************************************
+ * Java Wordnet Interface Library (JWI) v2.4.0
+ * Copyright (c) 2007-2015 Mark A. Finlayson
+ *
+ * JWI is distributed under the terms of the Creative Commons Attribution 4.0
+ * International Public License, which means it may be freely used for all
+ * purposes, as long as proper acknowledgment is made.  See the license file
+ * included with this distribution for more details.
+ *******************************************************************************/
+
+package edu.mit.jwi;
+
+import edu.mit.jwi.ConcurrentItemCache.ClockCache;
+import edu.mit.jwi.data.IContentType;
+import edu.mit.jwi.data.IDataProvider;
+import edu.mit.jwi.data.IDataSource;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * <p>
+ * A cache of lookups that found nothing, so that looking up a key that is not
+ * in a file again does not search the file again. Stemmers, for example, look
+ * up many candidate forms of a word that are not in the dictionary.
+ * </p>
+ * <p>
+ * Misses are kept per content type, in two parts. When a data provider is
+ * given, a Bloom filter is built from the keys of a file the first time the
+ * file is asked about, which answers that most absent keys are absent without
+ * a search. Keys that pass the filter all the same, or all keys when there is
+ * no provider, are held in a bounded set of the misses seen, evicted by the
+ * CLOCK algorithm (see {@link ConcurrentItemCache}). Both parts are dropped
+ * when the provider replaces the source of the file, as on a reload (see
+ * {@link edu.mit.jwi.data.FileProvider#reload()}).
+ * </p>
+ * <p>
+ * The filter only answers for keys that are 7-bit ASCII and hold no space:
+ * other keys could match a line through a case mapping or a comparator that
+ * looks at the first token only, and are left to the set of misses. This
+ * class may be used by any number of threads at once.
+ * </p>
+ *
+ * @author Mark A. Finlayson
+ * @version 2.4.0
+ * @since JWI 2.4.1
+ */
+public class MissCache
+{
+    // default configuration
+    public static final int DEFAULT_MAXIMUM_CAPACITY = 4096;
+
+    // about one percent of false positives
+    private static final int BITS_PER_KEY = 10;
+    private static final int HASHES = 7;
+
+    @Nullable
+    private final IDataProvider provider;
+
+    private volatile boolean isEnabled = true;
+
+    private final int maximumCapacity;
+
+    private final ConcurrentMap<IContentType<?>, Filter> filters = new ConcurrentHashMap<>();
+
+    // held while a filter is built, so that it is built once
+    private final Lock buildLock = new ReentrantLock();
+
+    /**
+     * Constructs a new miss cache with the default maximum capacity.
+     *
+     * @param provider the provider of the files looked up, from which the
+     *                 filters are built; may be <code>null</code>, in which
+     *                 case only the misses seen are cached
+     * @since JWI 2.4.1
+     */
+    public MissCache(@Nullable IDataProvider provider)
+    {
+        this(provider, DEFAULT_MAXIMUM_CAPACITY);
+    }
+
+    /**
+     * Constructs a new miss cache.
+     *
+     * @param provider    the provider of the files looked up, from which the
+     *                    filters are built; may be <code>null</code>, in
+     *                    which case only the misses seen are cached
+     * @param maxCapacity the maximum number of misses held per content type;
+     *                    if less than one, the number is unlimited
+     * @since JWI 2.4.1
+     */
+    public MissCache(@Nullable IDataProvider provider, int maxCapacity)
+    {
+        this.provider = provider;
+        this.maximumCapacity = maxCapacity;
+    }
+
+    /**
+     * Returns whether this cache is enabled. When it is not, it reports no
+     * misses, and records none.
+     *
+     * @return <code>true</code> if the cache is enabled; <code>false</code>
+     * otherwise
+     * @since JWI 2.4.1
+     */
+    public boolean isEnabled()
+    {
+        return isEnabled;
+    }
+
+    /**
+     * Enables or disables this cache.
+     *
+     * @param isEnabled whether the cache is enabled
+     * @since JWI 2.4.1
+     */
+    public void setEnabled(boolean isEnabled)
+    {
+        this.isEnabled = isEnabled;
+    }
+
+    /**
+     * Returns the maximum number of misses held per content type.
+     *
+     * @return the maximum number of misses held per content type; if less
+     * than one, the number is unlimited
+     * @since JWI 2.4.1
+     */
+    public int getMaximumCapacity()
+    {
+        return maximumCapacity;
+    }
+
+    /**
+     * Returns the misses of the specified content type, for the source the
+     * provider holds for it now. The filter is built if there is none yet
+     * for that source.
+     *
+     * @param contentType the content type of the file looked up; may not be
+     *                    <code>null</code>
+     * @return the misses of the content type
+     * @throws NullPointerException if the content type is <code>null</code>
+     * @since JWI 2.4.1
+     */
+    @NonNull
+    public Filter getFilter(@NonNull IContentType<?> contentType)
+    {
+        IDataSource<?> source = provider == null ? null : provider.getSource(contentType);
+        Filter filter = filters.get(contentType);
+        if (filter != null && filter.source == source)
+        {
+            return filter;
+        }
+        try
+        {
+            buildLock.lock();
+            filter = filters.get(contentType);
+            if (filter == null || filter.source != source)
+            {
+                filter = new Filter(contentType, source);
+                filters.put(contentType, filter);
+            }
+            return filter;
+        }
+        finally
+        {
+            buildLock.unlock();
+        }
+    }
+
+    /**
+     * Drops all misses and filters. Filters are built again as they are
+     * needed.
+     *
+     * @since JWI 2.4.1
+     */
+    public void clear()
+    {
+        filters.clear();
+    }
+
+    /**
+     * The misses of one content type, valid for one source of that type.
+     *
+     * @author Mark A. Finlayson
+     * @version 2.4.0
+     * @since JWI 2.4.1
+     */
+    public final class Filter
+    {
+        @NonNull
+        private final IContentType<?> contentType;
+        @Nullable
+        private final IDataSource<?> source;
+
+        // null if there is no source, or its keys could not be read
+        @Nullable
+        private final long[] bits;
+
+        @NonNull
+        private final ClockCache<String, Boolean> misses = new ClockCache<>(16);
+
+        /**
+         * Constructs the misses of the specified content type, with a filter
+         * of the keys of the specified source.
+         *
+         * @param contentType the content type
+         * @param source      the source; may be <code>null</code>
+         */
+        private Filter(@NonNull IContentType<?> contentType, @Nullable IDataSource<?> source)
+        {
+            this.contentType = contentType;
+            this.source = source;
+            this.bits = source == null ? null : build(source);
+        }
+
+        /**
+         * Returns whether the specified key is known not to be in the file.
+         *
+         * @param key the key; may not be <code>null</code>
+         * @return <code>true</code> if a lookup of the key would find
+         * nothing; <code>false</code> if the file should be searched
+         * @since JWI 2.4.1
+         */
+        public boolean isMiss(@NonNull String key)
+        {
+            if (!isEnabled)
+            {
+                return false;
+            }
+            if (bits != null && isFiltered(key) && !mightContain(bits, key))
+            {
+                return true;
+            }
+            return misses.get(key) != null;
+        }
+
+        /**
+         * Records that a lookup of the specified key found nothing. The miss
+         * is not recorded if the source of the file was replaced since this
+         * filter was obtained, as the lookup may have searched the new source.
+         *
+         * @param key the key; may not be <code>null</code>
+         * @since JWI 2.4.1
+         */
+        public void recordMiss(@NonNull String key)
+        {
+            if (isEnabled && filters.get(contentType) == this)
+            {
+                misses.put(key, Boolean.TRUE, 0, maximumCapacity);
+            }
+        }
+    }
+
+    /**
+     * Returns whether the filter answers for the specified key.
+     *
+     * @param key the key
+     * @return <code>true</code> if the key is 7-bit ASCII and holds no space;
+     * <code>false</code> otherwise
+     */
+    private static boolean isFiltered(@NonNull String key)
+    {
+        for (int i = 0; i < key.length(); i++)
+        {
+            char c = key.charAt(i);
+            if (c >= 0x80 || c == ' ')
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Builds a Bloom filter of the first tokens of the lines of the specified
+     * source, in their own case and in lower case.
+     *
+     * @param source the source
+     * @return the bits of the filter, or <code>null</code> if the lines could
+     * not be read
+     */
+    @Nullable
+    private static long[] build(@NonNull IDataSource<?> source)
+    {
+        try
+        {
+            // hash the keys first, as the size of the filter depends on
+            // their number
+            long[] hashes = new long[1024];
+            int count = 0;
+            for (String line : source)
+            {
+                int end = line.indexOf(' ');
+                String token = end < 0 ? line : line.substring(0, end);
+                String lower = token.toLowerCase();
+                if (count + 2 > hashes.length)
+                {
+                    hashes = Arrays.copyOf(hashes, 2 * hashes.length);
+                }
+                hashes[count++] = hash(token);
+                if (!lower.equals(token))
+                {
+                    hashes[count++] = hash(lower);
+                }
+            }
+            long size = Math.max(64, Long.highestOneBit(Math.max(1, (long) count * BITS_PER_KEY - 1)) << 1);
+            long[] bits = new long[(int) Math.min(size >>> 6, 1 << 24)];
+            for (int i = 0; i < count; i++)
+            {
+                add(bits, hashes[i]);
+            }
+            return bits;
+        }
+        catch (RuntimeException e)
+        {
+            // replaced or closed under us; filter nothing rather than
+            // report keys that were not read as missing
+            return null;
+        }
+    }
+
+    /**
+     * Adds the key with the specified hash to the filter.
+     */
+    private static void add(@NonNull long[] bits, long hash)
+    {
+        int h1 = (int) hash, h2 = (int) (hash >>> 32) | 1;
+        int mask = (bits.length << 6) - 1;
+        for (int i = 0; i < HASHES; i++)
+        {
+            int bit = (h1 + i * h2) & mask;
+            bits[bit >>> 6] |= 1L << bit;
+        }
+    }
+
+    /**
+     * Returns whether the specified key may have been added to the filter.
+     */
+    private static boolean mightContain(@NonNull long[] bits, @NonNull String key)
+    {
+        long hash = hash(key);
+        int h1 = (int) hash, h2 = (int) (hash >>> 32) | 1;
+        int mask = (bits.length << 6) - 1;
+        for (int i = 0; i < HASHES; i++)
+        {
+            int bit = (h1 + i * h2) & mask;
+            if ((bits[bit >>> 6] & (1L << bit)) == 0)
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns a 64-bit hash of the specified key, mixed from its hash code
+     * and length.
+     */
+    private static long hash(@NonNull String key)
+    {
+        long h = key.hashCode() * 0x9e3779b97f4a7c15L + key.length();
+        h = (h ^ (h >>> 33)) * 0xff51afd7ed558ccdL;
+        h = (h ^ (h >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return h ^ (h >>> 33);
+    }
+}
@@ -25,6 +25,7 @@ import java.util.Map.Entry;
 import java.util.concurrent.Callable;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
 import java.util.zip.GZIPInputStream;
 import java.util.zip.GZIPOutputStream;
 
@@ -473,15 +474,8 @@ public class RAMDictionary implements IRAMDictionary
      */
     public boolean isOpen()
     {
-        try
-        {
-            lifecycleLock.lock();
-            return state == LifecycleState.OPEN;
-        }
-        finally
-        {
-            lifecycleLock.unlock();
-        }
+        // the state is volatile, so lookups need no lock to check it
+        return state == LifecycleState.OPEN;
     }
 
     /*
@@ -656,6 +650,27 @@ public class RAMDictionary implements IRAMDictionary
         }
     }
 
+    /*
+     * (non-Javadoc)
+     *
+     * @see edu.mit.jwi.IDictionary#getIndexWords(java.util.Collection)
+     */
+    @NonNull
+    public List<IIndexWord> getIndexWords(@NonNull Collection<? extends IIndexWordID> ids)
+    {
+        if (data == null)
+        {
+            assert backing != null;
+            return backing.getIndexWords(ids);
+        }
+        List<IIndexWord> result = new ArrayList<>(ids.size());
+        for (IIndexWordID id : ids)
+        {
+            result.add(getIndexWord(id));
+        }
+        return result;
+    }
+
     /*
      * (non-Javadoc)
      *
@@ -667,6 +682,22 @@ public class RAMDictionary implements IRAMDictionary
         return new HotSwappableIndexWordIterator(pos);
     }
 
+    /*
+     * (non-Javadoc)
+     *
+     * @see edu.mit.jwi.IDictionary#getIndexWordStream(edu.edu.mit.jwi.item.POS)
+     */
+    @NonNull
+    public Stream<IIndexWord> getIndexWordStream(POS pos)
+    {
+        DictionaryData d = data;
+        if (d != null)
+        {
+            return requireNonNull(d.idxWords.get(pos)).values().stream();
+        }
+        return requireNonNull(backing).getIndexWordStream(pos);
+    }
+
     /*
      * (non-Javadoc)
      *
@@ -719,6 +750,27 @@ public class RAMDictionary implements IRAMDictionary
         }
     }
 
+    /*
+     * (non-Javadoc)
+     *
+     * @see edu.mit.jwi.IDictionary#getWords(java.util.Collection)
+     */
+    @NonNull
+    public List<IWord> getWords(@NonNull Collection<? extends IWordID> ids)
+    {
+        if (data == null)
+        {
+            assert backing != null;
+            return backing.getWords(ids);
+        }
+        List<IWord> result = new ArrayList<>(ids.size());
+        for (IWordID id : ids)
+        {
+            result.add(getWord(id));
+        }
+        return result;
+    }
+
     /*
      * (non-Javadoc)
      *
@@ -759,6 +811,27 @@ public class RAMDictionary implements IRAMDictionary
         }
     }
 
+    /*
+     * (non-Javadoc)
+     *
+     * @see edu.mit.jwi.IDictionary#getSynsets(java.util.Collection)
+     */
+    @NonNull
+    public List<ISynset> getSynsets(@NonNull Collection<? extends ISynsetID> ids)
+    {
+        if (data == null)
+        {
+            assert backing != null;
+            return backing.getSynsets(ids);
+        }
+        List<ISynset> result = new ArrayList<>(ids.size());
+        for (ISynsetID id : ids)
+        {
+            result.add(getSynset(id));
+        }
+        return result;
+    }
+
     /*
      * (non-Javadoc)
      *
@@ -770,6 +843,22 @@ public class RAMDictionary implements IRAMDictionary
         return new HotSwappableSynsetIterator(pos);
     }
 
+    /*
+     * (non-Javadoc)
+     *
+     * @see edu.mit.jwi.IDictionary#getSynsetStream(edu.edu.mit.jwi.item.POS)
+     */
+    @NonNull
+    public Stream<ISynset> getSynsetStream(POS pos)
+    {
+        DictionaryData d = data;
+        if (d != null)
+        {
+            return requireNonNull(d.synsets.get(pos)).values().stream();
+        }
+        return requireNonNull(backing).getSynsetStream(pos);
+    }
+
     /*
      * (non-Javadoc)
      *
@@ -800,6 +889,22 @@ public class RAMDictionary implements IRAMDictionary
         return new HotSwappableSenseEntryIterator();
     }
 
+    /*
+     * (non-Javadoc)
+     *
+     * @see edu.mit.jwi.IDictionary#getSenseEntryStream()
+     */
+    @NonNull
+    public Stream<ISenseEntry> getSenseEntryStream()
+    {
+        DictionaryData d = data;
+        if (d != null)
+        {
+            return d.senses.values().stream();
+        }
+        return requireNonNull(backing).getSenseEntryStream();
+    }
+
     /*
      * (non-Javadoc)
      *
@@ -843,6 +948,22 @@ public class RAMDictionary implements IRAMDictionary
         return new HotSwappableExceptionEntryIterator(pos);
     }
 
+    /*
+     * (non-Javadoc)
+     *
+     * @see edu.mit.jwi.IDictionary#getExceptionEntryStream(edu.edu.mit.jwi.item.POS)
+     */
+    @NonNull
+    public Stream<IExceptionEntry> getExceptionEntryStream(POS pos)
+    {
+        DictionaryData d = data;
+        if (d != null)
+        {
+            return requireNonNull(d.exceptions.get(pos)).values().stream();
+        }
+        return requireNonNull(backing).getExceptionEntryStream(pos);
+    }
+
     /**
      * An iterator that allows the dictionary to be loaded into memory while it
      * is iterating.
@@ -1508,6 +1629,35 @@ public class RAMDictionary implements IRAMDictionary
                     entry.setValue(makeIndexWord(entry.getValue()));
                 }
             }
+
+            // point the word and sense maps at the new words, so that the
+            // old words and synsets can be collected
+            Map<ISenseKey, IWord> newWords = makeMap(words.size() * 4 / 3 + 1, null);
+            for (POS pos : POS.values())
+            {
+                Map<ISynsetID, ISynset> sMap = synsets.get(pos);
+                assert sMap != null;
+                for (ISynset synset : sMap.values())
+                {
+                    for (IWord word : synset.getWords())
+                    {
+                        newWords.put(word.getSenseKey(), word);
+                    }
+                }
+            }
+            Map<ISenseKey, ISenseEntry> newSenses = makeMap(senses.size() * 4 / 3 + 1, null);
+            IWord word;
+            ISenseKey key;
+            ISenseEntry old;
+            for (Entry<ISenseKey, ISenseEntry> entry : senses.entrySet())
+            {
+                word = newWords.get(entry.getKey());
+                key = word == null ? entry.getKey() : word.getSenseKey();
+                old = entry.getValue();
+                newSenses.put(key, old.getSenseKey() == key ? old : new SenseEntry(key, old.getOffset(), old.getSenseNumber(), old.getTagCount()));
+            }
+            words = newWords;
+            senses = newSenses;
         }
 
         /**
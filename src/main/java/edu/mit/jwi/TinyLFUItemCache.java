@@ -0,0 +1,861 @@
+/* ******************************************************************************
+ * Java Wordnet Interface Library (JWI) v2.4.0
+ * Copyright (c) 2007-2015 Mark A. Finlayson
+ *
+ * JWI is distributed under the terms of the Creative Commons Attribution 4.0
+ * International Public License, which means it may be freely used for all
+ * purposes, as long as proper acknowledgment is made.  See the license file
+ * included with this distribution for more details.
+ *******************************************************************************/
+
+package edu.mit.jwi;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * <p>
+ * A cache for objects in JWI that keeps the items used most often, rather than
+ * those used last, following the W-TinyLFU policy. New items enter a small
+ * window, ordered by recency. An item pushed out of the window is only let
+ * into the main part of the cache if it has been used more often, as counted
+ * by a compact frequency sketch, than the item it would evict there. The main
+ * part is split into a probation and a protected segment, both ordered by
+ * recency: items are promoted to the protected segment on their second use.
+ * </p>
+ * <p>
+ * A scan over many items used once, or a burst of rare lemmas, thus passes
+ * through the window without flushing the items that every lookup needs, such
+ * as the synsets at the top of the hypernym hierarchy.
+ * </p>
+ * <p>
+ * Like its superclass, this cache may be used by any number of threads at
+ * once. Retrieving an item takes no lock: its use is recorded in a buffer,
+ * which is applied to the frequency sketch and the recency order in batches.
+ * Uses are dropped rather than waited for when the buffer is full.
+ * </p>
+ *
+ * @author Mark A. Finlayson
+ * @version 2.4.0
+ * @since JWI 2.4.1
+ */
+public class TinyLFUItemCache extends ConcurrentItemCache
+{
+    // default configuration
+    public static final int DEFAULT_WINDOW_PERCENTAGE = 1;
+    public static final int DEFAULT_PROTECTED_PERCENTAGE = 80;
+
+    // the weight of the lightest items, in estimated bytes, from which the
+    // number of items held by a cache bounded by weight only is reckoned
+    private static final int LIGHT_ITEM_WEIGHT = 256;
+
+    private volatile int windowPercentage;
+
+    private volatile int protectedPercentage;
+
+    /**
+     * Constructs a new cache with the default initial and maximum capacities,
+     * and default segment sizes, with caching enabled.
+     *
+     * @since JWI 2.4.1
+     */
+    public TinyLFUItemCache()
+    {
+        this(DEFAULT_INITIAL_CAPACITY, DEFAULT_MAXIMUM_CAPACITY, true);
+    }
+
+    /**
+     * Constructs a new cache with the specified initial and maximum
+     * capacities, and initial state of caching, and default segment sizes.
+     *
+     * @param initialCapacity the initial capacity of the cache
+     * @param maxCapacity     the maximum capacity of the cache; if less than
+     *                        one, the cache size is unlimited
+     * @param enabled         whether the cache starts out enabled
+     * @since JWI 2.4.1
+     */
+    public TinyLFUItemCache(int initialCapacity, int maxCapacity, boolean enabled)
+    {
+        this(initialCapacity, maxCapacity, DEFAULT_WINDOW_PERCENTAGE, DEFAULT_PROTECTED_PERCENTAGE, enabled);
+    }
+
+    /**
+     * Constructs a new cache with the specified capacities, segment sizes,
+     * and initial state of caching.
+     *
+     * @param initialCapacity     the initial capacity of the cache
+     * @param maxCapacity         the maximum capacity of the cache; if less
+     *                            than one, the cache size is unlimited
+     * @param windowPercentage    the share of the maximum capacity given to
+     *                            the window, in percent
+     * @param protectedPercentage the share of the main part of the cache
+     *                            given to the protected segment, in percent
+     * @param enabled             whether the cache starts out enabled
+     * @throws IllegalArgumentException if either percentage is not between 0
+     *                                  and 100
+     * @since JWI 2.4.1
+     */
+    public TinyLFUItemCache(int initialCapacity, int maxCapacity, int windowPercentage, int protectedPercentage, boolean enabled)
+    {
+        super(initialCapacity, maxCapacity, enabled);
+        setWindowPercentage(windowPercentage);
+        setProtectedPercentage(protectedPercentage);
+    }
+
+    /**
+     * Returns the share of the maximum capacity given to the window, in
+     * percent.
+     *
+     * @return the share of the window
+     * @since JWI 2.4.1
+     */
+    public int getWindowPercentage()
+    {
+        return windowPercentage;
+    }
+
+    /**
+     * Sets the share of the maximum capacity given to the window, in percent;
+     * the window always holds at least one item. A larger window suits
+     * lookups that favor recent items; a smaller one, lookups that favor
+     * frequent ones. Takes effect the next time the cache is opened.
+     *
+     * @param percentage the share of the window
+     * @throws IllegalArgumentException if the percentage is not between 0 and
+     *                                  100
+     * @since JWI 2.4.1
+     */
+    public void setWindowPercentage(int percentage)
+    {
+        if (percentage < 0 || percentage > 100)
+        {
+            throw new IllegalArgumentException();
+        }
+        windowPercentage = percentage;
+    }
+
+    /**
+     * Returns the share of the main part of the cache given to the protected
+     * segment, in percent.
+     *
+     * @return the share of the protected segment
+     * @since JWI 2.4.1
+     */
+    public int getProtectedPercentage()
+    {
+        return protectedPercentage;
+    }
+
+    /**
+     * Sets the share of the main part of the cache given to the protected
+     * segment, in percent. Takes effect the next time the cache is opened.
+     *
+     * @param percentage the share of the protected segment
+     * @throws IllegalArgumentException if the percentage is not between 0 and
+     *                                  100
+     * @since JWI 2.4.1
+     */
+    public void setProtectedPercentage(int percentage)
+    {
+        if (percentage < 0 || percentage > 100)
+        {
+            throw new IllegalArgumentException();
+        }
+        protectedPercentage = percentage;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see edu.mit.jwi.ConcurrentItemCache#makeCache(int)
+     */
+    @NonNull
+    @Override
+    protected <K, V> CacheMap<K, V> makeCache(int initialCapacity)
+    {
+        return new TinyLFUCache<>(initialCapacity, getSketchCapacity(), windowPercentage, protectedPercentage);
+    }
+
+    /**
+     * Returns the number of items the frequency sketches of the maps are
+     * sized for when they are made: the maximum capacity of this cache, or,
+     * if it has none, as many of the lightest items as its maximum weight
+     * holds, or else the default maximum capacity.
+     *
+     * @return the number of items
+     */
+    private int getSketchCapacity()
+    {
+        int capacity = getMaximumCapacity();
+        if (capacity > 0)
+        {
+            return capacity;
+        }
+        long weight = getMaximumWeight();
+        if (weight > 0)
+        {
+            return (int) Math.max(DEFAULT_MAXIMUM_CAPACITY, Math.min(weight / LIGHT_ITEM_WEIGHT, 1 << 24));
+        }
+        return DEFAULT_MAXIMUM_CAPACITY;
+    }
+
+    /**
+     * A map of cached items evicted by the W-TinyLFU policy. Lookups take no
+     * lock; caching an item takes the lock of the map.
+     *
+     * @param <K> the key type
+     * @param <V> the value type
+     * @author Mark A. Finlayson
+     * @version 2.4.0
+     * @since JWI 2.4.1
+     */
+    protected static class TinyLFUCache<K, V> extends CacheMap<K, V>
+    {
+        // the segments an entry may be in, and the states of an entry that
+        // is not linked in a segment yet, or any longer
+        private static final int NEW = 0;
+        private static final int WINDOW = 1;
+        private static final int PROBATION = 2;
+        private static final int PROTECTED = 3;
+        private static final int REMOVED = 4;
+
+        // the read buffer is striped by thread, each stripe holding the
+        // uses recorded since it was last drained
+        private static final int STRIPES = Math.min(64, Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 2 - 1) << 1);
+        private static final int STRIPE_SIZE = 16;
+
+        private final int windowPercentage;
+        private final int protectedPercentage;
+
+        @NonNull
+        private final ConcurrentMap<K, Node<K, V>> map;
+
+        private final Lock evictionLock = new ReentrantLock();
+
+        // guarded by the eviction lock
+        private final Node<K, V> window = new Node<>();
+        private final Node<K, V> probation = new Node<>();
+        private final Node<K, V> protect = new Node<>();
+        private final FrequencySketch sketch;
+        private int windowSize;
+        private int probationSize;
+        private int protectedSize;
+
+        // written by readers, drained under the eviction lock; the counts
+        // of the stripes are spaced out so that they do not share a line
+        private final AtomicReferenceArray<Node<K, V>> reads = new AtomicReferenceArray<>(STRIPES * STRIPE_SIZE);
+        private final AtomicIntegerArray readCounts = new AtomicIntegerArray(STRIPES * 16);
+
+        /**
+         * Constructs a new, empty map.
+         *
+         * @param initialCapacity     the initial capacity
+         * @param sketchCapacity      the number of items the frequency
+         *                            sketch is sized for; it only grows if
+         *                            the map is later given a larger
+         *                            capacity
+         * @param windowPercentage    the share of the capacity given to the
+         *                            window, in percent
+         * @param protectedPercentage the share of the main part given to the
+         *                            protected segment, in percent
+         * @since JWI 2.4.1
+         */
+        public TinyLFUCache(int initialCapacity, int sketchCapacity, int windowPercentage, int protectedPercentage)
+        {
+            this.map = new ConcurrentHashMap<>(initialCapacity);
+            this.sketch = new FrequencySketch(sketchCapacity);
+            this.windowPercentage = windowPercentage;
+            this.protectedPercentage = protectedPercentage;
+        }
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see edu.mit.jwi.ConcurrentItemCache.CacheMap#get(java.lang.Object)
+         */
+        @Nullable
+        public V get(K key)
+        {
+            Node<K, V> node = map.get(key);
+            if (node == null)
+            {
+                return null;
+            }
+            recordRead(node);
+            return node.value;
+        }
+
+        /**
+         * Records a use of the specified entry in the read buffer, and drains
+         * the buffer if the stripe of the current thread is full and no other
+         * thread holds the lock.
+         *
+         * @param node the entry used
+         */
+        private void recordRead(@NonNull Node<K, V> node)
+        {
+            int stripe = (int) Thread.currentThread().getId() & (STRIPES - 1);
+            int count = readCounts.getAndIncrement(stripe << 4) & (STRIPE_SIZE - 1);
+            reads.lazySet(stripe * STRIPE_SIZE + count, node);
+            if (count == STRIPE_SIZE - 1 && evictionLock.tryLock())
+            {
+                try
+                {
+                    drainReads();
+                }
+                finally
+                {
+                    evictionLock.unlock();
+                }
+            }
+        }
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see edu.mit.jwi.ConcurrentItemCache.CacheMap#put(java.lang.Object, java.lang.Object, int, int)
+         */
+        public void put(K key, V value, int weight, int capacity)
+        {
+            Node<K, V> node = new Node<>(key, value, weight);
+            // counted before the entry can be seen, so that it is never
+            // subtracted first
+            addWeight(weight);
+            Node<K, V> old = map.putIfAbsent(key, node);
+            if (old != null)
+            {
+                addWeight(-weight);
+                if (old.weight != weight)
+                {
+                    reweigh(key, old, weight);
+                }
+                old.value = value;
+                recordRead(old);
+                return;
+            }
+            try
+            {
+                evictionLock.lock();
+                drainReads();
+                // unless the map was cleared in the meantime
+                if (map.get(key) == node)
+                {
+                    sketch.increment(key.hashCode());
+                    node.segment = WINDOW;
+                    link(window, node);
+                    windowSize++;
+                }
+                evictEntries(capacity);
+            }
+            finally
+            {
+                evictionLock.unlock();
+            }
+        }
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see edu.mit.jwi.ConcurrentItemCache.CacheMap#evict(int)
+         */
+        public void evict(int capacity)
+        {
+            try
+            {
+                evictionLock.lock();
+                drainReads();
+                evictEntries(capacity);
+            }
+            finally
+            {
+                evictionLock.unlock();
+            }
+        }
+
+        /**
+         * Changes the weight of the specified entry, unless it was evicted.
+         *
+         * @param key    the key of the entry
+         * @param node   the entry
+         * @param weight the new weight
+         */
+        private void reweigh(K key, @NonNull Node<K, V> node, int weight)
+        {
+            try
+            {
+                evictionLock.lock();
+                if (map.get(key) == node)
+                {
+                    addWeight(weight - node.weight);
+                    node.weight = weight;
+                }
+            }
+            finally
+            {
+                evictionLock.unlock();
+            }
+        }
+
+        /**
+         * Evicts the entry chosen as W-TinyLFU would to make room in a full
+         * cache: the entry leaving the window and the next victim of the main
+         * part are compared, and the one used less often is evicted.
+         *
+         * @return <code>true</code> if an entry was evicted;
+         * <code>false</code> if the map is empty
+         * @since JWI 2.4.1
+         */
+        public boolean evictOne()
+        {
+            try
+            {
+                evictionLock.lock();
+                drainReads();
+                Node<K, V> candidate = window.next != window ? window.next : null;
+                Node<K, V> victim = probation.next != probation ? probation.next : protect.next != protect ? protect.next : null;
+                if (candidate == null && victim == null)
+                {
+                    return false;
+                }
+                if (candidate == null)
+                {
+                    remove(victim);
+                }
+                else if (victim == null)
+                {
+                    remove(candidate);
+                }
+                else
+                {
+                    assert candidate.key != null && victim.key != null;
+                    remove(sketch.frequency(candidate.key.hashCode()) > sketch.frequency(victim.key.hashCode()) ? victim : candidate);
+                }
+                return true;
+            }
+            finally
+            {
+                evictionLock.unlock();
+            }
+        }
+
+        /**
+         * Applies the uses recorded in the read buffer. Must be called under
+         * the eviction lock.
+         */
+        private void drainReads()
+        {
+            Node<K, V> node;
+            for (int i = 0; i < reads.length(); i++)
+            {
+                if (reads.get(i) != null && (node = reads.getAndSet(i, null)) != null)
+                {
+                    onAccess(node);
+                }
+            }
+        }
+
+        /**
+         * Counts a use of the specified entry, and moves it to the most
+         * recently used end of its segment; entries on probation are promoted
+         * to the protected segment. Must be called under the eviction lock.
+         *
+         * @param node the entry used
+         */
+        private void onAccess(@NonNull Node<K, V> node)
+        {
+            // uses of entries that are not linked yet are counted when they are
+            if (node.segment == NEW || node.segment == REMOVED)
+            {
+                return;
+            }
+            assert node.key != null;
+            sketch.increment(node.key.hashCode());
+            unlink(node);
+            if (node.segment == WINDOW)
+            {
+                link(window, node);
+            }
+            else if (node.segment == PROBATION)
+            {
+                probationSize--;
+                node.segment = PROTECTED;
+                link(protect, node);
+                protectedSize++;
+            }
+            else
+            {
+                link(protect, node);
+            }
+        }
+
+        /**
+         * Evicts entries until no more than the specified number are left,
+         * and resizes the segments to fit the capacity. Must be called under
+         * the eviction lock.
+         *
+         * @param capacity the maximum number of items; if less than one,
+         *                 nothing is evicted, and the segments are sized to
+         *                 the entries held, so that entries still move from
+         *                 the window to the main part for {@link #evictOne()}
+         */
+        private void evictEntries(int capacity)
+        {
+            if (capacity < 1)
+            {
+                capacity = windowSize + probationSize + protectedSize;
+                if (capacity < 1)
+                {
+                    return;
+                }
+            }
+            else
+            {
+                // only when the maximum capacity was raised
+                sketch.ensureCapacity(capacity);
+            }
+            int windowMax = Math.max(1, (int) ((long) capacity * windowPercentage / 100));
+            int mainMax = capacity - windowMax;
+            int protectedMax = (int) ((long) mainMax * protectedPercentage / 100);
+
+            // entries leaving the window are let into the main part if it has
+            // room, or if they are used more often than its next victim
+            Node<K, V> candidate, victim;
+            while (windowSize > windowMax)
+            {
+                candidate = window.next;
+                unlink(candidate);
+                windowSize--;
+                candidate.segment = PROBATION;
+                link(probation, candidate);
+                probationSize++;
+                if (probationSize + protectedSize <= mainMax)
+                {
+                    continue;
+                }
+                victim = probation.next != candidate ? probation.next : protect.next != protect ? protect.next : null;
+                assert candidate.key != null;
+                if (victim != null && victim.key != null && sketch.frequency(candidate.key.hashCode()) > sketch.frequency(victim.key.hashCode()))
+                {
+                    remove(victim);
+                }
+                else
+                {
+                    remove(candidate);
+                }
+            }
+
+            // when the capacity shrinks
+            while (probationSize + protectedSize > mainMax)
+            {
+                remove(probation.next != probation ? probation.next : protect.next);
+            }
+            while (protectedSize > protectedMax)
+            {
+                Node<K, V> node = protect.next;
+                unlink(node);
+                protectedSize--;
+                node.segment = PROBATION;
+                link(probation, node);
+                probationSize++;
+            }
+        }
+
+        /**
+         * Removes the specified entry from its segment and from the map. Must
+         * be called under the eviction lock.
+         *
+         * @param node the entry
+         */
+        private void remove(@NonNull Node<K, V> node)
+        {
+            unlink(node);
+            if (node.segment == WINDOW)
+            {
+                windowSize--;
+            }
+            else if (node.segment == PROBATION)
+            {
+                probationSize--;
+            }
+            else
+            {
+                protectedSize--;
+            }
+            node.segment = REMOVED;
+            assert node.key != null;
+            if (map.remove(node.key, node))
+            {
+                addWeight(-node.weight);
+            }
+        }
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see edu.mit.jwi.ConcurrentItemCache.CacheMap#size()
+         */
+        public int size()
+        {
+            return map.size();
+        }
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see edu.mit.jwi.ConcurrentItemCache.CacheMap#clear()
+         */
+        public void clear()
+        {
+            try
+            {
+                evictionLock.lock();
+                for (Node<K, V> head : Arrays.asList(window, probation, protect))
+                {
+                    for (Node<K, V> node = head.next; node != head; node = node.next)
+                    {
+                        node.segment = REMOVED;
+                    }
+                    head.next = head;
+                    head.prev = head;
+                }
+                windowSize = 0;
+                probationSize = 0;
+                protectedSize = 0;
+                for (Node<K, V> node : map.values())
+                {
+                    assert node.key != null;
+                    if (map.remove(node.key, node))
+                    {
+                        addWeight(-node.weight);
+                    }
+                }
+                for (int i = 0; i < reads.length(); i++)
+                {
+                    reads.set(i, null);
+                }
+            }
+            finally
+            {
+                evictionLock.unlock();
+            }
+        }
+
+        /**
+         * Links the specified entry at the most recently used end of the
+         * segment with the specified head.
+         *
+         * @param head the head of the segment
+         * @param node the entry
+         */
+        private static <K, V> void link(@NonNull Node<K, V> head, @NonNull Node<K, V> node)
+        {
+            node.prev = head.prev;
+            node.next = head;
+            head.prev.next = node;
+            head.prev = node;
+        }
+
+        /**
+         * Unlinks the specified entry from its segment.
+         *
+         * @param node the entry
+         */
+        private static <K, V> void unlink(@NonNull Node<K, V> node)
+        {
+            node.prev.next = node.next;
+            node.next.prev = node.prev;
+            node.prev = node;
+            node.next = node;
+        }
+    }
+
+    /**
+     * An entry of a {@link TinyLFUCache}, or the head of one of its segments,
+     * which are circular lists running from the least to the most recently
+     * used entry.
+     *
+     * @param <K> the key type
+     * @param <V> the value type
+     */
+    private static final class Node<K, V>
+    {
+        @Nullable
+        final K key;
+        @Nullable
+        volatile V value;
+
+        // guarded by the eviction lock
+        int segment;
+        int weight;
+        @NonNull
+        Node<K, V> prev = this;
+        @NonNull
+        Node<K, V> next = this;
+
+        /**
+         * Constructs the head of a segment.
+         */
+        Node()
+        {
+            this.key = null;
+        }
+
+        /**
+         * Constructs an entry.
+         *
+         * @param key    the key
+         * @param value  the item
+         * @param weight the weight of the item
+         */
+        Node(@NonNull K key, @NonNull V value, int weight)
+        {
+            this.key = key;
+            this.value = value;
+            this.weight = weight;
+        }
+    }
+
+    /**
+     * A count-min sketch of how often keys were used, in four-bit counters.
+     * Each key is counted in four counters, of which the smallest is its
+     * estimate. All counters are halved once the sketch has counted ten
+     * times as many uses as the cache holds items, so that the sketch
+     * forgets uses that are long past. The sketch is sized once, from the
+     * capacity of the cache, as its counts are lost when it grows. Must be
+     * used under the eviction lock.
+     * <p>
+     * This sketch is adapted from the <code>FrequencySketch</code> of the
+     * Caffeine library (https://github.com/ben-manes/caffeine), Copyright
+     * Ben Manes, which is licensed under the Apache License, Version 2.0
+     * (http://www.apache.org/licenses/LICENSE-2.0). Unless required by
+     * applicable law or agreed to in writing, software distributed under that
+     * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+     * CONDITIONS OF ANY KIND, either express or implied. The layout of the
+     * counters, the seeds and the halving of the counters come from it; the
+     * sizing and the locking were changed to fit this cache.
+     * </p>
+     */
+    private static final class FrequencySketch
+    {
+        private static final long[] SEEDS = {0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L};
+        private static final long RESET_MASK = 0x7777777777777777L;
+
+        // sixteen counters per word
+        private long[] table = new long[0];
+        private int sampleSize;
+        private int additions;
+
+        /**
+         * Constructs a sketch sized for a cache with the specified capacity.
+         *
+         * @param capacity the capacity of the cache
+         */
+        FrequencySketch(int capacity)
+        {
+            ensureCapacity(capacity);
+        }
+
+        /**
+         * Makes sure the sketch is large enough to tell apart the keys of a
+         * cache with the specified capacity. Counts are lost when the sketch
+         * grows.
+         *
+         * @param capacity the capacity of the cache
+         */
+        void ensureCapacity(int capacity)
+        {
+            int size = capacity <= 8 ? 8 : Integer.highestOneBit(Math.min(capacity, 1 << 29) - 1) << 1;
+            if (table.length >= size)
+            {
+                return;
+            }
+            table = new long[size];
+            sampleSize = 10 * Math.min(capacity, Integer.MAX_VALUE / 10);
+            additions = 0;
+        }
+
+        /**
+         * Returns the estimated number of uses of the key with the specified
+         * hash code, up to fifteen.
+         *
+         * @param hashCode the hash code of the key
+         * @return the estimated number of uses
+         */
+        int frequency(int hashCode)
+        {
+            if (table.length == 0)
+            {
+                return 0;
+            }
+            int hash = spread(hashCode);
+            int start = (hash & 3) << 2;
+            int frequency = 15;
+            for (int i = 0; i < 4; i++)
+            {
+                int count = (int) ((table[indexOf(hash, i)] >>> ((start + i) << 2)) & 15);
+                frequency = Math.min(frequency, count);
+            }
+            return frequency;
+        }
+
+        /**
+         * Counts a use of the key with the specified hash code.
+         *
+         * @param hashCode the hash code of the key
+         */
+        void increment(int hashCode)
+        {
+            if (table.length == 0)
+            {
+                return;
+            }
+            int hash = spread(hashCode);
+            int start = (hash & 3) << 2;
+            boolean added = false;
+            for (int i = 0; i < 4; i++)
+            {
+                int index = indexOf(hash, i);
+                long offset = (start + i) << 2;
+                if (((table[index] >>> offset) & 15) != 15)
+                {
+                    table[index] += 1L << offset;
+                    added = true;
+                }
+            }
+            if (added && ++additions == sampleSize)
+            {
+                for (int i = 0; i < table.length; i++)
+                {
+                    table[i] = (table[i] >>> 1) & RESET_MASK;
+                }
+                additions >>>= 1;
+            }
+        }
+
+        /**
+         * Returns the index of the word that holds the counter of the
+         * specified row for the specified hash.
+         */
+        private int indexOf(int hash, int row)
+        {
+            long h = (hash + SEEDS[row]) * SEEDS[row];
+            h += h >>> 32;
+            return (int) h & (table.length - 1);
+        }
+
+        /**
+         * Spreads the bits of a hash code, as keys may have poor ones.
+         */
+        private static int spread(int x)
+        {
+            x = ((x >>> 16) ^ x) * 0x45d9f3b;
+            x = ((x >>> 16) ^ x) * 0x45d9f3b;
+            return (x >>> 16) ^ x;
+        }
+    }
+}
@@ -15,6 +15,7 @@ import edu.mit.jwi.Nullable;
 
 import java.io.File;
 import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
 import java.util.Comparator;
 
 /**
@@ -52,7 +53,43 @@ public class BinarySearchWordnetFile<T> extends WordnetFile<T>
         fComparator = getContentType().getLineComparator();
     }
 
-    private final Object bufferLock = new Object();
+    /**
+     * Constructs a new binary search wordnet file, on the specified content
+     * held in memory, with the specified content type.
+     *
+     * @param name        the name of the content; may not be <code>null</code>
+     * @param content     the content which backs this wordnet file; may not be
+     *                    <code>null</code>
+     * @param contentType the content type for this file; may not be <code>null</code>
+     * @throws NullPointerException if any argument is <code>null</code>
+     * @since JWI 2.4.1
+     */
+    public BinarySearchWordnetFile(@NonNull String name, @NonNull ByteBuffer content, IContentType<T> contentType)
+    {
+        super(name, content, contentType);
+        assert getContentType() != null;
+        fComparator = getContentType().getLineComparator();
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see edu.edu.mit.jwi.data.WordnetFile#wantsLineIndex()
+     */
+    protected boolean wantsLineIndex()
+    {
+        return getIndexLines();
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see edu.edu.mit.jwi.data.WordnetFile#wantsHashIndex()
+     */
+    protected boolean wantsHashIndex()
+    {
+        return getHashIndexes() && LineHashIndex.supports(fComparator);
+    }
 
     /*
      * (non-Javadoc)
@@ -62,48 +99,111 @@ public class BinarySearchWordnetFile<T> extends WordnetFile<T>
     @Nullable
     public String getLine(String key)
     {
+        countAccess();
+        beginRead();
+        try
+        {
+            ByteBuffer buffer = seekLine(key);
+            assert getContentType() != null;
+            return buffer == null ? null : getLine(buffer, getContentType().getCharset());
+        }
+        finally
+        {
+            endRead();
+        }
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see edu.edu.mit.jwi.data.WordnetFile#seekLine(java.lang.String)
+     */
+    @Nullable
+    protected ByteBuffer seekLine(@NonNull String key)
+    {
+        // files mapped in several segments are searched over long offsets
+        if (getSegments() != null)
+        {
+            return findLineView(key, fComparator);
+        }
+
+        // each lookup works on its own view of the shared buffer, so that
+        // concurrent lookups neither contend for a lock nor disturb each
+        // other's position
         ByteBuffer buffer = getBuffer();
+        assert buffer != null;
+        buffer = buffer.duplicate();
+        assert getContentType() != null;
+        Charset cs = getContentType().getCharset();
 
-        synchronized (bufferLock)
+        // if the keys have been hashed, look the key up directly
+        LineHashIndex index = getHashIndex();
+        if (index != null)
         {
-            int start = 0;
-            int midpoint;
-            assert buffer != null;
-            int stop = buffer.limit();
-            int cmp;
-            String line;
-            while (stop - start > 1)
+            int offset = index.find(buffer, key, fComparator, cs);
+            if (offset != -1)
+            {
+                buffer.position(offset);
+                return buffer;
+            }
+            if (index.isConclusiveMiss(key))
             {
-                // find the middle of the buffer
-                midpoint = (start + stop) / 2;
-                buffer.position(midpoint);
+                return null;
+            }
+        }
 
-                // back up to the beginning of the line
-                rewindToLineStart(buffer);
+        // if the lines have been indexed, search over line numbers
+        int[] offsets = getLineOffsets();
+        if (offsets != null)
+        {
+            int i = findFirstLineIndex(buffer, offsets, key, fComparator, cs);
+            if (i == offsets.length)
+            {
+                return null;
+            }
+            if (compareLine(buffer, offsets[i], key, fComparator, cs) != 0)
+            {
+                return null;
+            }
+            buffer.position(offsets[i]);
+            return buffer;
+        }
 
-                // read line
-                assert getContentType() != null;
-                line = getLine(buffer, getContentType().getCharset());
+        int start = 0;
+        int midpoint;
+        int stop = buffer.limit();
+        int lineStart;
+        int cmp;
+        while (stop - start > 1)
+        {
+            // find the middle of the buffer
+            midpoint = (start + stop) / 2;
+            buffer.position(midpoint);
 
-                // if we get a null, we've reached the end of the file
-                cmp = (line == null) ? 1 : fComparator.compare(line, key);
+            // back up to the beginning of the line
+            rewindToLineStart(buffer);
+            lineStart = buffer.position();
 
-                // found our line
-                if (cmp == 0)
-                {
-                    return line;
-                }
+            // compare the line in place; if it starts at the
+            // end of the file, it compares greater than the key
+            cmp = compareLine(buffer, lineStart, key, fComparator, cs);
 
-                if (cmp > 0)
-                {
-                    // too far forward
-                    stop = midpoint;
-                }
-                else
-                {
-                    // too far back
-                    start = midpoint;
-                }
+            // found our line
+            if (cmp == 0)
+            {
+                buffer.position(lineStart);
+                return buffer;
+            }
+
+            if (cmp > 0)
+            {
+                // too far forward
+                stop = midpoint;
+            }
+            else
+            {
+                // too far back
+                start = midpoint;
             }
         }
         return null;
@@ -159,6 +259,41 @@ public class BinarySearchWordnetFile<T> extends WordnetFile<T>
         {
             synchronized (bufferLock)
             {
+                // files mapped in several segments are searched over long offsets
+                if (getSegments() != null)
+                {
+                    seek(findFirstLineOffset(key, fComparator));
+                    String line = readLine();
+                    if (line != null && (fComparator.compare(line, key) == 0 || line.startsWith(key)))
+                    {
+                        next = line;
+                    }
+                    return;
+                }
+
+                // if the lines have been indexed, start at the first line
+                // that does not sort before the key
+                int[] offsets = getLineOffsets();
+                if (offsets != null)
+                {
+                    assert getContentType() != null;
+                    Charset cs = getContentType().getCharset();
+                    int i = findFirstLineIndex(itrBuffer, offsets, key, fComparator, cs);
+                    if (i < offsets.length)
+                    {
+                        itrBuffer.position(offsets[i]);
+                        String line = getLine(itrBuffer, cs);
+                        assert line != null;
+                        if (fComparator.compare(line, key) == 0 || line.startsWith(key))
+                        {
+                            next = line;
+                            return;
+                        }
+                    }
+                    itrBuffer.position(itrBuffer.limit());
+                    return;
+                }
+
                 int lastOffset = -1;
                 int start = 0;
                 int stop = itrBuffer.limit();
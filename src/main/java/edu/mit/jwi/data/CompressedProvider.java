@@ -0,0 +1,127 @@
+/* ******************************************************************************
+ * Java Wordnet Interface Library (JWI) v2.4.0
+ * Copyright (c) 2007-2015 Mark A. Finlayson
+ *
+ * JWI is distributed under the terms of the Creative Commons Attribution 4.0
+ * International Public License, which means it may be freely used for all
+ * purposes, as long as proper acknowledgment is made.  See the license file
+ * included with this distribution for more details.
+ *******************************************************************************/
+
+package edu.mit.jwi.data;
+
+import edu.mit.jwi.NonNull;
+import edu.mit.jwi.Nullable;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Implementation of a data provider for Wordnet over a directory of files in
+ * the block-compressed format of {@link CompressedWordnetFile}, as written by
+ * {@link CompressedWordnetFile#compressDirectory(File, File, int)}. Only the
+ * files whose names end with {@link CompressedWordnetFile#SUFFIX} are
+ * considered; they are matched to content types by name, as by
+ * {@link FileProvider}.
+ *
+ * @author Mark A. Finlayson
+ * @version 2.4.0
+ * @since JWI 2.4.1
+ */
+public class CompressedProvider extends FileProvider
+{
+    /**
+     * Constructs the provider over the specified directory. This provider has
+     * an initial {@link ILoadPolicy#NO_LOAD} load policy.
+     *
+     * @param file the directory holding the compressed files; may not be
+     *             <code>null</code>
+     * @throws NullPointerException if the specified file is <code>null</code>
+     * @since JWI 2.4.1
+     */
+    public CompressedProvider(File file)
+    {
+        this(file, NO_LOAD);
+    }
+
+    /**
+     * Constructs the provider over the specified directory, with the
+     * specified load policy. Loading a compressed file inflates all of its
+     * blocks.
+     *
+     * @param file       the directory holding the compressed files; may not
+     *                   be <code>null</code>
+     * @param loadPolicy the load policy for this provider
+     * @throws NullPointerException if the specified file is <code>null</code>
+     * @since JWI 2.4.1
+     */
+    public CompressedProvider(File file, int loadPolicy)
+    {
+        this(toURL(file), loadPolicy, ContentType.values());
+    }
+
+    /**
+     * Constructs the provider over the specified directory, with the
+     * specified load policy, looking for the specified content types.
+     *
+     * @param url          the URL of the directory holding the compressed
+     *                     files; may not be <code>null</code>
+     * @param loadPolicy   the load policy for this provider
+     * @param contentTypes the content types this provider will look for when
+     *                     it loads its data; may not be <code>null</code> or
+     *                     empty
+     * @throws NullPointerException     if the url or content type collection
+     *                                  is <code>null</code>
+     * @throws IllegalArgumentException if the set of types is empty
+     * @since JWI 2.4.1
+     */
+    public CompressedProvider(@Nullable URL url, int loadPolicy, @NonNull Collection<? extends IContentType<?>> contentTypes)
+    {
+        super(url, loadPolicy, contentTypes);
+    }
+
+    /**
+     * This implementation keeps only the compressed files of the directory.
+     *
+     * @see edu.mit.jwi.data.FileProvider#listFiles()
+     */
+    @NonNull
+    @Override
+    protected List<File> listFiles() throws IOException
+    {
+        List<File> files = super.listFiles();
+        files.removeIf(f -> !f.getName().endsWith(CompressedWordnetFile.SUFFIX));
+        if (files.isEmpty())
+        {
+            throw new IOException("No compressed files found in " + getSource());
+        }
+        return files;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see edu.edu.mit.jwi.data.FileProvider#createDirectAccess(java.io.File, edu.edu.mit.jwi.data.IContentType)
+     */
+    @NonNull
+    @Override
+    protected <T> ILoadableDataSource<T> createDirectAccess(@NonNull File file, IContentType<T> contentType)
+    {
+        return new CompressedWordnetFile<>(file, contentType);
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see edu.edu.mit.jwi.data.FileProvider#createBinarySearch(java.io.File, edu.edu.mit.jwi.data.IContentType)
+     */
+    @NonNull
+    @Override
+    protected <T> ILoadableDataSource<T> createBinarySearch(@NonNull File file, IContentType<T> contentType)
+    {
+        return new CompressedWordnetFile<>(file, contentType);
+    }
+}
@@ -0,0 +1,1600 @@
+/* ******************************************************************************
+ * Java Wordnet Interface Library (JWI) v2.4.0
+ * Copyright (c) 2007-2015 Mark A. Finlayson
+ *
+ * JWI is distributed under the terms of the Creative Commons Attribution 4.0
+ * International Public License, which means it may be freely used for all
+ * purposes, as long as proper acknowledgment is made.  See the license file
+ * included with this distribution for more details.
+ *******************************************************************************/
+
+package edu.mit.jwi.data;
+
+import edu.mit.jwi.NonNull;
+import edu.mit.jwi.Nullable;
+import edu.mit.jwi.data.compare.ByteLines;
+import edu.mit.jwi.data.compare.CommentComparator;
+import edu.mit.jwi.data.compare.ICommentDetector;
+import edu.mit.jwi.data.parse.IByteLineParser;
+import edu.mit.jwi.item.IVersion;
+import edu.mit.jwi.item.Version;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedByInterruptException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * <p>
+ * A data source over a Wordnet file stored in a block-compressed format. The
+ * content of the original file is cut into blocks of a fixed size, each of
+ * which is deflated on its own, and a block index records, for each block,
+ * where its compressed bytes are, and the key of the first line that starts
+ * in it. Byte offsets are those of the original file, so that data files can
+ * still be looked up by offset.
+ * </p>
+ * <p>
+ * A lookup by offset inflates the block holding the offset; a lookup by key
+ * searches the block index for the block the key falls in, and inflates that
+ * block, and the next one if the line crosses into it. Inflated blocks are
+ * kept in a small least-recently-used cache (see
+ * {@link #setBlockCacheSize(int)}); loading the file inflates all of its
+ * blocks once and for all.
+ * </p>
+ * <p>
+ * Compressed files are made from the original ones with
+ * {@link #compress(File, File, int)} or
+ * {@link #compressDirectory(File, File, int)}, and are opened by a
+ * {@link CompressedProvider}.
+ * </p>
+ *
+ * @param <T> the type of object represented in this data resource
+ * @author Mark A. Finlayson
+ * @version 2.4.0
+ * @since JWI 2.4.1
+ */
+public class CompressedWordnetFile<T> implements ILoadableDataSource<T>, IByteLineSource
+{
+    /**
+     * The suffix appended to the name of a file when it is compressed.
+     *
+     * @since JWI 2.4.1
+     */
+    public static final String SUFFIX = ".jwz";
+
+    /**
+     * The default size of a block of the original file, in bytes.
+     *
+     * @since JWI 2.4.1
+     */
+    public static final int DEFAULT_BLOCK_SIZE = 1 << 15;
+
+    /**
+     * The default number of inflated blocks cached by each file.
+     *
+     * @since JWI 2.4.1
+     */
+    public static final int DEFAULT_BLOCK_CACHE_SIZE = 16;
+
+    // format: magic, version, block size, length, block count, index length,
+    // the index (per block: position and length of the compressed bytes,
+    // offset of the first line starting in the block, key of that line),
+    // then the compressed blocks
+    private static final int MAGIC = 0x4A57495A; // "JWIZ"
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_LENGTH = 28;
+
+    // the number of inflated blocks cached by each file
+    private static volatile int blockCacheSize = DEFAULT_BLOCK_CACHE_SIZE;
+
+    // final instance fields
+    @NonNull
+    private final String name;
+    @NonNull
+    private final File file;
+    @NonNull
+    private final IContentType<T> contentType;
+    @NonNull
+    private final Comparator<String> comparator;
+    @Nullable
+    private final ICommentDetector detector;
+    @Nullable
+    private final Charset charset;
+    private final boolean directAccess;
+    private final boolean startSearch;
+    @NonNull
+    private final Lock lifecycleLock = new ReentrantLock();
+    @NonNull
+    private final AtomicLong inflated = new AtomicLong();
+
+    // fields set when the file is opened
+    @Nullable
+    private volatile FileChannel channel;
+    private int blockSize;
+    private long length;
+    private long dataStart;
+    @Nullable
+    private long[] positions;
+    @Nullable
+    private int[] compressedLengths;
+    @Nullable
+    private long[] keyedOffsets;
+    @Nullable
+    private String[] keys;
+    @Nullable
+    private Map<Integer, ByteBuffer> cache;
+    @Nullable
+    private volatile ByteBuffer[] blocks;
+    @Nullable
+    private IVersion version;
+
+    /**
+     * Constructs a new compressed wordnet file, on the specified file with
+     * the specified content type. Files of data content types are looked up
+     * by offset; the others, by key.
+     *
+     * @param file        the compressed file; may not be <code>null</code>
+     * @param contentType the content type for this file; may not be
+     *                    <code>null</code>
+     * @throws NullPointerException if either argument is <code>null</code>
+     * @since JWI 2.4.1
+     */
+    public CompressedWordnetFile(@NonNull File file, @Nullable IContentType<T> contentType)
+    {
+        if (contentType == null)
+        {
+            throw new NullPointerException();
+        }
+        this.name = file.getName();
+        this.file = file;
+        this.contentType = contentType;
+        this.comparator = contentType.getLineComparator();
+        this.detector = contentType.getLineComparator().getCommentDetector();
+        this.charset = contentType.getCharset();
+        this.directAccess = contentType.getDataType() == DataType.DATA;
+        this.startSearch = "Word".equals(contentType.getDataType().toString());
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see edu.edu.mit.jwi.data.IDataSource#getName()
+     */
+    @NonNull
+    public String getName()
+    {
+        return name;
+    }
+
+    /**
+     * Returns the compressed file that backs this data source.
+     *
+     * @return the compressed file
+     * @since JWI 2.4.1
+     */
+    @NonNull
+    public File getFile()
+    {
+        return file;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see edu.edu.mit.jwi.data.IDataSource#getContentType()
+     */
+    @NonNull
+    public IContentType<T> getContentType()
+    {
+        return contentType;
+    }
+
+    /**
+     * Get the number of inflated blocks cached by each file.
+     *
+     * @return the number of inflated blocks cached by each file
+     * @since JWI 2.4.1
+     */
+    public static int getBlockCacheSize()
+    {
+        return blockCacheSize;
+    }
+
+    /**
+     * Set the number of inflated blocks cached by each file. Files take up
+     * the new size when they are opened.
+     *
+     * @param size the number of blocks, at least 1
+     * @throws IllegalArgumentException if the size is less than 1
+     * @since JWI 2.4.1
+     */
+    public static void setBlockCacheSize(int size)
+    {
+        if (size < 1)
+        {
+            throw new IllegalArgumentException("block cache size must be at least 1");
+        }
+        blockCacheSize = size;
+    }
+
+    /**
+     * Returns the number of blocks this file has inflated since it was
+     * constructed, whether into its cache or when loading.
+     *
+     * @return the number of blocks inflated
+     * @since JWI 2.4.1
+     */
+    public long getInflatedBlockCount()
+    {
+        return inflated.get();
+    }
+
+    /**
+     * Returns the length of the original file.
+     *
+     * @return the length of the original file, in bytes
+     * @throws ObjectClosedException if the object is closed
+     * @since JWI 2.4.1
+     */
+    public long getLength()
+    {
+        checkOpen();
+        return length;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see edu.edu.mit.jwi.data.IHasLifecycle#open()
+     */
+    public boolean open() throws IOException
+    {
+        try
+        {
+            lifecycleLock.lock();
+            if (isOpen())
+            {
+                return true;
+            }
+            FileChannel ch = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+            try
+            {
+                readIndex(ch);
+            }
+            catch (IOException | RuntimeException e)
+            {
+                ch.close();
+                throw e;
+            }
+            final int capacity = blockCacheSize;
+            cache = new LinkedHashMap<Integer, ByteBuffer>(capacity * 2, 0.75f, true)
+            {
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Integer, ByteBuffer> eldest)
+                {
+                    return size() > capacity;
+                }
+            };
+            channel = ch;
+            return true;
+        }
+        finally
+        {
+            lifecycleLock.unlock();
+        }
+    }
+
+    /**
+     * Reads the header and the block index of the file.
+     *
+     * @param ch the channel to read from
+     * @throws IOException if there is a problem reading the channel, or if it
+     *                     is not in the compressed format
+     */
+    private void readIndex(@NonNull FileChannel ch) throws IOException
+    {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_LENGTH);
+        readFully(ch, header, 0);
+        header.flip();
+        if (header.getInt() != MAGIC)
+        {
+            throw new IOException("Not a compressed Wordnet file: " + file);
+        }
+        int formatVersion = header.getInt();
+        if (formatVersion != FORMAT_VERSION)
+        {
+            throw new IOException("Unsupported format version " + formatVersion + ": " + file);
+        }
+        blockSize = header.getInt();
+        length = header.getLong();
+        int count = header.getInt();
+        int indexLength = header.getInt();
+
+        ByteBuffer index = ByteBuffer.allocate(indexLength);
+        readFully(ch, index, HEADER_LENGTH);
+        index.flip();
+        dataStart = HEADER_LENGTH + indexLength;
+
+        positions = new long[count];
+        compressedLengths = new int[count];
+        List<Long> offsetList = new ArrayList<>(count);
+        List<String> keyList = new ArrayList<>(count);
+        Charset cs = charset == null ? StandardCharsets.ISO_8859_1 : charset;
+        int firstLine, keyLength;
+        byte[] key;
+        for (int i = 0; i < count; i++)
+        {
+            positions[i] = index.getLong();
+            compressedLengths[i] = index.getInt();
+            firstLine = index.getInt();
+            keyLength = index.getShort() & 0xFFFF;
+            key = new byte[keyLength];
+            index.get(key);
+            if (firstLine >= 0)
+            {
+                offsetList.add((long) i * blockSize + firstLine);
+                keyList.add(new String(key, cs));
+            }
+        }
+        keyedOffsets = new long[offsetList.size()];
+        for (int i = 0; i < keyedOffsets.length; i++)
+        {
+            keyedOffsets[i] = offsetList.get(i);
+        }
+        keys = keyList.toArray(new String[0]);
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see edu.edu.mit.jwi.data.IHasLifecycle#isOpen()
+     */
+    public boolean isOpen()
+    {
+        return channel != null;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see edu.edu.mit.jwi.data.IClosable#close()
+     */
+    public void close()
+    {
+        try
+        {
+            lifecycleLock.lock();
+            FileChannel ch = channel;
+            channel = null;
+            blocks = null;
+            cache = null;
+            version = null;
+            if (ch != null)
+            {
+                try
+                {
+                    ch.close();
+                }
+                catch (IOException e)
+                {
+                    e.printStackTrace();
+                }
+            }
+        }
+        finally
+        {
+            lifecycleLock.unlock();
+        }
+    }
+
+    /**
+     * Throws an exception if this file is not open.
+     *
+     * @throws ObjectClosedException if the file is not open
+     */
+    private void checkOpen()
+    {
+        if (channel == null)
+        {
+            throw new ObjectClosedException();
+        }
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see edu.edu.mit.jwi.data.ILoadable#isLoaded()
+     */
+    public boolean isLoaded()
+    {
+        return blocks != null;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see edu.edu.mit.jwi.data.ILoadable#load()
+     */
+    public void load()
+    {
+        load(true);
+    }
+
+    /**
+     * Inflates all the blocks of this file, which are then held in memory
+     * until the file is closed. Loading always blocks.
+     *
+     * @see edu.mit.jwi.data.ILoadable#load(boolean)
+     */
+    public void load(boolean block)
+    {
+        try
+        {
+            lifecycleLock.lock();
+            checkOpen();
+            if (blocks != null)
+            {
+                return;
+            }
+            assert positions != null;
+            ByteBuffer[] result = new ByteBuffer[positions.length];
+            for (int i = 0; i < result.length; i++)
+            {
+                result[i] = inflate(i);
+            }
+            blocks = result;
+        }
+        finally
+        {
+            lifecycleLock.unlock();
+        }
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see edu.edu.mit.jwi.item.IHasVersion#getVersion()
+     */
+    @Nullable
+    public IVersion getVersion()
+    {
+        checkOpen();
+        if (version == null)
+        {
+            ByteBuffer first = length == 0 ? ByteBuffer.allocate(0) : getBlock(0);
+            version = Version.extractVersion(contentType, first.asReadOnlyBuffer());
+            if (version == null)
+            {
+                version = IVersion.NO_VERSION;
+            }
+        }
+        IVersion v = version;
+        return (v == IVersion.NO_VERSION) ? null : v;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see edu.edu.mit.jwi.data.IDataSource#getLine(java.lang.String)
+     */
+    @Nullable
+    public String getLine(@NonNull String key)
+    {
+        ByteBuffer view = seekLine(key);
+        return view == null ? null : WordnetFile.getLine(view, charset);
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see edu.edu.mit.jwi.data.IByteLineSource#parseLine(java.lang.String, edu.edu.mit.jwi.data.parse.IByteLineParser)
+     */
+    @Nullable
+    public <R> R parseLine(@NonNull String key, @NonNull IByteLineParser<R> parser)
+    {
+        if (parser == null)
+        {
+            throw new NullPointerException();
+        }
+        ByteBuffer view = seekLine(key);
+        return view == null ? null : parseView(view, parser);
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see edu.edu.mit.jwi.data.IByteLineSource#parsingIterator(edu.edu.mit.jwi.data.parse.IByteLineParser)
+     */
+    @NonNull
+    public <R> Iterator<R> parsingIterator(@NonNull IByteLineParser<R> parser)
+    {
+        if (parser == null)
+        {
+            throw new NullPointerException();
+        }
+        checkOpen();
+        return new ParsingIterator<>(parser);
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see edu.edu.mit.jwi.data.IByteLineSource#parsingSpliterator(edu.edu.mit.jwi.data.parse.IByteLineParser)
+     */
+    @NonNull
+    public <R> Spliterator<R> parsingSpliterator(@NonNull IByteLineParser<R> parser)
+    {
+        if (parser == null)
+        {
+            throw new NullPointerException();
+        }
+        checkOpen();
+        return new ParsingSpliterator<>(parser, 0, length);
+    }
+
+    /**
+     * Returns a private view positioned at the start of the line indexed by
+     * the specified key.
+     *
+     * @param key the key which indexes the desired line
+     * @return the view, or <code>null</code> if there is no line for the key
+     * @throws ObjectClosedException if the object is closed
+     */
+    @Nullable
+    private ByteBuffer seekLine(@NonNull String key)
+    {
+        checkOpen();
+        if (directAccess)
+        {
+            long offset;
+            try
+            {
+                offset = Long.parseLong(key);
+            }
+            catch (NumberFormatException e)
+            {
+                return null;
+            }
+            if (offset < 0)
+            {
+                return null;
+            }
+            ByteBuffer view = getLineView(offset);
+            if (view == null)
+            {
+                return null;
+            }
+
+            // the line must start with the key, which is made of digits only
+            int start = view.position();
+            if (start + key.length() > view.limit())
+            {
+                return null;
+            }
+            for (int i = 0; i < key.length(); i++)
+            {
+                if (view.get(start + i) != key.charAt(i))
+                {
+                    return null;
+                }
+            }
+            return view;
+        }
+
+        ByteBuffer view = getLineView(findFirstLineOffset(key));
+        if (view == null)
+        {
+            return null;
+        }
+        int start = view.position();
+        if (WordnetFile.compareLine(view, start, key, comparator, charset) != 0)
+        {
+            return null;
+        }
+        view.position(start);
+        return view;
+    }
+
+    /**
+     * Parses the line starting at the position of the specified view, as
+     * bytes when the character set allows it, and decoded otherwise.
+     *
+     * @param view   the view positioned at the start of the line
+     * @param parser the parser
+     * @return the parsed line
+     */
+    @Nullable
+    private <R> R parseView(@NonNull ByteBuffer view, @NonNull IByteLineParser<R> parser)
+    {
+        if (!ByteLines.isAsciiCompatible(charset))
+        {
+            String line = WordnetFile.getLine(view, charset);
+            return line == null ? null : parser.parseLine(line);
+        }
+        view.limit(ByteLines.findLineEnd(view, view.position()));
+        return parser.parseLine(view, charset);
+    }
+
+    /**
+     * Returns the offset of the first line of the original file that does not
+     * sort before the specified key. The block index gives the last block
+     * whose first line sorts before the key; the lines are then compared from
+     * that one on.
+     *
+     * @param key the key to search for; may not be <code>null</code>
+     * @return the offset of the first line that does not sort before the key,
+     * or the length of the original file if there is none
+     */
+    private long findFirstLineOffset(@NonNull String key)
+    {
+        long[] offsets = keyedOffsets;
+        String[] ks = keys;
+        assert offsets != null && ks != null;
+
+        // the last block whose first line sorts before the key
+        int lo = 0;
+        int hi = ks.length;
+        int mid;
+        while (lo < hi)
+        {
+            mid = (lo + hi) >>> 1;
+            if (comparator.compare(ks[mid], key) < 0)
+            {
+                lo = mid + 1;
+            }
+            else
+            {
+                hi = mid;
+            }
+        }
+        long offset = lo == 0 ? 0 : offsets[lo - 1];
+
+        // compare the lines from there on
+        ByteBuffer view;
+        int start;
+        while ((view = getLineView(offset)) != null)
+        {
+            start = view.position();
+            if (WordnetFile.compareLine(view, start, key, comparator, charset) >= 0)
+            {
+                return offset;
+            }
+            offset += skipLine(view, start) - start;
+        }
+        return length;
+    }
+
+    /**
+     * Returns a private view holding the line that starts at the specified
+     * offset of the original file, positioned at the start of that line. If
+     * the line ends in the block holding the offset, the view is a view of
+     * that block; otherwise, the line is put together from the blocks it
+     * spans.
+     *
+     * @param offset the offset at which the line starts
+     * @return the view, or <code>null</code> if the offset is past the end of
+     * the original file
+     * @throws ObjectClosedException if the object is closed
+     */
+    @Nullable
+    private ByteBuffer getLineView(long offset)
+    {
+        if (offset >= length)
+        {
+            return null;
+        }
+        int index = (int) (offset / blockSize);
+        int start = (int) (offset - (long) index * blockSize);
+        ByteBuffer buf = getBlock(index).duplicate();
+        assert positions != null;
+        int count = positions.length;
+        if (endsInBlock(buf, start) || index + 1 == count)
+        {
+            buf.position(start);
+            return buf;
+        }
+
+        // the line crosses into the following blocks
+        ByteArrayOutputStream out = new ByteArrayOutputStream(2 * blockSize);
+        append(out, buf, start);
+        do
+        {
+            buf = getBlock(++index).duplicate();
+            append(out, buf, 0);
+        }
+        while (!endsInBlock(buf, 0) && index + 1 < count);
+        return ByteBuffer.wrap(out.toByteArray());
+    }
+
+    /**
+     * Returns whether the line starting at the specified offset of the block
+     * ends, terminator included, in that block.
+     *
+     * @param buf   the block
+     * @param start the offset of the line in the block
+     * @return <code>true</code> if the line ends in the block
+     */
+    private static boolean endsInBlock(@NonNull ByteBuffer buf, int start)
+    {
+        int end = ByteLines.findLineEnd(buf, start);
+        int limit = buf.limit();
+        if (end >= limit)
+        {
+            return false;
+        }
+        // a two-char newline marker may be split between blocks
+        return buf.get(end) != '\r' || end + 1 < limit;
+    }
+
+    /**
+     * Appends the content of the specified block, from the specified offset
+     * on, to the specified stream.
+     *
+     * @param out   the stream
+     * @param buf   the block
+     * @param start the offset in the block
+     */
+    private static void append(@NonNull ByteArrayOutputStream out, @NonNull ByteBuffer buf, int start)
+    {
+        byte[] bytes = new byte[buf.limit() - start];
+        buf.position(start);
+        buf.get(bytes);
+        out.write(bytes, 0, bytes.length);
+    }
+
+    /**
+     * Returns the offset of the line following the one that starts at the
+     * specified offset of the buffer.
+     *
+     * @param buf   the buffer holding the line
+     * @param start the offset at which the line starts
+     * @return the offset of the next line, or the limit of the buffer
+     */
+    private static int skipLine(@NonNull ByteBuffer buf, int start)
+    {
+        int limit = buf.limit();
+        int i = ByteLines.findLineEnd(buf, start);
+        if (i < limit && buf.get(i++) == '\r' && i < limit && buf.get(i) == '\n')
+        {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * Returns whether the line starting at the specified offset of the
+     * specified view is a comment.
+     *
+     * @param view  the view holding the line
+     * @param start the offset at which the line starts
+     * @return <code>true</code> if the line is a comment
+     */
+    private boolean isCommentLine(@NonNull ByteBuffer view, int start)
+    {
+        if (detector == null)
+        {
+            return false;
+        }
+        if (detector.getClass() == CommentComparator.class)
+        {
+            return ByteLines.isCommentLine(view, start);
+        }
+        view.position(start);
+        String line = WordnetFile.getLine(view, charset);
+        return line != null && detector.isCommentLine(line);
+    }
+
+    /**
+     * Returns the offset of the first line of the original file that starts
+     * at or after the specified offset.
+     *
+     * @param offset an offset in the original file
+     * @return the offset of the first line starting at or after the offset,
+     * or the length of the original file if there is none
+     * @throws ObjectClosedException if the object is closed
+     */
+    private long findNextLineStart(long offset)
+    {
+        if (offset == 0)
+        {
+            return 0;
+        }
+
+        // a line starts after the first terminator that begins at or after
+        // the byte before the offset
+        byte b;
+        for (long i = offset - 1; i < length; i++)
+        {
+            b = byteAt(i);
+            if (b == '\n')
+            {
+                return i + 1;
+            }
+            if (b == '\r')
+            {
+                return (i + 1 < length && byteAt(i + 1) == '\n') ? i + 2 : i + 1;
+            }
+        }
+        return length;
+    }
+
+    /**
+     * Returns the byte at the specified offset of the original file.
+     *
+     * @param offset an offset in the original file
+     * @return the byte at the offset
+     * @throws ObjectClosedException if the object is closed
+     */
+    private byte byteAt(long offset)
+    {
+        int index = (int) (offset / blockSize);
+        return getBlock(index).get((int) (offset - (long) index * blockSize));
+    }
+
+    /**
+     * Returns the specified block, inflated. The returned buffer is shared,
+     * and should be duplicated before its position is changed.
+     *
+     * @param index the index of the block
+     * @return the inflated block
+     * @throws ObjectClosedException if the object is closed
+     */
+    @NonNull
+    private ByteBuffer getBlock(int index)
+    {
+        ByteBuffer[] loaded = blocks;
+        if (loaded != null)
+        {
+            return loaded[index];
+        }
+        Map<Integer, ByteBuffer> c = cache;
+        if (c == null)
+        {
+            throw new ObjectClosedException();
+        }
+        ByteBuffer block;
+        synchronized (c)
+        {
+            block = c.get(index);
+        }
+        if (block == null)
+        {
+            // concurrent misses on the same block may both inflate it
+            block = inflate(index);
+            synchronized (c)
+            {
+                c.put(index, block);
+            }
+        }
+        return block;
+    }
+
+    /**
+     * Reads and inflates the specified block.
+     *
+     * @param index the index of the block
+     * @return the inflated block, in a read-only heap buffer
+     * @throws ObjectClosedException if the object is closed
+     */
+    @NonNull
+    private ByteBuffer inflate(int index)
+    {
+        assert positions != null && compressedLengths != null;
+        ByteBuffer compressed = ByteBuffer.allocate(compressedLengths[index]);
+        readBlock(compressed, dataStart + positions[index]);
+
+        int size = (int) Math.min(blockSize, length - (long) index * blockSize);
+        byte[] data = new byte[size];
+        Inflater inflater = new Inflater();
+        try
+        {
+            inflater.setInput(compressed.array(), 0, compressed.limit());
+            int n = 0;
+            while (n < size && !inflater.finished())
+            {
+                n += inflater.inflate(data, n, size - n);
+                if (n < size && inflater.needsInput())
+                {
+                    break;
+                }
+            }
+            if (n != size)
+            {
+                throw new UncheckedIOException(new IOException("Truncated block " + index + " in " + file));
+            }
+        }
+        catch (DataFormatException e)
+        {
+            throw new UncheckedIOException(new IOException("Corrupt block " + index + " in " + file, e));
+        }
+        finally
+        {
+            inflater.end();
+        }
+        inflated.incrementAndGet();
+        return ByteBuffer.wrap(data).asReadOnlyBuffer();
+    }
+
+    /**
+     * Reads the compressed bytes of a block from the channel of this file.
+     * An interrupt closes a file channel for good, under every thread reading
+     * it: the interrupt status of the reading thread is cleared for the read,
+     * and restored after it, and if the channel is closed by an interrupt all
+     * the same, it is opened again and the read is retried.
+     *
+     * @param buf      the buffer to fill
+     * @param position the position of the block in the file
+     * @throws ObjectClosedException if the file is closed
+     */
+    private void readBlock(@NonNull ByteBuffer buf, long position)
+    {
+        boolean interrupted = Thread.interrupted();
+        try
+        {
+            while (true)
+            {
+                FileChannel ch = channel;
+                if (ch == null)
+                {
+                    throw new ObjectClosedException();
+                }
+                buf.clear();
+                try
+                {
+                    readFully(ch, buf, position);
+                    return;
+                }
+                catch (ClosedByInterruptException e)
+                {
+                    interrupted |= Thread.interrupted();
+                    reopen(ch);
+                }
+                catch (ClosedChannelException e)
+                {
+                    // closed by an interrupt of another reader, or by close()
+                    reopen(ch);
+                }
+                catch (IOException e)
+                {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        }
+        finally
+        {
+            if (interrupted)
+            {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Opens the channel of this file again, if the specified channel, which
+     * has been closed, is still the channel of this file. Does nothing if the
+     * file has been closed, or if another reader has opened it again already.
+     *
+     * @param ch the closed channel
+     * @throws UncheckedIOException if the channel cannot be opened
+     */
+    private void reopen(@NonNull FileChannel ch)
+    {
+        try
+        {
+            lifecycleLock.lock();
+            if (channel == ch)
+            {
+                channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+            }
+        }
+        catch (IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
+        finally
+        {
+            lifecycleLock.unlock();
+        }
+    }
+
+    /**
+     * Reads from the specified channel, at the specified position, until the
+     * buffer is full.
+     *
+     * @param ch       the channel
+     * @param buf      the buffer to fill
+     * @param position the position in the channel
+     * @throws IOException if the end of the channel is reached first, or if
+     *                     there is a problem reading it
+     */
+    private static void readFully(@NonNull FileChannel ch, @NonNull ByteBuffer buf, long position) throws IOException
+    {
+        int n;
+        while (buf.hasRemaining())
+        {
+            n = ch.read(buf, position);
+            if (n < 0)
+            {
+                throw new EOFException();
+            }
+            position += n;
+        }
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see java.lang.Iterable#iterator()
+     */
+    @NonNull
+    public Iterator<String> iterator()
+    {
+        return iterator(null);
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see edu.edu.mit.jwi.data.IDataSource#iterator(java.lang.String)
+     */
+    @NonNull
+    public Iterator<String> iterator(@Nullable String key)
+    {
+        checkOpen();
+        key = (key == null) ? null : key.trim();
+        if (key == null || key.length() == 0)
+        {
+            return new CompressedLineIterator(0);
+        }
+        return new CompressedLineIterator(findFirstLineOffset(key), !startSearch, key);
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see java.lang.Object#hashCode()
+     */
+    public int hashCode()
+    {
+        final int PRIME = 31;
+        int result = 1;
+        result = PRIME * result + contentType.hashCode();
+        result = PRIME * result + file.hashCode();
+        return result;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see java.lang.Object#equals(java.lang.Object)
+     */
+    public boolean equals(@Nullable Object obj)
+    {
+        if (this == obj)
+        {
+            return true;
+        }
+        if (obj == null)
+        {
+            return false;
+        }
+        if (getClass() != obj.getClass())
+        {
+            return false;
+        }
+        final CompressedWordnetFile<?> other = (CompressedWordnetFile<?>) obj;
+        return contentType.equals(other.contentType) && file.equals(other.file);
+    }
+
+    /**
+     * Compresses the specified Wordnet file into the block-compressed format.
+     *
+     * @param src       the file to compress; may not be <code>null</code>
+     * @param dst       the compressed file to write; may not be
+     *                  <code>null</code>
+     * @param blockSize the size of the blocks the file is cut into
+     * @throws IOException              if there is a problem reading or
+     *                                  writing the files
+     * @throws IllegalArgumentException if the block size is not positive
+     * @since JWI 2.4.1
+     */
+    public static void compress(@NonNull File src, @NonNull File dst, int blockSize) throws IOException
+    {
+        if (blockSize <= 0)
+        {
+            throw new IllegalArgumentException("block size must be positive");
+        }
+        byte[] content = Files.readAllBytes(src.toPath());
+        int count = (content.length + blockSize - 1) / blockSize;
+
+        ByteArrayOutputStream index = new ByteArrayOutputStream();
+        DataOutputStream indexOut = new DataOutputStream(index);
+        ByteArrayOutputStream data = new ByteArrayOutputStream(content.length / 3);
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        byte[] chunk = new byte[8192];
+        try
+        {
+            int start, end, firstLine, n;
+            long position;
+            for (int i = 0; i < count; i++)
+            {
+                start = i * blockSize;
+                end = Math.min(content.length, start + blockSize);
+
+                // deflate the block
+                position = data.size();
+                deflater.reset();
+                deflater.setInput(content, start, end - start);
+                deflater.finish();
+                while (!deflater.finished())
+                {
+                    n = deflater.deflate(chunk);
+                    data.write(chunk, 0, n);
+                }
+
+                // index the first line starting in the block
+                firstLine = findLineStart(content, start, end);
+                indexOut.writeLong(position);
+                indexOut.writeInt((int) (data.size() - position));
+                indexOut.writeInt(firstLine < 0 ? -1 : firstLine - start);
+                byte[] key = firstLine < 0 ? new byte[0] : extractKey(content, firstLine);
+                indexOut.writeShort(key.length);
+                indexOut.write(key);
+            }
+        }
+        finally
+        {
+            deflater.end();
+        }
+        indexOut.flush();
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(dst))))
+        {
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeInt(blockSize);
+            out.writeLong(content.length);
+            out.writeInt(count);
+            out.writeInt(index.size());
+            index.writeTo(out);
+            data.writeTo(out);
+        }
+    }
+
+    /**
+     * Compresses the Wordnet files of the specified directory into the
+     * block-compressed format. Each file is written to the destination
+     * directory under its name followed by {@link #SUFFIX}.
+     *
+     * @param srcDir    the directory holding the files to compress; may not
+     *                  be <code>null</code>
+     * @param dstDir    the directory to write the compressed files to, which
+     *                  is created if needed; may not be <code>null</code>
+     * @param blockSize the size of the blocks the files are cut into
+     * @return the compressed files
+     * @throws IOException if there is a problem reading or writing the files
+     * @since JWI 2.4.1
+     */
+    @NonNull
+    public static List<File> compressDirectory(@NonNull File srcDir, @NonNull File dstDir, int blockSize) throws IOException
+    {
+        File[] files = srcDir.listFiles(f -> f.isFile() && !LineHashIndex.isSidecarFile(f) && !f.getName().endsWith(SUFFIX));
+        if (files == null || files.length == 0)
+        {
+            throw new IOException("No files found in " + srcDir);
+        }
+        Files.createDirectories(dstDir.toPath());
+        Arrays.sort(files, Comparator.comparing(File::getName));
+        List<File> result = new ArrayList<>(files.length);
+        File dst;
+        for (File src : files)
+        {
+            dst = new File(dstDir, src.getName() + SUFFIX);
+            compress(src, dst, blockSize);
+            result.add(dst);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the offset of the first line that starts in the specified range
+     * of the content.
+     *
+     * @param content the content
+     * @param start   the start of the range
+     * @param end     the end of the range
+     * @return the offset of the first line starting in the range, or -1 if
+     * there is none
+     */
+    private static int findLineStart(@NonNull byte[] content, int start, int end)
+    {
+        byte b;
+        for (int i = start; i < end; i++)
+        {
+            if (i == 0)
+            {
+                return 0;
+            }
+            b = content[i - 1];
+            if (b == '\n' || b == '\r' && content[i] != '\n')
+            {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the key of the line starting at the specified offset: its first
+     * token, or the whole line if it starts with a space, as comment lines
+     * do, so that it compares with keys as the line itself does.
+     *
+     * @param content the content
+     * @param start   the offset of the line
+     * @return the bytes of the key
+     */
+    @NonNull
+    private static byte[] extractKey(@NonNull byte[] content, int start)
+    {
+        boolean whole = start < content.length && content[start] == ' ';
+        int end = start;
+        byte b;
+        while (end < content.length && end - start < 0xFFFF)
+        {
+            b = content[end];
+            if (b == '\n' || b == '\r' || b == ' ' && !whole)
+            {
+                break;
+            }
+            end++;
+        }
+        return Arrays.copyOfRange(content, start, end);
+    }
+
+    /**
+     * Iterates over the lines of a compressed file, from a given offset. It
+     * is a look-ahead iterator. Does not support the {@link #remove()}
+     * method; if that method is called, it will throw an
+     * {@link UnsupportedOperationException}.
+     *
+     * @author Mark A. Finlayson
+     * @version 2.4.0
+     * @since JWI 2.4.1
+     */
+    public class CompressedLineIterator implements Iterator<String>
+    {
+        // the offset of the line after the next one
+        private long offset;
+        @Nullable
+        private String next;
+
+        /**
+         * Constructs a new iterator starting at the first line, that is not
+         * a comment, at or after the specified offset.
+         *
+         * @param offset the offset at which to start
+         * @since JWI 2.4.1
+         */
+        public CompressedLineIterator(long offset)
+        {
+            this.offset = offset;
+            advance();
+        }
+
+        /**
+         * Constructs a new iterator starting at the line at the specified
+         * offset, which is the first line that does not sort before the
+         * specified key. If the line must match the key, and does not, the
+         * iterator is empty.
+         *
+         * @param offset the offset of the first line
+         * @param exact  whether the first line must match the key, either by
+         *               comparing equal to it, or by starting with it
+         * @param key    the key; may not be <code>null</code>
+         * @since JWI 2.4.1
+         */
+        public CompressedLineIterator(long offset, boolean exact, @NonNull String key)
+        {
+            this.offset = offset;
+            String line = readLine();
+            if (line != null && exact && comparator.compare(line, key) != 0 && !line.startsWith(key))
+            {
+                line = null;
+            }
+            next = line;
+        }
+
+        /**
+         * Reads the line at the current offset, and moves past it.
+         *
+         * @return the line, or <code>null</code> if the end of the file has
+         * been reached
+         */
+        @Nullable
+        private String readLine()
+        {
+            ByteBuffer view = getLineView(offset);
+            if (view == null)
+            {
+                offset = length;
+                return null;
+            }
+            int start = view.position();
+            String line = WordnetFile.getLine(view, charset);
+            offset += skipLine(view, start) - start;
+            return line;
+        }
+
+        /**
+         * Skips over comment lines to find the next line that would be
+         * returned by the iterator in a call to {@link #next()}.
+         */
+        private void advance()
+        {
+            checkOpen();
+            String line;
+            do
+            {
+                line = readLine();
+            }
+            while (line != null && detector != null && detector.isCommentLine(line));
+            next = line;
+        }
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see java.util.Iterator#hasNext()
+         */
+        public boolean hasNext()
+        {
+            return next != null;
+        }
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see java.util.Iterator#next()
+         */
+        @NonNull
+        public String next()
+        {
+            String result = next;
+            if (result == null)
+            {
+                throw new NoSuchElementException();
+            }
+            advance();
+            return result;
+        }
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see java.util.Iterator#remove()
+         */
+        public final void remove()
+        {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    /**
+     * Iterates over the lines of the original file that are not comments,
+     * parsing each one from the bytes of the inflated blocks.
+     *
+     * @param <R> the type of object the parser produces
+     * @since JWI 2.4.1
+     */
+    private class ParsingIterator<R> implements Iterator<R>
+    {
+        @NonNull
+        private final IByteLineParser<R> parser;
+
+        // the offset of the line after the next one
+        private long offset;
+
+        @Nullable
+        private R next;
+
+        private boolean done;
+
+        /**
+         * Constructs a new iterator over the file, with the specified parser.
+         *
+         * @param parser the parser; may not be <code>null</code>
+         */
+        public ParsingIterator(@NonNull IByteLineParser<R> parser)
+        {
+            this.parser = parser;
+            advance();
+        }
+
+        /**
+         * Parses the next line that is not a comment.
+         */
+        private void advance()
+        {
+            checkOpen();
+            next = null;
+            ByteBuffer view;
+            int start;
+            while ((view = getLineView(offset)) != null)
+            {
+                start = view.position();
+                offset += skipLine(view, start) - start;
+                if (!isCommentLine(view, start))
+                {
+                    view.position(start);
+                    next = parseView(view, parser);
+                    return;
+                }
+            }
+            done = true;
+        }
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see java.util.Iterator#hasNext()
+         */
+        public boolean hasNext()
+        {
+            return !done;
+        }
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see java.util.Iterator#next()
+         */
+        @Nullable
+        public R next()
+        {
+            if (done)
+            {
+                throw new NoSuchElementException();
+            }
+            R result = next;
+            advance();
+            return result;
+        }
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see java.util.Iterator#remove()
+         */
+        public void remove()
+        {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    /**
+     * A spliterator over the lines of the file between two offsets of the
+     * original file, parsed from their bytes. It splits at line boundaries,
+     * so that the parts inflate and parse their blocks in parallel.
+     *
+     * @param <R> the type of object the parser produces
+     * @since JWI 2.4.1
+     */
+    private class ParsingSpliterator<R> implements Spliterator<R>
+    {
+        @NonNull
+        private final IByteLineParser<R> parser;
+
+        // the offset of the next line
+        private long offset;
+
+        // the offset of the first line that belongs to another part
+        private final long end;
+
+        /**
+         * Constructs a new spliterator over the lines that start between the
+         * specified offsets.
+         *
+         * @param parser the parser; may not be <code>null</code>
+         * @param offset the offset of the first line
+         * @param end    the offset of the first line not covered
+         */
+        public ParsingSpliterator(@NonNull IByteLineParser<R> parser, long offset, long end)
+        {
+            this.parser = parser;
+            this.offset = offset;
+            this.end = end;
+        }
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see java.util.Spliterator#tryAdvance(java.util.function.Consumer)
+         */
+        public boolean tryAdvance(@NonNull Consumer<? super R> action)
+        {
+            checkOpen();
+            R next = null;
+            ByteBuffer view;
+            int start;
+            while (next == null && offset < end && (view = getLineView(offset)) != null)
+            {
+                start = view.position();
+                offset += skipLine(view, start) - start;
+                if (!isCommentLine(view, start))
+                {
+                    view.position(start);
+                    next = parseView(view, parser);
+                }
+            }
+            if (next == null)
+            {
+                offset = end;
+                return false;
+            }
+            action.accept(next);
+            return true;
+        }
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see java.util.Spliterator#trySplit()
+         */
+        @Nullable
+        public Spliterator<R> trySplit()
+        {
+            // split no finer than a block, as each part inflates the block
+            // it starts in
+            if (end - offset < 2L * blockSize)
+            {
+                return null;
+            }
+            checkOpen();
+            long mid = findNextLineStart(offset + (end - offset) / 2);
+            if (mid <= offset || mid >= end)
+            {
+                return null;
+            }
+            Spliterator<R> prefix = new ParsingSpliterator<>(parser, offset, mid);
+            offset = mid;
+            return prefix;
+        }
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see java.util.Spliterator#estimateSize()
+         */
+        public long estimateSize()
+        {
+            // the number of bytes left, which is proportional to the number
+            // of lines left
+            return end - offset;
+        }
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see java.util.Spliterator#characteristics()
+         */
+        public int characteristics()
+        {
+            return ORDERED | NONNULL;
+        }
+    }
+}
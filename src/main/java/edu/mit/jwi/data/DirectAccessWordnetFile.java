@@ -45,7 +45,21 @@ public class DirectAccessWordnetFile<T> extends WordnetFile<T>
         super(file, contentType);
     }
 
-    private final Object bufferLock = new Object();
+    /**
+     * Constructs a new direct access wordnet file, on the specified content
+     * held in memory, with the specified content type.
+     *
+     * @param name        the name of the content; may not be <code>null</code>
+     * @param content     the content which backs this wordnet file; may not be
+     *                    <code>null</code>
+     * @param contentType the content type for this file; may not be <code>null</code>
+     * @throws NullPointerException if any argument is <code>null</code>
+     * @since JWI 2.4.1
+     */
+    public DirectAccessWordnetFile(@NonNull String name, @NonNull ByteBuffer content, IContentType<T> contentType)
+    {
+        super(name, content, contentType);
+    }
 
     /*
      * (non-Javadoc)
@@ -54,27 +68,66 @@ public class DirectAccessWordnetFile<T> extends WordnetFile<T>
      */
     @Nullable
     public String getLine(@NonNull String key)
+    {
+        countAccess();
+        beginRead();
+        try
+        {
+            ByteBuffer buffer = seekLine(key);
+            assert getContentType() != null;
+            return buffer == null ? null : getLine(buffer, getContentType().getCharset());
+        }
+        finally
+        {
+            endRead();
+        }
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see edu.edu.mit.jwi.data.WordnetFile#seekLine(java.lang.String)
+     */
+    @Nullable
+    protected ByteBuffer seekLine(@NonNull String key)
     {
         ByteBuffer buffer = getBuffer();
-        synchronized (bufferLock)
+        assert buffer != null;
+        try
         {
-            try
+            long byteOffset = Long.parseLong(key);
+            if (byteOffset < 0)
             {
-                int byteOffset = Integer.parseInt(key);
-                assert buffer != null;
-                if (buffer.limit() <= byteOffset)
-                {
-                    return null;
-                }
-                buffer.position(byteOffset);
-                assert getContentType() != null;
-                String line = getLine(buffer, getContentType().getCharset());
-                return line != null && line.startsWith(key) ? line : null;
+                return null;
             }
-            catch (NumberFormatException e)
+
+            // position a private view of the shared buffer (or of the
+            // segment holding the line), so that concurrent lookups do not
+            // need to be serialized
+            buffer = getLineView(byteOffset);
+            if (buffer == null)
             {
                 return null;
             }
+
+            // the line must start with the key, which is made of digits only
+            int start = buffer.position();
+            if (start + key.length() > buffer.limit())
+            {
+                return null;
+            }
+            for (int i = 0; i < key.length(); i++)
+            {
+                if (buffer.get(start + i) != key.charAt(i))
+                {
+                    return null;
+                }
+            }
+            return buffer;
+        }
+        catch (NumberFormatException e)
+        {
+            return null;
         }
     }
 
@@ -129,14 +182,13 @@ public class DirectAccessWordnetFile<T> extends WordnetFile<T>
             {
                 try
                 {
-                    int byteOffset = Integer.parseInt(key);
-                    if (itrBuffer.limit() <= byteOffset)
+                    long byteOffset = Long.parseLong(key);
+                    if (byteOffset < 0 || getLineView(byteOffset) == null)
                     {
                         return;
                     }
-                    itrBuffer.position(byteOffset);
-                    assert getContentType() != null;
-                    next = getLine(itrBuffer, getContentType().getCharset());
+                    seek(byteOffset);
+                    next = readLine();
                 }
                 catch (NumberFormatException e)
                 {
@@ -22,14 +22,32 @@ import edu.mit.jwi.item.Synset;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.io.UnsupportedEncodingException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.URL;
 import java.net.URLDecoder;
 import java.nio.charset.Charset;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
 import java.util.*;
 import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
@@ -63,9 +81,26 @@ public class FileProvider implements IDataProvider, ILoadable, ILoadPolicy
     @SuppressWarnings("CanBeFinal")
     public static boolean verbose = false;
 
+    /**
+     * The default number of accesses after which a data source is loaded
+     * under {@link ILoadPolicy#ADAPTIVE_LOAD}.
+     *
+     * @since JWI 2.4.1
+     */
+    public static final long DEFAULT_ADAPTIVE_THRESHOLD = 1000;
+
+    /**
+     * The default delay of a reload, in milliseconds (see
+     * {@link #setReloadDelay(long)}).
+     *
+     * @since JWI 2.4.1
+     */
+    public static final long DEFAULT_RELOAD_DELAY = 1000;
+
     // final instance fields
     private final Lock lifecycleLock = new ReentrantLock();
     private final Lock loadingLock = new ReentrantLock();
+    private final Lock reloadLock = new ReentrantLock();
     @NonNull
     private final Map<ContentTypeKey, IContentType<?>> prototypeMap;
 
@@ -74,8 +109,10 @@ public class FileProvider implements IDataProvider, ILoadable, ILoadPolicy
     private URL url;
     @Nullable
     private IVersion version = null;
+    // published atomically, so that readers see either
+    // the old or the new sources on a reload
     @Nullable
-    private Map<IContentType<?>, ILoadableDataSource<?>> fileMap = null;
+    private volatile Snapshot current = null;
     private int loadPolicy;
     @Nullable
     private transient JWIBackgroundLoader loader = null;
@@ -85,6 +122,32 @@ public class FileProvider implements IDataProvider, ILoadable, ILoadPolicy
     private Charset charset = null;
     @NonNull
     private final Map<ContentTypeKey, String> sourceMatcher = new HashMap<>();
+    @Nullable
+    private ExecutorService executor = null;
+    // read by the watcher and the promotion threads
+    private volatile long adaptiveThreshold = DEFAULT_ADAPTIVE_THRESHOLD;
+    private boolean reloadOnChange = false;
+    private volatile long reloadDelay = DEFAULT_RELOAD_DELAY;
+    @Nullable
+    private transient volatile JWIReloadWatcher watcher = null;
+
+    // the watcher shut down by the last close, which may still be running
+    @Nullable
+    private transient volatile JWIReloadWatcher stoppedWatcher = null;
+
+    // sources replaced by a reload, not closed yet
+    @NonNull
+    private final Set<Snapshot> retired = ConcurrentHashMap.newKeySet();
+
+    // per-source timings, in nanoseconds: when opening started,
+    // and how long it took for the source to be ready
+    @NonNull
+    private final Map<IContentType<?>, Long> openStarts = new ConcurrentHashMap<>();
+    @NonNull
+    private final Map<IContentType<?>, Long> readyTimes = new ConcurrentHashMap<>();
+
+    // why the adaptive loading of sources failed
+    private final Map<IContentType<?>, Throwable> promotionFailures = new ConcurrentHashMap<>();
 
     /**
      * Constructs the file provider pointing to the resource indicated by the
@@ -275,6 +338,310 @@ public class FileProvider implements IDataProvider, ILoadable, ILoadPolicy
         }
     }
 
+    /**
+     * Returns the executor on which the data sources are opened and loaded.
+     *
+     * @return the executor set with {@link #setExecutor(ExecutorService)}, or
+     * <code>null</code> if the provider uses a pool of its own
+     * @since JWI 2.4.1
+     */
+    @Nullable
+    public ExecutorService getExecutor()
+    {
+        return executor;
+    }
+
+    /**
+     * Sets the executor on which the data sources are opened, validated and
+     * loaded. The provider does not shut this executor down. If the executor
+     * is <code>null</code>, which is the default, the provider creates a pool
+     * of daemon threads, sized to the number of processors, each time it
+     * opens or loads its sources, and shuts it down when done.
+     *
+     * @param executor the executor to use; may be <code>null</code>
+     * @throws IllegalStateException if the provider is currently open
+     * @since JWI 2.4.1
+     */
+    public void setExecutor(@Nullable ExecutorService executor)
+    {
+        try
+        {
+            lifecycleLock.lock();
+            if (isOpen())
+            {
+                throw new IllegalStateException("provider currently open");
+            }
+            this.executor = executor;
+        }
+        finally
+        {
+            lifecycleLock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of accesses after which a data source is loaded
+     * under {@link ILoadPolicy#ADAPTIVE_LOAD}.
+     *
+     * @return the adaptive load threshold
+     * @since JWI 2.4.1
+     */
+    public long getAdaptiveThreshold()
+    {
+        return adaptiveThreshold;
+    }
+
+    /**
+     * Sets the number of accesses after which a data source is loaded under
+     * {@link ILoadPolicy#ADAPTIVE_LOAD}. Accesses are the lookups and the
+     * iterators served by the source.
+     *
+     * @param threshold the adaptive load threshold; must be positive
+     * @throws IllegalArgumentException if the threshold is not positive
+     * @throws IllegalStateException    if the provider is currently open
+     * @since JWI 2.4.1
+     */
+    public void setAdaptiveThreshold(long threshold)
+    {
+        if (threshold <= 0)
+        {
+            throw new IllegalArgumentException("Threshold must be positive: " + threshold);
+        }
+        try
+        {
+            lifecycleLock.lock();
+            if (isOpen())
+            {
+                throw new IllegalStateException("provider currently open");
+            }
+            this.adaptiveThreshold = threshold;
+        }
+        finally
+        {
+            lifecycleLock.unlock();
+        }
+    }
+
+    /**
+     * Returns whether this provider watches its directory and reloads its
+     * sources when the files change.
+     *
+     * @return <code>true</code> if the provider reloads on change;
+     * <code>false</code> otherwise
+     * @since JWI 2.4.1
+     */
+    public boolean getReloadOnChange()
+    {
+        return reloadOnChange;
+    }
+
+    /**
+     * Sets whether this provider watches its directory and reloads its
+     * sources (see {@link #reload()}) when files are created, modified or
+     * deleted in it. The watching starts when the provider is opened.
+     *
+     * @param flag whether the provider reloads on change
+     * @throws IllegalStateException if the provider is currently open
+     * @since JWI 2.4.1
+     */
+    public void setReloadOnChange(boolean flag)
+    {
+        try
+        {
+            lifecycleLock.lock();
+            if (isOpen())
+            {
+                throw new IllegalStateException("provider currently open");
+            }
+            this.reloadOnChange = flag;
+        }
+        finally
+        {
+            lifecycleLock.unlock();
+        }
+    }
+
+    /**
+     * Returns the delay of a reload, in milliseconds.
+     *
+     * @return the reload delay
+     * @since JWI 2.4.1
+     */
+    public long getReloadDelay()
+    {
+        return reloadDelay;
+    }
+
+    /**
+     * Sets the delay of a reload, in milliseconds. When watching its
+     * directory, the provider waits for the files to stay unchanged this long
+     * before it reloads them. After a reload, the replaced sources are closed
+     * once the lookups and iterators that use them are done; iterators that
+     * are not run to the end keep them open no longer than this delay.
+     *
+     * @param delay the reload delay; may not be negative
+     * @throws IllegalArgumentException if the delay is negative
+     * @since JWI 2.4.1
+     */
+    public void setReloadDelay(long delay)
+    {
+        if (delay < 0)
+        {
+            throw new IllegalArgumentException("Delay must not be negative: " + delay);
+        }
+        this.reloadDelay = delay;
+    }
+
+    /**
+     * Returns the time each data source took to become ready during the last
+     * opening of this provider, from the moment the provider started opening
+     * it. A source is ready when it has been opened and validated, and, if it
+     * is loaded, when its loading has finished. Sources that are not ready yet
+     * are not listed.
+     *
+     * @return an unmodifiable view of the ready times, in nanoseconds, keyed
+     * by content type
+     * @since JWI 2.4.1
+     */
+    @NonNull
+    public Map<IContentType<?>, Long> getReadyTimes()
+    {
+        return Collections.unmodifiableMap(readyTimes);
+    }
+
+    /**
+     * Returns why the loading of data sources promoted under
+     * {@link ILoadPolicy#ADAPTIVE_LOAD} failed since the last opening of this
+     * provider. A source whose loading failed keeps its content where it was,
+     * and is not promoted again until it is reopened.
+     *
+     * @return an unmodifiable view of the failures, keyed by content type
+     * @since JWI 2.4.1
+     */
+    @NonNull
+    public Map<IContentType<?>, Throwable> getPromotionFailures()
+    {
+        return Collections.unmodifiableMap(promotionFailures);
+    }
+
+    /**
+     * Returns where the content of each data source of this provider is
+     * currently held: on the heap, off the heap, or in mapped buffers. Only
+     * the sources that can tell, such as {@link WordnetFile} instances, are
+     * listed.
+     *
+     * @return the residency of each source, keyed by content type
+     * @throws ObjectClosedException if the provider is closed
+     * @since JWI 2.4.1
+     */
+    @NonNull
+    public Map<IContentType<?>, Residency> getResidency()
+    {
+        Snapshot snapshot = current;
+        if (snapshot == null)
+        {
+            throw new ObjectClosedException();
+        }
+        Map<IContentType<?>, Residency> result = new LinkedHashMap<>();
+        for (Entry<IContentType<?>, ILoadableDataSource<?>> e : snapshot.sources.entrySet())
+        {
+            if (e.getValue() instanceof WordnetFile)
+            {
+                result.put(e.getKey(), ((WordnetFile<?>) e.getValue()).getResidency());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Records that the source of the specified content type is ready.
+     *
+     * @param contentType the content type of the source
+     * @param src         the source
+     * @param loaded      whether the source has been loaded
+     */
+    private void markReady(@NonNull IContentType<?> contentType, @NonNull ILoadableDataSource<?> src, boolean loaded)
+    {
+        Long start = openStarts.get(contentType);
+        if (start == null)
+        {
+            return;
+        }
+        long time = System.nanoTime() - start;
+        readyTimes.put(contentType, time);
+        if (verbose)
+        {
+            String residency = src instanceof WordnetFile ? " " + ((WordnetFile<?>) src).getResidency() : "";
+            System.out.printf("%s ready in %dms%s%s%n", contentType, TimeUnit.NANOSECONDS.toMillis(time), loaded ? " (loaded)" : "", residency);
+        }
+    }
+
+    /**
+     * Returns the executor to run the specified number of tasks on: the one
+     * set with {@link #setExecutor(ExecutorService)}, or a new pool of daemon
+     * threads, which the caller must shut down.
+     *
+     * @param tasks the number of tasks to run
+     * @return the executor
+     */
+    @NonNull
+    private ExecutorService obtainExecutor(int tasks)
+    {
+        if (executor != null)
+        {
+            return executor;
+        }
+        int threads = Math.max(1, Math.min(tasks, Runtime.getRuntime().availableProcessors()));
+        return Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, FileProvider.class.getSimpleName() + " worker");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Runs the specified task in the background: on the executor of this
+     * provider, if one is set (see {@link #setExecutor(ExecutorService)}),
+     * or else on the executor shared by all providers. If the executor of
+     * this provider refuses the task, it is run on the calling thread.
+     *
+     * @param task the task to run
+     */
+    private void runDeferred(@NonNull Runnable task)
+    {
+        ExecutorService pool = executor;
+        try
+        {
+            (pool != null ? pool : SharedExecutor.INSTANCE).execute(task);
+        }
+        catch (RejectedExecutionException e)
+        {
+            // shut down by its owner
+            task.run();
+        }
+    }
+
+    /**
+     * Holds the executor shared by all providers for their deferred work,
+     * created the first time it is needed. Its single thread is a daemon, so
+     * that it does not keep the virtual machine alive.
+     */
+    private static final class SharedExecutor
+    {
+        static final ScheduledExecutorService INSTANCE = create();
+
+        private static ScheduledExecutorService create()
+        {
+            ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, r -> {
+                Thread t = new Thread(r, FileProvider.class.getSimpleName() + " scheduler");
+                t.setDaemon(true);
+                return t;
+            });
+            executor.setRemoveOnCancelPolicy(true);
+            return executor;
+        }
+    }
+
     /*
      * (non-Javadoc)
      *
@@ -286,8 +653,9 @@ public class FileProvider implements IDataProvider, ILoadable, ILoadPolicy
         checkOpen();
         if (version == null)
         {
-            assert fileMap != null;
-            version = determineVersion(fileMap.values());
+            Snapshot snapshot = current;
+            assert snapshot != null;
+            version = determineVersion(snapshot.sources.values());
         }
         if (version == IVersion.NO_VERSION)
         {
@@ -486,6 +854,22 @@ public class FileProvider implements IDataProvider, ILoadable, ILoadPolicy
      */
     public boolean open() throws IOException
     {
+        // a watcher shut down by a close may still be reloading; it finds
+        // the provider closed, and is waited for outside the locks it needs
+        JWIReloadWatcher stopped = stoppedWatcher;
+        if (stopped != null)
+        {
+            try
+            {
+                stopped.join();
+            }
+            catch (InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted waiting for the previous watcher to stop");
+            }
+        }
+
         try
         {
             lifecycleLock.lock();
@@ -493,28 +877,8 @@ public class FileProvider implements IDataProvider, ILoadable, ILoadPolicy
 
             int policy = getLoadPolicy();
 
-            // make sure directory exists
-            assert url != null;
-            File directory = toFile(url);
-            if (!directory.exists())
-            {
-                throw new IOException("Dictionary directory does not exist: " + directory);
-            }
-
             // get files in directory
-            File[] fileArray = directory.listFiles(File::isFile);
-            if (fileArray == null || fileArray.length == 0)
-            {
-                throw new IOException("No files found in " + directory);
-            }
-            List<File> files = new ArrayList<>(Arrays.asList(fileArray));
-            if (files.isEmpty())
-            {
-                throw new IOException("No files found in " + directory);
-            }
-
-            // sort them
-            files.sort(Comparator.comparing(File::getName));
+            List<File> files = listFiles();
 
             // make the source map
             Map<IContentType<?>, ILoadableDataSource<?>> hiddenMap = createSourceMap(files, policy);
@@ -529,21 +893,30 @@ public class FileProvider implements IDataProvider, ILoadable, ILoadPolicy
             {
                 hiddenMap = Collections.unmodifiableMap(hiddenMap);
             }
-            this.fileMap = hiddenMap;
+            this.current = new Snapshot(hiddenMap);
+
+            // watch for changes, with one watcher at a time
+            stopped = stoppedWatcher;
+            if (reloadOnChange && watcher == null && (stopped == null || !stopped.isAlive()))
+            {
+                assert url != null;
+                stoppedWatcher = null;
+                watcher = new JWIReloadWatcher(toFile(url).toPath());
+                watcher.start();
+            }
 
             // do load
             try
             {
-                switch (loadPolicy)
+                // the load behavior may come with storage modifiers,
+                // which the sources handle themselves
+                if ((policy & IMMEDIATE_LOAD) != 0)
                 {
-                    case BACKGROUND_LOAD:
-                        load(false);
-                        break;
-                    case IMMEDIATE_LOAD:
-                        load(true);
-                        break;
-                    default:
-                        // do nothing
+                    load(true);
+                }
+                else if ((policy & BACKGROUND_LOAD) != 0)
+                {
+                    load(false);
                 }
             }
             catch (InterruptedException e)
@@ -591,20 +964,22 @@ public class FileProvider implements IDataProvider, ILoadable, ILoadPolicy
             {
                 return;
             }
-            if (loader != null)
+            // a load already under way is waited for if need be
+            JWIBackgroundLoader current = loader;
+            if (current == null)
             {
-                return;
+                current = new JWIBackgroundLoader();
+                loader = current;
+                current.start();
             }
-            loader = new JWIBackgroundLoader();
-            loader.start();
             if (block)
             {
-                loader.join();
+                current.join();
             }
         }
         finally
         {
-            loadingLock.lock();
+            loadingLock.unlock();
         }
     }
 
@@ -622,8 +997,9 @@ public class FileProvider implements IDataProvider, ILoadable, ILoadPolicy
         try
         {
             loadingLock.lock();
-            assert fileMap != null;
-            for (ILoadableDataSource<?> source : fileMap.values())
+            Snapshot snapshot = current;
+            assert snapshot != null;
+            for (ILoadableDataSource<?> source : snapshot.sources.values())
             {
                 if (!source.isLoaded())
                 {
@@ -639,46 +1015,178 @@ public class FileProvider implements IDataProvider, ILoadable, ILoadPolicy
     }
 
     /**
-     * Creates the map that contains the content types mapped to the data
-     * sources. The method should return a non-null result, but it may be empty
-     * if no data sources can be created. Subclasses may override this method.
+     * Lists the dictionary files of this provider, sorted by name, from which
+     * {@link #createSourceMap(List, int)} creates the data sources. This
+     * implementation lists the files in the directory the source URL points
+     * to. Subclasses that get their data elsewhere may override this method.
      *
-     * @param files  the files from which the data sources should be created, may
-     *               not be <code>null</code>
-     * @param policy the load policy of the provider
-     * @return a map, possibly empty, but not <code>null</code>, of content
-     * types mapped to data sources
-     * @throws NullPointerException if the file list is <code>null</code>
-     * @throws IOException          if there is a problem creating the data source
-     * @since JWI 2.2.0
+     * @return the files, in a new modifiable list
+     * @throws IOException if the directory does not exist, or holds no files
+     * @since JWI 2.4.1
      */
     @NonNull
-    protected Map<IContentType<?>, ILoadableDataSource<?>> createSourceMap(@NonNull List<File> files, int policy) throws IOException
+    protected List<File> listFiles() throws IOException
     {
-        Map<IContentType<?>, ILoadableDataSource<?>> result = new HashMap<>();
-        for (IContentType<?> contentType : prototypeMap.values())
+        assert url != null;
+        File directory = toFile(url);
+
+        // make sure directory exists
+        if (!directory.exists())
         {
-            File file = null;
+            throw new IOException("Dictionary directory does not exist: " + directory);
+        }
 
-            // give first chance to matcher
-            if (sourceMatcher.containsKey(contentType.getKey()))
+        // get files in directory
+        // hash index sidecars are not dictionary files
+        File[] fileArray = directory.listFiles(f -> f.isFile() && !LineHashIndex.isSidecarFile(f));
+        if (fileArray == null || fileArray.length == 0)
+        {
+            throw new IOException("No files found in " + directory);
+        }
+        List<File> files = new ArrayList<>(Arrays.asList(fileArray));
+
+        // sort them
+        files.sort(Comparator.comparing(File::getName));
+        return files;
+    }
+
+    /**
+     * Reopens the files of this provider while it stays open. A new set of
+     * data sources is created from the files currently in the directory, and
+     * loaded as the load policy requires, while lookups go on against the old
+     * ones. The new sources are then published in one step. The old sources
+     * are closed as soon as the lookups and iterators that pinned them (see
+     * {@link #pin()}) are done with them, or, for iterators that are not run
+     * to the end, after the reload delay (see {@link #setReloadDelay(long)}).
+     * If the new sources cannot be created, the old ones are kept.
+     *
+     * @return <code>true</code> if the sources were replaced;
+     * <code>false</code> if no source could be created from the files
+     * @throws IOException           if there is a problem creating the new
+     *                               sources
+     * @throws ObjectClosedException if the provider is closed
+     * @since JWI 2.4.1
+     */
+    public boolean reload() throws IOException
+    {
+        try
+        {
+            reloadLock.lock();
+            checkOpen();
+
+            // build the new sources without holding up lookups
+            int policy = getLoadPolicy();
+            Map<IContentType<?>, ILoadableDataSource<?>> newMap = createSourceMap(listFiles(), policy);
+            if (newMap.isEmpty())
             {
-                String regex = sourceMatcher.get(contentType.getKey());
-                assert regex != null;
-                file = match(regex, files);
+                return false;
             }
+            newMap = Collections.unmodifiableMap(newMap);
 
-            // if it failed fall back on data types
-            if (file == null)
+            // publish them
+            Snapshot old;
+            try
             {
-                IDataType<?> dataType = contentType.getDataType();
-                file = DataType.find(dataType, contentType.getPOS(), files);
+                lifecycleLock.lock();
+                old = current;
+                if (old == null)
+                {
+                    // closed in the meantime
+                    for (ILoadableDataSource<?> source : newMap.values())
+                    {
+                        source.close();
+                    }
+                    throw new ObjectClosedException();
+                }
+                JWIBackgroundLoader running = loader;
+                if (running != null)
+                {
+                    running.cancel();
+                }
+                retired.add(old);
+                current = new Snapshot(newMap);
+                version = null;
             }
-
-            // if it failed continue
-            if (file == null)
+            finally
             {
-                continue;
+                lifecycleLock.unlock();
+            }
+            if (verbose)
+            {
+                System.out.printf("Reloaded %s%n", url);
+            }
+
+            // close the old sources once they are no longer used
+            old.retire();
+
+            // the new sources may have to be loaded in the background
+            if ((policy & BACKGROUND_LOAD) != 0)
+            {
+                try
+                {
+                    load(false);
+                }
+                catch (InterruptedException e)
+                {
+                    e.printStackTrace();
+                }
+            }
+            return true;
+        }
+        finally
+        {
+            reloadLock.unlock();
+        }
+    }
+
+    /**
+     * Creates the map that contains the content types mapped to the data
+     * sources. The method should return a non-null result, but it may be empty
+     * if no data sources can be created. Subclasses may override this method.
+     * <p>
+     * Files are matched to content types first; the data sources are then
+     * created, opened, validated and, under {@link ILoadPolicy#IMMEDIATE_LOAD},
+     * loaded in parallel on the executor of this provider (see
+     * {@link #setExecutor(ExecutorService)}). The method returns when all of
+     * them are done.
+     * </p>
+     *
+     * @param files  the files from which the data sources should be created, may
+     *               not be <code>null</code>
+     * @param policy the load policy of the provider
+     * @return a map, possibly empty, but not <code>null</code>, of content
+     * types mapped to data sources
+     * @throws NullPointerException if the file list is <code>null</code>
+     * @throws IOException          if there is a problem creating the data source
+     * @since JWI 2.2.0
+     */
+    @NonNull
+    protected Map<IContentType<?>, ILoadableDataSource<?>> createSourceMap(@NonNull List<File> files, int policy) throws IOException
+    {
+        Map<IContentType<?>, File> matches = new LinkedHashMap<>();
+        for (IContentType<?> contentType : prototypeMap.values())
+        {
+            File file = null;
+
+            // give first chance to matcher
+            if (sourceMatcher.containsKey(contentType.getKey()))
+            {
+                String regex = sourceMatcher.get(contentType.getKey());
+                assert regex != null;
+                file = match(regex, files);
+            }
+
+            // if it failed fall back on data types
+            if (file == null)
+            {
+                IDataType<?> dataType = contentType.getDataType();
+                file = DataType.find(dataType, contentType.getPOS(), files);
+            }
+
+            // if it failed continue
+            if (file == null)
+            {
+                continue;
             }
 
             // do not remove file from possible choices as both content types may use the same file
@@ -693,13 +1201,93 @@ public class FileProvider implements IDataProvider, ILoadable, ILoadPolicy
                 files.remove(file);
             }
 
-            result.put(contentType, createDataSource(file, contentType, policy));
+            matches.put(contentType, file);
             if (verbose)
             {
                 System.out.printf("%s %s%n", contentType, file.getName());
             }
         }
-        return result;
+
+        // open the sources in parallel
+        openStarts.clear();
+        readyTimes.clear();
+        promotionFailures.clear();
+        ExecutorService pool = obtainExecutor(matches.size());
+        Map<IContentType<?>, Future<ILoadableDataSource<?>>> futures = new LinkedHashMap<>();
+        try
+        {
+            for (Entry<IContentType<?>, File> e : matches.entrySet())
+            {
+                IContentType<?> contentType = e.getKey();
+                File file = e.getValue();
+                futures.put(contentType, pool.submit(() -> {
+                    openStarts.put(contentType, System.nanoTime());
+                    ILoadableDataSource<?> src = createDataSource(file, contentType, policy);
+                    markReady(contentType, src, (policy & IMMEDIATE_LOAD) != 0);
+                    return src;
+                }));
+            }
+        }
+        finally
+        {
+            if (pool != executor)
+            {
+                pool.shutdown();
+            }
+        }
+
+        // wait for all of them, even if one fails,
+        // so that none is left open behind our back
+        Map<IContentType<?>, ILoadableDataSource<?>> result = new HashMap<>();
+        Throwable failure = null;
+        for (Entry<IContentType<?>, Future<ILoadableDataSource<?>>> e : futures.entrySet())
+        {
+            try
+            {
+                result.put(e.getKey(), e.getValue().get());
+            }
+            catch (ExecutionException ex)
+            {
+                if (failure == null)
+                {
+                    failure = ex.getCause();
+                }
+            }
+            catch (InterruptedException ex)
+            {
+                if (failure == null)
+                {
+                    failure = ex;
+                }
+            }
+        }
+        if (failure == null)
+        {
+            return result;
+        }
+
+        // close what was opened and rethrow
+        for (ILoadableDataSource<?> src : result.values())
+        {
+            src.close();
+        }
+        if (failure instanceof IOException)
+        {
+            throw (IOException) failure;
+        }
+        if (failure instanceof RuntimeException)
+        {
+            throw (RuntimeException) failure;
+        }
+        if (failure instanceof Error)
+        {
+            throw (Error) failure;
+        }
+        if (failure instanceof InterruptedException)
+        {
+            Thread.currentThread().interrupt();
+        }
+        throw new IOException(failure);
     }
 
     @Nullable
@@ -717,7 +1305,9 @@ public class FileProvider implements IDataProvider, ILoadable, ILoadPolicy
     }
 
     /**
-     * Creates the actual data source implementations.
+     * Creates the actual data source implementations. This method is called
+     * on the threads of the executor of this provider, concurrently for
+     * different files.
      *
      * @param <T>         the content type of the data source
      * @param file        the file from which the data source should be created, may not
@@ -735,8 +1325,9 @@ public class FileProvider implements IDataProvider, ILoadable, ILoadPolicy
         if (contentType.getDataType() == DataType.DATA)
         {
             src = createDirectAccess(file, contentType);
+            applyLoadPolicy(src, policy);
             src.open();
-            if (policy == IMMEDIATE_LOAD)
+            if ((policy & IMMEDIATE_LOAD) != 0)
             {
                 try
                 {
@@ -777,11 +1368,15 @@ public class FileProvider implements IDataProvider, ILoadable, ILoadPolicy
             POS pos = contentType.getPOS();
             assert pos != null;
             System.err.println(System.currentTimeMillis() + " - Error on direct access in " + pos + " data file: check CR/LF endings");
+
+            // replaced by a binary search source over the same file
+            src.close();
         }
 
         src = createBinarySearch(file, contentType);
+        applyLoadPolicy(src, policy);
         src.open();
-        if (policy == IMMEDIATE_LOAD)
+        if ((policy & IMMEDIATE_LOAD) != 0)
         {
             try
             {
@@ -795,6 +1390,78 @@ public class FileProvider implements IDataProvider, ILoadable, ILoadPolicy
         return src;
     }
 
+    /**
+     * Passes the load policy of the provider on to the specified data source,
+     * if it has one, so that it holds its content as the policy's modifiers
+     * ({@link ILoadPolicy#OFF_HEAP}, {@link ILoadPolicy#RESIDENT}) require.
+     *
+     * @param src    the data source; may not be <code>null</code>
+     * @param policy the load policy of the provider
+     * @since JWI 2.4.1
+     */
+    protected void applyLoadPolicy(@NonNull ILoadableDataSource<?> src, int policy)
+    {
+        if (src instanceof ILoadPolicy)
+        {
+            ((ILoadPolicy) src).setLoadPolicy(policy);
+        }
+        if ((policy & ADAPTIVE_LOAD) != 0 && src instanceof WordnetFile)
+        {
+            ((WordnetFile<?>) src).setAccessAction(adaptiveThreshold, () -> promote(src));
+        }
+    }
+
+    /**
+     * Loads the specified data source in the background (see
+     * {@link #runDeferred(Runnable)}), as it has been accessed often enough
+     * under {@link ILoadPolicy#ADAPTIVE_LOAD}. If the loading fails, the
+     * source keeps its content where it was, and the failure is recorded (see
+     * {@link #getPromotionFailures()}).
+     *
+     * @param src the data source; may not be <code>null</code>
+     */
+    private void promote(@NonNull ILoadableDataSource<?> src)
+    {
+        runDeferred(() -> {
+            if (!src.isOpen() || src.isLoaded())
+            {
+                return;
+            }
+            IContentType<?> contentType = src.getContentType();
+            try
+            {
+                src.load(true);
+            }
+            catch (ObjectClosedException e)
+            {
+                // closed in the meantime
+                return;
+            }
+            catch (InterruptedException e)
+            {
+                // the executor is shutting down
+                Thread.currentThread().interrupt();
+                return;
+            }
+            catch (RuntimeException | OutOfMemoryError e)
+            {
+                if (contentType != null)
+                {
+                    promotionFailures.put(contentType, e);
+                }
+                if (verbose)
+                {
+                    System.out.printf("%s not loaded: %s%n", contentType, e);
+                }
+                return;
+            }
+            if (contentType != null)
+            {
+                markReady(contentType, src, true);
+            }
+        });
+    }
+
     /**
      * Creates a direct access data source for the specified type, using the
      * specified file.
@@ -842,15 +1509,9 @@ public class FileProvider implements IDataProvider, ILoadable, ILoadPolicy
      */
     public boolean isOpen()
     {
-        try
-        {
-            lifecycleLock.lock();
-            return fileMap != null;
-        }
-        finally
-        {
-            lifecycleLock.unlock();
-        }
+        // the snapshot is volatile, and only published once its sources
+        // are ready, so lookups need no lock to check it
+        return current != null;
     }
 
     /*
@@ -867,16 +1528,27 @@ public class FileProvider implements IDataProvider, ILoadable, ILoadPolicy
             {
                 return;
             }
+            JWIReloadWatcher running = watcher;
+            if (running != null)
+            {
+                running.shutdown();
+                stoppedWatcher = running;
+                watcher = null;
+            }
             if (loader != null)
             {
                 loader.cancel();
             }
-            assert fileMap != null;
-            for (IDataSource<?> source : fileMap.values())
+            Snapshot snapshot = current;
+            assert snapshot != null;
+            current = null;
+            snapshot.close();
+
+            // sources replaced by a reload are not kept any longer
+            for (Snapshot old : retired)
             {
-                source.close();
+                old.close();
             }
-            fileMap = null;
         }
         finally
         {
@@ -910,16 +1582,45 @@ public class FileProvider implements IDataProvider, ILoadable, ILoadPolicy
     {
         checkOpen();
 
-        // assume at first this the prototype
-        IContentType<?> actualType = prototypeMap.get(contentType.getKey());
+        // the provider may be closed concurrently
+        Snapshot snapshot = current;
+        if (snapshot == null)
+        {
+            throw new ObjectClosedException();
+        }
+        return snapshot.getSource(contentType);
+    }
 
-        // if this does not map to an adjusted type, we will check under it directly
-        if (actualType == null)
+    /**
+     * Pins the data sources this provider holds now for a lookup on the
+     * calling thread. The sources stay open until the lookup unpins them
+     * (see {@link Snapshot#unpin()}), even if a reload (see
+     * {@link #reload()}) replaces them meanwhile; a lookup that obtains its
+     * sources from the returned snapshot therefore never finds them closed
+     * under it, unless the provider itself is closed.
+     *
+     * @return the pinned sources
+     * @throws ObjectClosedException if the provider is closed
+     * @since JWI 2.4.1
+     */
+    @NonNull
+    public Snapshot pin()
+    {
+        while (true)
         {
-            actualType = contentType;
+            Snapshot snapshot = current;
+            if (snapshot == null)
+            {
+                throw new ObjectClosedException();
+            }
+            snapshot.lookups.enter();
+            // a snapshot replaced meanwhile may already be closing
+            if (snapshot == current)
+            {
+                return snapshot;
+            }
+            snapshot.unpin();
         }
-        assert fileMap != null;
-        return (ILoadableDataSource<T>) fileMap.get(actualType);
     }
 
     /*
@@ -941,8 +1642,179 @@ public class FileProvider implements IDataProvider, ILoadable, ILoadPolicy
         }
     }
 
+    /**
+     * The data sources published by one opening or reload of a provider.
+     * Lookups pin them for their duration (see {@link FileProvider#pin()}),
+     * and iterators for theirs (see {@link #retain()}). Once a reload has
+     * replaced them, the sources are closed by the last lookup or iterator to
+     * let them go; iterators that are not run to the end are waited for no
+     * longer than the reload delay (see {@link #setReloadDelay(long)}). The
+     * close itself is run in the background (see
+     * {@link #setExecutor(ExecutorService)}).
+     *
+     * @author Mark A. Finlayson
+     * @version 2.4.0
+     * @since JWI 2.4.1
+     */
+    public final class Snapshot
+    {
+        @NonNull
+        private final Map<IContentType<?>, ILoadableDataSource<?>> sources;
+
+        // lookups are counted in and out on their own thread, so that
+        // threads looking up at once do not contend; iterators may be
+        // released from any thread, and are far fewer
+        private final ReaderCount lookups = new ReaderCount();
+        private final AtomicInteger iterators = new AtomicInteger();
+
+        // set once, when the sources are replaced, and when the iterators
+        // have been waited for long enough
+        private volatile boolean isRetired = false;
+        private volatile boolean isExpired = false;
+        private final AtomicBoolean isClosed = new AtomicBoolean();
+
+        /**
+         * Constructs the snapshot of the specified sources.
+         *
+         * @param sources the sources, keyed by content type
+         */
+        private Snapshot(@NonNull Map<IContentType<?>, ILoadableDataSource<?>> sources)
+        {
+            this.sources = sources;
+        }
+
+        /**
+         * Returns the data source of this snapshot for the specified content
+         * type, as {@link FileProvider#getSource(IContentType)} does for the
+         * current sources of the provider.
+         *
+         * @param <T>         the type of the content
+         * @param contentType the content type; may not be <code>null</code>
+         * @return the source, or <code>null</code> if there is none
+         * @since JWI 2.4.1
+         */
+        @Nullable
+        @SuppressWarnings("unchecked")
+        public <T> ILoadableDataSource<T> getSource(@NonNull IContentType<T> contentType)
+        {
+            // assume at first this the prototype
+            IContentType<?> actualType = prototypeMap.get(contentType.getKey());
+
+            // if this does not map to an adjusted type, we will check under it directly
+            if (actualType == null)
+            {
+                actualType = contentType;
+            }
+            return (ILoadableDataSource<T>) sources.get(actualType);
+        }
+
+        /**
+         * Ends a lookup started with {@link FileProvider#pin()}. Must be
+         * called on the thread that pinned the sources, in a
+         * <code>finally</code> block.
+         *
+         * @since JWI 2.4.1
+         */
+        public void unpin()
+        {
+            lookups.exit();
+            if (isRetired)
+            {
+                tryClose();
+            }
+        }
+
+        /**
+         * Keeps the sources open for an iterator, until {@link #release()} is
+         * called, from any thread. Must be called while the sources are
+         * pinned (see {@link FileProvider#pin()}).
+         *
+         * @since JWI 2.4.1
+         */
+        public void retain()
+        {
+            iterators.incrementAndGet();
+        }
+
+        /**
+         * Lets go of the sources kept open by {@link #retain()}.
+         *
+         * @since JWI 2.4.1
+         */
+        public void release()
+        {
+            if (iterators.decrementAndGet() == 0 && isRetired)
+            {
+                tryClose();
+            }
+        }
+
+        /**
+         * Marks the sources as replaced, so that they are closed as soon as
+         * they are no longer used, and at the latest after the reload delay.
+         */
+        private void retire()
+        {
+            isRetired = true;
+            if (!tryClose())
+            {
+                SharedExecutor.INSTANCE.schedule(() -> {
+                    isExpired = true;
+                    tryClose();
+                }, reloadDelay, TimeUnit.MILLISECONDS);
+            }
+        }
+
+        /**
+         * Closes the sources in the background if they are replaced and no
+         * longer used.
+         *
+         * @return <code>true</code> if the sources are closed, or being
+         * closed; <code>false</code> otherwise
+         */
+        private boolean tryClose()
+        {
+            // lookups are always waited for, as they are short
+            if (!lookups.isIdle() || (iterators.get() > 0 && !isExpired))
+            {
+                return false;
+            }
+            if (isClosed.compareAndSet(false, true))
+            {
+                runDeferred(this::closeSources);
+            }
+            return true;
+        }
+
+        /**
+         * Closes the sources right away, as the provider is being closed.
+         * Lookups on them that are in flight fail.
+         */
+        private void close()
+        {
+            if (isClosed.compareAndSet(false, true))
+            {
+                closeSources();
+            }
+        }
+
+        /**
+         * Closes the sources of this snapshot.
+         */
+        private void closeSources()
+        {
+            retired.remove(this);
+            for (IDataSource<?> source : sources.values())
+            {
+                source.close();
+            }
+        }
+    }
+
     /**
      * A thread class which tries to load each data source in this provider.
+     * The sources are loaded in parallel on the executor of the provider;
+     * this thread waits for all of them.
      *
      * @author Mark A. Finlayson
      * @version 2.4.0
@@ -951,7 +1823,7 @@ public class FileProvider implements IDataProvider, ILoadable, ILoadPolicy
     protected class JWIBackgroundLoader extends Thread
     {
         // cancel flag
-        private transient boolean cancel = false;
+        private volatile boolean cancel = false;
 
         /**
          * Constructs a new background loader that operates
@@ -975,22 +1847,55 @@ public class FileProvider implements IDataProvider, ILoadable, ILoadPolicy
         {
             try
             {
-                assert fileMap != null;
-                for (ILoadableDataSource<?> source : fileMap.values())
+                Snapshot snapshot = current;
+                assert snapshot != null;
+                Map<IContentType<?>, ILoadableDataSource<?>> map = snapshot.sources;
+                ExecutorService pool = obtainExecutor(map.size());
+                List<Future<?>> futures = new ArrayList<>(map.size());
+                try
                 {
-                    if (!cancel && !source.isLoaded())
+                    for (Entry<IContentType<?>, ILoadableDataSource<?>> e : map.entrySet())
                     {
-                        try
-                        {
-                            source.load(true);
-                        }
-                        catch (InterruptedException e)
+                        IContentType<?> contentType = e.getKey();
+                        ILoadableDataSource<?> source = e.getValue();
+                        futures.add(pool.submit(() -> {
+                            if (!cancel && !source.isLoaded())
+                            {
+                                source.load(true);
+                                markReady(contentType, source, true);
+                            }
+                            return null;
+                        }));
+                    }
+                }
+                finally
+                {
+                    if (pool != executor)
+                    {
+                        pool.shutdown();
+                    }
+                }
+                for (Future<?> future : futures)
+                {
+                    try
+                    {
+                        future.get();
+                    }
+                    catch (ExecutionException e)
+                    {
+                        // sources closed under a cancelled load
+                        // refuse to be read, which is expected
+                        if (!cancel)
                         {
-                            e.printStackTrace();
+                            e.getCause().printStackTrace();
                         }
                     }
                 }
             }
+            catch (InterruptedException e)
+            {
+                e.printStackTrace();
+            }
             finally
             {
                 loader = null;
@@ -1016,6 +1921,127 @@ public class FileProvider implements IDataProvider, ILoadable, ILoadPolicy
         }
     }
 
+    /**
+     * A thread class which watches the directory of this provider, and
+     * reloads the provider (see {@link FileProvider#reload()}) once changes to
+     * its files have settled.
+     *
+     * @author Mark A. Finlayson
+     * @version 2.4.0
+     * @since JWI 2.4.1
+     */
+    protected class JWIReloadWatcher extends Thread
+    {
+        @NonNull
+        private final WatchService watchService;
+
+        /**
+         * Constructs a new watcher of the specified directory.
+         *
+         * @param directory the directory to watch; may not be <code>null</code>
+         * @throws IOException if the directory cannot be watched
+         * @since JWI 2.4.1
+         */
+        public JWIReloadWatcher(@NonNull Path directory) throws IOException
+        {
+            setName(JWIReloadWatcher.class.getSimpleName());
+            setDaemon(true);
+            watchService = directory.getFileSystem().newWatchService();
+            directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_DELETE, StandardWatchEventKinds.ENTRY_MODIFY);
+        }
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see java.lang.Thread#run()
+         */
+        @Override
+        public void run()
+        {
+            try
+            {
+                WatchKey key;
+                while (true)
+                {
+                    key = watchService.take();
+                    if (!isRelevant(key))
+                    {
+                        continue;
+                    }
+
+                    // wait for the changes to settle
+                    while ((key = watchService.poll(reloadDelay, TimeUnit.MILLISECONDS)) != null)
+                    {
+                        isRelevant(key);
+                    }
+                    if (watcher != this)
+                    {
+                        // shut down, the provider may have been opened again
+                        return;
+                    }
+                    try
+                    {
+                        reload();
+                    }
+                    catch (ObjectClosedException e)
+                    {
+                        return;
+                    }
+                    catch (IOException | RuntimeException e)
+                    {
+                        e.printStackTrace();
+                    }
+                }
+            }
+            catch (InterruptedException | ClosedWatchServiceException e)
+            {
+                // shut down
+            }
+        }
+
+        /**
+         * Consumes the events of the specified key, and returns whether any of
+         * them concerns a dictionary file.
+         *
+         * @param key the key
+         * @return <code>true</code> if a dictionary file has changed;
+         * <code>false</code> otherwise
+         */
+        private boolean isRelevant(@NonNull WatchKey key)
+        {
+            boolean result = false;
+            for (WatchEvent<?> event : key.pollEvents())
+            {
+                Object context = event.context();
+
+                // hash index sidecars are written by the provider itself
+                if (event.kind() == StandardWatchEventKinds.OVERFLOW || context instanceof Path && !LineHashIndex.isSidecarFile(((Path) context).toFile()))
+                {
+                    result = true;
+                }
+            }
+            key.reset();
+            return result;
+        }
+
+        /**
+         * Stops watching.
+         *
+         * @since JWI 2.4.1
+         */
+        public void shutdown()
+        {
+            try
+            {
+                watchService.close();
+            }
+            catch (IOException e)
+            {
+                e.printStackTrace();
+            }
+        }
+    }
+
     /**
      * Transforms a URL into a File. The URL must use the 'file' protocol and
      * must be in a UTF-8 compatible format as specified in
@@ -0,0 +1,75 @@
+/* ******************************************************************************
+ * Java Wordnet Interface Library (JWI) v2.4.0
+ * Copyright (c) 2007-2015 Mark A. Finlayson
+ *
+ * JWI is distributed under the terms of the Creative Commons Attribution 4.0
+ * International Public License, which means it may be freely used for all
+ * purposes, as long as proper acknowledgment is made.  See the license file
+ * included with this distribution for more details.
+ *******************************************************************************/
+
+package edu.mit.jwi.data;
+
+import edu.mit.jwi.NonNull;
+import edu.mit.jwi.Nullable;
+import edu.mit.jwi.data.parse.IByteLineParser;
+
+import java.util.Iterator;
+import java.util.Spliterator;
+
+/**
+ * A data source that can hand its lines to a byte-level parser, without
+ * decoding them into strings first. The parser is run while the source holds
+ * the line, so that the bytes need not outlive the call.
+ *
+ * @author Mark A. Finlayson
+ * @version 2.4.0
+ * @since JWI 2.4.1
+ */
+public interface IByteLineSource
+{
+    /**
+     * Finds the line indexed by the specified key, as
+     * {@link IDataSource#getLine(String)} does, and parses it from its bytes
+     * with the specified parser.
+     *
+     * @param <R>    the type of object the parser produces
+     * @param key    the key which indexes the desired data
+     * @param parser the parser; may not be <code>null</code>
+     * @return the parsed line, or <code>null</code> if there is no line for
+     * the key
+     * @throws NullPointerException if the key or parser is <code>null</code>
+     * @since JWI 2.4.1
+     */
+    @Nullable
+    <R> R parseLine(@NonNull String key, @NonNull IByteLineParser<R> parser);
+
+    /**
+     * Returns an iterator over the lines of the data source that are not
+     * comments, each parsed from its bytes with the specified parser. The
+     * iterator does not support the {@link Iterator#remove()} operation.
+     *
+     * @param <R>    the type of object the parser produces
+     * @param parser the parser; may not be <code>null</code>
+     * @return an iterator over the parsed lines
+     * @throws NullPointerException if the parser is <code>null</code>
+     * @since JWI 2.4.1
+     */
+    @NonNull
+    <R> Iterator<R> parsingIterator(@NonNull IByteLineParser<R> parser);
+
+    /**
+     * Returns a spliterator over the lines of the data source that are not
+     * comments, each parsed from its bytes with the specified parser. The
+     * spliterator splits the data source at line boundaries, so that the parts
+     * may be parsed in parallel, for example by a parallel stream.
+     *
+     * @param <R>    the type of object the parser produces
+     * @param parser the parser; may not be <code>null</code>
+     * @return a spliterator over the parsed lines
+     * @throws NullPointerException if the parser is <code>null</code>
+     * @since JWI 2.4.1
+     */
+    @NonNull
+    <R> Spliterator<R> parsingSpliterator(@NonNull IByteLineParser<R> parser);
+}
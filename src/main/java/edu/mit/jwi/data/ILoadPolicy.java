@@ -50,14 +50,51 @@ public interface ILoadPolicy
      */
     int IMMEDIATE_LOAD = 1 << 3;
 
+    /**
+     * Modifier of {@link #BACKGROUND_LOAD}, {@link #IMMEDIATE_LOAD} and
+     * {@link #ADAPTIVE_LOAD} under which the loaded data is copied into direct
+     * (off-heap) buffers rather than into arrays on the heap, where the
+     * garbage collector would have to scan it. Combine it with a load
+     * behavior, as in <code>IMMEDIATE_LOAD | OFF_HEAP</code>. Value is
+     * 1 &lt;&lt; 4.
+     *
+     * @since JWI 2.4.1
+     */
+    int OFF_HEAP = 1 << 4;
+
+    /**
+     * Modifier of {@link #BACKGROUND_LOAD}, {@link #IMMEDIATE_LOAD} and
+     * {@link #ADAPTIVE_LOAD} under which the data is not copied at all: every
+     * page of the memory-mapped files is touched instead, so that it is read
+     * in from disk and resident when the load completes. Whether pages stay
+     * resident is up to the operating system. Combine it with a load
+     * behavior, as in <code>IMMEDIATE_LOAD | RESIDENT</code>; it takes
+     * precedence over {@link #OFF_HEAP}. Value is 1 &lt;&lt; 5.
+     *
+     * @since JWI 2.4.1
+     */
+    int RESIDENT = 1 << 5;
+
+    /**
+     * Loading behavior where the object does not load itself when opened, but
+     * loads those of its parts that turn out to be used often, in the
+     * background, once they have been accessed a set number of times. Parts
+     * that are seldom used are left as they are. Value is 1 &lt;&lt; 6.
+     *
+     * @since JWI 2.4.1
+     */
+    int ADAPTIVE_LOAD = 1 << 6;
+
     /**
      * Sets the load policy for this object. If the object is currently loaded,
      * or in the process of loading, the load policy will not take effect until
      * the next time object is instantiated, initialized, or opened.
      *
      * @param policy the policy to implement; may be one of <code>NO_LOAD</code>,
-     *               <code>BACKGROUND_LOAD</code>, <code>IMMEDIATE_LOAD</code> or
-     *               an implementation-dependent value.
+     *               <code>BACKGROUND_LOAD</code>, <code>IMMEDIATE_LOAD</code>,
+     *               <code>ADAPTIVE_LOAD</code>, possibly combined with
+     *               <code>OFF_HEAP</code> or <code>RESIDENT</code>, or an
+     *               implementation-dependent value.
      * @since JWI 2.2.0
      */
     void setLoadPolicy(int policy);
@@ -0,0 +1,390 @@
+/* ******************************************************************************
+ * Java Wordnet Interface Library (JWI) v2.4.0
+ * Copyright (c) 2007-2015 Mark A. Finlayson
+ *
+ * JWI is distributed under the terms of the Creative Commons Attribution 4.0
+ * International Public License, which means it may be freely used for all
+ * purposes, as long as proper acknowledgment is made.  See the license file
+ * included with this distribution for more details.
+ *******************************************************************************/
+
+package edu.mit.jwi.data;
+
+import edu.mit.jwi.NonNull;
+import edu.mit.jwi.Nullable;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.JarURLConnection;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.*;
+import java.util.jar.JarFile;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * <p>
+ * Implementation of a data provider for Wordnet that reads the Wordnet files
+ * into memory once, and serves its data sources straight from there, without
+ * extracting anything to disk. The source URL may point to:
+ * </p>
+ * <ul>
+ * <li>a zip or jar file (<code>file:</code> URL), whose entries are taken
+ * wherever they are in the archive;</li>
+ * <li>a directory in a jar (<code>jar:</code> URL, such as the URL of a
+ * classpath resource packaged in a jar; see {@link #fromClasspath(String)}),
+ * whose entries are taken;</li>
+ * <li>a plain directory (<code>file:</code> URL), whose files are read.</li>
+ * </ul>
+ * <p>
+ * The content of each file is held in a heap buffer, or in a direct buffer if
+ * the load policy carries the {@link ILoadPolicy#OFF_HEAP} modifier. Files are
+ * matched to content types as by {@link FileProvider}, by their names, and
+ * are searched with the same data sources, which count as loaded from the
+ * start. Watching for changes is not supported, but {@link #reload()} reads
+ * the source again.
+ * </p>
+ *
+ * @author Mark A. Finlayson
+ * @version 2.4.0
+ * @since JWI 2.4.1
+ */
+public class InMemoryProvider extends FileProvider
+{
+    // the content of the files, keyed by file name
+    @NonNull
+    private volatile Map<String, ByteBuffer> contents = Collections.emptyMap();
+
+    /**
+     * Constructs the provider reading from the specified archive or
+     * directory. This provider has an initial {@link ILoadPolicy#NO_LOAD}
+     * load policy.
+     *
+     * @param file the zip or jar file, or directory, to read; may not be
+     *             <code>null</code>
+     * @throws NullPointerException if the specified file is <code>null</code>
+     * @since JWI 2.4.1
+     */
+    public InMemoryProvider(File file)
+    {
+        this(toURL(file));
+    }
+
+    /**
+     * Constructs the provider reading from the specified archive or
+     * directory, with the specified load policy.
+     *
+     * @param file       the zip or jar file, or directory, to read; may not be
+     *                   <code>null</code>
+     * @param loadPolicy the load policy for this provider
+     * @throws NullPointerException if the specified file is <code>null</code>
+     * @since JWI 2.4.1
+     */
+    public InMemoryProvider(File file, int loadPolicy)
+    {
+        this(toURL(file), loadPolicy);
+    }
+
+    /**
+     * Constructs the provider reading from the specified URL. This provider
+     * has an initial {@link ILoadPolicy#NO_LOAD} load policy.
+     *
+     * @param url the URL of the zip or jar file, directory in a jar, or
+     *            directory to read; may not be <code>null</code>
+     * @throws NullPointerException if the specified URL is <code>null</code>
+     * @since JWI 2.4.1
+     */
+    public InMemoryProvider(URL url)
+    {
+        this(url, NO_LOAD);
+    }
+
+    /**
+     * Constructs the provider reading from the specified URL, with the
+     * specified load policy.
+     *
+     * @param url        the URL of the zip or jar file, directory in a jar,
+     *                   or directory to read; may not be <code>null</code>
+     * @param loadPolicy the load policy for this provider
+     * @throws NullPointerException if the specified URL is <code>null</code>
+     * @since JWI 2.4.1
+     */
+    public InMemoryProvider(URL url, int loadPolicy)
+    {
+        this(url, loadPolicy, ContentType.values());
+    }
+
+    /**
+     * Constructs the provider reading from the specified URL, with the
+     * specified load policy, looking for the specified content types.
+     *
+     * @param url          the URL of the zip or jar file, directory in a jar,
+     *                     or directory to read; may not be <code>null</code>
+     * @param loadPolicy   the load policy for this provider
+     * @param contentTypes the content types this provider will look for when
+     *                     it loads its data; may not be <code>null</code> or
+     *                     empty
+     * @throws NullPointerException     if the url or content type collection
+     *                                  is <code>null</code>
+     * @throws IllegalArgumentException if the set of types is empty
+     * @since JWI 2.4.1
+     */
+    public InMemoryProvider(@Nullable URL url, int loadPolicy, @NonNull Collection<? extends IContentType<?>> contentTypes)
+    {
+        super(url, loadPolicy, contentTypes);
+    }
+
+    /**
+     * Constructs a provider reading from the specified classpath resource, a
+     * directory holding the Wordnet files, in a jar or not.
+     *
+     * @param path the path of the resource, as passed to
+     *             {@link ClassLoader#getResource(String)}; may not be
+     *             <code>null</code>
+     * @return the provider
+     * @throws IOException if there is no such resource
+     * @since JWI 2.4.1
+     */
+    @NonNull
+    public static InMemoryProvider fromClasspath(@NonNull String path) throws IOException
+    {
+        ClassLoader loader = Thread.currentThread().getContextClassLoader();
+        if (loader == null)
+        {
+            loader = InMemoryProvider.class.getClassLoader();
+        }
+        URL url = loader.getResource(path);
+        if (url == null)
+        {
+            throw new IOException("Resource not found: " + path);
+        }
+        return new InMemoryProvider(url);
+    }
+
+    /**
+     * This implementation reads the content of the files into memory, and
+     * lists them by name.
+     *
+     * @see edu.mit.jwi.data.FileProvider#listFiles()
+     */
+    @NonNull
+    @Override
+    protected List<File> listFiles() throws IOException
+    {
+        URL url = getSource();
+        assert url != null;
+        Map<String, ByteBuffer> map = readContents(url, (getLoadPolicy() & OFF_HEAP) != 0);
+        if (map.isEmpty())
+        {
+            throw new IOException("No files found in " + url);
+        }
+        contents = map;
+
+        List<File> files = new ArrayList<>(map.size());
+        for (String name : map.keySet())
+        {
+            files.add(new File(name));
+        }
+        files.sort(Comparator.comparing(File::getName));
+        return files;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see edu.edu.mit.jwi.data.FileProvider#createDirectAccess(java.io.File, edu.edu.mit.jwi.data.IContentType)
+     */
+    @NonNull
+    @Override
+    protected <T> ILoadableDataSource<T> createDirectAccess(@NonNull File file, IContentType<T> contentType)
+    {
+        return new DirectAccessWordnetFile<>(file.getName(), getContent(file), contentType);
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see edu.edu.mit.jwi.data.FileProvider#createBinarySearch(java.io.File, edu.edu.mit.jwi.data.IContentType)
+     */
+    @NonNull
+    @Override
+    protected <T> ILoadableDataSource<T> createBinarySearch(@NonNull File file, IContentType<T> contentType)
+    {
+        return "Word".equals(contentType.getDataType().toString()) ?
+                new BinaryStartSearchWordnetFile<>(file.getName(), getContent(file), contentType) :
+                new BinarySearchWordnetFile<>(file.getName(), getContent(file), contentType);
+    }
+
+    /**
+     * Watching for changes is not supported by this provider.
+     *
+     * @param flag must be <code>false</code>
+     * @throws UnsupportedOperationException if the flag is <code>true</code>
+     * @see edu.mit.jwi.data.FileProvider#setReloadOnChange(boolean)
+     */
+    @Override
+    public void setReloadOnChange(boolean flag)
+    {
+        if (flag)
+        {
+            throw new UnsupportedOperationException("cannot watch " + getSource());
+        }
+        super.setReloadOnChange(false);
+    }
+
+    /**
+     * Returns the content read for the specified file.
+     *
+     * @param file the file, as listed by {@link #listFiles()}
+     * @return the content of the file
+     */
+    @NonNull
+    private ByteBuffer getContent(@NonNull File file)
+    {
+        ByteBuffer content = contents.get(file.getName());
+        if (content == null)
+        {
+            throw new IllegalArgumentException("No content for " + file.getName());
+        }
+        return content;
+    }
+
+    /**
+     * Reads the Wordnet files found at the specified URL into memory.
+     *
+     * @param url    the URL of a zip or jar file, of a directory in a jar, or
+     *               of a directory; may not be <code>null</code>
+     * @param direct whether the content goes into direct buffers rather than
+     *               heap buffers
+     * @return the content of the files, keyed by file name
+     * @throws IOException if there is a problem reading the files
+     * @since JWI 2.4.1
+     */
+    @NonNull
+    public static Map<String, ByteBuffer> readContents(@NonNull URL url, boolean direct) throws IOException
+    {
+        Map<String, ByteBuffer> result = new LinkedHashMap<>();
+
+        // a directory in a jar
+        if ("jar".equals(url.getProtocol()))
+        {
+            JarURLConnection conn = (JarURLConnection) url.openConnection();
+            conn.setUseCaches(false);
+            try (JarFile jar = conn.getJarFile())
+            {
+                String entry = conn.getEntryName();
+                String prefix = entry == null || entry.isEmpty() ? "" : entry.endsWith("/") ? entry : entry + "/";
+                readEntries(jar, prefix, direct, result);
+            }
+            return result;
+        }
+
+        // a plain directory
+        File file = toFile(url);
+        if (file.isDirectory())
+        {
+            File[] files = file.listFiles(f -> f.isFile() && !LineHashIndex.isSidecarFile(f));
+            if (files != null)
+            {
+                for (File f : files)
+                {
+                    result.put(f.getName(), toBuffer(Files.readAllBytes(f.toPath()), direct));
+                }
+            }
+            return result;
+        }
+
+        // a zip or jar file
+        try (ZipFile zip = new ZipFile(file))
+        {
+            readEntries(zip, "", direct, result);
+        }
+        return result;
+    }
+
+    /**
+     * Reads the entries of the specified archive that are files under the
+     * specified prefix. With an empty prefix, entries are taken wherever they
+     * are in the archive; otherwise, only those directly under the prefix are.
+     * When two entries have the same name, the first one is kept.
+     *
+     * @param zip    the archive
+     * @param prefix the prefix of the entries to read
+     * @param direct whether the content goes into direct buffers
+     * @param result the map to which the content is added, keyed by name
+     * @throws IOException if there is a problem reading the entries
+     */
+    private static void readEntries(@NonNull ZipFile zip, @NonNull String prefix, boolean direct, @NonNull Map<String, ByteBuffer> result) throws IOException
+    {
+        List<? extends ZipEntry> entries = Collections.list(zip.entries());
+        entries.sort(Comparator.comparing(ZipEntry::getName));
+        for (ZipEntry entry : entries)
+        {
+            String path = entry.getName();
+            if (entry.isDirectory() || !path.startsWith(prefix))
+            {
+                continue;
+            }
+            String name = path.substring(prefix.length());
+            if (!prefix.isEmpty() && name.indexOf('/') != -1)
+            {
+                continue;
+            }
+            name = name.substring(name.lastIndexOf('/') + 1);
+            if (result.containsKey(name) || LineHashIndex.isSidecarFile(new File(name)))
+            {
+                continue;
+            }
+            try (InputStream in = zip.getInputStream(entry))
+            {
+                result.put(name, toBuffer(readAll(in, entry.getSize()), direct));
+            }
+        }
+    }
+
+    /**
+     * Reads the specified stream to its end.
+     *
+     * @param in   the stream
+     * @param size the expected size, or -1 if unknown
+     * @return the bytes read
+     * @throws IOException if there is a problem reading the stream
+     */
+    @NonNull
+    private static byte[] readAll(@NonNull InputStream in, long size) throws IOException
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(size > 0 && size < Integer.MAX_VALUE ? (int) size : 8192);
+        byte[] chunk = new byte[8192];
+        int n;
+        while ((n = in.read(chunk)) != -1)
+        {
+            out.write(chunk, 0, n);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Wraps the specified bytes in a heap buffer, or copies them into a
+     * direct buffer.
+     *
+     * @param bytes  the bytes
+     * @param direct whether to copy the bytes into a direct buffer
+     * @return the buffer
+     */
+    @NonNull
+    private static ByteBuffer toBuffer(@NonNull byte[] bytes, boolean direct)
+    {
+        if (!direct)
+        {
+            return ByteBuffer.wrap(bytes);
+        }
+        ByteBuffer buf = ByteBuffer.allocateDirect(bytes.length);
+        buf.put(bytes);
+        buf.clear();
+        return buf;
+    }
+}
@@ -0,0 +1,487 @@
+/* ******************************************************************************
+ * Java Wordnet Interface Library (JWI) v2.4.0
+ * Copyright (c) 2007-2015 Mark A. Finlayson
+ *
+ * JWI is distributed under the terms of the Creative Commons Attribution 4.0
+ * International Public License, which means it may be freely used for all
+ * purposes, as long as proper acknowledgment is made.  See the license file
+ * included with this distribution for more details.
+ *******************************************************************************/
+
+package edu.mit.jwi.data;
+
+import edu.mit.jwi.NonNull;
+import edu.mit.jwi.Nullable;
+import edu.mit.jwi.data.compare.ByteLines;
+import edu.mit.jwi.data.compare.ICommentDetector;
+import edu.mit.jwi.data.compare.IndexLineComparator;
+import edu.mit.jwi.data.compare.SearchIndexLineComparator;
+import edu.mit.jwi.data.compare.SenseKeyLineComparator;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.zip.CRC32;
+
+/**
+ * <p>
+ * A hash table from the first token of each line of a sorted Wordnet file
+ * (the lemma of an index file, or the sense key of a sense index file) to the
+ * offset of that line. Looking up a key then costs a hash probe and a
+ * comparison or two, rather than a binary search.
+ * </p>
+ * <p>
+ * The table is persisted in a sidecar file next to the file it indexes (see
+ * {@link #getSidecarFile(File)}), stamped with the size, modification time
+ * and checksum of the content of that file, and with the name of its
+ * character set. It is loaded from the sidecar when the stamp still matches,
+ * and rebuilt (and the sidecar rewritten) otherwise, so that a file edited
+ * in place, or read with another character set, is never looked up through a
+ * stale table. If the sidecar cannot be written, the table is only kept in
+ * memory.
+ * </p>
+ * <p>
+ * Keys are hashed case-insensitively, and candidate lines are confirmed with
+ * the file's line comparator, so that the table works with both the
+ * case-sensitive and case-insensitive comparators. A key that is not 7-bit
+ * ASCII could compare equal to a line through a case mapping that changes
+ * its length; misses on such keys are therefore not conclusive (see
+ * {@link #isConclusiveMiss(String)}).
+ * </p>
+ *
+ * @author Mark A. Finlayson
+ * @version 2.4.0
+ * @since JWI 2.4.1
+ */
+public class LineHashIndex
+{
+    /**
+     * The suffix appended to the name of an indexed file to name its sidecar.
+     *
+     * @since JWI 2.4.1
+     */
+    public static final String SIDECAR_SUFFIX = ".hidx";
+
+    // sidecar header
+    private static final int MAGIC = 0x4A574948; // "JWIH"
+    private static final int FORMAT = 2;
+
+    // empty slot marker
+    private static final int EMPTY = -1;
+
+    // the table: parallel arrays of key hashes and line offsets
+    @NonNull
+    private final int[] hashes;
+    @NonNull
+    private final int[] offsets;
+    private final int mask;
+
+    // the checksum of the indexed content
+    private final long checksum;
+
+    /**
+     * Constructs a hash index from its tables.
+     *
+     * @param hashes   the key hashes, one per slot
+     * @param offsets  the line offsets, one per slot, -1 for an empty slot
+     * @param checksum the checksum of the indexed content (see
+     *                 {@link #checksum(ByteBuffer)})
+     * @since JWI 2.4.1
+     */
+    protected LineHashIndex(@NonNull int[] hashes, @NonNull int[] offsets, long checksum)
+    {
+        assert hashes.length == offsets.length && Integer.bitCount(offsets.length) == 1;
+        this.hashes = hashes;
+        this.offsets = offsets;
+        this.mask = offsets.length - 1;
+        this.checksum = checksum;
+    }
+
+    /**
+     * Returns the checksum of the content this index was built from.
+     *
+     * @return the checksum, as computed by {@link #checksum(ByteBuffer)}
+     * @since JWI 2.4.1
+     */
+    public long getChecksum()
+    {
+        return checksum;
+    }
+
+    /**
+     * Returns the offset of the first line, in file order, whose first token
+     * compares equal to the first token of the specified key.
+     *
+     * @param buf        the buffer holding the indexed lines; may not be
+     *                   <code>null</code>
+     * @param key        the key to look up; may not be <code>null</code>
+     * @param comparator the comparator the lines are sorted by; may not be
+     *                   <code>null</code>
+     * @param cs         the character set of the buffer; may be <code>null</code>
+     * @return the offset of the matching line, or -1 if there is none
+     * @since JWI 2.4.1
+     */
+    public int find(@NonNull ByteBuffer buf, @NonNull String key, @NonNull Comparator<String> comparator, @Nullable Charset cs)
+    {
+        int hash = hash(key, ByteLines.findTokenEnd(key));
+        int result = -1;
+        int offset;
+        for (int i = hash & mask; (offset = offsets[i]) != EMPTY; i = (i + 1) & mask)
+        {
+            if (hashes[i] == hash && (result == -1 || offset < result) && WordnetFile.compareLine(buf, offset, key, comparator, cs) == 0)
+            {
+                result = offset;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns whether a miss on the specified key is conclusive, that is,
+     * whether it proves that no line matches the key.
+     *
+     * @param key the key that was not found; may not be <code>null</code>
+     * @return <code>true</code> if no line matches the key; <code>false</code>
+     * if the file should be searched anyway
+     * @since JWI 2.4.1
+     */
+    public boolean isConclusiveMiss(@NonNull String key)
+    {
+        int end = ByteLines.findTokenEnd(key);
+        for (int i = 0; i < end; i++)
+        {
+            if (key.charAt(i) >= 0x80)
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns whether lines sorted by the specified comparator can be
+     * indexed, that is, whether two lines compare equal only if their first
+     * tokens are equal, ignoring case.
+     *
+     * @param comparator the line comparator; may be <code>null</code>
+     * @return <code>true</code> if files sorted by this comparator can be
+     * indexed; <code>false</code> otherwise
+     * @since JWI 2.4.1
+     */
+    public static boolean supports(@Nullable Comparator<String> comparator)
+    {
+        // the search comparator matches prefixes
+        if (comparator instanceof SearchIndexLineComparator)
+        {
+            return false;
+        }
+        return comparator instanceof IndexLineComparator || comparator instanceof SenseKeyLineComparator;
+    }
+
+    /**
+     * Returns the sidecar file of the specified file.
+     *
+     * @param file the indexed file; may not be <code>null</code>
+     * @return the sidecar file, in the same directory
+     * @since JWI 2.4.1
+     */
+    @NonNull
+    public static File getSidecarFile(@NonNull File file)
+    {
+        return new File(file.getParentFile(), file.getName() + SIDECAR_SUFFIX);
+    }
+
+    /**
+     * Returns whether the specified file is a sidecar, or a temporary file
+     * written on the way to one, and so should not be taken for a dictionary
+     * file.
+     *
+     * @param file the file to test; may not be <code>null</code>
+     * @return <code>true</code> if the file is a sidecar; <code>false</code>
+     * otherwise
+     * @since JWI 2.4.1
+     */
+    public static boolean isSidecarFile(@NonNull File file)
+    {
+        return file.getName().contains(SIDECAR_SUFFIX);
+    }
+
+    /**
+     * Loads the hash index of the specified file from its sidecar if it is
+     * up-to-date, that is, if it was written for the same size, modification
+     * time, content and character set, or else builds it from the buffer and
+     * tries to write the sidecar.
+     *
+     * @param file     the indexed file; may not be <code>null</code>
+     * @param buf      the buffer holding the content of the file; may not be
+     *                 <code>null</code>
+     * @param cs       the character set of the buffer; may be <code>null</code>
+     * @param detector the comment detector of the file; may be <code>null</code>
+     * @return the hash index of the file
+     * @since JWI 2.4.1
+     */
+    @NonNull
+    public static LineHashIndex obtain(@NonNull File file, @NonNull ByteBuffer buf, @Nullable Charset cs, @Nullable ICommentDetector detector)
+    {
+        File sidecar = getSidecarFile(file);
+        long length = file.length();
+        long modified = file.lastModified();
+        if (sidecar.exists())
+        {
+            LineHashIndex index = read(sidecar, length, modified, checksum(buf), cs);
+            if (index != null)
+            {
+                return index;
+            }
+        }
+        LineHashIndex index = build(buf, cs, detector);
+        index.write(sidecar, length, modified, cs);
+        return index;
+    }
+
+    /**
+     * Builds the hash index of the lines of the specified buffer, skipping the
+     * lines recognized by the specified comment detector.
+     *
+     * @param buf      the buffer to be indexed; may not be <code>null</code>
+     * @param cs       the character set of the buffer; may be <code>null</code>
+     * @param detector the comment detector; may be <code>null</code>
+     * @return the hash index
+     * @since JWI 2.4.1
+     */
+    @NonNull
+    public static LineHashIndex build(@NonNull ByteBuffer buf, @Nullable Charset cs, @Nullable ICommentDetector detector)
+    {
+        int[] lines = WordnetFile.makeLineOffsets(buf, cs, detector);
+
+        // keep the load factor at or under one half
+        int capacity = Integer.highestOneBit(Math.max(2, 2 * lines.length - 1)) << 1;
+        int[] hashes = new int[capacity];
+        int[] offsets = new int[capacity];
+        Arrays.fill(offsets, EMPTY);
+
+        int mask = capacity - 1;
+        int hash;
+        for (int start : lines)
+        {
+            hash = hash(buf, start, ByteLines.findTokenEnd(buf, start), cs);
+            int i = hash & mask;
+            while (offsets[i] != EMPTY)
+            {
+                i = (i + 1) & mask;
+            }
+            hashes[i] = hash;
+            offsets[i] = start;
+        }
+        return new LineHashIndex(hashes, offsets, checksum(buf));
+    }
+
+    /**
+     * Returns the checksum of the content of the specified buffer, from its
+     * start to its limit, as stamped on sidecars.
+     *
+     * @param buf the buffer; may not be <code>null</code>
+     * @return the CRC-32 of the content
+     * @since JWI 2.4.1
+     */
+    public static long checksum(@NonNull ByteBuffer buf)
+    {
+        ByteBuffer content = buf.duplicate();
+        content.clear();
+        content.limit(buf.limit());
+        CRC32 crc = new CRC32();
+        crc.update(content);
+        return crc.getValue();
+    }
+
+    /**
+     * Reads a hash index from the specified sidecar, if it was written for a
+     * file of the specified size, modification time and content checksum,
+     * read with the specified character set.
+     *
+     * @param sidecar  the sidecar file; may not be <code>null</code>
+     * @param length   the expected length of the indexed file
+     * @param modified the expected modification time of the indexed file
+     * @param checksum the expected checksum of the content of the indexed
+     *                 file (see {@link #checksum(ByteBuffer)})
+     * @param cs       the character set of the indexed file; may be
+     *                 <code>null</code>
+     * @return the hash index, or <code>null</code> if the sidecar is stale or
+     * cannot be read
+     * @since JWI 2.4.1
+     */
+    @Nullable
+    public static LineHashIndex read(@NonNull File sidecar, long length, long modified, long checksum, @Nullable Charset cs)
+    {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(sidecar))))
+        {
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT || in.readLong() != length || in.readLong() != modified)
+            {
+                return null;
+            }
+            if (in.readLong() != checksum || !in.readUTF().equals(charsetName(cs)))
+            {
+                return null;
+            }
+            int capacity = in.readInt();
+            if (capacity <= 0 || Integer.bitCount(capacity) != 1)
+            {
+                return null;
+            }
+            int[] hashes = new int[capacity];
+            int[] offsets = new int[capacity];
+            for (int i = 0; i < capacity; i++)
+            {
+                hashes[i] = in.readInt();
+                offsets[i] = in.readInt();
+            }
+            return new LineHashIndex(hashes, offsets, checksum);
+        }
+        catch (IOException e)
+        {
+            return null;
+        }
+    }
+
+    /**
+     * Writes this hash index to the specified sidecar, stamped with the
+     * specified size and modification time of the indexed file, the checksum
+     * of its content and the name of its character set. The sidecar is
+     * written to a temporary file first, then renamed, so that concurrent
+     * readers never see a partial sidecar.
+     *
+     * @param sidecar  the sidecar file; may not be <code>null</code>
+     * @param length   the length of the indexed file
+     * @param modified the modification time of the indexed file
+     * @param cs       the character set of the indexed file; may be
+     *                 <code>null</code>
+     * @return <code>true</code> if the sidecar was written; <code>false</code>
+     * otherwise
+     * @since JWI 2.4.1
+     */
+    public boolean write(@NonNull File sidecar, long length, long modified, @Nullable Charset cs)
+    {
+        File dir = sidecar.getParentFile();
+        if (dir == null || !dir.canWrite())
+        {
+            return false;
+        }
+        File temp = null;
+        try
+        {
+            temp = File.createTempFile(sidecar.getName(), ".tmp", dir);
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp))))
+            {
+                out.writeInt(MAGIC);
+                out.writeInt(FORMAT);
+                out.writeLong(length);
+                out.writeLong(modified);
+                out.writeLong(checksum);
+                out.writeUTF(charsetName(cs));
+                out.writeInt(offsets.length);
+                for (int i = 0; i < offsets.length; i++)
+                {
+                    out.writeInt(hashes[i]);
+                    out.writeInt(offsets[i]);
+                }
+            }
+            if (sidecar.exists() && !sidecar.delete())
+            {
+                return false;
+            }
+            return temp.renameTo(sidecar);
+        }
+        catch (IOException e)
+        {
+            // the index is kept in memory only
+            return false;
+        }
+        finally
+        {
+            if (temp != null && temp.exists())
+            {
+                //noinspection ResultOfMethodCallIgnored
+                temp.delete();
+            }
+        }
+    }
+
+    /**
+     * Returns the name of the specified character set as stamped on sidecars.
+     *
+     * @param cs the character set; may be <code>null</code>
+     * @return the canonical name of the character set, or the empty string
+     * if it is <code>null</code>
+     */
+    @NonNull
+    private static String charsetName(@Nullable Charset cs)
+    {
+        return cs == null ? "" : cs.name();
+    }
+
+    /**
+     * Hashes the first characters of the specified key, ignoring case.
+     *
+     * @param key the key; may not be <code>null</code>
+     * @param end the end offset (exclusive) of the characters to hash
+     * @return the hash
+     * @since JWI 2.4.1
+     */
+    public static int hash(@NonNull String key, int end)
+    {
+        int h = 0;
+        for (int i = 0; i < end; i++)
+        {
+            h = 31 * h + fold(key.charAt(i));
+        }
+        return mix(h);
+    }
+
+    /**
+     * Hashes the token in the range [start, end) of the specified buffer,
+     * ignoring case, consistently with {@link #hash(String, int)} on its
+     * decoded form.
+     *
+     * @param buf   the buffer; may not be <code>null</code>
+     * @param start the start offset of the token
+     * @param end   the end offset (exclusive) of the token
+     * @param cs    the character set of the buffer; may be <code>null</code>
+     * @return the hash
+     * @since JWI 2.4.1
+     */
+    public static int hash(@NonNull ByteBuffer buf, int start, int end, @Nullable Charset cs)
+    {
+        int h = 0;
+        byte b;
+        for (int i = start; i < end; i++)
+        {
+            b = buf.get(i);
+            if (b < 0 || !ByteLines.isAsciiCompatible(cs))
+            {
+                String token = ByteLines.decode(buf, start, end, cs);
+                return hash(token, token.length());
+            }
+            h = 31 * h + fold((char) b);
+        }
+        return mix(h);
+    }
+
+    private static char fold(char c)
+    {
+        if (c < 0x80)
+        {
+            return c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+        }
+        return Character.toLowerCase(Character.toUpperCase(c));
+    }
+
+    private static int mix(int h)
+    {
+        h ^= h >>> 16;
+        h *= 0x85EBCA6B;
+        h ^= h >>> 13;
+        return h;
+    }
+}
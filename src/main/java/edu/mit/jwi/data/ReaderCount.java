@@ -0,0 +1,74 @@
+/* ******************************************************************************
+ * Java Wordnet Interface Library (JWI) v2.4.0
+ * Copyright (c) 2007-2015 Mark A. Finlayson
+ *
+ * JWI is distributed under the terms of the Creative Commons Attribution 4.0
+ * International Public License, which means it may be freely used for all
+ * purposes, as long as proper acknowledgment is made.  See the license file
+ * included with this distribution for more details.
+ *******************************************************************************/
+
+package edu.mit.jwi.data;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Counts the readers of a resource that may only be released once they are
+ * done, such as the buffer of a file. The count is striped by thread, each
+ * stripe on its own cache line, so that threads reading at once do not
+ * contend on a single counter. A reader must be counted in and out by the
+ * same thread, so that each stripe is balanced on its own.
+ *
+ * @author Mark A. Finlayson
+ * @version 2.4.0
+ * @since JWI 2.4.1
+ */
+final class ReaderCount
+{
+    private static final int STRIPES = Math.min(64, Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 2 - 1) << 1);
+
+    // the counts of the stripes are spaced out so that they do not share a line
+    private final AtomicIntegerArray counts = new AtomicIntegerArray(STRIPES * 16);
+
+    /**
+     * Counts a reader in, on the stripe of the current thread.
+     */
+    void enter()
+    {
+        counts.incrementAndGet(stripe());
+    }
+
+    /**
+     * Counts a reader out, on the stripe of the current thread.
+     */
+    void exit()
+    {
+        counts.decrementAndGet(stripe());
+    }
+
+    /**
+     * Returns whether no reader is counted in.
+     *
+     * @return <code>true</code> if every stripe is zero;
+     * <code>false</code> otherwise
+     */
+    boolean isIdle()
+    {
+        for (int i = 0; i < STRIPES; i++)
+        {
+            if (counts.get(i << 4) != 0)
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the index of the count of the current thread.
+     */
+    private static int stripe()
+    {
+        return ((int) Thread.currentThread().getId() & (STRIPES - 1)) << 4;
+    }
+}
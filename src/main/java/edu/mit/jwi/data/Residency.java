@@ -0,0 +1,109 @@
+/* ******************************************************************************
+ * Java Wordnet Interface Library (JWI) v2.4.0
+ * Copyright (c) 2007-2015 Mark A. Finlayson
+ *
+ * JWI is distributed under the terms of the Creative Commons Attribution 4.0
+ * International Public License, which means it may be freely used for all
+ * purposes, as long as proper acknowledgment is made.  See the license file
+ * included with this distribution for more details.
+ *******************************************************************************/
+
+package edu.mit.jwi.data;
+
+import edu.mit.jwi.NonNull;
+
+/**
+ * Describes where the content of a data source is held in memory: copied on
+ * the heap, copied into direct (off-heap) buffers, or left in memory-mapped
+ * buffers, in which case the pages may or may not be resident.
+ *
+ * @author Mark A. Finlayson
+ * @version 2.4.0
+ * @since JWI 2.4.1
+ */
+public class Residency
+{
+    private final long heapBytes;
+    private final long offHeapBytes;
+    private final long mappedBytes;
+    private final boolean resident;
+
+    /**
+     * Constructs a new residency report.
+     *
+     * @param heapBytes    the number of bytes of content held on the heap
+     * @param offHeapBytes the number of bytes of content held in direct
+     *                     buffers
+     * @param mappedBytes  the number of bytes of content held in mapped
+     *                     buffers
+     * @param resident     whether the mapped content is, as far as the
+     *                     operating system can tell, resident in memory
+     * @since JWI 2.4.1
+     */
+    public Residency(long heapBytes, long offHeapBytes, long mappedBytes, boolean resident)
+    {
+        this.heapBytes = heapBytes;
+        this.offHeapBytes = offHeapBytes;
+        this.mappedBytes = mappedBytes;
+        this.resident = resident;
+    }
+
+    /**
+     * Returns the number of bytes of content held on the heap.
+     *
+     * @return the number of bytes of content held on the heap
+     * @since JWI 2.4.1
+     */
+    public long getHeapBytes()
+    {
+        return heapBytes;
+    }
+
+    /**
+     * Returns the number of bytes of content held in direct buffers.
+     *
+     * @return the number of bytes of content held in direct buffers
+     * @since JWI 2.4.1
+     */
+    public long getOffHeapBytes()
+    {
+        return offHeapBytes;
+    }
+
+    /**
+     * Returns the number of bytes of content held in mapped buffers.
+     *
+     * @return the number of bytes of content held in mapped buffers
+     * @since JWI 2.4.1
+     */
+    public long getMappedBytes()
+    {
+        return mappedBytes;
+    }
+
+    /**
+     * Returns whether the mapped content is resident in memory. This is a hint
+     * from the operating system, which may evict pages at any time. Content
+     * that is not mapped is always resident.
+     *
+     * @return <code>true</code> if the content is resident in memory;
+     * <code>false</code> otherwise
+     * @since JWI 2.4.1
+     */
+    public boolean isResident()
+    {
+        return resident;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see java.lang.Object#toString()
+     */
+    @NonNull
+    @Override
+    public String toString()
+    {
+        return "heap=" + heapBytes + " offheap=" + offHeapBytes + " mapped=" + mappedBytes + (resident ? " resident" : "");
+    }
+}
@@ -0,0 +1,143 @@
+/* ******************************************************************************
+ * Java Wordnet Interface Library (JWI) v2.4.0
+ * Copyright (c) 2007-2015 Mark A. Finlayson
+ *
+ * JWI is distributed under the terms of the Creative Commons Attribution 4.0
+ * International Public License, which means it may be freely used for all
+ * purposes, as long as proper acknowledgment is made.  See the license file
+ * included with this distribution for more details.
+ *******************************************************************************/
+
+package edu.mit.jwi.data;
+
+import edu.mit.jwi.NonNull;
+import edu.mit.jwi.Nullable;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+
+/**
+ * Releases the memory mapping behind a mapped byte buffer right away, instead
+ * of leaving it to the garbage collector. There is no public API for this
+ * before the foreign memory API of recent Java versions, so this class goes
+ * through the internal cleaner of direct buffers: on Java 9 and later through
+ * {@code sun.misc.Unsafe.invokeCleaner(ByteBuffer)}, and on Java 8 through
+ * {@code sun.nio.ch.DirectBuffer.cleaner()}. If neither is accessible, buffers
+ * are left to the garbage collector, as before.
+ * <p>
+ * Once a buffer is unmapped, any read from it, or from any of its views, may
+ * crash the virtual machine. Callers must make sure no other thread can still
+ * be reading from the buffer; see {@link WordnetFile#close()}.
+ * </p>
+ *
+ * @author Mark A. Finlayson
+ * @version 2.4.0
+ * @since JWI 2.4.1
+ */
+public final class Unmapper
+{
+    // Java 9 and later
+    @Nullable
+    private static final Object unsafe;
+    @Nullable
+    private static final Method invokeCleaner;
+
+    // Java 8
+    @Nullable
+    private static final Method cleaner;
+    @Nullable
+    private static final Method clean;
+
+    static
+    {
+        Object u = null;
+        Method ic = null;
+        Method c1 = null;
+        Method c2 = null;
+        try
+        {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            ic = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+            Field f = unsafeClass.getDeclaredField("theUnsafe");
+            f.setAccessible(true);
+            u = f.get(null);
+        }
+        catch (Exception e)
+        {
+            ic = null;
+            u = null;
+            try
+            {
+                c1 = Class.forName("sun.nio.ch.DirectBuffer").getMethod("cleaner");
+                c2 = Class.forName("sun.misc.Cleaner").getMethod("clean");
+            }
+            catch (Exception e2)
+            {
+                c1 = null;
+                c2 = null;
+            }
+        }
+        unsafe = u;
+        invokeCleaner = ic;
+        cleaner = c1;
+        clean = c2;
+    }
+
+    private Unmapper()
+    {
+    }
+
+    /**
+     * Returns whether buffers can be unmapped on this virtual machine.
+     *
+     * @return <code>true</code> if {@link #unmap(ByteBuffer)} can release
+     * mappings; <code>false</code> otherwise
+     * @since JWI 2.4.1
+     */
+    public static boolean isSupported()
+    {
+        return invokeCleaner != null || cleaner != null;
+    }
+
+    /**
+     * Releases the memory mapping behind the specified buffer. The buffer must
+     * be the one returned by {@code FileChannel.map}, not a view of it. Heap
+     * buffers are ignored.
+     *
+     * @param buf the buffer to unmap; may not be <code>null</code>
+     * @return <code>true</code> if the buffer was unmapped; <code>false</code>
+     * if it is not a direct buffer, or if it could not be unmapped
+     * @throws NullPointerException if the specified buffer is <code>null</code>
+     * @since JWI 2.4.1
+     */
+    public static boolean unmap(@NonNull ByteBuffer buf)
+    {
+        if (!buf.isDirect())
+        {
+            return false;
+        }
+        try
+        {
+            if (invokeCleaner != null)
+            {
+                invokeCleaner.invoke(unsafe, buf);
+                return true;
+            }
+            if (cleaner != null && clean != null)
+            {
+                Object c = cleaner.invoke(buf);
+                if (c != null)
+                {
+                    clean.invoke(c);
+                    return true;
+                }
+            }
+        }
+        catch (Exception e)
+        {
+            e.printStackTrace();
+        }
+        return false;
+    }
+}
@@ -12,7 +12,11 @@ package edu.mit.jwi.data;
 
 import edu.mit.jwi.NonNull;
 import edu.mit.jwi.Nullable;
+import edu.mit.jwi.data.compare.ByteLines;
+import edu.mit.jwi.data.compare.CommentComparator;
+import edu.mit.jwi.data.compare.IByteLineComparator;
 import edu.mit.jwi.data.compare.ICommentDetector;
+import edu.mit.jwi.data.parse.IByteLineParser;
 import edu.mit.jwi.item.IVersion;
 import edu.mit.jwi.item.Version;
 
@@ -20,12 +24,20 @@ import java.io.File;
 import java.io.IOException;
 import java.io.RandomAccessFile;
 import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
 import java.nio.channels.FileChannel;
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
 
 /**
  * <p>
@@ -47,8 +59,22 @@ import java.util.concurrent.locks.ReentrantLock;
  * @version 2.4.0
  * @since JWI 1.0
  */
-public abstract class WordnetFile<T> implements ILoadableDataSource<T>
+public abstract class WordnetFile<T> implements ILoadableDataSource<T>, ILoadPolicy, IByteLineSource
 {
+    // whether sorted files build a line offset table when opened
+    private static boolean indexLines = false;
+
+    // whether sorted files load or build a hash index when opened
+    private static boolean hashIndexes = false;
+
+    // files larger than the segment size are mapped in several segments,
+    // each overlapping the next one by enough to hold any line
+    private static int segmentSize = 1 << 30;
+    private static int segmentOverlap = 1 << 20;
+
+    // whether mapped buffers are released as soon as the file is closed
+    private static boolean unmapOnClose = true;
+
     // fields set on construction
     @NonNull
     private final String name;
@@ -58,21 +84,44 @@ public abstract class WordnetFile<T> implements ILoadableDataSource<T>
     private final ICommentDetector detector;
     @NonNull
     private final File file;
+    @Nullable
+    private final ByteBuffer content;
 
     // loading locks and status flag
     // the flag is marked transient to avoid different values in different threads
     private transient boolean isLoaded = false;
+    private int loadPolicy = NO_LOAD;
+    private int loadedAs = 0;
     private final Lock lifecycleLock = new ReentrantLock();
     private final Lock loadingLock = new ReentrantLock();
 
+    // readers working on the buffer, which close() waits for before it
+    // unmaps the buffer; the generation changes on each close, so that
+    // iterators can tell when the buffer they started on is gone
+    private final ReaderCount readers = new ReaderCount();
+    private volatile int generation = 0;
+
+    // signalled when a reader is done while the file is closed or closing
+    private final Condition readersDone = lifecycleLock.newCondition();
+
+    // lookups and iterators handed out, counted only while an
+    // action waits for the count to reach a threshold
+    private final AtomicLong accesses = new AtomicLong();
+    private volatile long accessThreshold = 0;
+    @Nullable
+    private volatile Runnable accessAction = null;
+
     // fields generated dynamically on demand
     @Nullable
     private FileChannel channel;
     @Nullable
-    private ByteBuffer buffer;
-    @Nullable
     private IVersion version;
 
+    // the buffers and tables of the open file, replaced as a whole by
+    // open(), load() and close(), so that readers need no lock
+    @Nullable
+    private volatile OpenState openState;
+
     /**
      * Constructs an instance of this class backed by the specified java
      * {@code File} object, with the specified content type. No effort is made
@@ -95,6 +144,36 @@ public abstract class WordnetFile<T> implements ILoadableDataSource<T>
         }
         this.name = file.getName();
         this.file = file;
+        this.content = null;
+        this.contentType = contentType;
+        this.detector = contentType.getLineComparator().getCommentDetector();
+    }
+
+    /**
+     * Constructs an instance of this class backed by the specified content,
+     * already in memory, rather than by a file. The content is served as is,
+     * from its current position to its limit: it is neither mapped nor
+     * copied, and the file counts as loaded as soon as it is opened. The
+     * content is not released when the file is closed, so that it can be
+     * opened again.
+     *
+     * @param name        the name of the content, such as the name of the
+     *                    archive entry it was read from; may not be
+     *                    <code>null</code>
+     * @param content     the content; may not be <code>null</code>
+     * @param contentType the content type for this file; may not be <code>null</code>
+     * @throws NullPointerException if any argument is <code>null</code>
+     * @since JWI 2.4.1
+     */
+    public WordnetFile(@NonNull String name, @NonNull ByteBuffer content, @Nullable IContentType<T> contentType)
+    {
+        if (contentType == null)
+        {
+            throw new NullPointerException();
+        }
+        this.name = name;
+        this.file = new File(name);
+        this.content = content.slice();
         this.contentType = contentType;
         this.detector = contentType.getLineComparator().getCommentDetector();
     }
@@ -111,7 +190,9 @@ public abstract class WordnetFile<T> implements ILoadableDataSource<T>
     }
 
     /**
-     * Returns the file which backs this object.
+     * Returns the file which backs this object. For content held in memory
+     * (see {@link #WordnetFile(String, ByteBuffer, IContentType)}), this is a
+     * relative file with the name of the content, which need not exist.
      *
      * @return the file which backs this object, should never return
      * <code>null</code>
@@ -133,11 +214,116 @@ public abstract class WordnetFile<T> implements ILoadableDataSource<T>
     @Nullable
     public ByteBuffer getBuffer()
     {
-        if (!isOpen())
-        {
-            throw new ObjectClosedException();
-        }
-        return buffer;
+        return getOpenState().buffer;
+    }
+
+    /**
+     * Returns the table of the offsets at which the non-comment lines of this
+     * file start, in file order. The table is only built when the file is
+     * opened, if line indexing is enabled (see {@link #setIndexLines(boolean)})
+     * and if this type of file makes use of it. The returned array is shared
+     * and should not be modified.
+     *
+     * @return the line offset table of this file, or <code>null</code> if
+     * there is none
+     * @throws ObjectClosedException if the object is closed
+     * @since JWI 2.4.1
+     */
+    @Nullable
+    public int[] getLineOffsets()
+    {
+        return getOpenState().lineOffsets;
+    }
+
+    /**
+     * Returns whether this file should build a line offset table when it is
+     * opened. The default implementation returns <code>false</code>;
+     * subclasses that search the lines of sorted files override it.
+     *
+     * @return <code>true</code> if a line offset table should be built when
+     * this file is opened; <code>false</code> otherwise
+     * @since JWI 2.4.1
+     */
+    protected boolean wantsLineIndex()
+    {
+        return false;
+    }
+
+    /**
+     * Returns the hash index of the lines of this file. The index is only
+     * obtained when the file is opened, if hash indexes are enabled (see
+     * {@link #setHashIndexes(boolean)}) and if this type of file makes use of
+     * it.
+     *
+     * @return the hash index of this file, or <code>null</code> if there is
+     * none
+     * @throws ObjectClosedException if the object is closed
+     * @since JWI 2.4.1
+     */
+    @Nullable
+    public LineHashIndex getHashIndex()
+    {
+        return getOpenState().hashIndex;
+    }
+
+    /**
+     * Returns whether this file should obtain a hash index when it is opened.
+     * The default implementation returns <code>false</code>; subclasses that
+     * look up keys in sorted files override it.
+     *
+     * @return <code>true</code> if a hash index should be obtained when this
+     * file is opened; <code>false</code> otherwise
+     * @since JWI 2.4.1
+     */
+    protected boolean wantsHashIndex()
+    {
+        return false;
+    }
+
+    /**
+     * Get flag to use hash indexes.
+     *
+     * @return whether sorted files load or build a hash index when opened
+     * @since JWI 2.4.1
+     */
+    public static boolean getHashIndexes()
+    {
+        return hashIndexes;
+    }
+
+    /**
+     * Set flag to use hash indexes. This only affects files opened afterward.
+     * Hash indexes are persisted in sidecar files next to the files they
+     * index (see {@link LineHashIndex}).
+     *
+     * @param flag whether sorted files load or build a hash index when opened
+     * @since JWI 2.4.1
+     */
+    public static void setHashIndexes(boolean flag)
+    {
+        hashIndexes = flag;
+    }
+
+    /**
+     * Get flag to index lines.
+     *
+     * @return whether sorted files build a line offset table when opened
+     * @since JWI 2.4.1
+     */
+    public static boolean getIndexLines()
+    {
+        return indexLines;
+    }
+
+    /**
+     * Set flag to index lines. This only affects files opened afterward.
+     *
+     * @param flag whether sorted files build a line offset table when opened
+     * @since JWI 2.4.1
+     */
+    public static void setIndexLines(boolean flag)
+    {
+        indexLines = flag;
     }
 
     /*
@@ -165,10 +351,54 @@ public abstract class WordnetFile<T> implements ILoadableDataSource<T>
             {
                 return true;
             }
+            if (content != null)
+            {
+                openContent(content);
+                return true;
+            }
             @SuppressWarnings("resource")
             RandomAccessFile raFile = new RandomAccessFile(file, "r");
             channel = raFile.getChannel();
-            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, file.length());
+            long length = file.length();
+            ByteBuffer buffer;
+            ByteBuffer[] segments = null;
+            int segmentShift = 0;
+            if (length <= segmentSize)
+            {
+                buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, length);
+            }
+            else
+            {
+                segmentShift = Integer.numberOfTrailingZeros(segmentSize);
+                try
+                {
+                    segments = mapSegments(channel, length, segmentSize, segmentOverlap);
+                }
+                catch (IOException e)
+                {
+                    channel.close();
+                    channel = null;
+                    throw e;
+                }
+                buffer = segments[0];
+            }
+
+            // the line tables hold int offsets, so only cover single buffers
+            int[] lineOffsets = null;
+            LineHashIndex hashIndex = null;
+            if (segments == null && wantsLineIndex())
+            {
+                assert contentType != null;
+                lineOffsets = makeLineOffsets(buffer, contentType.getCharset(), detector);
+            }
+            if (segments == null && wantsHashIndex())
+            {
+                assert contentType != null;
+                hashIndex = LineHashIndex.obtain(file, buffer, contentType.getCharset(), detector);
+            }
+
+            // published last, once everything it holds is ready
+            openState = new OpenState(buffer, segments, length, segmentShift, lineOffsets, hashIndex);
             return true;
         }
         finally
@@ -177,37 +407,100 @@ public abstract class WordnetFile<T> implements ILoadableDataSource<T>
         }
     }
 
-    /*
-     * (non-Javadoc)
+    /**
+     * Opens this file over content held in memory.
      *
-     * @see edu.edu.mit.jwi.data.IHasLifecycle#isOpen()
+     * @param content the content
      */
-    public boolean isOpen()
+    private void openContent(@NonNull ByteBuffer content)
     {
-        try
+        ByteBuffer buf = content.duplicate();
+        buf.clear();
+        isLoaded = true;
+        loadedAs = buf.isDirect() ? OFF_HEAP : 0;
+
+        // there is no file to keep a hash index sidecar next to
+        assert contentType != null;
+        int[] lineOffsets = null;
+        LineHashIndex hashIndex = null;
+        if (wantsLineIndex())
         {
-            lifecycleLock.lock();
-            return buffer != null;
+            lineOffsets = makeLineOffsets(buf, contentType.getCharset(), detector);
         }
-        finally
+        if (wantsHashIndex())
         {
-            lifecycleLock.unlock();
+            hashIndex = LineHashIndex.build(buf, contentType.getCharset(), detector);
         }
+        openState = new OpenState(buf, null, buf.limit(), 0, lineOffsets, hashIndex);
     }
 
     /*
      * (non-Javadoc)
      *
-     * @see edu.edu.mit.jwi.data.IClosable#close()
+     * @see edu.edu.mit.jwi.data.IHasLifecycle#isOpen()
+     */
+    public boolean isOpen()
+    {
+        return openState != null;
+    }
+
+    /**
+     * Returns the buffers and tables of this file, as they are at the time of
+     * the call. Reading them takes no lock: the returned state is never
+     * changed, but replaced as a whole when the file is opened, loaded or
+     * closed.
+     *
+     * @return the state of the open file
+     * @throws ObjectClosedException if the object is closed
+     */
+    @NonNull
+    private OpenState getOpenState()
+    {
+        OpenState state = openState;
+        if (state == null)
+        {
+            throw new ObjectClosedException();
+        }
+        return state;
+    }
+
+    /**
+     * Closes this file. Lookups and iterator steps in progress on other
+     * threads are allowed to finish, while new ones are refused with an
+     * {@link ObjectClosedException}; the buffers mapped from the file, or the
+     * direct buffers it was loaded into, are then released right away, if
+     * unmapping is enabled (see
+     * {@link #setUnmapOnClose(boolean)}) and supported (see
+     * {@link Unmapper#isSupported()}). Iterators obtained before the file was
+     * closed throw an {@link ObjectClosedException} when advanced afterward.
+     * Buffers obtained from {@link #getBuffer()} or {@link #getSegments()}
+     * must not be read after this method has been called.
+     *
+     * @see edu.mit.jwi.data.IClosable#close()
      */
     public void close()
     {
         try
         {
             lifecycleLock.lock();
+            OpenState state = openState;
+            if (state == null)
+            {
+                return;
+            }
+
+            // turn new readers away: once counted, they find no state, or
+            // a new generation; then wait for the ones in flight to be done
+            // with the buffers before they are unmapped
+            openState = null;
+            generation++;
+            awaitReaders();
+
+            // content held in memory belongs to the caller
+            ByteBuffer[] direct = content != null ? null : state.segments != null ? state.segments : new ByteBuffer[]{state.buffer};
             version = null;
-            buffer = null;
             isLoaded = false;
+            loadedAs = 0;
             if (channel != null)
             {
                 try
@@ -220,6 +513,62 @@ public abstract class WordnetFile<T> implements ILoadableDataSource<T>
                 }
             }
             channel = null;
+
+            // heap buffers are skipped
+            if (direct != null && unmapOnClose)
+            {
+                for (ByteBuffer buf : direct)
+                {
+                    Unmapper.unmap(buf);
+                }
+            }
+        }
+        finally
+        {
+            lifecycleLock.unlock();
+        }
+    }
+
+    /**
+     * Marks the start of a read from the buffer of this file. Until the
+     * matching call to {@link #endRead()}, {@link #close()} waits rather than
+     * unmap the buffer: the state of the file (see {@link #getBuffer()}) must
+     * be obtained after this call, and is then valid until the read ends, or
+     * is found closed. Every call to this method must be matched by a call to
+     * {@link #endRead()}, in a <code>finally</code> block.
+     *
+     * @since JWI 2.4.1
+     */
+    protected void beginRead()
+    {
+        readers.enter();
+    }
+
+    /**
+     * Marks the end of a read started with {@link #beginRead()}.
+     *
+     * @since JWI 2.4.1
+     */
+    protected void endRead()
+    {
+        readers.exit();
+        // the file is being closed, or was closed while this read started
+        if (openState == null)
+        {
+            signalReaders();
+        }
+    }
+
+    /**
+     * Wakes up a thread waiting in {@link #close()} for the readers to be
+     * done.
+     */
+    private void signalReaders()
+    {
+        try
+        {
+            lifecycleLock.lock();
+            readersDone.signalAll();
         }
         finally
         {
@@ -227,6 +576,48 @@ public abstract class WordnetFile<T> implements ILoadableDataSource<T>
         }
     }
 
+    /**
+     * Waits until no reader is working on the buffer of this file. Readers
+     * only hold the buffer for the duration of a single lookup or iterator
+     * step, so this does not wait long. Must be called under the lifecycle
+     * lock, after the state of the file has been cleared, so that the
+     * readers that start meanwhile turn back.
+     */
+    private void awaitReaders()
+    {
+        while (!readers.isIdle())
+        {
+            readersDone.awaitUninterruptibly();
+        }
+    }
+
+    /**
+     * Get flag to unmap buffers on close.
+     *
+     * @return whether mapped buffers are unmapped as soon as the file is
+     * closed
+     * @since JWI 2.4.1
+     */
+    public static boolean getUnmapOnClose()
+    {
+        return unmapOnClose;
+    }
+
+    /**
+     * Set flag to unmap buffers on close. When set, the mappings of a file are
+     * released as soon as it is closed, rather than when the garbage collector
+     * reclaims its buffers, which frees address space and lets deleted files
+     * go.
+     *
+     * @param flag whether mapped buffers are unmapped as soon as the file is
+     *             closed
+     * @since JWI 2.4.1
+     */
+    public static void setUnmapOnClose(boolean flag)
+    {
+        unmapOnClose = flag;
+    }
+
     /*
      * (non-Javadoc)
      *
@@ -247,22 +638,62 @@ public abstract class WordnetFile<T> implements ILoadableDataSource<T>
         load(false);
     }
 
-    /*
-     * (non-Javadoc)
+    /**
+     * Loads the content of this file into memory, as set by its load policy
+     * (see {@link #setLoadPolicy(int)}): by default, the content is copied
+     * into arrays on the heap; under {@link ILoadPolicy#OFF_HEAP}, it is
+     * copied into direct buffers; under {@link ILoadPolicy#RESIDENT}, it is
+     * not copied, but every mapped page is touched so that it is resident.
+     * This method always blocks until the content is loaded.
      *
-     * @see edu.edu.mit.jwi.data.ILoadable#load(boolean)
+     * @see edu.mit.jwi.data.ILoadable#load(boolean)
      */
     public void load(boolean block)
     {
         try
         {
             loadingLock.lock();
-            int len = (int) file.length();
-            assert buffer != null;
-            ByteBuffer buf = buffer.asReadOnlyBuffer();
-            buf.clear();
-            byte[] data = new byte[len];
-            buf.get(data, 0, len);
+            if (content != null)
+            {
+                // already in memory
+                return;
+            }
+            int policy = loadPolicy;
+            int as = (policy & RESIDENT) != 0 ? RESIDENT : policy & OFF_HEAP;
+            OpenState state;
+            ByteBuffer[] segs;
+            ByteBuffer[] loadedSegs = null;
+            ByteBuffer loaded;
+            beginRead();
+            try
+            {
+                state = openState;
+                if (state == null)
+                {
+                    return;
+                }
+                segs = state.segments;
+                loaded = state.buffer;
+                if (segs != null)
+                {
+                    // a file this large does not fit in one buffer,
+                    // so each segment gets its own
+                    loadedSegs = new ByteBuffer[segs.length];
+                    for (int i = 0; i < segs.length; i++)
+                    {
+                        loadedSegs[i] = load(segs[i], as);
+                    }
+                    loaded = loadedSegs[0];
+                }
+                else
+                {
+                    loaded = load(loaded, as);
+                }
+            }
+            finally
+            {
+                endRead();
+            }
 
             try
             {
@@ -279,10 +710,12 @@ public abstract class WordnetFile<T> implements ILoadableDataSource<T>
                     }
                     channel = null;
                 }
-                if (buffer != null)
+                // unless the file was closed or reopened in the meantime
+                if (openState == state)
                 {
-                    buffer = ByteBuffer.wrap(data);
                     isLoaded = true;
+                    loadedAs = as;
+                    openState = new OpenState(loaded, loadedSegs, state.length, state.segmentShift, state.lineOffsets, state.hashIndex);
                 }
             }
             finally
@@ -297,72 +730,760 @@ public abstract class WordnetFile<T> implements ILoadableDataSource<T>
     }
 
     /**
-     * Returns the wordnet version associated with this object, or null if the
-     * version cannot be determined.
+     * Loads the content of the specified buffer as specified.
      *
-     * @return the wordnet version associated with this object, or null if the
-     * version cannot be determined
-     * @throws ObjectClosedException if the object is closed when this method is called
-     * @see edu.mit.jwi.item.IHasVersion#getVersion()
+     * @param buffer the buffer to load
+     * @param as     {@link ILoadPolicy#RESIDENT} to touch the pages of the
+     *               buffer, {@link ILoadPolicy#OFF_HEAP} to copy it into a
+     *               direct buffer, or zero to copy it onto the heap
+     * @return the loaded buffer
      */
-    @Nullable
-    public IVersion getVersion()
+    @NonNull
+    private static ByteBuffer load(@NonNull ByteBuffer buffer, int as)
     {
-        if (!isOpen())
-        {
-            throw new ObjectClosedException();
-        }
-        if (version == null)
+        switch (as)
         {
-            assert buffer != null;
-            assert contentType != null;
-            version = Version.extractVersion(contentType, buffer.asReadOnlyBuffer());
-            if (version == null)
-            {
-                version = IVersion.NO_VERSION;
-            }
+            case RESIDENT:
+                if (buffer instanceof MappedByteBuffer)
+                {
+                    ((MappedByteBuffer) buffer).load();
+                }
+                return buffer;
+            case OFF_HEAP:
+                ByteBuffer buf = buffer.duplicate();
+                buf.clear();
+                ByteBuffer result = ByteBuffer.allocateDirect(buf.limit());
+                result.put(buf);
+                result.clear();
+                return result;
+            default:
+                return ByteBuffer.wrap(copy(buffer));
         }
-        return (version == IVersion.NO_VERSION) ? null : version;
     }
 
     /*
      * (non-Javadoc)
      *
-     * @see java.lang.Iterable#iterator()
+     * @see edu.edu.mit.jwi.data.ILoadPolicy#getLoadPolicy()
      */
-    @NonNull
-    public LineIterator iterator()
+    public int getLoadPolicy()
     {
-        if (!isOpen())
-        {
-            throw new ObjectClosedException();
-        }
-        return makeIterator(getBuffer(), null);
+        return loadPolicy;
     }
 
-    /*
-     * (non-Javadoc)
+    /**
+     * Sets the load policy of this file. Only the {@link ILoadPolicy#OFF_HEAP}
+     * and {@link ILoadPolicy#RESIDENT} modifiers matter to the file itself:
+     * they set how the content is held once loaded. When to load is up to
+     * the owner of the file. The policy takes effect on the next load.
      *
-     * @see edu.edu.mit.jwi.data.IDataSource#iterator(java.lang.String)
+     * @see edu.mit.jwi.data.ILoadPolicy#setLoadPolicy(int)
      */
-    @NonNull
-    public LineIterator iterator(String key)
+    public void setLoadPolicy(int policy)
     {
-        if (!isOpen())
+        loadPolicy = policy;
+    }
+
+    /**
+     * Counts a lookup or iterator handed out by this file, and runs the action
+     * set with {@link #setAccessAction(long, Runnable)} if the count has just
+     * reached its threshold. Does nothing if there is no such action.
+     *
+     * @since JWI 2.4.1
+     */
+    protected void countAccess()
+    {
+        Runnable action = accessAction;
+        if (action != null && accesses.incrementAndGet() == accessThreshold)
         {
-            throw new ObjectClosedException();
+            accessAction = null;
+            action.run();
         }
-        return makeIterator(getBuffer(), key);
     }
 
     /**
-     * Constructs an iterator that can be used to iterate over the specified
-     * {@link ByteBuffer}, starting from the specified key.
+     * Returns the number of lookups and iterators this file has handed out
+     * while an access action was set (see
+     * {@link #setAccessAction(long, Runnable)}).
      *
-     * @param buffer the buffer over which the iterator will iterate, should not be
-     *               <code>null</code>
-     * @param key    the key at which the iterator should begin, should not be
-     *               <code>null</code>
+     * @return the number of counted accesses
+     * @since JWI 2.4.1
+     */
+    public long getAccessCount()
+    {
+        return accesses.get();
+    }
+
+    /**
+     * Sets an action to be run once, on the thread of the access, when the
+     * number of lookups ({@link #getLine(String)}) and iterators handed out by
+     * this file reaches the specified threshold. Accesses are only counted
+     * until then, so that files do not pay for counting otherwise. The action
+     * should not block; to load the file, for instance, it should hand the
+     * loading over to another thread.
+     *
+     * @param threshold the number of accesses at which to run the action;
+     *                  must be positive
+     * @param action    the action to run; <code>null</code> to stop counting
+     * @throws IllegalArgumentException if the threshold is not positive
+     * @since JWI 2.4.1
+     */
+    public void setAccessAction(long threshold, @Nullable Runnable action)
+    {
+        if (threshold <= 0)
+        {
+            throw new IllegalArgumentException("Threshold must be positive: " + threshold);
+        }
+        accessAction = null;
+        accesses.set(0);
+        accessThreshold = threshold;
+        accessAction = action;
+    }
+
+    /**
+     * Returns where the content of this file is currently held.
+     *
+     * @return the residency of the content of this file
+     * @throws ObjectClosedException if the object is closed
+     * @since JWI 2.4.1
+     */
+    @NonNull
+    public Residency getResidency()
+    {
+        beginRead();
+        try
+        {
+            OpenState state = getOpenState();
+            ByteBuffer[] bufs = state.segments != null ? state.segments : new ByteBuffer[]{state.buffer};
+            long bytes = 0;
+            for (ByteBuffer b : bufs)
+            {
+                bytes += b.limit();
+            }
+            if (!isLoaded || loadedAs == RESIDENT)
+            {
+                boolean resident = true;
+                for (ByteBuffer b : bufs)
+                {
+                    if (b instanceof MappedByteBuffer && !((MappedByteBuffer) b).isLoaded())
+                    {
+                        resident = false;
+                        break;
+                    }
+                }
+                return new Residency(0, 0, bytes, resident);
+            }
+            return loadedAs == OFF_HEAP ? new Residency(0, bytes, 0, true) : new Residency(bytes, 0, 0, true);
+        }
+        finally
+        {
+            endRead();
+        }
+    }
+
+    /**
+     * Returns a copy of the content of the specified buffer.
+     *
+     * @param buffer the buffer to copy
+     * @return the bytes of the buffer, from zero to its limit
+     */
+    @NonNull
+    private static byte[] copy(@NonNull ByteBuffer buffer)
+    {
+        ByteBuffer buf = buffer.asReadOnlyBuffer();
+        buf.clear();
+        byte[] data = new byte[buf.limit()];
+        buf.get(data, 0, data.length);
+        return data;
+    }
+
+    /**
+     * Maps the specified channel as a series of segments. Segment
+     * <code>i</code> starts at <code>i * size</code> and extends
+     * <code>overlap</code> bytes into the next segment, so that every line
+     * that starts in a segment, and is no longer than the overlap, ends in that
+     * segment too. The lines that run across the end of a segment are checked
+     * to end within the overlap, as they would otherwise be cut short.
+     *
+     * @param channel the channel to map; may not be <code>null</code>
+     * @param length  the length of the channel
+     * @param size    the size of a segment, a power of two
+     * @param overlap the overlap of a segment with the next one
+     * @return the mapped segments
+     * @throws IOException if there is an IO problem when mapping the channel,
+     *                     or if a line runs past the overlap of the segment
+     *                     it starts in
+     * @since JWI 2.4.1
+     */
+    @NonNull
+    protected static ByteBuffer[] mapSegments(@NonNull FileChannel channel, long length, int size, int overlap) throws IOException
+    {
+        int count = (int) ((length + size - 1) / size);
+        ByteBuffer[] result = new ByteBuffer[count];
+        long start;
+        for (int i = 0; i < count; i++)
+        {
+            start = (long) i * size;
+            result[i] = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(length - start, (long) size + overlap));
+        }
+
+        // a segment that ends within a line must hold the end of the line,
+        // unless it runs to the end of the file
+        ByteBuffer seg;
+        byte b;
+        boolean ended;
+        for (int i = 0; i + 1 < count; i++)
+        {
+            seg = result[i];
+            b = seg.get(size - 1);
+            ended = b == '\n' || b == '\r' || (long) i * size + seg.limit() == length;
+            for (int j = size; !ended && j < seg.limit(); j++)
+            {
+                b = seg.get(j);
+                ended = b == '\n' || b == '\r';
+            }
+            if (!ended)
+            {
+                throw new IOException("A line running across offset " + ((long) (i + 1) * size) + " is longer than the segment overlap of " + overlap + " bytes");
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the segments in which this file is mapped, if it is too large to
+     * be mapped in one buffer (see {@link #setSegmentSize(int)}). The first
+     * segment is the buffer returned by {@link #getBuffer()}. The returned
+     * array is shared and should not be modified.
+     *
+     * @return the segments of this file, or <code>null</code> if this file is
+     * mapped in a single buffer
+     * @throws ObjectClosedException if the object is closed
+     * @since JWI 2.4.1
+     */
+    @Nullable
+    public ByteBuffer[] getSegments()
+    {
+        return getOpenState().segments;
+    }
+
+    /**
+     * Returns a private view of the buffer or segment holding the line that
+     * starts at the specified offset of the file, positioned at the start of
+     * that line. For files mapped in a single buffer, this is a duplicate of
+     * the buffer.
+     *
+     * @param offset the offset in the file at which the line starts
+     * @return a view positioned at the start of the line, or <code>null</code>
+     * if the offset is past the end of the file
+     * @throws ObjectClosedException if the object is closed
+     * @since JWI 2.4.1
+     */
+    @Nullable
+    protected ByteBuffer getLineView(long offset)
+    {
+        OpenState state = getOpenState();
+        ByteBuffer buf;
+        if (state.segments == null)
+        {
+            if (offset >= state.buffer.limit())
+            {
+                return null;
+            }
+            buf = state.buffer.duplicate();
+            buf.position((int) offset);
+            return buf;
+        }
+        if (offset >= state.length)
+        {
+            return null;
+        }
+        buf = state.segments[(int) (offset >>> state.segmentShift)].duplicate();
+        buf.position((int) (offset & ((1 << state.segmentShift) - 1)));
+        return buf;
+    }
+
+    /**
+     * Returns the offset of the first line of this file that does not sort
+     * before the specified key. This is the search used on files mapped in
+     * several segments: it works on long offsets, and on lines that cross
+     * segment boundaries.
+     *
+     * @param key        the key to search for; may not be <code>null</code>
+     * @param comparator the comparator the lines are sorted by; may not be
+     *                   <code>null</code>
+     * @return the offset of the first line that does not sort before the key,
+     * or the length of the file if there is none
+     * @throws ObjectClosedException if the object is closed
+     * @since JWI 2.4.1
+     */
+    protected long findFirstLineOffset(@NonNull String key, @NonNull Comparator<String> comparator)
+    {
+        assert contentType != null;
+        Charset cs = contentType.getCharset();
+        long lo = 0;
+        ByteBuffer view = getLineView(0);
+        if (view == null)
+        {
+            return 0;
+        }
+        long hi = getOpenState().length;
+        long mid, start;
+        int local;
+        while (lo < hi)
+        {
+            // the line holding the midpoint starts at or after lo,
+            // which is always the start of a line
+            mid = (lo + hi) >>> 1;
+            start = Math.max(lo, findLineStart(mid));
+            view = getLineView(start);
+            assert view != null;
+            local = view.position();
+            if (compareLine(view, local, key, comparator, cs) < 0)
+            {
+                lo = start + skipLine(view, local) - local;
+            }
+            else
+            {
+                hi = start;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * Returns the first line of this file that compares equal to the
+     * specified key, using {@link #findFirstLineOffset(String, Comparator)}.
+     *
+     * @param key        the key to search for; may not be <code>null</code>
+     * @param comparator the comparator the lines are sorted by; may not be
+     *                   <code>null</code>
+     * @return the line, or <code>null</code> if there is none
+     * @throws ObjectClosedException if the object is closed
+     * @since JWI 2.4.1
+     */
+    @Nullable
+    protected String findLine(@NonNull String key, @NonNull Comparator<String> comparator)
+    {
+        ByteBuffer view = findLineView(key, comparator);
+        if (view == null)
+        {
+            return null;
+        }
+        assert contentType != null;
+        return getLine(view, contentType.getCharset());
+    }
+
+    /**
+     * Returns a private view positioned at the start of the first line of
+     * this file that compares equal to the specified key, using
+     * {@link #findFirstLineOffset(String, Comparator)}. Must be called
+     * between {@link #beginRead()} and {@link #endRead()}.
+     *
+     * @param key        the key to search for; may not be <code>null</code>
+     * @param comparator the comparator the lines are sorted by; may not be
+     *                   <code>null</code>
+     * @return a view positioned at the start of the line, or
+     * <code>null</code> if there is none
+     * @throws ObjectClosedException if the object is closed
+     * @since JWI 2.4.1
+     */
+    @Nullable
+    protected ByteBuffer findLineView(@NonNull String key, @NonNull Comparator<String> comparator)
+    {
+        ByteBuffer view = getLineView(findFirstLineOffset(key, comparator));
+        if (view == null)
+        {
+            return null;
+        }
+        assert contentType != null;
+        int start = view.position();
+        if (compareLine(view, start, key, comparator, contentType.getCharset()) != 0)
+        {
+            return null;
+        }
+        view.position(start);
+        return view;
+    }
+
+    /**
+     * Returns the offset at which the line holding the specified offset
+     * starts.
+     *
+     * @param offset an offset in the file
+     * @return the start of the line holding the offset
+     */
+    private long findLineStart(long offset)
+    {
+        // check if the offset is in the middle of a two-char
+        // newline marker; if so, back up before it begins
+        long i = offset;
+        if (i > 0 && byteAt(i) == '\n' && byteAt(i - 1) == '\r')
+        {
+            i--;
+        }
+        byte b;
+        while (i > 0)
+        {
+            b = byteAt(i - 1);
+            if (b == '\n' || b == '\r')
+            {
+                break;
+            }
+            i--;
+        }
+        return i;
+    }
+
+    /**
+     * Returns the byte at the specified offset of the file.
+     *
+     * @param offset an offset in the file
+     * @return the byte at the offset
+     */
+    private byte byteAt(long offset)
+    {
+        OpenState state = getOpenState();
+        if (state.segments == null)
+        {
+            return state.buffer.get((int) offset);
+        }
+        return state.segments[(int) (offset >>> state.segmentShift)].get((int) (offset & ((1 << state.segmentShift) - 1)));
+    }
+
+    /**
+     * Returns the offset of the line following the one that starts at the
+     * specified offset of the buffer.
+     *
+     * @param buf   the buffer holding the line
+     * @param start the offset at which the line starts
+     * @return the offset of the next line, or the limit of the buffer
+     */
+    private static int skipLine(@NonNull ByteBuffer buf, int start)
+    {
+        int limit = buf.limit();
+        int i = ByteLines.findLineEnd(buf, start);
+        if (i < limit && buf.get(i++) == '\r' && i < limit && buf.get(i) == '\n')
+        {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * Get the size of the segments in which large files are mapped.
+     *
+     * @return the segment size, in bytes
+     * @since JWI 2.4.1
+     */
+    public static int getSegmentSize()
+    {
+        return segmentSize;
+    }
+
+    /**
+     * Set the size of the segments in which large files are mapped. Files no
+     * larger than this size are mapped in a single buffer. This only affects
+     * files opened afterward.
+     *
+     * @param size the segment size, in bytes; must be a power of two
+     * @throws IllegalArgumentException if the size is not a positive power of
+     *                                  two
+     * @since JWI 2.4.1
+     */
+    public static void setSegmentSize(int size)
+    {
+        if (size <= 0 || Integer.bitCount(size) != 1)
+        {
+            throw new IllegalArgumentException("Segment size must be a power of two: " + size);
+        }
+        segmentSize = size;
+    }
+
+    /**
+     * Get the overlap of a segment with the next one. This is the maximum
+     * length of a line in a file mapped in several segments.
+     *
+     * @return the segment overlap, in bytes
+     * @since JWI 2.4.1
+     */
+    public static int getSegmentOverlap()
+    {
+        return segmentOverlap;
+    }
+
+    /**
+     * Set the overlap of a segment with the next one. This is the maximum
+     * length of a line in a file mapped in several segments: such a file
+     * fails to open if a longer line runs across the end of a segment. This
+     * only affects files opened afterward.
+     *
+     * @param overlap the segment overlap, in bytes
+     * @throws IllegalArgumentException if the overlap is negative
+     * @since JWI 2.4.1
+     */
+    public static void setSegmentOverlap(int overlap)
+    {
+        if (overlap < 0)
+        {
+            throw new IllegalArgumentException("Segment overlap must not be negative: " + overlap);
+        }
+        segmentOverlap = overlap;
+    }
+
+    /**
+     * Returns the wordnet version associated with this object, or null if the
+     * version cannot be determined.
+     *
+     * @return the wordnet version associated with this object, or null if the
+     * version cannot be determined
+     * @throws ObjectClosedException if the object is closed when this method is called
+     * @see edu.mit.jwi.item.IHasVersion#getVersion()
+     */
+    @Nullable
+    public IVersion getVersion()
+    {
+        if (!isOpen())
+        {
+            throw new ObjectClosedException();
+        }
+        if (version == null)
+        {
+            beginRead();
+            try
+            {
+                ByteBuffer buf = getBuffer();
+                assert buf != null;
+                assert contentType != null;
+                version = Version.extractVersion(contentType, buf.asReadOnlyBuffer());
+                if (version == null)
+                {
+                    version = IVersion.NO_VERSION;
+                }
+            }
+            finally
+            {
+                endRead();
+            }
+        }
+        IVersion v = version;
+        return (v == IVersion.NO_VERSION) ? null : v;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see java.lang.Iterable#iterator()
+     */
+    @NonNull
+    public LineIterator iterator()
+    {
+        countAccess();
+        beginRead();
+        try
+        {
+            return makeIterator(getBuffer(), null);
+        }
+        finally
+        {
+            endRead();
+        }
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see edu.edu.mit.jwi.data.IDataSource#iterator(java.lang.String)
+     */
+    @NonNull
+    public LineIterator iterator(String key)
+    {
+        countAccess();
+        beginRead();
+        try
+        {
+            return makeIterator(getBuffer(), key);
+        }
+        finally
+        {
+            endRead();
+        }
+    }
+
+    /**
+     * Returns a private view of the buffer of this file, positioned at the
+     * start of the line indexed by the specified key, as found by
+     * {@link #getLine(String)}. Must be called between {@link #beginRead()}
+     * and {@link #endRead()}, and the view must not be used after the read
+     * ends. This default implementation wraps the decoded line; subclasses
+     * override it to return a view of the file itself, and subclasses that
+     * change how {@link #getLine(String)} finds lines must change this method
+     * in the same way.
+     *
+     * @param key the key which indexes the desired line; may not be
+     *            <code>null</code>
+     * @return a view positioned at the start of the line, or
+     * <code>null</code> if there is no line for the key
+     * @throws ObjectClosedException if the object is closed
+     * @since JWI 2.4.1
+     */
+    @Nullable
+    protected ByteBuffer seekLine(@NonNull String key)
+    {
+        String line = getLine(key);
+        if (line == null)
+        {
+            return null;
+        }
+        assert contentType != null;
+        Charset cs = contentType.getCharset();
+        return ByteBuffer.wrap(line.getBytes(cs == null ? StandardCharsets.ISO_8859_1 : cs));
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see edu.edu.mit.jwi.data.IByteLineSource#parseLine(java.lang.String, edu.edu.mit.jwi.data.parse.IByteLineParser)
+     */
+    @Nullable
+    public <R> R parseLine(@NonNull String key, @NonNull IByteLineParser<R> parser)
+    {
+        if (parser == null)
+        {
+            throw new NullPointerException();
+        }
+        countAccess();
+        beginRead();
+        try
+        {
+            ByteBuffer view = seekLine(key);
+            return view == null ? null : parseView(view, parser);
+        }
+        finally
+        {
+            endRead();
+        }
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see edu.edu.mit.jwi.data.IByteLineSource#parsingIterator(edu.edu.mit.jwi.data.parse.IByteLineParser)
+     */
+    @NonNull
+    public <R> Iterator<R> parsingIterator(@NonNull IByteLineParser<R> parser)
+    {
+        if (parser == null)
+        {
+            throw new NullPointerException();
+        }
+        countAccess();
+        return new ParsingIterator<>(parser);
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see edu.edu.mit.jwi.data.IByteLineSource#parsingSpliterator(edu.edu.mit.jwi.data.parse.IByteLineParser)
+     */
+    @NonNull
+    public <R> Spliterator<R> parsingSpliterator(@NonNull IByteLineParser<R> parser)
+    {
+        if (parser == null)
+        {
+            throw new NullPointerException();
+        }
+        countAccess();
+        beginRead();
+        try
+        {
+            return new ParsingSpliterator<>(parser, generation, 0, getOpenState().length);
+        }
+        finally
+        {
+            endRead();
+        }
+    }
+
+    /**
+     * Parses the line starting at the position of the specified view. The
+     * line is handed to the parser as bytes when the character set of this
+     * file allows it, and decoded otherwise.
+     *
+     * @param view   the view positioned at the start of the line
+     * @param parser the parser
+     * @return the parsed line
+     */
+    @Nullable
+    private <R> R parseView(@NonNull ByteBuffer view, @NonNull IByteLineParser<R> parser)
+    {
+        assert contentType != null;
+        Charset cs = contentType.getCharset();
+        if (!ByteLines.isAsciiCompatible(cs))
+        {
+            String line = getLine(view, cs);
+            return line == null ? null : parser.parseLine(line);
+        }
+        view.limit(ByteLines.findLineEnd(view, view.position()));
+        return parser.parseLine(view, cs);
+    }
+
+    /**
+     * Returns whether the line starting at the specified offset of the
+     * specified view is a comment.
+     *
+     * @param view  the view holding the line
+     * @param start the offset at which the line starts
+     * @return <code>true</code> if the line is a comment
+     */
+    private boolean isCommentLine(@NonNull ByteBuffer view, int start)
+    {
+        if (detector == null)
+        {
+            return false;
+        }
+        if (detector.getClass() == CommentComparator.class)
+        {
+            return ByteLines.isCommentLine(view, start);
+        }
+        assert contentType != null;
+        view.position(start);
+        String line = getLine(view, contentType.getCharset());
+        return line != null && detector.isCommentLine(line);
+    }
+
+    /**
+     * Returns the offset of the first line of this file that starts at or
+     * after the specified offset.
+     *
+     * @param offset an offset in the file
+     * @return the offset of the first line starting at or after the offset,
+     * or the length of the file if there is none
+     */
+    private long findNextLineStart(long offset)
+    {
+        long i = findLineStart(offset);
+        if (i == offset)
+        {
+            return i;
+        }
+        ByteBuffer view = getLineView(i);
+        if (view == null)
+        {
+            return getOpenState().length;
+        }
+        int start = view.position();
+        return i + skipLine(view, start) - start;
+    }
+
+    /**
+     * Constructs an iterator that can be used to iterate over the specified
+     * {@link ByteBuffer}, starting from the specified key.
+     *
+     * @param buffer the buffer over which the iterator will iterate, should not be
+     *               <code>null</code>
+     * @param key    the key at which the iterator should begin, should not be
+     *               <code>null</code>
      * @return an iterator that can be used to iterate over the lines of the
      * {@link ByteBuffer}
      * @since JWI 2.2.0
@@ -430,114 +1551,274 @@ public abstract class WordnetFile<T> implements ILoadableDataSource<T>
     @Nullable
     public static String getLine(@NonNull ByteBuffer buf)
     {
-        // we are at end of buffer, return null
+        return getLine(buf, null);
+    }
+
+    /**
+     * A different version of the getLine method that uses a specified character
+     * set to decode the byte stream. If the provided character set is
+     * <code>null</code>, each byte is converted to a char by a plain cast, as
+     * {@link #getLine(ByteBuffer)} does.
+     * <p>
+     * Lines made of 7-bit ASCII bytes only, which are the vast majority of
+     * lines in Wordnet files, are copied in bulk and built into strings
+     * directly when the character set is ASCII-compatible; the character set
+     * decoder is only run on lines that need it.
+     * </p>
+     *
+     * @param buf the buffer from which the line should be extracted
+     * @param cs  the character set to use for decoding; may be
+     *            <code>null</code>
+     * @return the remainder of line in the specified buffer, starting from the
+     * buffer's current position
+     * @throws NullPointerException if the specified buffer is <code>null</code>
+     * @since JWI 2.3.4
+     */
+    @Nullable
+    public static String getLine(@NonNull ByteBuffer buf, @Nullable Charset cs)
+    {
+        // if we are at end of buffer, return null
         int limit = buf.limit();
-        if (buf.position() == limit)
+        int start = buf.position();
+        if (start == limit)
         {
             return null;
         }
 
-        StringBuilder input = new StringBuilder();
-        char c;
-        boolean eol = false;
-
-        while (!eol && buf.position() < limit)
+        // here we assume that in the character set of the buffer
+        // new lines are encoded using the standard ASCII encoding scheme
+        // e.g., the single bytes 0x0A or 0x0D, or the two-byte sequence
+        // 0x0D0A.  If the byte buffer doesn't follow these conventions,
+        // this method will fail.
+        int end = scanLine(buf, start, limit);
+        boolean ascii = end >= 0;
+        if (!ascii)
+        {
+            end = ~end;
+        }
+
+        // skip the newline marker
+        int next = end;
+        if (next < limit)
+        {
+            if (buf.get(next++) == 0x0D && next < limit && buf.get(next) == 0x0A)
+            {
+                next++;
+            }
+        }
+        buf.position(next);
+
+        // copy the bytes of interest
+        int len = end - start;
+        byte[] bytes;
+        int offset;
+        if (buf.hasArray())
+        {
+            bytes = buf.array();
+            offset = buf.arrayOffset() + start;
+        }
+        else
+        {
+            bytes = new byte[len];
+            offset = 0;
+            ByteBuffer buf2 = buf.duplicate();
+            buf2.position(start);
+            buf2.get(bytes, 0, len);
+        }
+
+        // ASCII bytes map to the same chars in all the
+        // character sets we know to be ASCII-compatible
+        if (ascii && ByteLines.isAsciiCompatible(cs))
+        {
+            return new String(bytes, offset, len, StandardCharsets.ISO_8859_1);
+        }
+
+        // no character set: cast each byte to a char
+        if (cs == null)
+        {
+            char[] chars = new char[len];
+            for (int i = 0; i < len; i++)
+            {
+                chars[i] = (char) bytes[offset + i];
+            }
+            return new String(chars);
+        }
+
+        // decode the bytes using the provided character set
+        return cs.decode(ByteBuffer.wrap(bytes, offset, len)).toString();
+    }
+
+    // masks for scanning eight bytes at a time
+    private static final long ONES = 0x0101010101010101L;
+    private static final long HIGHS = 0x8080808080808080L;
+    private static final long LFS = 0x0A0A0A0A0A0A0A0AL;
+    private static final long CRS = 0x0D0D0D0D0D0D0D0DL;
+
+    /**
+     * Finds the end of the line starting at the specified offset, eight bytes
+     * at a time where possible. The end of the line is the offset of the first
+     * \n or \r, or the limit if there is none. The result is the end offset,
+     * bitwise negated (and therefore negative) if the line holds any byte with
+     * its high bit set.
+     *
+     * @param buf   the buffer to scan
+     * @param start the offset at which the line starts
+     * @param limit the offset at which to stop scanning
+     * @return the end offset of the line, negated if the line is not 7-bit
+     * ASCII
+     */
+    private static int scanLine(@NonNull ByteBuffer buf, int start, int limit)
+    {
+        long highs = 0;
+        int i = start;
+
+        // whole words: stop at the first word that holds a
+        // newline marker, which is then scanned byte by byte
+        long word, lf, cr;
+        for (; i + 8 <= limit; i += 8)
+        {
+            word = buf.getLong(i);
+            lf = word ^ LFS;
+            cr = word ^ CRS;
+            if (((((lf - ONES) & ~lf) | ((cr - ONES) & ~cr)) & HIGHS) != 0)
+            {
+                break;
+            }
+            highs |= word;
+        }
+
+        // remaining bytes
+        byte b;
+        for (; i < limit; i++)
+        {
+            b = buf.get(i);
+            if (b == 0x0A || b == 0x0D)
+            {
+                break;
+            }
+            highs |= b;
+        }
+        return (highs & HIGHS) == 0 ? i : ~i;
+    }
+
+    /**
+     * Builds the table of the offsets at which the lines of the specified
+     * buffer start, skipping the lines recognized by the specified comment
+     * detector. The position of the specified buffer is not changed.
+     *
+     * @param buf      the buffer to be indexed; may not be <code>null</code>
+     * @param cs       the character set to use for decoding; may be
+     *                 <code>null</code>
+     * @param detector the comment detector; may be <code>null</code>
+     * @return the offsets of the non-comment lines, in buffer order
+     * @throws NullPointerException if the specified buffer is <code>null</code>
+     * @since JWI 2.4.1
+     */
+    @NonNull
+    public static int[] makeLineOffsets(@NonNull ByteBuffer buf, @Nullable Charset cs, @Nullable ICommentDetector detector)
+    {
+        ByteBuffer buf2 = buf.duplicate();
+        buf2.clear();
+
+        int[] offsets = new int[1024];
+        int count = 0;
+        int start;
+        String line;
+        while (true)
+        {
+            start = buf2.position();
+            line = getLine(buf2, cs);
+            if (line == null)
+            {
+                break;
+            }
+            if (detector != null && detector.isCommentLine(line))
+            {
+                continue;
+            }
+            if (count == offsets.length)
+            {
+                offsets = Arrays.copyOf(offsets, 2 * count);
+            }
+            offsets[count++] = start;
+        }
+        return Arrays.copyOf(offsets, count);
+    }
+
+    /**
+     * Binary searches the lines listed in the specified line offset table for
+     * the first one that does not sort before the specified key. The position
+     * of the specified buffer is changed by the search.
+     *
+     * @param buf        the buffer holding the lines; may not be <code>null</code>
+     * @param offsets    the offsets of the sorted lines; may not be <code>null</code>
+     * @param key        the key to search for; may not be <code>null</code>
+     * @param comparator the comparator the lines are sorted by; may not be
+     *                   <code>null</code>
+     * @param cs         the character set to use for decoding; may be
+     *                   <code>null</code>
+     * @return the index in the table of the first line that does not sort
+     * before the key, or the length of the table if there is none
+     * @throws NullPointerException if any argument other than the character
+     *                              set is <code>null</code>
+     * @since JWI 2.4.1
+     */
+    public static int findFirstLineIndex(@NonNull ByteBuffer buf, @NonNull int[] offsets, @NonNull String key, @NonNull Comparator<String> comparator, @Nullable Charset cs)
+    {
+        int lo = 0;
+        int hi = offsets.length;
+        int mid;
+        while (lo < hi)
         {
-            c = (char) buf.get();
-            switch (c)
+            mid = (lo + hi) >>> 1;
+            if (compareLine(buf, offsets[mid], key, comparator, cs) < 0)
             {
-                case '\n':
-                    eol = true;
-                    break;
-                case '\r':
-                    eol = true;
-                    int cur = buf.position();
-                    c = (char) buf.get();
-                    if (c != '\n')
-                    {
-                        buf.position(cur);
-                    }
-                    break;
-                default:
-                    input.append(c);
-                    break;
+                lo = mid + 1;
+            }
+            else
+            {
+                hi = mid;
             }
         }
-        return input.toString();
+        return lo;
     }
 
     /**
-     * A different version of the getLine method that uses a specified character
-     * set to decode the byte stream. If the provided character set is
-     * <code>null</code>, the method defaults to the previous method
-     * {@link #getLine(ByteBuffer)}.
+     * Compares the line that starts at the specified offset of the buffer with
+     * the specified key. If the comparator is an {@link IByteLineComparator}
+     * and the character set is ASCII-compatible, the line is compared in place,
+     * without being decoded. A line starting at the buffer limit (i.e., no
+     * line) compares greater than any key. The position of the specified
+     * buffer is changed by the comparison.
      *
-     * @param buf the buffer from which the line should be extracted
-     * @param cs  the character set to use for decoding; may be
-     *            <code>null</code>
-     * @return the remainder of line in the specified buffer, starting from the
-     * buffer's current position
-     * @throws NullPointerException if the specified buffer is <code>null</code>
-     * @since JWI 2.3.4
+     * @param buf        the buffer holding the line; may not be <code>null</code>
+     * @param start      the offset at which the line starts
+     * @param key        the key to compare the line with; may not be
+     *                   <code>null</code>
+     * @param comparator the comparator the lines are sorted by; may not be
+     *                   <code>null</code>
+     * @param cs         the character set to use for decoding; may be
+     *                   <code>null</code>
+     * @return a negative integer, zero, or a positive integer as the line is
+     * less than, equal to, or greater than the key
+     * @throws NullPointerException if any argument other than the character
+     *                              set is <code>null</code>
+     * @since JWI 2.4.1
      */
-    @SuppressWarnings("DataFlowIssue")
-    @Nullable
-    public static String getLine(@NonNull ByteBuffer buf, @Nullable Charset cs)
+    public static int compareLine(@NonNull ByteBuffer buf, int start, @NonNull String key, @NonNull Comparator<String> comparator, @Nullable Charset cs)
     {
-        // redirect to old method if no charset specified
-        if (cs == null)
+        if (start >= buf.limit())
         {
-            return getLine(buf);
+            return 1;
         }
-
-        // if we are at end of buffer, return null
-        int limit = buf.limit();
-        if (buf.position() == limit)
+        if (comparator instanceof IByteLineComparator && ByteLines.isAsciiCompatible(cs))
         {
-            return null;
-        }
-
-        // here we assume that in the character set of the buffer
-        // new lines are encoded using the standard ASCII encoding scheme
-        // e.g., the single bytes 0x0A or 0x0D, or the two-byte sequence
-        // 0x0D0A.  If the byte buffer doesn't follow these conventions,
-        // this method will fail.
-        byte b;
-        boolean eol = false;
-        int start = buf.position();
-        int end = start;
-        while (!eol && buf.position() < limit)
-        {
-            b = buf.get();
-            switch (b)
-            {
-                case 0x0A: // newline \n = 0x0A = 10
-                    eol = true;
-                    break;
-                case 0x0D: // carriage return \r = 0x0D = 13
-                    eol = true;
-                    int cur = buf.position();
-                    b = buf.get();
-                    if (b != 0x0A) // check for following newline
-                    {
-                        buf.position(cur);
-                    }
-                    break;
-                default:
-                    end++;
-            }
+            return ((IByteLineComparator) comparator).compareLine(buf, start, key, cs);
         }
-
-        // get sub view containing only the bytes of interest
-        // pb with covariant returns if compiled with JSK >=9
-        // unless release option is used
-        ByteBuffer buf2 = buf.duplicate();
-        buf2 = (ByteBuffer) buf2.position(start);
-        buf2 = (ByteBuffer) buf2.limit(end);
-        buf = buf2;
-
-        // decode the buffer using the provided character set
-        return cs.decode(buf).toString();
+        buf.position(start);
+        String line = getLine(buf, cs);
+        assert line != null;
+        return comparator.compare(line, key);
     }
 
     /**
@@ -602,6 +1883,15 @@ public abstract class WordnetFile<T> implements ILoadableDataSource<T>
         @Nullable
         protected String next;
 
+        // the segments iterated over, if the file is mapped in several
+        @Nullable
+        private final ByteBuffer[] itrSegments;
+        private final int itrShift;
+        private int segment;
+
+        // the generation of the file the buffer belongs to
+        private final int itrGeneration;
+
         /**
          * Constructs a new line iterator over this buffer, starting at the
          * specified key.
@@ -616,6 +1906,10 @@ public abstract class WordnetFile<T> implements ILoadableDataSource<T>
             parentBuffer = buffer;
             itrBuffer = buffer.asReadOnlyBuffer();
             itrBuffer.clear();
+            OpenState state = openState;
+            itrSegments = state != null && state.segments != null && state.segments[0] == buffer ? state.segments : null;
+            itrShift = state == null ? 0 : state.segmentShift;
+            itrGeneration = generation;
         }
 
         /**
@@ -626,13 +1920,40 @@ public abstract class WordnetFile<T> implements ILoadableDataSource<T>
         public void init(String key)
         {
             key = (key == null) ? null : key.trim();
-            if (key == null || key.length() == 0)
+            beginItrRead();
+            try
             {
-                advance();
+                if (key == null || key.length() == 0)
+                {
+                    advance();
+                }
+                else
+                {
+                    findFirstLine(key);
+                }
             }
-            else
+            finally
+            {
+                endRead();
+            }
+        }
+
+        /**
+         * Marks the start of a read from the buffer of the iterator (see
+         * {@link WordnetFile#beginRead()}), which must be matched by a call
+         * to {@link WordnetFile#endRead()}.
+         *
+         * @throws ObjectClosedException if the file has been closed since
+         *                               this iterator was created
+         * @since JWI 2.4.1
+         */
+        protected void beginItrRead()
+        {
+            beginRead();
+            if (itrGeneration != generation)
             {
-                findFirstLine(key);
+                endRead();
+                throw new ObjectClosedException();
             }
         }
 
@@ -661,6 +1982,50 @@ public abstract class WordnetFile<T> implements ILoadableDataSource<T>
          */
         protected abstract void findFirstLine(String key);
 
+        /**
+         * Moves the iterator to the specified offset of the file, which may
+         * be past the first segment of a file mapped in several segments.
+         *
+         * @param offset the offset of the file at which the next line
+         *               should be read
+         * @since JWI 2.4.1
+         */
+        protected void seek(long offset)
+        {
+            if (itrSegments == null)
+            {
+                itrBuffer.position((int) Math.min(offset, itrBuffer.limit()));
+                return;
+            }
+            segment = (int) Math.min(offset >>> itrShift, itrSegments.length - 1);
+            itrBuffer = itrSegments[segment].asReadOnlyBuffer();
+            itrBuffer.clear();
+            itrBuffer.position((int) Math.min(offset - ((long) segment << itrShift), itrBuffer.limit()));
+        }
+
+        /**
+         * Reads the line at the current position of the iterator, moving on
+         * to the next segment if the line ends past the current one.
+         *
+         * @return the line, or <code>null</code> if the end of the file has
+         * been reached
+         * @since JWI 2.4.1
+         */
+        @Nullable
+        protected String readLine()
+        {
+            assert contentType != null;
+            String line = getLine(itrBuffer, contentType.getCharset());
+            if (itrSegments != null && segment + 1 < itrSegments.length && itrBuffer.position() >= (1 << itrShift))
+            {
+                int pos = itrBuffer.position() - (1 << itrShift);
+                itrBuffer = itrSegments[++segment].asReadOnlyBuffer();
+                itrBuffer.clear();
+                itrBuffer.position(pos);
+            }
+            return line;
+        }
+
         /*
          * (non-Javadoc)
          *
@@ -680,26 +2045,32 @@ public abstract class WordnetFile<T> implements ILoadableDataSource<T>
         protected void advance()
         {
             next = null;
-
-            // check for buffer swap
-            if (parentBuffer != buffer)
+            beginItrRead();
+            try
             {
-                int pos = itrBuffer.position();
-                assert buffer != null;
-                ByteBuffer newBuf = buffer.asReadOnlyBuffer();
-                newBuf.clear();
-                newBuf.position(pos);
-                itrBuffer = newBuf;
-            }
+                // check for buffer swap
+                ByteBuffer buffer = getOpenState().buffer;
+                if (itrSegments == null && parentBuffer != buffer)
+                {
+                    int pos = itrBuffer.position();
+                    ByteBuffer newBuf = buffer.asReadOnlyBuffer();
+                    newBuf.clear();
+                    newBuf.position(pos);
+                    itrBuffer = newBuf;
+                }
 
-            String line;
-            do
+                String line;
+                do
+                {
+                    line = readLine();
+                }
+                while (line != null && isComment(line));
+                next = line;
+            }
+            finally
             {
-                assert contentType != null;
-                line = getLine(itrBuffer, contentType.getCharset());
+                endRead();
             }
-            while (line != null && isComment(line));
-            next = line;
         }
 
         /**
@@ -747,4 +2118,305 @@ public abstract class WordnetFile<T> implements ILoadableDataSource<T>
             throw new UnsupportedOperationException();
         }
     }
+
+    /**
+     * Iterates over the lines of this file that are not comments, parsing
+     * each one from the bytes of the file. Lines are parsed one ahead, while
+     * the file is held for reading, so that the parsed objects never refer to
+     * a buffer that has been unmapped.
+     *
+     * @param <R> the type of object the parser produces
+     * @since JWI 2.4.1
+     */
+    private class ParsingIterator<R> implements Iterator<R>
+    {
+        @NonNull
+        private final IByteLineParser<R> parser;
+
+        // the generation of the file the iterator belongs to
+        private final int itrGeneration;
+
+        // the offset of the line after the next one
+        private long offset;
+
+        @Nullable
+        private R next;
+
+        private boolean done;
+
+        /**
+         * Constructs a new iterator over this file, with the specified parser.
+         *
+         * @param parser the parser; may not be <code>null</code>
+         */
+        public ParsingIterator(@NonNull IByteLineParser<R> parser)
+        {
+            this.parser = parser;
+            this.itrGeneration = generation;
+            advance();
+        }
+
+        /**
+         * Parses the next line that is not a comment.
+         */
+        private void advance()
+        {
+            next = null;
+            beginRead();
+            try
+            {
+                if (itrGeneration != generation)
+                {
+                    throw new ObjectClosedException();
+                }
+                ByteBuffer view;
+                int start;
+                while ((view = getLineView(offset)) != null)
+                {
+                    start = view.position();
+                    offset += skipLine(view, start) - start;
+                    if (!isCommentLine(view, start))
+                    {
+                        view.position(start);
+                        next = parseView(view, parser);
+                        return;
+                    }
+                }
+                done = true;
+            }
+            finally
+            {
+                endRead();
+            }
+        }
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see java.util.Iterator#hasNext()
+         */
+        public boolean hasNext()
+        {
+            return !done;
+        }
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see java.util.Iterator#next()
+         */
+        @Nullable
+        public R next()
+        {
+            if (done)
+            {
+                throw new NoSuchElementException();
+            }
+            R result = next;
+            advance();
+            return result;
+        }
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see java.util.Iterator#remove()
+         */
+        public void remove()
+        {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    /**
+     * A spliterator over the lines of this file between two offsets, parsed
+     * from their bytes. It splits at line boundaries, and each part holds the
+     * file open only while it parses a line, as {@link ParsingIterator} does.
+     *
+     * @param <R> the type of object the parser produces
+     * @since JWI 2.4.1
+     */
+    private class ParsingSpliterator<R> implements Spliterator<R>
+    {
+        // parts smaller than this are not split further
+        private static final int MIN_SPLIT = 1 << 14;
+
+        @NonNull
+        private final IByteLineParser<R> parser;
+
+        // the generation of the file the spliterator belongs to
+        private final int itrGeneration;
+
+        // the offset of the next line
+        private long offset;
+
+        // the offset of the first line that belongs to another part
+        private final long end;
+
+        /**
+         * Constructs a new spliterator over the lines that start between the
+         * specified offsets.
+         *
+         * @param parser        the parser; may not be <code>null</code>
+         * @param itrGeneration the generation of the file
+         * @param offset        the offset of the first line
+         * @param end           the offset of the first line not covered
+         */
+        public ParsingSpliterator(@NonNull IByteLineParser<R> parser, int itrGeneration, long offset, long end)
+        {
+            this.parser = parser;
+            this.itrGeneration = itrGeneration;
+            this.offset = offset;
+            this.end = end;
+        }
+
+        /**
+         * Starts a read of the file, checking that it is still the one the
+         * spliterator started on.
+         */
+        private void begin()
+        {
+            beginRead();
+            if (itrGeneration != generation)
+            {
+                endRead();
+                throw new ObjectClosedException();
+            }
+        }
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see java.util.Spliterator#tryAdvance(java.util.function.Consumer)
+         */
+        public boolean tryAdvance(@NonNull Consumer<? super R> action)
+        {
+            R next = null;
+            begin();
+            try
+            {
+                ByteBuffer view;
+                int start;
+                while (next == null && offset < end && (view = getLineView(offset)) != null)
+                {
+                    start = view.position();
+                    offset += skipLine(view, start) - start;
+                    if (!isCommentLine(view, start))
+                    {
+                        view.position(start);
+                        next = parseView(view, parser);
+                    }
+                }
+            }
+            finally
+            {
+                endRead();
+            }
+            if (next == null)
+            {
+                offset = end;
+                return false;
+            }
+            action.accept(next);
+            return true;
+        }
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see java.util.Spliterator#trySplit()
+         */
+        @Nullable
+        public Spliterator<R> trySplit()
+        {
+            if (end - offset < 2 * MIN_SPLIT)
+            {
+                return null;
+            }
+            long mid;
+            begin();
+            try
+            {
+                mid = findNextLineStart(offset + (end - offset) / 2);
+            }
+            finally
+            {
+                endRead();
+            }
+            if (mid <= offset || mid >= end)
+            {
+                return null;
+            }
+            Spliterator<R> prefix = new ParsingSpliterator<>(parser, itrGeneration, offset, mid);
+            offset = mid;
+            return prefix;
+        }
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see java.util.Spliterator#estimateSize()
+         */
+        public long estimateSize()
+        {
+            // the number of bytes left, which is proportional to the number
+            // of lines left
+            return end - offset;
+        }
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see java.util.Spliterator#characteristics()
+         */
+        public int characteristics()
+        {
+            return ORDERED | NONNULL;
+        }
+    }
+
+    /**
+     * The buffers and tables of an open file. A state is never changed once
+     * it is published: opening, loading and closing the file publish a new
+     * one, or none, so that readers get a consistent view of the file with a
+     * single volatile read.
+     */
+    private static final class OpenState
+    {
+        // the buffer of the file, or its first segment
+        @NonNull
+        final ByteBuffer buffer;
+
+        // the segments of the file, if it is mapped in several
+        @Nullable
+        final ByteBuffer[] segments;
+        final long length;
+        final int segmentShift;
+
+        @Nullable
+        final int[] lineOffsets;
+        @Nullable
+        final LineHashIndex hashIndex;
+
+        /**
+         * Constructs a new state.
+         *
+         * @param buffer       the buffer of the file, or its first segment
+         * @param segments     the segments of the file, or <code>null</code>
+         *                     if it is held in a single buffer
+         * @param length       the length of the file
+         * @param segmentShift the log of the segment size
+         * @param lineOffsets  the line offset table, or <code>null</code>
+         * @param hashIndex    the hash index, or <code>null</code>
+         */
+        OpenState(@NonNull ByteBuffer buffer, @Nullable ByteBuffer[] segments, long length, int segmentShift, @Nullable int[] lineOffsets, @Nullable LineHashIndex hashIndex)
+        {
+            this.buffer = buffer;
+            this.segments = segments;
+            this.length = length;
+            this.segmentShift = segmentShift;
+            this.lineOffsets = lineOffsets;
+            this.hashIndex = hashIndex;
+        }
+    }
 }
@@ -0,0 +1,367 @@
+/* ******************************************************************************
+ * Java Wordnet Interface Library (JWI) v2.4.0
+ * Copyright (c) 2007-2015 Mark A. Finlayson
+ *
+ * JWI is distributed under the terms of the Creative Commons Attribution 4.0
+ * International Public License, which means it may be freely used for all
+ * purposes, as long as proper acknowledgment is made.  See the license file
+ * included with this distribution for more details.
+ *******************************************************************************/
+
+package edu.mit.jwi.data.compare;
+
+import edu.mit.jwi.NonNull;
+import edu.mit.jwi.Nullable;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Utilities for {@link IByteLineComparator} implementations, which examine
+ * lines in place in a byte buffer. All methods use absolute reads and never
+ * change the position of the buffers they are passed.
+ *
+ * @author Mark A. Finlayson
+ * @version 2.4.0
+ * @since JWI 2.4.1
+ */
+public final class ByteLines
+{
+    /**
+     * Value returned by
+     * {@link #compareAscii(ByteBuffer, int, int, String, int, boolean)} when
+     * the comparison cannot be decided without decoding.
+     *
+     * @since JWI 2.4.1
+     */
+    public static final int NON_ASCII = Integer.MIN_VALUE;
+
+    private ByteLines()
+    {
+    }
+
+    /**
+     * Returns whether the specified character set encodes the 7-bit ASCII
+     * characters as single bytes of the same value. A <code>null</code>
+     * character set stands for the byte-to-char conversion of
+     * {@code WordnetFile.getLine(ByteBuffer)}, and is ASCII-compatible.
+     *
+     * @param cs the character set; may be <code>null</code>
+     * @return <code>true</code> if lines in this character set can be compared
+     * in place; <code>false</code> otherwise
+     * @since JWI 2.4.1
+     */
+    public static boolean isAsciiCompatible(@Nullable Charset cs)
+    {
+        return cs == null || StandardCharsets.UTF_8.equals(cs) || StandardCharsets.US_ASCII.equals(cs) || StandardCharsets.ISO_8859_1.equals(cs);
+    }
+
+    /**
+     * Returns whether the line starting at the specified offset is a comment,
+     * that is, whether it starts with two spaces.
+     *
+     * @param buf   the buffer holding the line; may not be <code>null</code>
+     * @param start the offset at which the line starts
+     * @return <code>true</code> if the line is a comment; <code>false</code>
+     * otherwise
+     * @since JWI 2.4.1
+     */
+    public static boolean isCommentLine(@NonNull ByteBuffer buf, int start)
+    {
+        return start + 1 < buf.limit() && buf.get(start) == ' ' && buf.get(start + 1) == ' ';
+    }
+
+    /**
+     * Returns the offset of the first space or line terminator at or after the
+     * specified offset, or the buffer limit if there is none.
+     *
+     * @param buf   the buffer holding the line; may not be <code>null</code>
+     * @param start the offset at which to start looking
+     * @return the end offset (exclusive) of the token starting at the
+     * specified offset
+     * @since JWI 2.4.1
+     */
+    public static int findTokenEnd(@NonNull ByteBuffer buf, int start)
+    {
+        int limit = buf.limit();
+        int i = start;
+        byte b;
+        for (; i < limit; i++)
+        {
+            b = buf.get(i);
+            if (b == ' ' || b == '\n' || b == '\r')
+            {
+                break;
+            }
+        }
+        return i;
+    }
+
+    /**
+     * Returns the offset of the first line terminator at or after the
+     * specified offset, or the buffer limit if there is none.
+     *
+     * @param buf   the buffer holding the line; may not be <code>null</code>
+     * @param start the offset at which to start looking
+     * @return the end offset (exclusive) of the line starting at the
+     * specified offset
+     * @since JWI 2.4.1
+     */
+    public static int findLineEnd(@NonNull ByteBuffer buf, int start)
+    {
+        int limit = buf.limit();
+        int i = start;
+        byte b;
+        for (; i < limit; i++)
+        {
+            b = buf.get(i);
+            if (b == '\n' || b == '\r')
+            {
+                break;
+            }
+        }
+        return i;
+    }
+
+    /**
+     * Returns the end offset (exclusive) of the first token of the specified
+     * key, that is, the index of its first space, or its length if it has none.
+     *
+     * @param key the key; may not be <code>null</code>
+     * @return the end offset of the first token of the key
+     * @since JWI 2.4.1
+     */
+    public static int findTokenEnd(@NonNull String key)
+    {
+        int i = key.indexOf(' ');
+        return i == -1 ? key.length() : i;
+    }
+
+    /**
+     * Compares the bytes in the range [start, end) of the buffer with the
+     * characters in the range [0, keyEnd) of the key, as
+     * {@link String#compareTo(String)} would compare their decoded forms, or,
+     * if <code>ignoreCase</code> is set, their lower-cased forms. As long as
+     * both ranges are 7-bit ASCII, no decoding is needed; otherwise the method
+     * gives up and returns {@link #NON_ASCII}.
+     *
+     * @param buf        the buffer; may not be <code>null</code>
+     * @param start      the start offset of the bytes to compare
+     * @param end        the end offset (exclusive) of the bytes to compare
+     * @param key        the key; may not be <code>null</code>
+     * @param keyEnd     the end offset (exclusive) of the characters to compare
+     * @param ignoreCase whether ASCII letters are compared case-insensitively
+     * @return a negative integer, zero, or a positive integer as the bytes are
+     * less than, equal to, or greater than the characters, or
+     * {@link #NON_ASCII} if the comparison requires decoding
+     * @since JWI 2.4.1
+     */
+    public static int compareAscii(@NonNull ByteBuffer buf, int start, int end, @NonNull String key, int keyEnd, boolean ignoreCase)
+    {
+        int len1 = end - start;
+        int n = Math.min(len1, keyEnd);
+        int b, c;
+        for (int i = 0; i < n; i++)
+        {
+            b = buf.get(start + i);
+            c = key.charAt(i);
+            if (b < 0 || c >= 0x80)
+            {
+                return NON_ASCII;
+            }
+            if (ignoreCase)
+            {
+                b = toLowerCase(b);
+                c = toLowerCase(c);
+            }
+            if (b != c)
+            {
+                return b - c;
+            }
+        }
+
+        // the longer range wins, unless its tail is not ASCII, in which
+        // case case-folding could interfere
+        for (int i = start + n; i < end; i++)
+        {
+            if (buf.get(i) < 0)
+            {
+                return NON_ASCII;
+            }
+        }
+        for (int i = n; i < keyEnd; i++)
+        {
+            if (key.charAt(i) >= 0x80)
+            {
+                return NON_ASCII;
+            }
+        }
+        return len1 - keyEnd;
+    }
+
+    /**
+     * Compares the decimal number in the range [start, end) of the buffer with
+     * the one in the range [0, keyEnd) of the key, as {@link Integer#compare}
+     * would compare their parsed values. The digits are compared in place, one
+     * by one, once their leading zeros are skipped. If either range is empty,
+     * holds a character that is not a decimal digit, or is too long to be
+     * parsed as an <code>int</code> without risk of overflow, the method gives
+     * up and returns {@link #NON_ASCII}.
+     *
+     * @param buf    the buffer; may not be <code>null</code>
+     * @param start  the start offset of the digits of the buffer
+     * @param end    the end offset (exclusive) of the digits of the buffer
+     * @param key    the key; may not be <code>null</code>
+     * @param keyEnd the end offset (exclusive) of the digits of the key
+     * @return -1, 0 or 1 as the number of the buffer is less than, equal to,
+     * or greater than the number of the key, or {@link #NON_ASCII} if the
+     * comparison requires parsing
+     * @since JWI 2.4.1
+     */
+    public static int compareDigits(@NonNull ByteBuffer buf, int start, int end, @NonNull String key, int keyEnd)
+    {
+        if (start >= end || keyEnd <= 0)
+        {
+            return NON_ASCII;
+        }
+
+        // skip the leading zeros, but the last digit
+        int i = start, j = 0;
+        while (i < end - 1 && buf.get(i) == '0')
+        {
+            i++;
+        }
+        while (j < keyEnd - 1 && key.charAt(j) == '0')
+        {
+            j++;
+        }
+        int len1 = end - i, len2 = keyEnd - j;
+        if (len1 > 9 || len2 > 9)
+        {
+            return NON_ASCII;
+        }
+
+        // the number with more digits is the larger one; otherwise the
+        // first digit that differs decides
+        int cmp = Integer.compare(len1, len2);
+        int b, c;
+        for (int k = 0; k < len1 || k < len2; k++)
+        {
+            b = k < len1 ? buf.get(i + k) : '0';
+            c = k < len2 ? key.charAt(j + k) : '0';
+            if (b < '0' || b > '9' || c < '0' || c > '9')
+            {
+                return NON_ASCII;
+            }
+            if (cmp == 0 && b != c)
+            {
+                cmp = b < c ? -1 : 1;
+            }
+        }
+        return cmp;
+    }
+
+    /**
+     * Returns whether the specified comparator class overrides a method of
+     * its string comparison in a subclass of the class that declares the
+     * matching method of its comparison in place. The comparison in place of
+     * such a class may no longer agree with its string comparison, and
+     * should not be used.
+     *
+     * @param cls          the class of the comparator; may not be
+     *                     <code>null</code>
+     * @param stringName   the name of the string comparison method
+     * @param stringParams the parameter types of the string comparison method
+     * @param byteName     the name of the comparison method in place
+     * @param byteParams   the parameter types of the comparison method in
+     *                     place
+     * @return <code>true</code> if the string comparison is overridden below
+     * the comparison in place; <code>false</code> otherwise
+     * @since JWI 2.4.1
+     */
+    public static boolean overridesStringOnly(@NonNull Class<?> cls, @NonNull String stringName, @NonNull Class<?>[] stringParams, @NonNull String byteName, @NonNull Class<?>[] byteParams)
+    {
+        Class<?> stringClass = findDeclaringClass(cls, stringName, stringParams);
+        Class<?> byteClass = findDeclaringClass(cls, byteName, byteParams);
+        return stringClass != null && byteClass != null && stringClass != byteClass && byteClass.isAssignableFrom(stringClass);
+    }
+
+    /**
+     * Returns the class nearest to the specified one, in its superclasses,
+     * that declares the specified method.
+     *
+     * @param cls    the class to start from
+     * @param name   the name of the method
+     * @param params the parameter types of the method
+     * @return the declaring class, or <code>null</code> if there is none
+     */
+    @Nullable
+    private static Class<?> findDeclaringClass(@NonNull Class<?> cls, @NonNull String name, @NonNull Class<?>[] params)
+    {
+        for (Class<?> c = cls; c != null; c = c.getSuperclass())
+        {
+            try
+            {
+                c.getDeclaredMethod(name, params);
+                return c;
+            }
+            catch (NoSuchMethodException e)
+            {
+                // look further up
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Decodes the bytes in the range [start, end) of the buffer with the
+     * specified character set. If the character set is <code>null</code>,
+     * each byte is cast to a char, as {@code WordnetFile.getLine(ByteBuffer)}
+     * does.
+     *
+     * @param buf   the buffer; may not be <code>null</code>
+     * @param start the start offset of the bytes to decode
+     * @param end   the end offset (exclusive) of the bytes to decode
+     * @param cs    the character set; may be <code>null</code>
+     * @return the decoded string
+     * @since JWI 2.4.1
+     */
+    @NonNull
+    public static String decode(@NonNull ByteBuffer buf, int start, int end, @Nullable Charset cs)
+    {
+        if (cs == null)
+        {
+            char[] chars = new char[end - start];
+            for (int i = start; i < end; i++)
+            {
+                chars[i - start] = (char) buf.get(i);
+            }
+            return new String(chars);
+        }
+        ByteBuffer buf2 = buf.duplicate();
+        buf2.limit(end);
+        buf2.position(start);
+        return cs.decode(buf2).toString();
+    }
+
+    /**
+     * Decodes the line that starts at the specified offset of the buffer.
+     *
+     * @param buf   the buffer; may not be <code>null</code>
+     * @param start the offset at which the line starts
+     * @param cs    the character set; may be <code>null</code>
+     * @return the decoded line, without its terminator
+     * @since JWI 2.4.1
+     */
+    @NonNull
+    public static String decodeLine(@NonNull ByteBuffer buf, int start, @Nullable Charset cs)
+    {
+        return decode(buf, start, findLineEnd(buf, start), cs);
+    }
+
+    private static int toLowerCase(int c)
+    {
+        return c >= 'A' && c <= 'Z' ? c + ('a' - 'A') : c;
+    }
+}
@@ -1,6 +1,10 @@
 package edu.mit.jwi.data.compare;
 
 import edu.mit.jwi.NonNull;
+import edu.mit.jwi.Nullable;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
 
 public class Comparators
 {
@@ -27,6 +31,17 @@ public class Comparators
         {
             return lemma1.compareTo(lemma2);
         }
+
+        @Override
+        protected int compareLemmas(@NonNull ByteBuffer buf, int start, int end, @NonNull String lemma, int lemmaEnd, @Nullable Charset cs)
+        {
+            int c = ByteLines.compareAscii(buf, start, end, lemma, lemmaEnd, false);
+            if (c != ByteLines.NON_ASCII)
+            {
+                return c;
+            }
+            return compareLemmas(ByteLines.decode(buf, start, end, cs), lemma.substring(0, lemmaEnd));
+        }
     }
 
     public static class CaseSensitiveSenseKeyLineComparator extends SenseKeyLineComparator
@@ -49,6 +64,17 @@ public class Comparators
         {
             return senseKey1.compareTo(senseKey2);
         }
+
+        @Override
+        protected int compareSenseKeys(@NonNull ByteBuffer buf, int start, int end, @NonNull String senseKey, int senseKeyEnd, @Nullable Charset cs)
+        {
+            int c = ByteLines.compareAscii(buf, start, end, senseKey, senseKeyEnd, false);
+            if (c != ByteLines.NON_ASCII)
+            {
+                return c;
+            }
+            return compareSenseKeys(ByteLines.decode(buf, start, end, cs), senseKey.substring(0, senseKeyEnd));
+        }
     }
 
     /**
@@ -80,5 +106,24 @@ public class Comparators
             }
             return -senseKey1.compareTo(senseKey2);
         }
+
+        @Override
+        protected int compareSenseKeys(@NonNull ByteBuffer buf, int start, int end, @NonNull String senseKey, int senseKeyEnd, @Nullable Charset cs)
+        {
+            int c = ByteLines.compareAscii(buf, start, end, senseKey, senseKeyEnd, true);
+            if (c == 0)
+            {
+                c = ByteLines.compareAscii(buf, start, end, senseKey, senseKeyEnd, false);
+                if (c != ByteLines.NON_ASCII)
+                {
+                    return -c;
+                }
+            }
+            else if (c != ByteLines.NON_ASCII)
+            {
+                return c;
+            }
+            return compareSenseKeys(ByteLines.decode(buf, start, end, cs), senseKey.substring(0, senseKeyEnd));
+        }
     }
 }
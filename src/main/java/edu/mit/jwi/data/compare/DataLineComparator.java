@@ -13,6 +13,9 @@ package edu.mit.jwi.data.compare;
 import edu.mit.jwi.NonNull;
 import edu.mit.jwi.Nullable;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+
 /**
  * <p>
  * A line comparator that captures the ordering of lines in Wordnet data files
@@ -30,7 +33,7 @@ import edu.mit.jwi.Nullable;
  * @version 2.4.0
  * @since JWI 1.0
  */
-public class DataLineComparator implements ILineComparator
+public class DataLineComparator implements IByteLineComparator
 {
     // singleton instance
     private static DataLineComparator instance;
@@ -56,6 +59,9 @@ public class DataLineComparator implements ILineComparator
     @Nullable
     private final CommentComparator detector;
 
+    // whether lines can be compared in place, in agreement with compare
+    private final boolean comparesInPlace;
+
     /**
      * This constructor is marked protected so that the class may be
      * sub-classed, but not directly instantiated. Obtain instances of this
@@ -73,6 +79,10 @@ public class DataLineComparator implements ILineComparator
             throw new NullPointerException();
         }
         this.detector = detector;
+
+        // a subclass that changes the string comparison only would not be
+        // agreed with by the comparison in place
+        this.comparesInPlace = !ByteLines.overridesStringOnly(getClass(), "compare", new Class<?>[]{String.class, String.class}, "compareLine", new Class<?>[]{ByteBuffer.class, int.class, String.class, Charset.class});
     }
 
     /*
@@ -132,6 +142,36 @@ public class DataLineComparator implements ILineComparator
         return 0;
     }
 
+    /*
+     * (non-Javadoc)
+     *
+     * @see edu.edu.mit.jwi.data.compare.IByteLineComparator#compareLine(java.nio.ByteBuffer, int, java.lang.String, java.nio.charset.Charset)
+     */
+    public int compareLine(@NonNull ByteBuffer buf, int start, @NonNull String key, @Nullable Charset cs)
+    {
+        // comment keys are not worth a fast path
+        if (!comparesInPlace || detector.isCommentLine(key))
+        {
+            return compare(ByteLines.decodeLine(buf, start, cs), key);
+        }
+
+        // a comment line comes before the key
+        if (ByteLines.isCommentLine(buf, start))
+        {
+            return -1;
+        }
+
+        // compare the offsets digit by digit; defer anything unusual
+        // to the string comparison
+        int end = ByteLines.findTokenEnd(buf, start);
+        int cmp = ByteLines.compareDigits(buf, start, end, key, ByteLines.findTokenEnd(key));
+        if (cmp == ByteLines.NON_ASCII)
+        {
+            return compare(ByteLines.decodeLine(buf, start, cs), key);
+        }
+        return cmp;
+    }
+
     /*
      * (non-Javadoc)
      *
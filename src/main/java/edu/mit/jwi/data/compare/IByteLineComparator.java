@@ -0,0 +1,53 @@
+/* ******************************************************************************
+ * Java Wordnet Interface Library (JWI) v2.4.0
+ * Copyright (c) 2007-2015 Mark A. Finlayson
+ *
+ * JWI is distributed under the terms of the Creative Commons Attribution 4.0
+ * International Public License, which means it may be freely used for all
+ * purposes, as long as proper acknowledgment is made.  See the license file
+ * included with this distribution for more details.
+ *******************************************************************************/
+
+package edu.mit.jwi.data.compare;
+
+import edu.mit.jwi.NonNull;
+import edu.mit.jwi.Nullable;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+
+/**
+ * A line comparator that can also compare a key against a line that is still
+ * encoded in a byte buffer, so that searches need only decode the line they
+ * are looking for. The result of
+ * {@link #compareLine(ByteBuffer, int, String, Charset)} must have the same
+ * sign as the result of {@link #compare(Object, Object)} called on the decoded
+ * line and the same key.
+ * <p>
+ * Implementations need only handle buffers whose character set is
+ * ASCII-compatible (see {@link ByteLines#isAsciiCompatible(Charset)}).
+ * </p>
+ *
+ * @author Mark A. Finlayson
+ * @version 2.4.0
+ * @since JWI 2.4.1
+ */
+public interface IByteLineComparator extends ILineComparator
+{
+    /**
+     * Compares the line that starts at the specified offset of the buffer with
+     * the specified key. The position of the buffer is not changed.
+     *
+     * @param buf   the buffer holding the line; may not be <code>null</code>
+     * @param start the offset at which the line starts; must be strictly less
+     *              than the buffer limit
+     * @param key   the key to compare the line with; may not be <code>null</code>
+     * @param cs    the character set of the buffer, used when the line cannot
+     *              be compared in place; may be <code>null</code>
+     * @return a negative integer, zero, or a positive integer as the line is
+     * less than, equal to, or greater than the key
+     * @throws NullPointerException if the buffer or key is <code>null</code>
+     * @since JWI 2.4.1
+     */
+    int compareLine(@NonNull ByteBuffer buf, int start, @NonNull String key, @Nullable Charset cs);
+}
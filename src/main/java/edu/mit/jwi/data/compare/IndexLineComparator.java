@@ -13,6 +13,9 @@ package edu.mit.jwi.data.compare;
 import edu.mit.jwi.NonNull;
 import edu.mit.jwi.Nullable;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+
 /**
  * <p>
  * A comparator that captures the ordering of lines in Wordnet index files
@@ -29,7 +32,7 @@ import edu.mit.jwi.Nullable;
  * @version 2.4.0
  * @since JWI 1.0
  */
-public class IndexLineComparator implements ILineComparator
+public class IndexLineComparator implements IByteLineComparator
 {
     // singleton instance
     private static IndexLineComparator instance;
@@ -55,6 +58,9 @@ public class IndexLineComparator implements ILineComparator
     @Nullable
     private final CommentComparator detector;
 
+    // whether lines can be compared in place, in agreement with compare
+    private final boolean comparesInPlace;
+
     /**
      * This constructor is marked protected so that the class may be
      * sub-classed, but not directly instantiated. Obtain instances of this
@@ -72,6 +78,12 @@ public class IndexLineComparator implements ILineComparator
             throw new NullPointerException();
         }
         this.detector = detector;
+
+        // a subclass that changes the string comparison only would not be
+        // agreed with by the comparison in place
+        Class<?>[] strings = new Class<?>[]{String.class, String.class};
+        this.comparesInPlace = !ByteLines.overridesStringOnly(getClass(), "compareLemmas", strings, "compareLemmas", new Class<?>[]{ByteBuffer.class, int.class, int.class, String.class, int.class, Charset.class}) && //
+                !ByteLines.overridesStringOnly(getClass(), "compare", strings, "compareLine", new Class<?>[]{ByteBuffer.class, int.class, String.class, Charset.class});
     }
 
     /*
@@ -118,6 +130,55 @@ public class IndexLineComparator implements ILineComparator
         return compareLemmas(sub1, sub2);
     }
 
+    /*
+     * (non-Javadoc)
+     *
+     * @see edu.edu.mit.jwi.data.compare.IByteLineComparator#compareLine(java.nio.ByteBuffer, int, java.lang.String, java.nio.charset.Charset)
+     */
+    public int compareLine(@NonNull ByteBuffer buf, int start, @NonNull String key, @Nullable Charset cs)
+    {
+        // comment keys are not worth a fast path
+        if (!comparesInPlace || detector.isCommentLine(key))
+        {
+            return compare(ByteLines.decodeLine(buf, start, cs), key);
+        }
+
+        // a comment line comes before the key
+        if (ByteLines.isCommentLine(buf, start))
+        {
+            return -1;
+        }
+
+        int end = ByteLines.findTokenEnd(buf, start);
+        return compareLemmas(buf, start, end, key, ByteLines.findTokenEnd(key), cs);
+    }
+
+    /**
+     * Compare a lemma still encoded in a buffer with a lemma string. This
+     * must be consistent with {@link #compareLemmas(String, String)}, so
+     * subclasses that override one should override the other. Subclasses that
+     * only override the latter have their lines decoded and compared as
+     * strings instead.
+     *
+     * @param buf       the buffer holding the first lemma
+     * @param start     the start offset of the first lemma
+     * @param end       the end offset (exclusive) of the first lemma
+     * @param lemma     the string holding the second lemma
+     * @param lemmaEnd  the end offset (exclusive) of the second lemma
+     * @param cs        the character set of the buffer
+     * @return compare code
+     * @since JWI 2.4.1
+     */
+    protected int compareLemmas(@NonNull ByteBuffer buf, int start, int end, @NonNull String lemma, int lemmaEnd, @Nullable Charset cs)
+    {
+        int cmp = ByteLines.compareAscii(buf, start, end, lemma, lemmaEnd, true);
+        if (cmp != ByteLines.NON_ASCII)
+        {
+            return cmp;
+        }
+        return compareLemmas(ByteLines.decode(buf, start, end, cs), lemma.substring(0, lemmaEnd));
+    }
+
     /**
      * Compare lemmas (overridable if non-standard compare is needed)
      *
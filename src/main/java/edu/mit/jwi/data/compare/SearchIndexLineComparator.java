@@ -10,6 +10,12 @@
 
 package edu.mit.jwi.data.compare;
 
+import edu.mit.jwi.NonNull;
+import edu.mit.jwi.Nullable;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+
 /**
  * <p>
  * A comparator that captures the ordering of lines in Wordnet index files
@@ -78,4 +84,20 @@ public class SearchIndexLineComparator extends IndexLineComparator
         int l = Math.min(lemma1.length(), lemma2.length());
         return lemma1.substring(0, l).compareTo(lemma2.substring(0, l));
     }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see edu.edu.mit.jwi.data.compare.IndexLineComparator#compareLemmas(java.nio.ByteBuffer, int, int, java.lang.String, int, java.nio.charset.Charset)
+     */
+    protected int compareLemmas(@NonNull ByteBuffer buf, int start, int end, @NonNull String lemma, int lemmaEnd, @Nullable Charset cs)
+    {
+        int l = Math.min(end - start, lemmaEnd);
+        int cmp = ByteLines.compareAscii(buf, start, start + l, lemma, l, true);
+        if (cmp != ByteLines.NON_ASCII)
+        {
+            return cmp;
+        }
+        return compareLemmas(ByteLines.decode(buf, start, end, cs), lemma.substring(0, lemmaEnd));
+    }
 }
@@ -13,6 +13,9 @@ package edu.mit.jwi.data.compare;
 import edu.mit.jwi.NonNull;
 import edu.mit.jwi.Nullable;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+
 /**
  * <p>
  * A comparator that captures the ordering of lines in sense index files (e.g.,
@@ -29,7 +32,7 @@ import edu.mit.jwi.Nullable;
  * @version 2.4.0
  * @since JWI 2.1.0
  */
-public class SenseKeyLineComparator implements ILineComparator
+public class SenseKeyLineComparator implements IByteLineComparator
 {
     // singleton instance
     private static SenseKeyLineComparator instance;
@@ -51,6 +54,9 @@ public class SenseKeyLineComparator implements ILineComparator
         return instance;
     }
 
+    // whether lines can be compared in place, in agreement with compare
+    private final boolean comparesInPlace;
+
     /**
      * This constructor is marked protected so that the class may be
      * sub-classed, but not directly instantiated. Obtain instances of this
@@ -60,6 +66,11 @@ public class SenseKeyLineComparator implements ILineComparator
      */
     protected SenseKeyLineComparator()
     {
+        // a subclass that changes the string comparison only would not be
+        // agreed with by the comparison in place
+        Class<?>[] strings = new Class<?>[]{String.class, String.class};
+        this.comparesInPlace = !ByteLines.overridesStringOnly(getClass(), "compareSenseKeys", strings, "compareSenseKeys", new Class<?>[]{ByteBuffer.class, int.class, int.class, String.class, int.class, Charset.class}) && //
+                !ByteLines.overridesStringOnly(getClass(), "compare", strings, "compareLine", new Class<?>[]{ByteBuffer.class, int.class, String.class, Charset.class});
     }
 
     /*
@@ -77,6 +88,47 @@ public class SenseKeyLineComparator implements ILineComparator
         return compareSenseKeys(line1, line2);
     }
 
+    /*
+     * (non-Javadoc)
+     *
+     * @see edu.edu.mit.jwi.data.compare.IByteLineComparator#compareLine(java.nio.ByteBuffer, int, java.lang.String, java.nio.charset.Charset)
+     */
+    public int compareLine(@NonNull ByteBuffer buf, int start, @NonNull String key, @Nullable Charset cs)
+    {
+        if (!comparesInPlace)
+        {
+            return compare(ByteLines.decodeLine(buf, start, cs), key);
+        }
+        int end = ByteLines.findTokenEnd(buf, start);
+        return compareSenseKeys(buf, start, end, key, ByteLines.findTokenEnd(key), cs);
+    }
+
+    /**
+     * Compare a sense key still encoded in a buffer with a sense key string.
+     * This must be consistent with {@link #compareSenseKeys(String, String)},
+     * so subclasses that override one should override the other. Subclasses
+     * that only override the latter have their lines decoded and compared as
+     * strings instead.
+     *
+     * @param buf         the buffer holding the first sense key
+     * @param start       the start offset of the first sense key
+     * @param end         the end offset (exclusive) of the first sense key
+     * @param senseKey    the string holding the second sense key
+     * @param senseKeyEnd the end offset (exclusive) of the second sense key
+     * @param cs          the character set of the buffer
+     * @return compare code
+     * @since JWI 2.4.1
+     */
+    protected int compareSenseKeys(@NonNull ByteBuffer buf, int start, int end, @NonNull String senseKey, int senseKeyEnd, @Nullable Charset cs)
+    {
+        int cmp = ByteLines.compareAscii(buf, start, end, senseKey, senseKeyEnd, true);
+        if (cmp != ByteLines.NON_ASCII)
+        {
+            return cmp;
+        }
+        return compareSenseKeys(ByteLines.decode(buf, start, end, cs), senseKey.substring(0, senseKeyEnd));
+    }
+
     /**
      * Compare senseKeys (overridable if non-standard compare is needed)
      *
@@ -16,6 +16,8 @@ import edu.mit.jwi.item.*;
 import edu.mit.jwi.item.Synset.IWordBuilder;
 import edu.mit.jwi.item.Synset.WordBuilder;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
 import java.util.*;
 
 /**
@@ -33,11 +35,21 @@ import java.util.*;
  * @version 2.4.0
  * @since JWI 1.0
  */
-public class DataLineParser implements ILineParser<ISynset>
+public class DataLineParser implements IByteLineParser<ISynset>
 {
     // singleton instance
     private static DataLineParser instance;
 
+    // whether synsets are parsed lazily
+    private static volatile boolean lazySynsets = false;
+
+    // whether a subclass resolves pointer symbols itself
+    private final boolean customPointers;
+
+    // the parser of the sections of lazy synsets
+    @NonNull
+    private final LazySynset.ISectionParser sections = new Sections();
+
     /**
      * Returns the singleton instance of this class, instantiating it if
      * necessary. The singleton instance will not be <code>null</code>.
@@ -64,6 +76,7 @@ public class DataLineParser implements ILineParser<ISynset>
      */
     protected DataLineParser()
     {
+        customPointers = overridesResolvePointer(getClass(), DataLineParser.class);
     }
 
     /*
@@ -78,24 +91,47 @@ public class DataLineParser implements ILineParser<ISynset>
         {
             throw new NullPointerException();
         }
+        return parse(new LineCursor(line));
+    }
 
+    /*
+     * (non-Javadoc)
+     *
+     * @see edu.edu.mit.jwi.data.parse.IByteLineParser#parseLine(java.nio.ByteBuffer, java.nio.charset.Charset)
+     */
+    @NonNull
+    public ISynset parseLine(@NonNull ByteBuffer line, @Nullable Charset cs)
+    {
+        return parse(new LineCursor(line, cs));
+    }
+
+    /**
+     * Parses the line the specified cursor walks. Only the tokens that are
+     * kept, the lemmas and the gloss, are made into strings. If lazy synsets
+     * are enabled, only the header of the line is parsed.
+     *
+     * @param cursor the cursor, before the first token of the line
+     * @return the synset
+     * @throws MisformattedLineException if the line is malformed
+     */
+    @NonNull
+    private ISynset parse(@NonNull LineCursor cursor)
+    {
         try
         {
-            StringTokenizer tokenizer = new StringTokenizer(line, " ");
-
             // Get offset
-            int offset = Integer.parseInt(tokenizer.nextToken());
+            int offset = cursor.nextInt();
 
             // Consume lex_filenum
-            int lex_filenum = Integer.parseInt(tokenizer.nextToken());
+            int lex_filenum = cursor.nextInt();
             ILexFile lexFile = resolveLexicalFile(lex_filenum);
 
             // Get part of speech
             POS synset_pos;
-            char synset_tag = tokenizer.nextToken().charAt(0);
+            char synset_tag = cursor.nextChar();
             synset_pos = POS.getPartOfSpeech(synset_tag);
 
-            ISynsetID synsetID = new SynsetID(offset, synset_pos);
+            ISynsetID synsetID = IDPool.getSynsetID(offset, synset_pos);
 
             // Determine if it is an adjective satellite
             boolean isAdjSat = (synset_tag == 's');
@@ -109,149 +145,267 @@ public class DataLineParser implements ILineParser<ISynset>
             // 01380721 marine (no antonyms), with satellite 01380926 deep-sea
             boolean isAdjHead = !isAdjSat && lex_filenum == 0;
 
-            // Get word count
-            int wordCount = Integer.parseInt(tokenizer.nextToken(), 16);
+            // the rest of the line is parsed on demand
+            if (lazySynsets)
+            {
+                return new LazySynset(synsetID, lexFile, isAdjSat, isAdjHead, cursor.toString(), sections);
+            }
 
             // Get words
-            String lemma;
-            AdjMarker marker;
-            int lexID;
-            IWordBuilder[] wordProxies = new IWordBuilder[wordCount];
-            for (int i = 0; i < wordCount; i++)
-            {
-                // consume next word
-                lemma = tokenizer.nextToken();
+            int wordCount = cursor.nextInt(16);
+            IWordBuilder[] wordProxies = parseWords(cursor, synset_pos, wordCount);
+
+            // Get pointers
+            Map<IPointer, ArrayList<ISynsetID>> synsetPointerMap = parsePointers(cursor, synset_pos, wordProxies, true);
+
+            // parse verb frames
+            parseFrames(cursor, synset_pos, wordProxies);
+
+            // Get gloss
+            String gloss = parseGloss(cursor);
+
+            // create synset and words
+            List<IWordBuilder> words = Arrays.asList(wordProxies);
+            return new Synset(synsetID, lexFile, isAdjSat, isAdjHead, gloss, words, synsetPointerMap);
+        }
+        catch (@NonNull NumberFormatException | NoSuchElementException e)
+        {
+            throw new MisformattedLineException(cursor.toString(), e);
+        }
+    }
+
+    /**
+     * Parses the words of a line, from the cursor positioned after the word
+     * count.
+     *
+     * @param cursor    the cursor
+     * @param pos       the part of speech of the synset
+     * @param wordCount the number of words
+     * @return the builders of the words
+     */
+    @NonNull
+    private IWordBuilder[] parseWords(@NonNull LineCursor cursor, POS pos, int wordCount)
+    {
+        String lemma;
+        AdjMarker marker;
+        int lexID;
+        int lemmaEnd;
+        String symbol;
+        IWordBuilder[] wordProxies = new IWordBuilder[wordCount];
+        for (int i = 0; i < wordCount; i++)
+        {
+            // consume next word
+            cursor.next();
+            lemmaEnd = cursor.end();
 
-                // if it is an adjective, it may be followed by a marker
-                marker = null;
-                if (synset_pos == POS.ADJECTIVE)
+            // if it is an adjective, it may be followed by a marker
+            marker = null;
+            if (pos == POS.ADJECTIVE)
+            {
+                for (AdjMarker adjMarker : AdjMarker.values())
                 {
-                    for (AdjMarker adjMarker : AdjMarker.values())
+                    symbol = adjMarker.getSymbol();
+                    assert symbol != null;
+                    if (lemmaEnd - cursor.start() >= symbol.length() && cursor.regionMatches(lemmaEnd - symbol.length(), symbol))
                     {
-                        assert adjMarker.getSymbol() != null;
-                        if (lemma.endsWith(adjMarker.getSymbol()))
-                        {
-                            marker = adjMarker;
-                            lemma = lemma.substring(0, lemma.length() - adjMarker.getSymbol().length());
-                        }
+                        marker = adjMarker;
+                        lemmaEnd -= symbol.length();
                     }
                 }
-
-                // parse lex_id
-                lexID = Integer.parseInt(tokenizer.nextToken(), 16);
-
-                wordProxies[i] = new WordBuilder(i + 1, lemma, lexID, marker);
             }
+            lemma = cursor.subSequence(cursor.start(), lemmaEnd);
 
-            // Get pointer count
-            int pointerCount = Integer.parseInt(tokenizer.nextToken());
-
-            Map<IPointer, ArrayList<ISynsetID>> synsetPointerMap = null;
+            // parse lex_id
+            lexID = cursor.nextInt(16);
 
-            // Get pointers
-            IPointer pointer_type;
-            int target_offset;
-            POS target_pos;
-            int source_target_num, source_num, target_num;
-            ArrayList<ISynsetID> pointerList;
-            IWordID target_word_id;
-            ISynsetID target_synset_id;
-            for (int i = 0; i < pointerCount; i++)
-            {
-                // get pointer symbol
-                pointer_type = resolvePointer(tokenizer.nextToken(), synset_pos);
-                assert pointer_type != null;
+            wordProxies[i] = new WordBuilder(i + 1, lemma, lexID, marker);
+        }
+        return wordProxies;
+    }
 
-                // get synset target offset
-                target_offset = Integer.parseInt(tokenizer.nextToken());
+    /**
+     * Parses the pointers of a line, from the cursor positioned before the
+     * pointer count. Lexical pointers are added to the word builders, if
+     * given, and synset pointers are collected, if asked for; the others are
+     * skipped.
+     *
+     * @param cursor        the cursor
+     * @param pos           the part of speech of the synset
+     * @param wordProxies   the builders of the words; may be
+     *                      <code>null</code>
+     * @param synsetTargets whether to collect the synset pointers
+     * @return the synset pointers, or <code>null</code> if there are none or
+     * they were not asked for
+     */
+    @Nullable
+    private Map<IPointer, ArrayList<ISynsetID>> parsePointers(@NonNull LineCursor cursor, POS pos, @Nullable IWordBuilder[] wordProxies, boolean synsetTargets)
+    {
+        // Get pointer count
+        int pointerCount = cursor.nextInt();
+
+        Map<IPointer, ArrayList<ISynsetID>> synsetPointerMap = null;
+
+        // Get pointers
+        IPointer pointer_type;
+        int symbolStart, symbolEnd;
+        int target_offset;
+        POS target_pos;
+        int source_target_num, source_num, target_num;
+        ArrayList<ISynsetID> pointerList;
+        IWordID target_word_id;
+        ISynsetID target_synset_id;
+        for (int i = 0; i < pointerCount; i++)
+        {
+            // get pointer symbol
+            cursor.next();
+            symbolStart = cursor.start();
+            symbolEnd = cursor.end();
 
-                // get target synset part of speech
-                target_pos = POS.getPartOfSpeech(tokenizer.nextToken().charAt(0));
+            // get synset target offset
+            target_offset = cursor.nextInt();
 
-                target_synset_id = new SynsetID(target_offset, target_pos);
+            // get target synset part of speech
+            target_pos = POS.getPartOfSpeech(cursor.nextChar());
 
-                // get source/target numbers
-                source_target_num = Integer.parseInt(tokenizer.nextToken(), 16);
+            // get source/target numbers
+            source_target_num = cursor.nextInt(16);
 
-                // this is a semantic pointer if the source/target numbers are zero
-                if (source_target_num == 0)
+            // this is a semantic pointer if the source/target numbers are zero
+            if (source_target_num == 0)
+            {
+                if (!synsetTargets)
                 {
-                    if (synsetPointerMap == null)
-                    {
-                        synsetPointerMap = new HashMap<>();
-                    }
-                    pointerList = synsetPointerMap.computeIfAbsent(pointer_type, k -> new ArrayList<>());
-                    pointerList.add(target_synset_id);
+                    continue;
                 }
-                else
+                pointer_type = resolvePointer(cursor, symbolStart, symbolEnd, pos);
+                assert pointer_type != null;
+                target_synset_id = IDPool.getSynsetID(target_offset, target_pos);
+                if (synsetPointerMap == null)
                 {
-                    // this is a lexical pointer
-                    source_num = source_target_num / 256;
-                    target_num = source_target_num & 255;
-                    target_word_id = new WordID(target_synset_id, target_num);
-                    wordProxies[source_num - 1].addRelatedWord(pointer_type, target_word_id);
+                    synsetPointerMap = new HashMap<>();
                 }
+                pointerList = synsetPointerMap.computeIfAbsent(pointer_type, k -> new ArrayList<>());
+                pointerList.add(target_synset_id);
             }
-
-            // trim pointer lists
-            if (synsetPointerMap != null)
+            else if (wordProxies != null)
             {
-                for (ArrayList<ISynsetID> list : synsetPointerMap.values())
-                {
-                    list.trimToSize();
-                }
+                // this is a lexical pointer
+                pointer_type = resolvePointer(cursor, symbolStart, symbolEnd, pos);
+                assert pointer_type != null;
+                target_synset_id = IDPool.getSynsetID(target_offset, target_pos);
+                source_num = source_target_num / 256;
+                target_num = source_target_num & 255;
+                target_word_id = IDPool.getWordID(target_synset_id, target_num);
+                wordProxies[source_num - 1].addRelatedWord(pointer_type, target_word_id);
             }
+        }
 
-            // parse verb frames
-            // do not make the field compulsory for verbs with a 00 when no frame is present
-            if (synset_pos == POS.VERB)
+        // trim pointer lists
+        if (synsetPointerMap != null)
+        {
+            for (ArrayList<ISynsetID> list : synsetPointerMap.values())
             {
-                String peekTok = tokenizer.nextToken();
-                if (!peekTok.startsWith("|"))
-                {
-                    int frame_num, word_num;
-                    int verbFrameCount = Integer.parseInt(peekTok);
-                    IVerbFrame frame;
-                    for (int i = 0; i < verbFrameCount; i++)
-                    {
-                        // Consume '+'
-                        tokenizer.nextToken();
-                        // Get frame number
-                        frame_num = Integer.parseInt(tokenizer.nextToken());
-                        frame = resolveVerbFrame(frame_num);
-                        // Get word number
-                        word_num = Integer.parseInt(tokenizer.nextToken(), 16);
-                        if (word_num > 0)
-                        {
-                            wordProxies[word_num - 1].addVerbFrame(frame);
-                        }
-                        else
-                        {
-                            for (IWordBuilder proxy : wordProxies)
-                            {
-                                proxy.addVerbFrame(frame);
-                            }
-                        }
-                    }
-                }
+                list.trimToSize();
             }
+        }
+        return synsetPointerMap;
+    }
 
-            // Get gloss
-            String gloss = "";
-            int index = line.indexOf('|');
-            if (index > 0)
+    /**
+     * Parses the verb frames of a line, if it is a verb line, from the cursor
+     * positioned after the pointers, and adds them to the word builders.
+     *
+     * @param cursor      the cursor
+     * @param pos         the part of speech of the synset
+     * @param wordProxies the builders of the words
+     */
+    private void parseFrames(@NonNull LineCursor cursor, POS pos, @NonNull IWordBuilder[] wordProxies)
+    {
+        // do not make the field compulsory for verbs with a 00 when no frame is present
+        if (pos != POS.VERB || cursor.peek() == '|')
+        {
+            return;
+        }
+        int frame_num, word_num;
+        int verbFrameCount = cursor.nextInt();
+        IVerbFrame frame;
+        for (int i = 0; i < verbFrameCount; i++)
+        {
+            // Consume '+'
+            cursor.next();
+            // Get frame number
+            frame_num = cursor.nextInt();
+            frame = resolveVerbFrame(frame_num);
+            // Get word number
+            word_num = cursor.nextInt(16);
+            if (word_num > 0)
             {
-                gloss = line.substring(index + 2).trim();
+                wordProxies[word_num - 1].addVerbFrame(frame);
             }
+            else
+            {
+                for (IWordBuilder proxy : wordProxies)
+                {
+                    proxy.addVerbFrame(frame);
+                }
+            }
+        }
+    }
 
-            // create synset and words
-            List<IWordBuilder> words = Arrays.asList(wordProxies);
-            return new Synset(synsetID, lexFile, isAdjSat, isAdjHead, gloss, words, synsetPointerMap);
+    /**
+     * Returns the gloss of a line, which follows the first bar at or after
+     * the current token. The gloss is trimmed without an intermediate string.
+     *
+     * @param cursor the cursor
+     * @return the gloss, or the empty string if there is none
+     */
+    @NonNull
+    private static String parseGloss(@NonNull LineCursor cursor)
+    {
+        int index = cursor.indexOf('|', cursor.end());
+        if (index <= 0)
+        {
+            return "";
         }
-        catch (@NonNull NumberFormatException | NoSuchElementException e)
+        int glossStart = Math.min(index + 2, cursor.length());
+        int glossEnd = cursor.length();
+        while (glossStart < glossEnd && cursor.charAt(glossStart) <= ' ')
         {
-            throw new MisformattedLineException(line, e);
+            glossStart++;
         }
+        while (glossEnd > glossStart && cursor.charAt(glossEnd - 1) <= ' ')
+        {
+            glossEnd--;
+        }
+        return cursor.subSequence(glossStart, glossEnd);
+    }
+
+    /**
+     * Get flag to produce lazy synsets.
+     *
+     * @return whether this parser produces {@link LazySynset} objects, which
+     * parse their words, pointers and gloss on first access
+     * @since JWI 2.4.1
+     */
+    public static boolean getLazySynsets()
+    {
+        return lazySynsets;
+    }
+
+    /**
+     * Set flag to produce lazy synsets. Lazy synsets keep their line, and
+     * only parse its words, pointers and gloss when they are first needed,
+     * which saves work when only some of them are used. A malformed line is
+     * then only reported when the malformed section is parsed. The flag
+     * applies to lines parsed after it is set.
+     *
+     * @param flag whether this parser should produce {@link LazySynset}
+     *             objects
+     * @since JWI 2.4.1
+     */
+    public static void setLazySynsets(boolean flag)
+    {
+        lazySynsets = flag;
     }
 
     /**
@@ -322,4 +476,145 @@ public class DataLineParser implements ILineParser<ISynset>
     {
         return Pointer.getPointerType(symbol, pos);
     }
+
+    /**
+     * <p>
+     * Retrieves the pointer objects for the {@link #parseLine(String)} method,
+     * from the symbol found in the specified range of the line. Unless a
+     * subclass overrides {@link #resolvePointer(String, POS)}, in which case
+     * that method is called, the symbol is looked up without making a string
+     * of it.
+     * </p>
+     *
+     * @param chars the characters holding the symbol; may not be
+     *              <code>null</code>
+     * @param start the offset at which the symbol starts
+     * @param end   the offset at which the symbol ends (exclusive)
+     * @param pos   the part of speech of the pointer to return, can be
+     *              <code>null</code> unless the pointer symbol is ambiguous
+     * @return the pointer corresponding to the specified symbol and part of
+     * speech combination
+     * @throws IllegalArgumentException if the symbol and part of speech combination does not
+     *                                  correspond to a known pointer
+     * @since JWI 2.4.1
+     */
+    @Nullable
+    protected IPointer resolvePointer(@NonNull CharSequence chars, int start, int end, POS pos)
+    {
+        if (customPointers)
+        {
+            return resolvePointer(chars.subSequence(start, end).toString(), pos);
+        }
+        return Pointer.getPointerType(chars, start, end, pos);
+    }
+
+    /**
+     * Returns whether the specified class, or one of its superclasses below
+     * the specified base class, declares a
+     * <code>resolvePointer(String, POS)</code> method, overriding the one of
+     * the base class.
+     *
+     * @param c    the class to check
+     * @param base the class declaring the method
+     * @return <code>true</code> if the method is overridden
+     */
+    static boolean overridesResolvePointer(Class<?> c, Class<?> base)
+    {
+        for (; c != base && c != null; c = c.getSuperclass())
+        {
+            try
+            {
+                c.getDeclaredMethod("resolvePointer", String.class, POS.class);
+                return true;
+            }
+            catch (NoSuchMethodException e)
+            {
+                // keep looking
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Parses the sections of the lines of lazy synsets, with the methods of
+     * the enclosing parser, so that subclasses resolve pointers, frames and
+     * lexical files in the same way for lazy synsets.
+     */
+    private class Sections implements LazySynset.ISectionParser
+    {
+        /*
+         * (non-Javadoc)
+         *
+         * @see edu.edu.mit.jwi.item.LazySynset.ISectionParser#parseWords(java.lang.String)
+         */
+        @NonNull
+        public List<IWordBuilder> parseWords(@NonNull String line)
+        {
+            LineCursor cursor = new LineCursor(line);
+            try
+            {
+                POS pos = skipHeader(cursor);
+                IWordBuilder[] wordProxies = DataLineParser.this.parseWords(cursor, pos, cursor.nextInt(16));
+                parsePointers(cursor, pos, wordProxies, false);
+                parseFrames(cursor, pos, wordProxies);
+                return Arrays.asList(wordProxies);
+            }
+            catch (@NonNull NumberFormatException | NoSuchElementException e)
+            {
+                throw new MisformattedLineException(line, e);
+            }
+        }
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see edu.edu.mit.jwi.item.LazySynset.ISectionParser#parseRelated(java.lang.String)
+         */
+        @Nullable
+        public Map<IPointer, ArrayList<ISynsetID>> parseRelated(@NonNull String line)
+        {
+            LineCursor cursor = new LineCursor(line);
+            try
+            {
+                POS pos = skipHeader(cursor);
+
+                // skip the words and their lexical ids
+                for (int i = 2 * cursor.nextInt(16); i > 0; i--)
+                {
+                    cursor.next();
+                }
+                return parsePointers(cursor, pos, null, true);
+            }
+            catch (@NonNull NumberFormatException | NoSuchElementException e)
+            {
+                throw new MisformattedLineException(line, e);
+            }
+        }
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see edu.edu.mit.jwi.item.LazySynset.ISectionParser#parseGloss(java.lang.String)
+         */
+        @NonNull
+        public String parseGloss(@NonNull String line)
+        {
+            return DataLineParser.parseGloss(new LineCursor(line));
+        }
+
+        /**
+         * Skips the offset and lexical file number of a line, and returns its
+         * part of speech.
+         *
+         * @param cursor the cursor, before the first token of the line
+         * @return the part of speech of the synset
+         */
+        @Nullable
+        private POS skipHeader(@NonNull LineCursor cursor)
+        {
+            cursor.next();
+            cursor.next();
+            return POS.getPartOfSpeech(cursor.nextChar());
+        }
+    }
 }
@@ -15,6 +15,10 @@ import edu.mit.jwi.Nullable;
 import edu.mit.jwi.item.ExceptionEntryProxy;
 import edu.mit.jwi.item.IExceptionEntryProxy;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.regex.Pattern;
 
 /**
@@ -36,7 +40,7 @@ import java.util.regex.Pattern;
  * @version 2.4.0
  * @since JWI 1.0
  */
-public class ExceptionLineParser implements ILineParser<IExceptionEntryProxy>
+public class ExceptionLineParser implements IByteLineParser<IExceptionEntryProxy>
 {
     // singleton instance
     private static ExceptionLineParser instance;
@@ -100,4 +104,41 @@ public class ExceptionLineParser implements ILineParser<IExceptionEntryProxy>
         }
         return new ExceptionEntryProxy(surface, trimmed);
     }
+
+    /**
+     * Splits the line around single spaces, as the pattern the string
+     * version of this method splits lines with does, and decodes the forms.
+     *
+     * @see edu.mit.jwi.data.parse.IByteLineParser#parseLine(java.nio.ByteBuffer, java.nio.charset.Charset)
+     */
+    @NonNull
+    public IExceptionEntryProxy parseLine(@NonNull ByteBuffer line, @Nullable Charset cs)
+    {
+        LineCursor cursor = new LineCursor(line, cs);
+
+        // trailing empty forms are dropped
+        int length = cursor.length();
+        while (length > 0 && cursor.charAt(length - 1) == ' ')
+        {
+            length--;
+        }
+        List<String> forms = new ArrayList<>(4);
+        int start = 0;
+        for (int i = 0; i <= length; i++)
+        {
+            if (i == length || cursor.charAt(i) == ' ')
+            {
+                forms.add(cursor.subSequence(start, i).trim());
+                start = i + 1;
+            }
+        }
+        if (forms.size() < 2)
+        {
+            throw new MisformattedLineException(cursor.toString());
+        }
+
+        String surface = forms.get(0);
+        String[] trimmed = forms.subList(1, forms.size()).toArray(new String[0]);
+        return new ExceptionEntryProxy(surface, trimmed);
+    }
 }
@@ -0,0 +1,52 @@
+/* ******************************************************************************
+ * Java Wordnet Interface Library (JWI) v2.4.0
+ * Copyright (c) 2007-2015 Mark A. Finlayson
+ *
+ * JWI is distributed under the terms of the Creative Commons Attribution 4.0
+ * International Public License, which means it may be freely used for all
+ * purposes, as long as proper acknowledgment is made.  See the license file
+ * included with this distribution for more details.
+ *******************************************************************************/
+
+package edu.mit.jwi.data.parse;
+
+import edu.mit.jwi.NonNull;
+import edu.mit.jwi.Nullable;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+
+/**
+ * A line parser that can also parse lines straight from the bytes of a data
+ * source, without decoding them into strings first. Only the parts of the
+ * line that the parsed object keeps, such as lemmas and glosses, are decoded.
+ *
+ * @param <T> the type of the object into which this parser transforms lines
+ * @author Mark A. Finlayson
+ * @version 2.4.0
+ * @since JWI 2.4.1
+ */
+public interface IByteLineParser<T> extends ILineParser<T>
+{
+    /**
+     * Given the line of data held in the specified buffer, from its position
+     * to its limit, this method produces an object of class <code>T</code>,
+     * equal to the one {@link #parseLine(String)} produces from the decoded
+     * line. The parsed object must not keep a reference to the buffer, which
+     * may be released once this method returns. The position of the buffer
+     * may be changed.
+     *
+     * @param line the buffer holding the line, without its terminator; may
+     *             not be <code>null</code>
+     * @param cs   the character set of the line, which must encode spaces,
+     *             digits and the other characters that structure Wordnet
+     *             lines as ASCII does; may be <code>null</code>, in which case
+     *             each byte is taken as a char
+     * @return the object resulting from the parse
+     * @throws NullPointerException      if the specified buffer is <code>null</code>
+     * @throws MisformattedLineException if the line is malformed in some way
+     * @since JWI 2.4.1
+     */
+    @Nullable
+    T parseLine(@NonNull ByteBuffer line, @Nullable Charset cs);
+}
@@ -14,7 +14,8 @@ import edu.mit.jwi.NonNull;
 import edu.mit.jwi.Nullable;
 import edu.mit.jwi.item.*;
 
-import java.util.StringTokenizer;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
 
 /**
  * <p>
@@ -30,11 +31,14 @@ import java.util.StringTokenizer;
  * @version 2.4.0
  * @since JWI 1.0
  */
-public class IndexLineParser implements ILineParser<IIndexWord>
+public class IndexLineParser implements IByteLineParser<IIndexWord>
 {
     // singleton instance
     private static IndexLineParser instance;
 
+    // whether a subclass resolves pointer symbols itself
+    private final boolean customPointers;
+
     /**
      * Returns the singleton instance of this class, instantiating it if
      * necessary. The singleton instance will not be <code>null</code>.
@@ -61,6 +65,7 @@ public class IndexLineParser implements ILineParser<IIndexWord>
      */
     protected IndexLineParser()
     {
+        customPointers = DataLineParser.overridesResolvePointer(getClass(), IndexLineParser.class);
     }
 
     /*
@@ -75,50 +80,72 @@ public class IndexLineParser implements ILineParser<IIndexWord>
         {
             throw new NullPointerException();
         }
+        return parse(new LineCursor(line));
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see edu.edu.mit.jwi.data.parse.IByteLineParser#parseLine(java.nio.ByteBuffer, java.nio.charset.Charset)
+     */
+    @NonNull
+    public IIndexWord parseLine(@NonNull ByteBuffer line, @Nullable Charset cs)
+    {
+        return parse(new LineCursor(line, cs));
+    }
 
+    /**
+     * Parses the line the specified cursor walks. Only the lemma is made
+     * into a string.
+     *
+     * @param cursor the cursor, before the first token of the line
+     * @return the index word
+     * @throws MisformattedLineException if the line is malformed
+     */
+    @NonNull
+    private IIndexWord parse(@NonNull LineCursor cursor)
+    {
         try
         {
-            StringTokenizer tokenizer = new StringTokenizer(line, " ");
-
             // get lemma
-            String lemma = tokenizer.nextToken();
+            String lemma = cursor.nextToken();
 
             // get pos
-            String posSym = tokenizer.nextToken();
-            POS pos = POS.getPartOfSpeech(posSym.charAt(0));
+            POS pos = POS.getPartOfSpeech(cursor.nextChar());
 
             // consume synset_cnt
-            tokenizer.nextToken();
+            cursor.next();
 
             // consume ptr_symbols
-            int p_cnt = Integer.parseInt(tokenizer.nextToken());
+            int p_cnt = cursor.nextInt();
             IPointer[] ptrs = new IPointer[p_cnt];
-            String tok;
             for (int i = 0; i < p_cnt; ++i)
             {
-                tok = tokenizer.nextToken();
-                ptrs[i] = resolvePointer(tok, pos);
+                cursor.next();
+                ptrs[i] = customPointers ?
+                        resolvePointer(cursor.subSequence(cursor.start(), cursor.end()), pos) :
+                        Pointer.getPointerType(cursor, cursor.start(), cursor.end(), pos);
             }
 
             // get sense_cnt
-            int senseCount = Integer.parseInt(tokenizer.nextToken());
+            int senseCount = cursor.nextInt();
 
             // get tagged sense count
-            int tagSenseCnt = Integer.parseInt(tokenizer.nextToken());
+            int tagSenseCnt = cursor.nextInt();
 
             // get words
             IWordID[] words = new IWordID[senseCount];
             int offset;
             for (int i = 0; i < senseCount; i++)
             {
-                offset = Integer.parseInt(tokenizer.nextToken());
-                words[i] = new WordID(new SynsetID(offset, pos), lemma);
+                offset = cursor.nextInt();
+                words[i] = IDPool.getWordID(IDPool.getSynsetID(offset, pos), lemma);
             }
             return new IndexWord(lemma, pos, tagSenseCnt, ptrs, words);
         }
         catch (Exception e)
         {
-            throw new MisformattedLineException(line, e);
+            throw new MisformattedLineException(cursor.toString(), e);
         }
     }
 
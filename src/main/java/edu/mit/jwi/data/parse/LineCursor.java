@@ -0,0 +1,450 @@
+/* ******************************************************************************
+ * Java Wordnet Interface Library (JWI) v2.4.0
+ * Copyright (c) 2007-2015 Mark A. Finlayson
+ *
+ * JWI is distributed under the terms of the Creative Commons Attribution 4.0
+ * International Public License, which means it may be freely used for all
+ * purposes, as long as proper acknowledgment is made.  See the license file
+ * included with this distribution for more details.
+ *******************************************************************************/
+
+package edu.mit.jwi.data.parse;
+
+import edu.mit.jwi.NonNull;
+import edu.mit.jwi.Nullable;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.NoSuchElementException;
+
+/**
+ * A cursor over the space-separated tokens of a line. Unlike a
+ * {@link java.util.StringTokenizer}, the cursor does not make a string of each
+ * token: numbers are parsed in place, and the bounds of the current token are
+ * available to look symbols up without copying them. Only tokens that are
+ * kept, such as lemmas, need be made into strings.
+ * <p>
+ * The line is either a string, or the undecoded bytes of a line in a buffer,
+ * in a character set in which spaces, digits and the other characters that
+ * structure Wordnet lines are encoded as in ASCII. In the latter case, the
+ * characters of the sequence are the bytes of the line, and only the strings
+ * made from the line with {@link #subSequence(int, int)} are decoded.
+ * </p>
+ *
+ * @author Mark A. Finlayson
+ * @version 2.4.0
+ * @since JWI 2.4.1
+ */
+public final class LineCursor implements CharSequence
+{
+    // the line, either as a string or as bytes
+    @Nullable
+    private final String line;
+    @Nullable
+    private final ByteBuffer buf;
+    @Nullable
+    private final Charset cs;
+    private final int base;
+    private final int length;
+
+    // the array into which tokens of buffers without one are copied
+    @Nullable
+    private byte[] scratch;
+
+    // the bounds of the current token
+    private int start;
+    private int end;
+
+    /**
+     * Constructs a cursor before the first token of the specified line.
+     *
+     * @param line the line; may not be <code>null</code>
+     * @throws NullPointerException if the line is <code>null</code>
+     * @since JWI 2.4.1
+     */
+    public LineCursor(@NonNull String line)
+    {
+        this.line = line;
+        this.buf = null;
+        this.cs = null;
+        this.base = 0;
+        this.length = line.length();
+    }
+
+    /**
+     * Constructs a cursor before the first token of the line held in the
+     * specified buffer, from its position to its limit. The buffer is not
+     * copied, and must not be changed while the cursor is in use.
+     *
+     * @param buf the buffer holding the line, without its terminator; may not
+     *            be <code>null</code>
+     * @param cs  the character set of the line, which must encode the
+     *            characters of the line structure as ASCII does; may be
+     *            <code>null</code>, in which case each byte is cast to a char
+     * @throws NullPointerException if the buffer is <code>null</code>
+     * @since JWI 2.4.1
+     */
+    public LineCursor(@NonNull ByteBuffer buf, @Nullable Charset cs)
+    {
+        this.line = null;
+        this.buf = buf;
+        this.cs = cs;
+        this.base = buf.position();
+        this.length = buf.limit() - base;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see java.lang.CharSequence#length()
+     */
+    public int length()
+    {
+        return length;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see java.lang.CharSequence#charAt(int)
+     */
+    public char charAt(int index)
+    {
+        if (line != null)
+        {
+            return line.charAt(index);
+        }
+        if (index < 0 || index >= length)
+        {
+            throw new IndexOutOfBoundsException(String.valueOf(index));
+        }
+        assert buf != null;
+        return (char) buf.get(base + index);
+    }
+
+    /**
+     * Returns the specified range of the line, as a string. Bytes are
+     * decoded with the character set of the line.
+     *
+     * @see java.lang.CharSequence#subSequence(int, int)
+     */
+    @NonNull
+    public String subSequence(int from, int to)
+    {
+        if (line != null)
+        {
+            return line.substring(from, to);
+        }
+        if (from < 0 || to > length || from > to)
+        {
+            throw new IndexOutOfBoundsException(from + ", " + to);
+        }
+        assert buf != null;
+        int len = to - from;
+        boolean ascii = true;
+        for (int i = base + from; ascii && i < base + to; i++)
+        {
+            ascii = buf.get(i) >= 0;
+        }
+
+        // heap buffers are decoded in place; others are copied once into a
+        // scratch array that is reused across tokens
+        byte[] bytes;
+        int offset;
+        if (buf.hasArray())
+        {
+            bytes = buf.array();
+            offset = buf.arrayOffset() + base + from;
+        }
+        else
+        {
+            if (scratch == null || scratch.length < len)
+            {
+                scratch = new byte[Math.max(len, 64)];
+            }
+            bytes = scratch;
+            offset = 0;
+            for (int i = 0; i < len; i++)
+            {
+                bytes[i] = buf.get(base + from + i);
+            }
+        }
+        if (ascii)
+        {
+            return new String(bytes, offset, len, StandardCharsets.ISO_8859_1);
+        }
+        if (cs != null)
+        {
+            return new String(bytes, offset, len, cs);
+        }
+        char[] chars = new char[len];
+        for (int i = 0; i < len; i++)
+        {
+            chars[i] = (char) bytes[offset + i];
+        }
+        return new String(chars);
+    }
+
+    /**
+     * Returns the whole line, as a string.
+     *
+     * @see java.lang.Object#toString()
+     */
+    @NonNull
+    public String toString()
+    {
+        return line != null ? line : subSequence(0, length);
+    }
+
+    /**
+     * Returns whether the specified string occurs in the line at the
+     * specified offset.
+     *
+     * @param offset the offset in the line
+     * @param s      the string to look for; may not be <code>null</code>
+     * @return <code>true</code> if the line holds the string at the offset
+     * @since JWI 2.4.1
+     */
+    public boolean regionMatches(int offset, @NonNull String s)
+    {
+        if (line != null)
+        {
+            return line.startsWith(s, offset);
+        }
+        if (offset < 0 || offset + s.length() > length)
+        {
+            return false;
+        }
+        for (int i = 0; i < s.length(); i++)
+        {
+            if (charAt(offset + i) != s.charAt(i))
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the offset of the first occurrence of the specified character
+     * at or after the specified offset.
+     *
+     * @param c    the character, which must be an ASCII character when the
+     *             line is held as bytes
+     * @param from the offset to start from
+     * @return the offset of the character, or -1 if it does not occur
+     * @since JWI 2.4.1
+     */
+    public int indexOf(char c, int from)
+    {
+        if (line != null)
+        {
+            return line.indexOf(c, from);
+        }
+        for (int i = Math.max(0, from); i < length; i++)
+        {
+            if (charAt(i) == c)
+            {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the offset at which the current token starts.
+     *
+     * @return the start of the current token
+     * @since JWI 2.4.1
+     */
+    public int start()
+    {
+        return start;
+    }
+
+    /**
+     * Returns the offset at which the current token ends, which is also the
+     * position from which the next token is looked for.
+     *
+     * @return the end (exclusive) of the current token
+     * @since JWI 2.4.1
+     */
+    public int end()
+    {
+        return end;
+    }
+
+    /**
+     * Returns whether there is a token after the current one.
+     *
+     * @return <code>true</code> if there is another token; <code>false</code>
+     * otherwise
+     * @since JWI 2.4.1
+     */
+    public boolean hasNext()
+    {
+        return skipSpaces(end) < length;
+    }
+
+    /**
+     * Moves to the next token.
+     *
+     * @return this cursor, for chaining
+     * @throws NoSuchElementException if there is no more token
+     * @since JWI 2.4.1
+     */
+    @NonNull
+    public LineCursor next()
+    {
+        int i = skipSpaces(end);
+        if (i == length)
+        {
+            throw new NoSuchElementException();
+        }
+        start = i;
+        while (i < length && charAt(i) != ' ')
+        {
+            i++;
+        }
+        end = i;
+        return this;
+    }
+
+    /**
+     * Returns the first character of the next token, without moving to it.
+     *
+     * @return the first character of the next token
+     * @throws NoSuchElementException if there is no more token
+     * @since JWI 2.4.1
+     */
+    public char peek()
+    {
+        int i = skipSpaces(end);
+        if (i == length)
+        {
+            throw new NoSuchElementException();
+        }
+        return charAt(i);
+    }
+
+    /**
+     * Moves to the next token and returns its first character.
+     *
+     * @return the first character of the next token
+     * @throws NoSuchElementException if there is no more token
+     * @since JWI 2.4.1
+     */
+    public char nextChar()
+    {
+        return next().charAt(start);
+    }
+
+    /**
+     * Moves to the next token and returns it as a string.
+     *
+     * @return the next token
+     * @throws NoSuchElementException if there is no more token
+     * @since JWI 2.4.1
+     */
+    @NonNull
+    public String nextToken()
+    {
+        next();
+        return subSequence(start, end);
+    }
+
+    /**
+     * Moves to the next token and parses it as a decimal integer.
+     *
+     * @return the value of the next token
+     * @throws NoSuchElementException if there is no more token
+     * @throws NumberFormatException  if the token is not an integer
+     * @since JWI 2.4.1
+     */
+    public int nextInt()
+    {
+        return nextInt(10);
+    }
+
+    /**
+     * Moves to the next token and parses it as an integer in the specified
+     * radix, as {@link Integer#parseInt(String, int)} does, but without
+     * making a string of it.
+     *
+     * @param radix the radix, between {@link Character#MIN_RADIX} and
+     *              {@link Character#MAX_RADIX}
+     * @return the value of the next token
+     * @throws NoSuchElementException if there is no more token
+     * @throws NumberFormatException  if the token is not an integer
+     * @since JWI 2.4.1
+     */
+    public int nextInt(int radix)
+    {
+        next();
+        int i = start;
+        boolean negative = false;
+        char c = charAt(i);
+        if (c == '-' || c == '+')
+        {
+            negative = c == '-';
+            i++;
+        }
+        if (i == end)
+        {
+            throw numberFormat();
+        }
+        long value = 0;
+        int digit;
+        for (; i < end; i++)
+        {
+            digit = Character.digit(charAt(i), radix);
+            if (digit < 0)
+            {
+                throw numberFormat();
+            }
+            value = value * radix + digit;
+            if (value > (long) Integer.MAX_VALUE + 1)
+            {
+                throw numberFormat();
+            }
+        }
+        if (negative)
+        {
+            value = -value;
+        }
+        if (value > Integer.MAX_VALUE)
+        {
+            throw numberFormat();
+        }
+        return (int) value;
+    }
+
+    /**
+     * Returns the offset of the first character that is not a space, at or
+     * after the specified offset.
+     *
+     * @param i the offset to start from
+     * @return the offset of the first non-space character, or the length of
+     * the line
+     */
+    private int skipSpaces(int i)
+    {
+        while (i < length && charAt(i) == ' ')
+        {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * Returns an exception for the current token, which is not a number.
+     *
+     * @return the exception
+     */
+    @NonNull
+    private NumberFormatException numberFormat()
+    {
+        return new NumberFormatException("For input string: \"" + subSequence(start, end) + "\"");
+    }
+}
@@ -16,6 +16,8 @@ import edu.mit.jwi.item.ISenseEntry;
 import edu.mit.jwi.item.ISenseKey;
 import edu.mit.jwi.item.SenseEntry;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
 import java.util.StringTokenizer;
 
 /**
@@ -30,7 +32,7 @@ import java.util.StringTokenizer;
  * @version 2.4.0
  * @since JWI 2.1.0
  */
-public class SenseLineParser implements ILineParser<ISenseEntry>
+public class SenseLineParser implements IByteLineParser<ISenseEntry>
 {
     // singleton instance
     private static SenseLineParser instance;
@@ -118,6 +120,33 @@ public class SenseLineParser implements ILineParser<ISenseEntry>
         }
     }
 
+    /*
+     * (non-Javadoc)
+     *
+     * @see edu.edu.mit.jwi.data.parse.IByteLineParser#parseLine(java.nio.ByteBuffer, java.nio.charset.Charset)
+     */
+    @NonNull
+    public ISenseEntry parseLine(@NonNull ByteBuffer line, @Nullable Charset cs)
+    {
+        LineCursor cursor = new LineCursor(line, cs);
+        try
+        {
+            // get sense key
+            assert keyParser != null;
+            ISenseKey senseKey = keyParser.parseLine(cursor.nextToken());
+
+            // get offset, sense number and tag cnt
+            int synsetOffset = cursor.nextInt();
+            int senseNumber = cursor.nextInt();
+            int tagCnt = cursor.nextInt();
+            return new SenseEntry(senseKey, synsetOffset, senseNumber, tagCnt);
+        }
+        catch (Exception e)
+        {
+            throw new MisformattedLineException(cursor.toString(), e);
+        }
+    }
+
     @NonNull
     protected static SenseEntry parseSenseEntry(@NonNull StringTokenizer tokenizer, ISenseKey senseKey)
     {
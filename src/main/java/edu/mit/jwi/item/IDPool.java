@@ -0,0 +1,300 @@
+/* ******************************************************************************
+ * Java Wordnet Interface Library (JWI) v2.4.0
+ * Copyright (c) 2007-2015 Mark A. Finlayson
+ *
+ * JWI is distributed under the terms of the Creative Commons Attribution 4.0
+ * International Public License, which means it may be freely used for all
+ * purposes, as long as proper acknowledgment is made.  See the license file
+ * included with this distribution for more details.
+ *******************************************************************************/
+
+package edu.mit.jwi.item;
+
+import edu.mit.jwi.NonNull;
+import edu.mit.jwi.Nullable;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * <p>
+ * Factory that hands out shared instances of synset ids, word ids and sense
+ * keys. Parsers create their ids through this class, so that the same id,
+ * named by many pointers, index words and synsets, is held once and compares
+ * equal to itself by identity.
+ * </p>
+ * <p>
+ * The pool is a fixed number of slots per kind of id, and each id may only
+ * sit in the slot its hash selects. An id that finds its slot taken by a
+ * different id replaces it, so the pool never grows and never holds ids that
+ * are no longer used elsewhere for long. Ids obtained from the pool are
+ * therefore usually, but not always, shared; they must still be compared with
+ * <code>equals</code>.
+ * </p>
+ * <p>
+ * Pooling is disabled until a size is set with {@link #setPoolSize(int)}.
+ * The pool is shared by all dictionaries of the virtual machine, and keeps the
+ * ids in its slots reachable after the dictionaries that made them are
+ * closed, until they are replaced or the pool is cleared with {@link #clear()}
+ * or disabled.
+ * </p>
+ * <p>
+ * This class is thread-safe.
+ * </p>
+ *
+ * @author Mark A. Finlayson
+ * @version 2.4.0
+ * @since JWI 2.4.1
+ */
+public final class IDPool
+{
+    /**
+     * A suggested number of slots per kind of id, for pooling the ids of a
+     * full Wordnet.
+     *
+     * @since JWI 2.4.1
+     */
+    public static final int DEFAULT_POOL_SIZE = 1 << 16;
+
+    // the slots, or null when pooling is disabled
+    @Nullable
+    private static volatile Slots slots;
+
+    /**
+     * This class is not instantiable.
+     */
+    private IDPool()
+    {
+    }
+
+    /**
+     * Returns the number of slots per kind of id; <code>0</code> if pooling
+     * is disabled, as it is by default.
+     *
+     * @return the number of slots per kind of id
+     * @since JWI 2.4.1
+     */
+    public static int getPoolSize()
+    {
+        Slots s = slots;
+        return s == null ? 0 : s.mask + 1;
+    }
+
+    /**
+     * Sets the number of slots per kind of id, emptying the pool. The size is
+     * rounded up to a power of two; <code>0</code> disables pooling, in which
+     * case each call creates a new id.
+     *
+     * @param size the number of slots per kind of id
+     * @throws IllegalArgumentException if the size is negative or larger than
+     *                                  <code>2^30</code>
+     * @since JWI 2.4.1
+     */
+    public static void setPoolSize(int size)
+    {
+        if (size < 0 || size > 1 << 30)
+        {
+            throw new IllegalArgumentException();
+        }
+        slots = size == 0 ? null : new Slots(size);
+    }
+
+    /**
+     * Empties the pool, keeping its size.
+     *
+     * @since JWI 2.4.1
+     */
+    public static void clear()
+    {
+        setPoolSize(getPoolSize());
+    }
+
+    /**
+     * Returns a synset id with the specified offset and part of speech.
+     *
+     * @param offset the offset
+     * @param pos    the part of speech; may not be <code>null</code>
+     * @return a synset id equal to <code>new SynsetID(offset, pos)</code>
+     * @throws NullPointerException     if the specified part of speech is <code>null</code>
+     * @throws IllegalArgumentException if the specified offset is not a legal offset
+     * @since JWI 2.4.1
+     */
+    @NonNull
+    public static ISynsetID getSynsetID(int offset, @NonNull POS pos)
+    {
+        Slots s = slots;
+        if (s == null)
+        {
+            return new SynsetID(offset, pos);
+        }
+        int i = s.index(31 * offset + pos.ordinal());
+        ISynsetID id = s.synsetIDs.get(i);
+        if (id != null && id.getOffset() == offset && id.getPOS() == pos)
+        {
+            return id;
+        }
+        id = new SynsetID(offset, pos);
+        s.synsetIDs.set(i, id);
+        return id;
+    }
+
+    /**
+     * Returns a word id with the specified synset id and word number, and no
+     * lemma.
+     *
+     * @param id  the synset id; may not be <code>null</code>
+     * @param num the word number
+     * @return a word id equal to <code>new WordID(id, num)</code>
+     * @throws NullPointerException     if the synset id is <code>null</code>
+     * @throws IllegalArgumentException if the word number is not legal
+     * @since JWI 2.4.1
+     */
+    @NonNull
+    public static IWordID getWordID(@NonNull ISynsetID id, int num)
+    {
+        Slots s = slots;
+        if (s == null)
+        {
+            return new WordID(id, num);
+        }
+        int i = s.index(31 * id.hashCode() + num);
+        IWordID wid = s.wordIDs.get(i);
+        if (wid != null && wid.getWordNumber() == num && wid.getLemma() == null && id.equals(wid.getSynsetID()))
+        {
+            return wid;
+        }
+        wid = new WordID(id, num);
+        s.wordIDs.set(i, wid);
+        return wid;
+    }
+
+    /**
+     * Returns a word id with the specified synset id and lemma, and an
+     * unknown word number.
+     *
+     * @param id    the synset id; may not be <code>null</code>
+     * @param lemma the lemma; may not be <code>null</code>, empty, or all
+     *              whitespace
+     * @return a word id equal to <code>new WordID(id, lemma)</code>
+     * @throws NullPointerException     if the synset id or lemma is <code>null</code>
+     * @throws IllegalArgumentException if the lemma is empty or all whitespace
+     * @since JWI 2.4.1
+     */
+    @NonNull
+    public static IWordID getWordID(@NonNull ISynsetID id, @NonNull String lemma)
+    {
+        return getWordID(id, -1, lemma);
+    }
+
+    /**
+     * Returns a fully specified word id.
+     *
+     * @param id    the synset id; may not be <code>null</code>
+     * @param num   the word number, or <code>-1</code> if it is unknown
+     * @param lemma the lemma; may not be <code>null</code>, empty, or all
+     *              whitespace
+     * @return a word id equal to <code>new WordID(id, num, lemma)</code>
+     * @throws NullPointerException     if the synset id or lemma is <code>null</code>
+     * @throws IllegalArgumentException if the lemma is empty or all
+     *                                  whitespace, or the word number is not legal
+     * @since JWI 2.4.1
+     */
+    @NonNull
+    public static IWordID getWordID(@NonNull ISynsetID id, int num, @NonNull String lemma)
+    {
+        Slots s = slots;
+        if (s == null)
+        {
+            return makeWordID(id, num, lemma);
+        }
+        int i = s.index(31 * (31 * id.hashCode() + num) + lemma.hashCode());
+        IWordID wid = s.wordIDs.get(i);
+        if (wid != null && wid.getWordNumber() == num && lemma.equals(wid.getLemma()) && id.equals(wid.getSynsetID()))
+        {
+            return wid;
+        }
+        wid = makeWordID(id, num, lemma);
+        s.wordIDs.set(i, wid);
+        return wid;
+    }
+
+    /**
+     * Returns a sense key for the specified word of the specified synset. A
+     * key that still needs its head set, as an adjective satellite key does, is
+     * never shared, as setting the head changes it.
+     *
+     * @param lemma  the lemma; may not be <code>null</code>
+     * @param lexID  the lexical id
+     * @param synset the synset; may not be <code>null</code>
+     * @return a sense key equal to <code>new SenseKey(lemma, lexID, synset)</code>
+     * @throws NullPointerException if the lemma or synset is <code>null</code>,
+     *                              or the synset has no lexical file
+     * @since JWI 2.4.1
+     */
+    @NonNull
+    public static ISenseKey getSenseKey(@NonNull String lemma, int lexID, @NonNull ISynset synset)
+    {
+        Slots s = slots;
+        if (s == null || synset.isAdjectiveSatellite())
+        {
+            return new SenseKey(lemma, lexID, synset);
+        }
+        POS pos = synset.getPOS();
+        ILexFile lexFile = synset.getLexicalFile();
+        int i = s.index(31 * (31 * lemma.hashCode() + lexID) + synset.getID().hashCode());
+        ISenseKey key = s.senseKeys.get(i);
+        if (key != null && key.getLexicalID() == lexID && key.getPOS() == pos && !key.isAdjectiveSatellite()
+                && lemma.equals(key.getLemma()) && lexFile != null && lexFile.equals(key.getLexicalFile()))
+        {
+            return key;
+        }
+        key = new SenseKey(lemma, lexID, synset);
+        s.senseKeys.set(i, key);
+        return key;
+    }
+
+    /**
+     * Makes a word id, leaving the number unknown if it is <code>-1</code>.
+     *
+     * @param id    the synset id
+     * @param num   the word number, or <code>-1</code> if unknown
+     * @param lemma the lemma
+     * @return the word id
+     */
+    @NonNull
+    private static IWordID makeWordID(@NonNull ISynsetID id, int num, @NonNull String lemma)
+    {
+        return num == -1 ? new WordID(id, lemma) : new WordID(id, num, lemma);
+    }
+
+    /**
+     * The slots of the pool, replaced as a whole when it is resized.
+     */
+    private static final class Slots
+    {
+        final int mask;
+        final AtomicReferenceArray<ISynsetID> synsetIDs;
+        final AtomicReferenceArray<IWordID> wordIDs;
+        final AtomicReferenceArray<ISenseKey> senseKeys;
+
+        Slots(int size)
+        {
+            int n = size == 1 ? 1 : Integer.highestOneBit(size - 1) << 1;
+            mask = n - 1;
+            synsetIDs = new AtomicReferenceArray<>(n);
+            wordIDs = new AtomicReferenceArray<>(n);
+            senseKeys = new AtomicReferenceArray<>(n);
+        }
+
+        /**
+         * Returns the slot for the specified hash.
+         *
+         * @param hash the hash
+         * @return the slot index
+         */
+        int index(int hash)
+        {
+            hash *= 0x9E3779B9;
+            return (hash ^ (hash >>> 16)) & mask;
+        }
+    }
+}
@@ -0,0 +1,540 @@
+/* ******************************************************************************
+ * Java Wordnet Interface Library (JWI) v2.4.0
+ * Copyright (c) 2007-2015 Mark A. Finlayson
+ *
+ * JWI is distributed under the terms of the Creative Commons Attribution 4.0
+ * International Public License, which means it may be freely used for all
+ * purposes, as long as proper acknowledgment is made.  See the license file
+ * included with this distribution for more details.
+ *******************************************************************************/
+
+package edu.mit.jwi.item;
+
+import edu.mit.jwi.NonNull;
+import edu.mit.jwi.Nullable;
+import edu.mit.jwi.item.Synset.IWordBuilder;
+
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.util.*;
+import java.util.Map.Entry;
+
+/**
+ * A synset that keeps the line it was parsed from, and only parses each
+ * section of the line the first time it is needed. The header of the line,
+ * which gives the id, the lexical file and the adjective flags, is parsed on
+ * construction. The words, with their lexical pointers and verb frames, the
+ * synset pointers and the gloss are each parsed on first access, with the
+ * section parser given on construction.
+ * <p>
+ * Instances are safe to use from several threads: each section is parsed at
+ * most once, and the words are always the same objects. A lazy synset is
+ * equal to a {@link Synset} with the same content.
+ * </p>
+ *
+ * @author Mark A. Finlayson
+ * @version 2.4.0
+ * @since JWI 2.4.1
+ */
+public class LazySynset implements ISynset
+{
+    /**
+     * This serial version UID identifies the last version of JWI whose
+     * serialized instances of the LazySynset class are compatible with this
+     * implementation.
+     *
+     * @since JWI 2.4.1
+     */
+    private static final long serialVersionUID = 241;
+
+    @NonNull
+    private final ISynsetID id;
+    @NonNull
+    private final ILexFile lexFile;
+    private final boolean isAdjSat;
+    private final boolean isAdjHead;
+    @NonNull
+    private final String line;
+
+    // the parser of the sections; all sections are parsed before
+    // serialization, so it is not needed after deserialization
+    @Nullable
+    private final transient ISectionParser parser;
+
+    // the sections, set when first parsed
+    @Nullable
+    private volatile List<IWord> words;
+    @Nullable
+    private volatile Map<IPointer, List<ISynsetID>> relatedMap;
+    @Nullable
+    private volatile List<ISynsetID> related;
+    @Nullable
+    private volatile String gloss;
+
+    /**
+     * Constructs a new lazy synset over the specified line.
+     *
+     * @param id        the synset id; may not be <code>null</code>
+     * @param lexFile   the lexical file for this synset; may not be
+     *                  <code>null</code>
+     * @param isAdjSat  <code>true</code> if this object represents an
+     *                  adjective satellite synset; <code>false</code> otherwise
+     * @param isAdjHead <code>true</code> if this object represents an
+     *                  adjective head synset; <code>false</code> otherwise
+     * @param line      the line the synset was parsed from; may not be
+     *                  <code>null</code>
+     * @param parser    the parser of the sections of the line; may not be
+     *                  <code>null</code>
+     * @throws NullPointerException     if any of the id, lexical file, line or
+     *                                  parser are <code>null</code>
+     * @throws IllegalArgumentException if both the adjective satellite and
+     *                                  adjective head flags are set, or either
+     *                                  is set and the lexical file number is
+     *                                  not zero
+     * @since JWI 2.4.1
+     */
+    public LazySynset(@NonNull ISynsetID id, @NonNull ILexFile lexFile, boolean isAdjSat, boolean isAdjHead, @NonNull String line, @NonNull ISectionParser parser)
+    {
+        if (id == null)
+        {
+            throw new NullPointerException();
+        }
+        if (lexFile == null)
+        {
+            throw new NullPointerException();
+        }
+        if (line == null)
+        {
+            throw new NullPointerException();
+        }
+        if (parser == null)
+        {
+            throw new NullPointerException();
+        }
+        if (isAdjSat && isAdjHead)
+        {
+            throw new IllegalArgumentException();
+        }
+        if ((isAdjSat || isAdjHead) && lexFile.getNumber() != 0)
+        {
+            throw new IllegalArgumentException();
+        }
+        this.id = id;
+        this.lexFile = lexFile;
+        this.isAdjSat = isAdjSat;
+        this.isAdjHead = isAdjHead;
+        this.line = line;
+        this.parser = parser;
+    }
+
+    /**
+     * Returns the line this synset was parsed from.
+     *
+     * @return the line
+     * @since JWI 2.4.1
+     */
+    @NonNull
+    public String getLine()
+    {
+        return line;
+    }
+
+    /**
+     * Returns whether the words of this synset have been parsed yet.
+     *
+     * @return <code>true</code> if the words have been parsed;
+     * <code>false</code> otherwise
+     * @since JWI 2.4.1
+     */
+    public boolean hasWords()
+    {
+        return words != null;
+    }
+
+    /**
+     * Returns whether the synset pointers of this synset have been parsed
+     * yet.
+     *
+     * @return <code>true</code> if the synset pointers have been parsed;
+     * <code>false</code> otherwise
+     * @since JWI 2.4.1
+     */
+    public boolean hasRelated()
+    {
+        return relatedMap != null;
+    }
+
+    /**
+     * Returns whether the gloss of this synset has been parsed yet.
+     *
+     * @return <code>true</code> if the gloss has been parsed;
+     * <code>false</code> otherwise
+     * @since JWI 2.4.1
+     */
+    public boolean hasGloss()
+    {
+        return gloss != null;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see edu.edu.mit.jwi.item.IItem#getID()
+     */
+    @NonNull
+    public ISynsetID getID()
+    {
+        return id;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see edu.edu.mit.jwi.item.ISynset#getOffset()
+     */
+    public int getOffset()
+    {
+        return id.getOffset();
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see edu.edu.mit.jwi.item.IHasPOS#getPOS()
+     */
+    public POS getPOS()
+    {
+        return id.getPOS();
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see edu.edu.mit.jwi.item.ISynset#getType()
+     */
+    public int getType()
+    {
+        POS pos = getPOS();
+        if (pos != POS.ADJECTIVE)
+        {
+            assert pos != null;
+            return pos.getNumber();
+        }
+        return isAdjectiveSatellite() ? 5 : 3;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see edu.edu.mit.jwi.item.ISynset#getGloss()
+     */
+    @NonNull
+    public String getGloss()
+    {
+        String result = gloss;
+        if (result == null)
+        {
+            // gloss strings are equal whichever thread parses them first
+            assert parser != null;
+            result = parser.parseGloss(line);
+            gloss = result;
+        }
+        return result;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see edu.edu.mit.jwi.item.ISynset#getWords()
+     */
+    @NonNull
+    public List<IWord> getWords()
+    {
+        List<IWord> result = words;
+        if (result == null)
+        {
+            // the words are made once, as sense keys may be updated
+            // through them
+            synchronized (this)
+            {
+                result = words;
+                if (result == null)
+                {
+                    assert parser != null;
+                    List<IWordBuilder> builders = parser.parseWords(line);
+                    if (builders.isEmpty())
+                    {
+                        throw new IllegalArgumentException();
+                    }
+                    List<IWord> list = new ArrayList<>(builders.size());
+                    for (IWordBuilder builder : builders)
+                    {
+                        list.add(builder.toWord(this));
+                    }
+                    result = Collections.unmodifiableList(list);
+                    words = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see edu.edu.mit.jwi.item.ISynset#getWord(int)
+     */
+    public IWord getWord(int wordNumber)
+    {
+        return getWords().get(wordNumber - 1);
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see edu.edu.mit.jwi.item.ISynset#getLexicalFile()
+     */
+    @NonNull
+    public ILexFile getLexicalFile()
+    {
+        return lexFile;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see edu.edu.mit.jwi.item.ISynset#getRelatedMap()
+     */
+    @NonNull
+    public Map<IPointer, List<ISynsetID>> getRelatedMap()
+    {
+        Map<IPointer, List<ISynsetID>> result = relatedMap;
+        if (result == null)
+        {
+            loadRelated();
+            result = relatedMap;
+            assert result != null;
+        }
+        return result;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see edu.edu.mit.jwi.item.ISynset#getRelatedSynsets(edu.edu.mit.jwi.item.IPointer)
+     */
+    @Nullable
+    public List<ISynsetID> getRelatedSynsets(IPointer ptrType)
+    {
+        List<ISynsetID> result = getRelatedMap().get(ptrType);
+        return result != null ? result : Collections.emptyList();
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see edu.edu.mit.jwi.item.ISynset#getRelatedSynsets()
+     */
+    @NonNull
+    public List<ISynsetID> getRelatedSynsets()
+    {
+        List<ISynsetID> result = related;
+        if (result == null)
+        {
+            loadRelated();
+            result = related;
+            assert result != null;
+        }
+        return result;
+    }
+
+    /**
+     * Parses the synset pointers, in the same way as the {@link Synset}
+     * constructor does. The list of all related synsets is set before the
+     * map, which is the field that is checked first.
+     */
+    private synchronized void loadRelated()
+    {
+        if (relatedMap != null)
+        {
+            return;
+        }
+        assert parser != null;
+        Map<IPointer, ? extends List<ISynsetID>> ids = parser.parseRelated(line);
+        Set<ISynsetID> hiddenSet = null;
+        Map<IPointer, List<ISynsetID>> hiddenMap = null;
+        if (ids != null)
+        {
+            hiddenSet = new LinkedHashSet<>();
+            hiddenMap = new HashMap<>(ids.size());
+            for (Entry<IPointer, ? extends List<ISynsetID>> entry : ids.entrySet())
+            {
+                if (entry.getValue() == null || entry.getValue().isEmpty())
+                {
+                    continue;
+                }
+                hiddenMap.put(entry.getKey(), Collections.unmodifiableList(new ArrayList<>(entry.getValue())));
+                hiddenSet.addAll(entry.getValue());
+            }
+        }
+        related = (hiddenSet != null && !hiddenSet.isEmpty()) ? Collections.unmodifiableList(new ArrayList<>(hiddenSet)) : Collections.emptyList();
+        relatedMap = (hiddenMap != null && !hiddenMap.isEmpty()) ? Collections.unmodifiableMap(hiddenMap) : Collections.emptyMap();
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see edu.edu.mit.jwi.item.ISynset#isAdjectiveSatellite()
+     */
+    public boolean isAdjectiveSatellite()
+    {
+        return isAdjSat;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see edu.edu.mit.jwi.item.ISynset#isAdjectiveHead()
+     */
+    public boolean isAdjectiveHead()
+    {
+        return isAdjHead;
+    }
+
+    /**
+     * Parses all sections before the synset is written, as the section parser
+     * is not serialized.
+     *
+     * @param out the stream to write to
+     * @throws IOException if the synset could not be written
+     */
+    private void writeObject(@NonNull ObjectOutputStream out) throws IOException
+    {
+        getWords();
+        getRelatedMap();
+        getGloss();
+        out.defaultWriteObject();
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see java.lang.Object#hashCode()
+     */
+    public int hashCode()
+    {
+        final int PRIME = 31;
+        int result = 1;
+        result = PRIME * result + getGloss().hashCode();
+        result = PRIME * result + (isAdjSat ? 1231 : 1237);
+        result = PRIME * result + id.hashCode();
+        result = PRIME * result + getWords().hashCode();
+        result = PRIME * result + getRelatedMap().hashCode();
+        return result;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see java.lang.Object#equals(java.lang.Object)
+     */
+    public boolean equals(@Nullable Object obj)
+    {
+        if (this == obj)
+        {
+            return true;
+        }
+        if (obj == null)
+        {
+            return false;
+        }
+        if (!(obj instanceof LazySynset) && !(obj instanceof Synset))
+        {
+            return false;
+        }
+        final ISynset other = (ISynset) obj;
+        if (!id.equals(other.getID()))
+        {
+            return false;
+        }
+        if (!getWords().equals(other.getWords()))
+        {
+            return false;
+        }
+        if (!getGloss().equals(other.getGloss()))
+        {
+            return false;
+        }
+        if (isAdjSat != other.isAdjectiveSatellite())
+        {
+            return false;
+        }
+        return getRelatedMap().equals(other.getRelatedMap());
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see java.lang.Object#toString()
+     */
+    @NonNull
+    public String toString()
+    {
+        StringBuilder sb = new StringBuilder();
+        sb.append("SYNSET{");
+        sb.append(id);
+        sb.append(" : Words[");
+        for (IWord word : getWords())
+        {
+            sb.append(word.toString());
+            sb.append(", ");
+        }
+        sb.replace(sb.length() - 2, sb.length(), "]}");
+        return sb.toString();
+    }
+
+    /**
+     * Parses the sections of the line of a lazy synset. Each method is given
+     * the whole line, and is called at most once per synset, possibly from any
+     * thread.
+     *
+     * @author Mark A. Finlayson
+     * @version 2.4.0
+     * @since JWI 2.4.1
+     */
+    public interface ISectionParser
+    {
+        /**
+         * Parses the words of the specified line, with their lexical pointers
+         * and, for verbs, their verb frames.
+         *
+         * @param line the line; may not be <code>null</code>
+         * @return the builders of the words, in order
+         * @since JWI 2.4.1
+         */
+        @NonNull
+        List<IWordBuilder> parseWords(@NonNull String line);
+
+        /**
+         * Parses the synset pointers of the specified line, that is, the
+         * pointers whose source and target are the whole synsets.
+         *
+         * @param line the line; may not be <code>null</code>
+         * @return the related synsets, indexed by pointer; may be
+         * <code>null</code> if there are none
+         * @since JWI 2.4.1
+         */
+        @Nullable
+        Map<IPointer, ? extends List<ISynsetID>> parseRelated(@NonNull String line);
+
+        /**
+         * Parses the gloss of the specified line.
+         *
+         * @param line the line; may not be <code>null</code>
+         * @return the gloss, or the empty string if there is none
+         * @since JWI 2.4.1
+         */
+        @NonNull
+        String parseGloss(@NonNull String line);
+    }
+}
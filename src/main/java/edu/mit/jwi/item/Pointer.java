@@ -182,6 +182,10 @@ public class Pointer implements IPointer
     @NonNull
     private static final Set<Pointer> pointerSet;
 
+    // pointers by the one or two ASCII characters of their symbol
+    @NonNull
+    private static final Pointer[] symbolTable = new Pointer[1 << 14];
+
     // class initialization code
     static
     {
@@ -222,6 +226,17 @@ public class Pointer implements IPointer
             }
         }
 
+        // index the short symbols by their characters
+        String symbol;
+        for (Pointer p : hiddenMap.values())
+        {
+            symbol = p.getSymbol();
+            if (symbol.length() <= 2 && symbol.chars().allMatch(c -> c < 128))
+            {
+                symbolTable[symbolIndex(symbol, 0, symbol.length())] = p;
+            }
+        }
+
         // make the collections unmodifiable
         pointerSet = Collections.unmodifiableSet(hiddenSet);
         pointerMap = Collections.unmodifiableMap(hiddenMap);
@@ -269,4 +284,58 @@ public class Pointer implements IPointer
         }
         return pointerType;
     }
+
+    /**
+     * Returns the pointer type (static final instance) that matches the
+     * pointer symbol found in the specified range of the specified sequence,
+     * such as a token of a line being parsed. Symbols of one or two ASCII
+     * characters are looked up in a table, without making a string of them.
+     *
+     * @param chars the sequence holding the symbol; may not be
+     *              <code>null</code>
+     * @param start the offset at which the symbol starts
+     * @param end   the offset at which the symbol ends (exclusive)
+     * @param pos   the part of speech for the symbol; may be <code>null</code>
+     *              except for ambiguous symbols
+     * @return pointer
+     * @throws IllegalArgumentException if the symbol does not correspond to a known pointer.
+     * @since JWI 2.4.1
+     */
+    @Nullable
+    public static Pointer getPointerType(@NonNull CharSequence chars, int start, int end, POS pos)
+    {
+        int length = end - start;
+        if (length == 1 || length == 2)
+        {
+            char c0 = chars.charAt(start);
+            char c1 = length == 2 ? chars.charAt(start + 1) : 0;
+            if (c0 < 128 && c1 < 128)
+            {
+                if (length == 1 && pos == POS.ADVERB && c0 == ambiguousSymbol.charAt(0))
+                {
+                    return DERIVED_FROM_ADJ;
+                }
+                Pointer pointerType = symbolTable[symbolIndex(chars, start, end)];
+                if (pointerType != null)
+                {
+                    return pointerType;
+                }
+            }
+        }
+        return getPointerType(chars.subSequence(start, end).toString(), pos);
+    }
+
+    /**
+     * Returns the index in the symbol table of the symbol of one or two ASCII
+     * characters in the specified range of the specified sequence.
+     *
+     * @param chars the sequence holding the symbol
+     * @param start the offset at which the symbol starts
+     * @param end   the offset at which the symbol ends (exclusive)
+     * @return the index of the symbol
+     */
+    private static int symbolIndex(@NonNull CharSequence chars, int start, int end)
+    {
+        return chars.charAt(start) << 7 | (end - start == 2 ? chars.charAt(start + 1) : 0);
+    }
 }
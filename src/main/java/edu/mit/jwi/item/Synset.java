@@ -314,11 +314,11 @@ public class Synset implements ISynset
         {
             return false;
         }
-        if (!(obj instanceof Synset))
+        if (!(obj instanceof Synset) && !(obj instanceof LazySynset))
         {
             return false;
         }
-        final Synset other = (Synset) obj;
+        final ISynset other = (ISynset) obj;
         assert id != null;
         if (!id.equals(other.getID()))
         {
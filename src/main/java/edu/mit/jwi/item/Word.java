@@ -69,7 +69,7 @@ public class Word implements IWord
     public Word(@NonNull ISynset synset, int number, @NonNull String lemma, int lexID, AdjMarker adjMarker, List<IVerbFrame> frames,
                 Map<IPointer, ? extends List<IWordID>> pointers)
     {
-        this(synset, new WordID(synset.getID(), number, lemma), lexID, adjMarker, frames, pointers);
+        this(synset, IDPool.getWordID(synset.getID(), number, lemma), lexID, adjMarker, frames, pointers);
     }
 
     /**
@@ -129,7 +129,7 @@ public class Word implements IWord
         this.adjMarker = adjMarker;
         String lemma = id.getLemma();
         assert lemma != null;
-        this.senseKey = new SenseKey(lemma, lexID, synset);
+        this.senseKey = IDPool.getSenseKey(lemma, lexID, synset);
         this.allWords = (hiddenSet != null && !hiddenSet.isEmpty()) ? Collections.unmodifiableList(new ArrayList<>(hiddenSet)) : Collections.emptyList();
         this.wordMap = (hiddenMap != null && !hiddenMap.isEmpty()) ? Collections.unmodifiableMap(hiddenMap) : Collections.emptyMap();
         this.frames = (frames == null || frames.isEmpty()) ? Collections.emptyList() : Collections.unmodifiableList(new ArrayList<>(frames));
@@ -0,0 +1,151 @@
+package edu.mit.jwi.test;
+
+import edu.mit.jwi.AsyncDictionary;
+import edu.mit.jwi.DataSourceDictionary;
+import edu.mit.jwi.IDictionary;
+import edu.mit.jwi.data.FileProvider;
+import edu.mit.jwi.item.*;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that the asynchronous facade gives the same items as the dictionary
+ * it wraps, that it merges lookups of the same item that are in flight
+ * together, and reports the time it takes to look up many synsets at once.
+ */
+public class AsyncDictionaryTests
+{
+    private static final boolean VERBOSE = !System.getProperties().containsKey("SILENT");
+
+    private static final PrintStream PS = VERBOSE ? System.out : new PrintStream(new OutputStream()
+    {
+        public void write(int b)
+        {
+            //DO NOTHING
+        }
+    });
+
+    private static IDictionary dict;
+
+    private static List<IWordID> wordIDs;
+
+    @BeforeAll
+    public static void init() throws IOException
+    {
+        dict = new DataSourceDictionary(new FileProvider(new File(System.getProperty("SOURCE"))));
+        dict.open();
+        wordIDs = new ArrayList<>();
+        for (Iterator<ISynset> it = dict.getSynsetIterator(POS.NOUN); it.hasNext(); )
+        {
+            for (IWord word : it.next().getWords())
+            {
+                wordIDs.add(word.getID());
+            }
+        }
+    }
+
+    @AfterAll
+    public static void cleanup()
+    {
+        dict.close();
+    }
+
+    @Test
+    public void sameAsBlocking() throws Exception
+    {
+        AsyncDictionary async = new AsyncDictionary(dict);
+        List<CompletableFuture<IWord>> words = new ArrayList<>();
+        List<CompletableFuture<ISenseEntry>> senses = new ArrayList<>();
+        for (IWordID id : wordIDs)
+        {
+            words.add(async.getWord(id));
+            senses.add(async.getSenseEntry(dict.getWord(id).getSenseKey()));
+        }
+        for (int i = 0; i < wordIDs.size(); i++)
+        {
+            IWord expected = dict.getWord(wordIDs.get(i));
+            IWord actual = words.get(i).get(10, TimeUnit.SECONDS);
+            assertEquals(expected.getSenseKey(), actual.getSenseKey());
+            assertEquals(dict.getSenseEntry(expected.getSenseKey()).getOffset(), senses.get(i).get(10, TimeUnit.SECONDS).getOffset());
+            assertEquals(expected.getSynset().getGloss(), async.getSynset(expected.getSynset().getID()).get(10, TimeUnit.SECONDS).getGloss());
+            assertEquals(dict.getIndexWord(expected.getLemma(), POS.NOUN).getWordIDs(), async.getIndexWord(expected.getLemma(), POS.NOUN).get(10, TimeUnit.SECONDS).getWordIDs());
+        }
+        assertNull(async.getIndexWord("nosuchlemma", POS.NOUN).get(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void mergesLookupsInFlight() throws Exception
+    {
+        // an executor that only runs its tasks when told to
+        List<Runnable> tasks = new ArrayList<>();
+        AsyncDictionary async = new AsyncDictionary(dict, tasks::add);
+        ISynsetID id = wordIDs.get(0).getSynsetID();
+        CompletableFuture<ISynset> first = async.getSynset(id);
+        CompletableFuture<ISynset> second = async.getSynset(new SynsetID(id.getOffset(), id.getPOS()));
+        CompletableFuture<IWord> word = async.getWord(wordIDs.get(0));
+        assertEquals(2, tasks.size());
+        assertEquals(2, async.getInFlightCount());
+
+        // cancelling one caller's future leaves the others be
+        assertTrue(first.cancel(false));
+        for (Runnable task : tasks)
+        {
+            task.run();
+        }
+        assertEquals(0, async.getInFlightCount());
+        assertEquals(id, second.get().getID());
+        assertEquals(wordIDs.get(0), word.get().getID());
+
+        // a lookup after the first completes runs again
+        async.getSynset(id);
+        assertEquals(3, tasks.size());
+    }
+
+    @Test
+    public void failuresComplete() throws Exception
+    {
+        IDictionary closed = new DataSourceDictionary(new FileProvider(new File(System.getProperty("SOURCE"))));
+        AsyncDictionary async = new AsyncDictionary(closed, Runnable::run);
+        CompletableFuture<ISynset> future = async.getSynset(wordIDs.get(0).getSynsetID());
+        assertTrue(future.isCompletedExceptionally());
+        assertThrows(ExecutionException.class, future::get);
+        assertEquals(0, async.getInFlightCount());
+    }
+
+    @Test
+    public void manyInFlight() throws Exception
+    {
+        AsyncDictionary async = new AsyncDictionary(dict);
+        long start = System.nanoTime();
+        for (IWordID id : wordIDs)
+        {
+            dict.getSynset(id.getSynsetID());
+        }
+        long blocking = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        List<CompletableFuture<ISynset>> futures = new ArrayList<>();
+        for (IWordID id : wordIDs)
+        {
+            futures.add(async.getSynset(id.getSynsetID()));
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get(30, TimeUnit.SECONDS);
+        long inFlight = System.nanoTime() - start;
+        PS.printf("lookups=%d executor=%s blocking=%dus async=%dus%n", wordIDs.size(), async.getExecutor().getClass().getSimpleName(),
+                TimeUnit.NANOSECONDS.toMicros(blocking), TimeUnit.NANOSECONDS.toMicros(inFlight));
+    }
+}
@@ -0,0 +1,181 @@
+package edu.mit.jwi.test;
+
+import edu.mit.jwi.CachingDictionary;
+import edu.mit.jwi.DataSourceDictionary;
+import edu.mit.jwi.IDictionary;
+import edu.mit.jwi.RAMDictionary;
+import edu.mit.jwi.data.FileProvider;
+import edu.mit.jwi.data.ILoadPolicy;
+import edu.mit.jwi.item.*;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Checks that the batch lookups of the dictionaries give the same items, in the
+ * order they were asked for, as one lookup per id, and compares the time a
+ * batch of synsets takes with single lookups.
+ */
+public class BatchLookupTests
+{
+    private static final boolean VERBOSE = !System.getProperties().containsKey("SILENT");
+
+    private static final PrintStream PS = VERBOSE ? System.out : new PrintStream(new OutputStream()
+    {
+        public void write(int b)
+        {
+            //DO NOTHING
+        }
+    });
+
+    private static final int ROUNDS = 10;
+
+    private static File source;
+
+    // the ids of all words, shuffled, with some asked for twice
+    private static List<IWordID> wordIDs;
+
+    private static List<ISynsetID> synsetIDs;
+
+    private static List<IIndexWordID> indexWordIDs;
+
+    @BeforeAll
+    public static void init() throws IOException
+    {
+        source = new File(System.getProperty("SOURCE"));
+        IDictionary dict = new DataSourceDictionary(new FileProvider(source));
+        dict.open();
+        wordIDs = new ArrayList<>();
+        indexWordIDs = new ArrayList<>();
+        for (POS pos : POS.values())
+        {
+            for (Iterator<IIndexWord> it = dict.getIndexWordIterator(pos); it.hasNext(); )
+            {
+                IIndexWord word = it.next();
+                indexWordIDs.add(word.getID());
+                wordIDs.addAll(word.getWordIDs());
+            }
+        }
+        dict.close();
+        wordIDs.addAll(wordIDs.subList(0, wordIDs.size() / 10));
+        indexWordIDs.add(new IndexWordID("nosuchlemma", POS.NOUN));
+        Collections.shuffle(wordIDs, new Random(0));
+        Collections.shuffle(indexWordIDs, new Random(0));
+        synsetIDs = new ArrayList<>();
+        for (IWordID id : wordIDs)
+        {
+            synsetIDs.add(id.getSynsetID());
+        }
+    }
+
+    @Test
+    public void sameAsSingleLookups() throws IOException
+    {
+        checkSame(new DataSourceDictionary(new FileProvider(source)));
+        checkSame(new CachingDictionary(new DataSourceDictionary(new FileProvider(source))));
+        checkSame(new RAMDictionary(source, ILoadPolicy.IMMEDIATE_LOAD));
+    }
+
+    @Test
+    public void cachedAndMissedInOrder() throws IOException
+    {
+        CachingDictionary dict = new CachingDictionary(new DataSourceDictionary(new FileProvider(source)));
+        dict.open();
+        try
+        {
+            // cache every other synset first
+            for (int i = 0; i < synsetIDs.size(); i += 2)
+            {
+                dict.getSynset(synsetIDs.get(i));
+            }
+            List<ISynset> synsets = dict.getSynsets(synsetIDs);
+            for (int i = 0; i < synsetIDs.size(); i++)
+            {
+                assertEquals(synsetIDs.get(i), synsets.get(i).getID());
+            }
+        }
+        finally
+        {
+            dict.close();
+        }
+    }
+
+    @Test
+    public void batchTime() throws IOException
+    {
+        IDictionary dict = new DataSourceDictionary(new FileProvider(source));
+        dict.open();
+        try
+        {
+            long single = Long.MAX_VALUE, batch = Long.MAX_VALUE;
+            for (int round = 0; round < ROUNDS; round++)
+            {
+                long start = System.nanoTime();
+                for (ISynsetID id : synsetIDs)
+                {
+                    dict.getSynset(id);
+                }
+                single = Math.min(single, System.nanoTime() - start);
+                start = System.nanoTime();
+                dict.getSynsets(synsetIDs);
+                batch = Math.min(batch, System.nanoTime() - start);
+            }
+            PS.printf("synsets=%d single=%dus batch=%dus%n", synsetIDs.size(), TimeUnit.NANOSECONDS.toMicros(single), TimeUnit.NANOSECONDS.toMicros(batch));
+        }
+        finally
+        {
+            dict.close();
+        }
+    }
+
+    private static void checkSame(IDictionary dict) throws IOException
+    {
+        dict.open();
+        try
+        {
+            List<ISynset> synsets = dict.getSynsets(synsetIDs);
+            assertEquals(synsetIDs.size(), synsets.size());
+            for (int i = 0; i < synsetIDs.size(); i++)
+            {
+                ISynset expected = dict.getSynset(synsetIDs.get(i));
+                assertEquals(expected.getID(), synsets.get(i).getID());
+                assertEquals(expected.getGloss(), synsets.get(i).getGloss());
+            }
+
+            List<IWord> words = dict.getWords(wordIDs);
+            for (int i = 0; i < wordIDs.size(); i++)
+            {
+                IWord expected = dict.getWord(wordIDs.get(i));
+                assertEquals(expected.getID(), words.get(i).getID());
+                assertEquals(expected.getSenseKey(), words.get(i).getSenseKey());
+            }
+
+            List<IIndexWord> indexWords = dict.getIndexWords(indexWordIDs);
+            for (int i = 0; i < indexWordIDs.size(); i++)
+            {
+                IIndexWord expected = dict.getIndexWord(indexWordIDs.get(i));
+                if (expected == null)
+                {
+                    assertNull(indexWords.get(i));
+                }
+                else
+                {
+                    assertEquals(expected.getWordIDs(), indexWords.get(i).getWordIDs());
+                }
+            }
+        }
+        finally
+        {
+            dict.close();
+        }
+    }
+}
@@ -0,0 +1,241 @@
+package edu.mit.jwi.test;
+
+import edu.mit.jwi.data.compare.*;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that the line comparators compare lines in place, in their byte
+ * buffers, as they compare the decoded lines: over the lines of the Wordnet
+ * files and keys taken from them, over lines and keys that are not ASCII,
+ * and for subclasses that only override the string comparison.
+ */
+public class ByteLineComparatorTests
+{
+    private static final boolean VERBOSE = !System.getProperties().containsKey("SILENT");
+
+    private static final PrintStream PS = VERBOSE ? System.out : new PrintStream(new OutputStream()
+    {
+        public void write(int b)
+        {
+            //DO NOTHING
+        }
+    });
+
+    // at most about this many lines are compared with this many keys
+    private static final int MAX_LINES = 500;
+
+    private static final int MAX_KEYS = 60;
+
+    private static byte[] index;
+
+    private static byte[] data;
+
+    private static byte[] senses;
+
+    @BeforeAll
+    public static void init() throws IOException
+    {
+        File source = new File(System.getProperty("SOURCE"));
+        index = Files.readAllBytes(new File(source, "index.noun").toPath());
+        data = Files.readAllBytes(new File(source, "data.noun").toPath());
+        senses = Files.readAllBytes(new File(source, "index.sense").toPath());
+    }
+
+    @Test
+    public void indexLinesSame()
+    {
+        List<String> keys = lemmaKeys(index);
+        checkSame(IndexLineComparator.getInstance(), index, keys);
+        checkSame(SearchIndexLineComparator.getInstance(), index, keys);
+        checkSame(Comparators.CaseSensitiveIndexLineComparator.getInstance(), index, keys);
+    }
+
+    @Test
+    public void dataLinesSame()
+    {
+        List<String> keys = new ArrayList<>();
+        List<String> tokens = tokens(data);
+        for (int i = 0; i < tokens.size(); i += step(tokens.size(), MAX_KEYS))
+        {
+            String token = tokens.get(i);
+            int offset = Integer.parseInt(token);
+            keys.add(token);
+            keys.add(Integer.toString(offset));
+            keys.add(String.format("%08d", offset - 1));
+            keys.add(String.format("%08d", offset + 1));
+            keys.add("000" + token);
+            keys.add(token + " 03 n 01 entity 0 000 |");
+        }
+        keys.addAll(Arrays.asList("0", "00000000", "99999999", "123456789"));
+        checkSame(DataLineComparator.getInstance(), data, keys);
+    }
+
+    @Test
+    public void senseLinesSame()
+    {
+        List<String> keys = lemmaKeys(senses);
+        checkSame(SenseKeyLineComparator.getInstance(), senses, keys);
+        checkSame(Comparators.CaseSensitiveSenseKeyLineComparator.getInstance(), senses, keys);
+        checkSame(Comparators.LexicographicOrderSenseKeyLineComparator.getInstance(), senses, keys);
+    }
+
+    @Test
+    public void nonAsciiSame()
+    {
+        byte[] lines = String.join("\n", "  comment line", "cafe n 1", "Café n 1", "café n 1", "cafés n 1", "caff n 1", "naïve a 1", "Ångström n 1", "zoo n 1").getBytes(StandardCharsets.UTF_8);
+        List<String> keys = Arrays.asList("cafe", "café", "CAFÉ", "cafés", "caf", "naïve", "naive", "ångström", "Ångström", "zoo", "é", "a");
+        checkSame(IndexLineComparator.getInstance(), lines, keys);
+        checkSame(SearchIndexLineComparator.getInstance(), lines, keys);
+        checkSame(Comparators.CaseSensitiveIndexLineComparator.getInstance(), lines, keys);
+        checkSame(SenseKeyLineComparator.getInstance(), lines, keys);
+        checkSame(Comparators.CaseSensitiveSenseKeyLineComparator.getInstance(), lines, keys);
+        checkSame(Comparators.LexicographicOrderSenseKeyLineComparator.getInstance(), lines, keys);
+    }
+
+    @Test
+    public void stringOverridesSame()
+    {
+        // each of these sorts the other way round through its string
+        // comparison only, which the comparison in place must follow
+        IndexLineComparator indexReversed = new IndexLineComparator(CommentComparator.getInstance())
+        {
+            protected int compareLemmas(String lemma1, String lemma2)
+            {
+                return -super.compareLemmas(lemma1, lemma2);
+            }
+        };
+        SenseKeyLineComparator senseReversed = new SenseKeyLineComparator()
+        {
+            protected int compareSenseKeys(String senseKey1, String senseKey2)
+            {
+                return -super.compareSenseKeys(senseKey1, senseKey2);
+            }
+        };
+        DataLineComparator dataReversed = new DataLineComparator(CommentComparator.getInstance())
+        {
+            public int compare(String s1, String s2)
+            {
+                return -super.compare(s1, s2);
+            }
+        };
+        checkSame(indexReversed, index, lemmaKeys(index));
+        checkSame(senseReversed, senses, lemmaKeys(senses));
+        checkSame(dataReversed, data, tokens(data).subList(0, MAX_KEYS));
+    }
+
+    /**
+     * Checks that the comparator compares every line of the content with
+     * every key the same way, in place and decoded.
+     */
+    private static void checkSame(IByteLineComparator comparator, byte[] content, List<String> keys)
+    {
+        ByteBuffer buf = ByteBuffer.wrap(content);
+        List<Integer> starts = lineStarts(content);
+        int count = 0;
+        for (Charset cs : new Charset[]{StandardCharsets.UTF_8, null})
+        {
+            for (int start : starts)
+            {
+                String line = ByteLines.decodeLine(buf, start, cs);
+                for (String key : keys)
+                {
+                    int expected = Integer.signum(comparator.compare(line, key));
+                    int actual = Integer.signum(comparator.compareLine(buf, start, key, cs));
+                    assertEquals(expected, actual, comparator.getClass().getSimpleName() + " [" + line + "] [" + key + "] " + cs);
+                    count++;
+                }
+            }
+        }
+        assertEquals(0, buf.position());
+        PS.printf("%s lines=%d keys=%d comparisons=%d%n", comparator.getClass().getName(), starts.size(), keys.size(), count);
+    }
+
+    /**
+     * Returns keys taken from the first tokens of the lines, as they are and
+     * changed so as to fall next to them.
+     */
+    private static List<String> lemmaKeys(byte[] content)
+    {
+        List<String> keys = new ArrayList<>();
+        List<String> tokens = tokens(content);
+        for (int i = 0; i < tokens.size(); i += step(tokens.size(), MAX_KEYS))
+        {
+            String token = tokens.get(i);
+            keys.add(token);
+            keys.add(token.toUpperCase(Locale.ROOT));
+            keys.add(token.substring(0, token.length() - 1));
+            keys.add(token + "z");
+            keys.add(token + " 1 n");
+        }
+        keys.addAll(Arrays.asList("a", "nosuchkey", "zzz", "_", "~"));
+        return keys;
+    }
+
+    /**
+     * Returns the step at which to take items so as to take about the
+     * specified number of them.
+     */
+    private static int step(int size, int count)
+    {
+        return Math.max(1, size / count);
+    }
+
+    /**
+     * Returns the first tokens of the lines that are not comments.
+     */
+    private static List<String> tokens(byte[] content)
+    {
+        List<String> tokens = new ArrayList<>();
+        for (String line : new String(content, StandardCharsets.UTF_8).split("\n"))
+        {
+            if (!line.isEmpty() && !line.startsWith("  "))
+            {
+                int end = line.indexOf(' ');
+                tokens.add(end < 0 ? line : line.substring(0, end));
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * Returns the starts of the lines of the content, the comments included,
+     * and then some of the others.
+     */
+    private static List<Integer> lineStarts(byte[] content)
+    {
+        List<Integer> starts = new ArrayList<>();
+        for (int i = 0; i < content.length; i++)
+        {
+            if (i == 0 || content[i - 1] == '\n')
+            {
+                starts.add(i);
+            }
+        }
+        List<Integer> result = new ArrayList<>();
+        int step = step(starts.size(), MAX_LINES);
+        for (int i = 0; i < starts.size(); i++)
+        {
+            if (i % step == 0 || ByteLines.isCommentLine(ByteBuffer.wrap(content), starts.get(i)))
+            {
+                result.add(starts.get(i));
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,169 @@
+package edu.mit.jwi.test;
+
+import edu.mit.jwi.CachingDictionary;
+import edu.mit.jwi.ConcurrentItemCache;
+import edu.mit.jwi.DataSourceDictionary;
+import edu.mit.jwi.ICachingDictionary.IItemCache;
+import edu.mit.jwi.IDictionary;
+import edu.mit.jwi.TinyLFUItemCache;
+import edu.mit.jwi.data.FileProvider;
+import edu.mit.jwi.item.*;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Replays a trace of synset lookups against the LRU, CLOCK and W-TinyLFU item
+ * caches, and compares their hit ratios. The trace is read from the file named
+ * by the TRACE system property, one synset id per line, if there is one; it is
+ * otherwise recorded from hypernym walks up from random words, interrupted by
+ * scans over all synsets and bursts of rarely used ones.
+ */
+public class CacheReplayTests
+{
+    private static final boolean VERBOSE = !System.getProperties().containsKey("SILENT");
+
+    private static final PrintStream PS = VERBOSE ? System.out : new PrintStream(new OutputStream()
+    {
+        public void write(int b)
+        {
+            //DO NOTHING
+        }
+    });
+
+    private static final int WALKS = 20000;
+
+    private static final int[] CAPACITIES = {50, 100, 200};
+
+    private static IDictionary dict;
+
+    private static List<ISynsetID> trace;
+
+    private static Map<ISynsetID, ISynset> synsets;
+
+    @BeforeAll
+    public static void init() throws IOException
+    {
+        dict = new DataSourceDictionary(new FileProvider(new File(System.getProperty("SOURCE"))));
+        dict.open();
+        String file = System.getProperty("TRACE");
+        trace = file == null ? record() : read(new File(file));
+        synsets = new HashMap<>();
+        for (ISynsetID id : trace)
+        {
+            synsets.computeIfAbsent(id, dict::getSynset);
+        }
+    }
+
+    @AfterAll
+    public static void cleanup()
+    {
+        dict.close();
+    }
+
+    @Test
+    public void hitRatios() throws IOException
+    {
+        PS.printf("lookups=%d distinct=%d%n", trace.size(), synsets.size());
+        for (int capacity : CAPACITIES)
+        {
+            double lru = replay(new CachingDictionary.ItemCache(16, capacity, true));
+            double clock = replay(new ConcurrentItemCache(16, capacity, true));
+            double tinyLFU = replay(new TinyLFUItemCache(16, capacity, true));
+            PS.printf("capacity=%d lru=%.3f clock=%.3f tinylfu=%.3f%n", capacity, lru, clock, tinyLFU);
+            assertTrue(tinyLFU >= lru, "capacity " + capacity);
+        }
+    }
+
+    private static double replay(IItemCache cache) throws IOException
+    {
+        cache.open();
+        int hits = 0;
+        for (ISynsetID id : trace)
+        {
+            if (cache.retrieveItem(id) != null)
+            {
+                hits++;
+            }
+            else
+            {
+                cache.cacheItem(synsets.get(id));
+            }
+        }
+        cache.close();
+        return (double) hits / trace.size();
+    }
+
+    private static List<ISynsetID> record()
+    {
+        List<ISynset> all = new ArrayList<>();
+        List<IWordID> words = new ArrayList<>();
+        for (POS pos : new POS[]{POS.NOUN, POS.VERB})
+        {
+            for (Iterator<ISynset> it = dict.getSynsetIterator(pos); it.hasNext(); )
+            {
+                ISynset synset = it.next();
+                all.add(synset);
+                for (IWord word : synset.getWords())
+                {
+                    words.add(word.getID());
+                }
+            }
+        }
+
+        Random random = new Random(0);
+        List<ISynsetID> result = new ArrayList<>();
+        for (int walk = 0; walk < WALKS; walk++)
+        {
+            // from a word up to the root of its hierarchy
+            ISynsetID id = words.get(random.nextInt(words.size())).getSynsetID();
+            for (int depth = 0; id != null && depth < 20; depth++)
+            {
+                result.add(id);
+                List<ISynsetID> hypernyms = dict.getSynset(id).getRelatedSynsets(Pointer.HYPERNYM);
+                id = hypernyms.isEmpty() ? null : hypernyms.get(0);
+            }
+            if (walk % 5000 == 4999)
+            {
+                // a scan over every synset
+                for (ISynset synset : all)
+                {
+                    result.add(synset.getID());
+                }
+            }
+            else if (walk % 500 == 499)
+            {
+                // a burst of synsets looked up once
+                for (int i = 0; i < 200; i++)
+                {
+                    result.add(all.get(random.nextInt(all.size())).getID());
+                }
+            }
+        }
+        return result;
+    }
+
+    private static List<ISynsetID> read(File file) throws IOException
+    {
+        List<ISynsetID> result = new ArrayList<>();
+        for (String line : Files.readAllLines(file.toPath(), StandardCharsets.UTF_8))
+        {
+            line = line.trim();
+            if (!line.isEmpty())
+            {
+                result.add(SynsetID.parseSynsetID(line));
+            }
+        }
+        return result;
+    }
+}
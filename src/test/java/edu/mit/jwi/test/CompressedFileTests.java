@@ -0,0 +1,241 @@
+package edu.mit.jwi.test;
+
+import edu.mit.jwi.DataSourceDictionary;
+import edu.mit.jwi.IDictionary;
+import edu.mit.jwi.data.CompressedProvider;
+import edu.mit.jwi.data.CompressedWordnetFile;
+import edu.mit.jwi.data.ContentType;
+import edu.mit.jwi.data.FileProvider;
+import edu.mit.jwi.item.IIndexWord;
+import edu.mit.jwi.item.ISynset;
+import edu.mit.jwi.item.IWordID;
+import edu.mit.jwi.item.POS;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compresses the Wordnet files into the block-compressed format, checks that
+ * lookups on them give the same results as on the original files, and compares
+ * the size of the files and the time lookups take with the mapped files. The
+ * files are also compressed in blocks smaller than most lines, so that lines
+ * run across blocks, and read by an interrupted thread.
+ */
+public class CompressedFileTests
+{
+    private static final boolean VERBOSE = !System.getProperties().containsKey("SILENT");
+
+    private static final PrintStream PS = VERBOSE ? System.out : new PrintStream(new OutputStream()
+    {
+        public void write(int b)
+        {
+            //DO NOTHING
+        }
+    });
+
+    private static final int MAX_LEMMAS = 5000;
+
+    private static final int SMALL_BLOCK_SIZE = 64;
+
+    private static File compressed;
+
+    private static File smallBlocks;
+
+    private static List<String> lemmas;
+
+    @BeforeAll
+    public static void init() throws IOException
+    {
+        File source = new File(System.getProperty("SOURCE"));
+        compressed = Files.createTempDirectory("wordnet-jwz").toFile();
+        List<File> files = CompressedWordnetFile.compressDirectory(source, compressed, CompressedWordnetFile.DEFAULT_BLOCK_SIZE);
+        smallBlocks = Files.createTempDirectory("wordnet-jwz-small").toFile();
+        CompressedWordnetFile.compressDirectory(source, smallBlocks, SMALL_BLOCK_SIZE);
+
+        long raw = 0, packed = 0;
+        for (File file : files)
+        {
+            raw += new File(source, file.getName().substring(0, file.getName().length() - CompressedWordnetFile.SUFFIX.length())).length();
+            packed += file.length();
+        }
+        PS.printf("raw=%d compressed=%d ratio=%.2f%n", raw, packed, (double) packed / Math.max(1, raw));
+
+        IDictionary dict = new DataSourceDictionary(new FileProvider(source));
+        dict.open();
+        lemmas = new ArrayList<>();
+        Iterator<IIndexWord> it = dict.getIndexWordIterator(POS.NOUN);
+        while (it.hasNext() && lemmas.size() < MAX_LEMMAS)
+        {
+            lemmas.add(it.next().getLemma());
+        }
+        dict.close();
+    }
+
+    @AfterAll
+    public static void cleanup()
+    {
+        for (File dir : new File[]{compressed, smallBlocks})
+        {
+            File[] files = dir.listFiles();
+            if (files != null)
+            {
+                for (File file : files)
+                {
+                    file.delete();
+                }
+            }
+            dir.delete();
+        }
+    }
+
+    @Test
+    public void sameLookups() throws IOException
+    {
+        checkSame(compressed);
+    }
+
+    @Test
+    public void sameLookupsAcrossBlocks() throws IOException
+    {
+        checkSame(smallBlocks);
+    }
+
+    @Test
+    public void readsWhenInterrupted() throws IOException
+    {
+        File index = new File(smallBlocks, "index.noun" + CompressedWordnetFile.SUFFIX);
+        CompressedWordnetFile<?> file = new CompressedWordnetFile<>(index, ContentType.INDEX_NOUN);
+        file.open();
+        try
+        {
+            // each lookup inflates blocks that are not cached yet
+            Thread.currentThread().interrupt();
+            for (int i = 0; i < lemmas.size(); i += 97)
+            {
+                assertNotNull(file.getLine(lemmas.get(i)), lemmas.get(i));
+                assertTrue(Thread.currentThread().isInterrupted());
+            }
+            assertTrue(Thread.interrupted());
+            assertTrue(file.isOpen());
+            for (int i = 1; i < lemmas.size(); i += 97)
+            {
+                assertNotNull(file.getLine(lemmas.get(i)), lemmas.get(i));
+            }
+            assertFalse(Thread.currentThread().isInterrupted());
+        }
+        finally
+        {
+            Thread.interrupted();
+            file.close();
+        }
+    }
+
+    private static void checkSame(File dir) throws IOException
+    {
+        IDictionary expected = new DataSourceDictionary(new FileProvider(new File(System.getProperty("SOURCE"))));
+        IDictionary actual = new DataSourceDictionary(new CompressedProvider(dir));
+        expected.open();
+        actual.open();
+        try
+        {
+            for (String lemma : lemmas)
+            {
+                IIndexWord word = expected.getIndexWord(lemma, POS.NOUN);
+                IIndexWord found = actual.getIndexWord(lemma, POS.NOUN);
+                assertNotNull(found);
+                assertEquals(word.getWordIDs(), found.getWordIDs());
+                for (IWordID id : word.getWordIDs())
+                {
+                    ISynset synset = actual.getSynset(id.getSynsetID());
+                    assertNotNull(synset);
+                    assertEquals(expected.getSynset(id.getSynsetID()).getGloss(), synset.getGloss());
+                }
+            }
+            assertEquals(count(expected.getSynsetIterator(POS.VERB)), count(actual.getSynsetIterator(POS.VERB)));
+            assertEquals(count(expected.getIndexWordIterator(POS.ADJECTIVE)), count(actual.getIndexWordIterator(POS.ADJECTIVE)));
+        }
+        finally
+        {
+            actual.close();
+            expected.close();
+        }
+    }
+
+    @Test
+    public void benchmarkAgainstMapped() throws IOException
+    {
+        long mapped = time(new DataSourceDictionary(new FileProvider(new File(System.getProperty("SOURCE")))));
+        long packed = time(new DataSourceDictionary(new CompressedProvider(compressed)));
+        PS.printf("lookups=%d mapped=%dms compressed=%dms%n", lemmas.size(), TimeUnit.NANOSECONDS.toMillis(mapped), TimeUnit.NANOSECONDS.toMillis(packed));
+    }
+
+    @Test
+    public void inflatesOnlyTouchedBlocks() throws IOException
+    {
+        File index = new File(compressed, "index.noun" + CompressedWordnetFile.SUFFIX);
+        CompressedWordnetFile<?> file = new CompressedWordnetFile<>(index, ContentType.INDEX_NOUN);
+        file.open();
+        try
+        {
+            assertNotNull(file.getLine(lemmas.get(lemmas.size() / 2)));
+            long blocks = (file.getLength() + CompressedWordnetFile.DEFAULT_BLOCK_SIZE - 1) / CompressedWordnetFile.DEFAULT_BLOCK_SIZE;
+            PS.printf("blocks=%d inflated=%d%n", blocks, file.getInflatedBlockCount());
+            assertTrue(file.getInflatedBlockCount() <= 2);
+        }
+        finally
+        {
+            file.close();
+        }
+    }
+
+    private static long time(IDictionary dict) throws IOException
+    {
+        dict.open();
+        try
+        {
+            long start = System.nanoTime();
+            for (int round = 0; round < 3; round++)
+            {
+                for (String lemma : lemmas)
+                {
+                    IIndexWord word = dict.getIndexWord(lemma, POS.NOUN);
+                    assertNotNull(word);
+                    for (IWordID id : word.getWordIDs())
+                    {
+                        assertNotNull(dict.getSynset(id.getSynsetID()));
+                    }
+                }
+            }
+            return System.nanoTime() - start;
+        }
+        finally
+        {
+            dict.close();
+        }
+    }
+
+    private static int count(Iterator<?> it)
+    {
+        int n = 0;
+        for (; it.hasNext(); it.next())
+        {
+            n++;
+        }
+        return n;
+    }
+}
@@ -0,0 +1,338 @@
+package edu.mit.jwi.test;
+
+import edu.mit.jwi.CachingDictionary;
+import edu.mit.jwi.ConcurrentItemCache;
+import edu.mit.jwi.DataSourceDictionary;
+import edu.mit.jwi.IDictionary;
+import edu.mit.jwi.ItemWeigher;
+import edu.mit.jwi.TinyLFUItemCache;
+import edu.mit.jwi.data.FileProvider;
+import edu.mit.jwi.data.parse.DataLineParser;
+import edu.mit.jwi.item.ISynset;
+import edu.mit.jwi.item.ISynsetID;
+import edu.mit.jwi.item.IWord;
+import edu.mit.jwi.item.LazySynset;
+import edu.mit.jwi.item.POS;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that the concurrent item caches stay within their capacity and only
+ * returns the items cached under each id while many threads use it at once,
+ * that it keeps items that are used often, also while a cache bounded by
+ * weight only fills up, that items of all kinds together
+ * stay within the maximum weight, that weighing lazy synsets does not parse
+ * them, and reports the throughput of lookups by
+ * increasing numbers of threads.
+ */
+public class ConcurrentItemCacheTests
+{
+    private static final boolean VERBOSE = !System.getProperties().containsKey("SILENT");
+
+    private static final PrintStream PS = VERBOSE ? System.out : new PrintStream(new OutputStream()
+    {
+        public void write(int b)
+        {
+            //DO NOTHING
+        }
+    });
+
+    private static final int THREADS = 8;
+
+    private static final int CAPACITY = 100;
+
+    private static final int LOOKUPS = 200000;
+
+    private static final long WEIGHT = 256 * 1024;
+
+    private static File source;
+
+    private static List<ISynset> synsets;
+
+    @BeforeAll
+    public static void init() throws IOException
+    {
+        source = new File(System.getProperty("SOURCE"));
+        IDictionary dict = new DataSourceDictionary(new FileProvider(source));
+        dict.open();
+        synsets = new ArrayList<>();
+        for (POS pos : POS.values())
+        {
+            for (Iterator<ISynset> it = dict.getSynsetIterator(pos); it.hasNext(); )
+            {
+                synsets.add(it.next());
+            }
+        }
+        dict.close();
+    }
+
+    @Test
+    public void boundedUnderContention() throws Exception
+    {
+        checkBounded(new ConcurrentItemCache(16, CAPACITY, true));
+        checkBounded(new TinyLFUItemCache(16, CAPACITY, true));
+    }
+
+    private static void checkBounded(ConcurrentItemCache cache) throws Exception
+    {
+        cache.open();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try
+        {
+            List<Future<Integer>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++)
+            {
+                int seed = t;
+                futures.add(executor.submit(() -> {
+                    Random random = new Random(seed);
+                    int hits = 0;
+                    for (int i = 0; i < LOOKUPS / THREADS; i++)
+                    {
+                        ISynset synset = synsets.get(random.nextInt(synsets.size()));
+                        ISynset cached = cache.retrieveItem(synset.getID());
+                        if (cached == null)
+                        {
+                            cache.cacheItem(synset);
+                        }
+                        else
+                        {
+                            assertEquals(synset.getID(), cached.getID());
+                            hits++;
+                        }
+                    }
+                    return hits;
+                }));
+            }
+            for (Future<Integer> future : futures)
+            {
+                future.get();
+            }
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+        assertTrue(cache.size() <= CAPACITY, "size=" + cache.size());
+
+        cache.setMaximumCapacity(CAPACITY / 2);
+        assertTrue(cache.size() <= CAPACITY / 2);
+        cache.clear();
+        assertEquals(0, cache.size());
+        cache.close();
+        assertFalse(cache.isOpen());
+    }
+
+    @Test
+    public void boundedByWeight()
+    {
+        ISynset synset = synsets.get(0);
+        IWord word = synset.getWords().get(0);
+        assertTrue(ItemWeigher.weigh(synset) > ItemWeigher.weigh(word));
+
+        checkWeight(new ConcurrentItemCache(16, 0, true));
+        checkWeight(new TinyLFUItemCache(16, 0, true));
+    }
+
+    @Test
+    public void lazySynsetsNotParsedByWeighing() throws IOException
+    {
+        String line = null;
+        for (String l : Files.readAllLines(new File(source, "data.noun").toPath(), StandardCharsets.UTF_8))
+        {
+            if (!l.startsWith("  "))
+            {
+                line = l;
+                break;
+            }
+        }
+        assertNotNull(line);
+        boolean lazy = DataLineParser.getLazySynsets();
+        LazySynset synset;
+        try
+        {
+            DataLineParser.setLazySynsets(true);
+            synset = (LazySynset) DataLineParser.getInstance().parseLine(line);
+        }
+        finally
+        {
+            DataLineParser.setLazySynsets(lazy);
+        }
+        synset.getWords();
+
+        ConcurrentItemCache cache = new ConcurrentItemCache(16, 0, true);
+        cache.open();
+        cache.cacheItem(synset);
+        assertEquals(0, cache.getWeight());
+        cache.setMaximumWeight(WEIGHT);
+        cache.cacheItem(synset);
+        assertTrue(cache.getWeight() > 0);
+        assertFalse(synset.hasRelated());
+        assertFalse(synset.hasGloss());
+        cache.close();
+    }
+
+    private static void checkWeight(ConcurrentItemCache cache)
+    {
+        cache.open();
+
+        // not weighed until the cache has a maximum weight, and dropped then
+        cache.cacheItem(synsets.get(0));
+        assertEquals(0, cache.getWeight());
+        cache.setMaximumWeight(WEIGHT);
+        assertEquals(0, cache.size());
+        for (ISynset synset : synsets)
+        {
+            cache.cacheItem(synset);
+            for (IWord word : synset.getWords())
+            {
+                cache.cacheWordByKey(word);
+            }
+            assertTrue(cache.getWeight() <= WEIGHT, "weight=" + cache.getWeight());
+        }
+        PS.printf("%s size=%d weight=%d%n", cache.getClass().getSimpleName(), cache.size(), cache.getWeight());
+        assertTrue(cache.size() > 0);
+
+        cache.setMaximumWeight(WEIGHT / 2);
+        assertTrue(cache.getWeight() <= WEIGHT / 2);
+        cache.clear();
+        assertEquals(0, cache.getWeight());
+        cache.close();
+    }
+
+    @Test
+    public void keepsItemsInUse()
+    {
+        ConcurrentItemCache cache = new ConcurrentItemCache(16, CAPACITY, true);
+        cache.open();
+
+        // a few items used all the time, among many used once
+        List<ISynset> hot = synsets.subList(0, CAPACITY / 4);
+        int hits = 0, lookups = 0;
+        for (int i = CAPACITY / 4; i < synsets.size(); i++)
+        {
+            cache.cacheItem(synsets.get(i));
+            ISynset synset = hot.get(i % hot.size());
+            lookups++;
+            if (cache.retrieveItem(synset.getID()) != null)
+            {
+                hits++;
+            }
+            else
+            {
+                cache.cacheItem(synset);
+            }
+        }
+        PS.printf("hot items=%d hits=%d/%d%n", hot.size(), hits, lookups);
+        assertTrue(hits > lookups * 9 / 10);
+    }
+
+    @Test
+    public void keepsFrequentItemsByWeight()
+    {
+        // bounded by weight only, so that the number of items grows, and
+        // without a protected segment, so that the items used often are the
+        // first to be weighed against those of the scan
+        TinyLFUItemCache cache = new TinyLFUItemCache(16, 0, TinyLFUItemCache.DEFAULT_WINDOW_PERCENTAGE, 0, true);
+        cache.setMaximumWeight(WEIGHT);
+        cache.open();
+
+        // a few items used often before the cache fills up, then a scan
+        // of many items used once
+        List<ISynset> hot = synsets.subList(0, 20);
+        int i = hot.size();
+        for (int round = 0; round < 10; round++)
+        {
+            for (ISynset synset : hot)
+            {
+                if (cache.retrieveItem(synset.getID()) == null)
+                {
+                    cache.cacheItem(synset);
+                }
+            }
+            cache.cacheItem(synsets.get(i++));
+        }
+        for (; i < synsets.size(); i++)
+        {
+            cache.cacheItem(synsets.get(i));
+        }
+        int kept = 0;
+        for (ISynset synset : hot)
+        {
+            if (cache.retrieveItem(synset.getID()) != null)
+            {
+                kept++;
+            }
+        }
+        PS.printf("hot items=%d kept=%d cached=%d%n", hot.size(), kept, cache.size());
+        assertTrue(kept >= hot.size() * 9 / 10);
+    }
+
+    @Test
+    public void concurrentThroughput() throws Exception
+    {
+        IDictionary dict = new CachingDictionary(new DataSourceDictionary(new FileProvider(source)));
+        dict.open();
+        try
+        {
+            List<ISynsetID> ids = new ArrayList<>();
+            for (int i = 0; i < CAPACITY; i++)
+            {
+                ids.add(synsets.get(i).getID());
+                dict.getSynset(ids.get(i));
+            }
+            for (int threads = 1; threads <= THREADS; threads *= 2)
+            {
+                long elapsed = lookup(dict, ids, threads);
+                PS.printf("threads=%d lookups=%d time=%dms throughput=%d/ms%n", threads, LOOKUPS, TimeUnit.NANOSECONDS.toMillis(elapsed),
+                        LOOKUPS * 1000000L / Math.max(1, elapsed));
+            }
+        }
+        finally
+        {
+            dict.close();
+        }
+    }
+
+    private static long lookup(IDictionary dict, List<ISynsetID> ids, int threads) throws Exception
+    {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try
+        {
+            long start = System.nanoTime();
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++)
+            {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < LOOKUPS / threads; i++)
+                    {
+                        ISynsetID id = ids.get(i % ids.size());
+                        assertEquals(id, dict.getSynset(id).getID());
+                    }
+                }));
+            }
+            for (Future<?> future : futures)
+            {
+                future.get();
+            }
+            return System.nanoTime() - start;
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+    }
+}
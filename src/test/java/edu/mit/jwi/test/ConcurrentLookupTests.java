@@ -0,0 +1,302 @@
+package edu.mit.jwi.test;
+
+import edu.mit.jwi.CachingDictionary;
+import edu.mit.jwi.ConcurrentItemCache;
+import edu.mit.jwi.DataSourceDictionary;
+import edu.mit.jwi.IDictionary;
+import edu.mit.jwi.ICachingDictionary.IItemCache;
+import edu.mit.jwi.data.ContentType;
+import edu.mit.jwi.data.DirectAccessWordnetFile;
+import edu.mit.jwi.data.FileProvider;
+import edu.mit.jwi.data.IHasLifecycle.ObjectClosedException;
+import edu.mit.jwi.item.IIndexWord;
+import edu.mit.jwi.item.POS;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Contention benchmark: the same index lookups are run by an increasing
+ * number of threads against a single, uncached dictionary. Binary-searched
+ * files are read through per-lookup buffer views, so throughput should grow
+ * with the number of threads. Lookups served from a cache do little more
+ * than check that the dictionary and its files are open, which takes no
+ * lock, so their throughput should grow with the number of threads too.
+ * Closing a dictionary, which unmaps its files, must not disturb the lookups
+ * in flight. The bookkeeping of readers that lets a file wait for them before
+ * it unmaps its buffer is timed against a single shared counter, which every
+ * thread would update.
+ */
+public class ConcurrentLookupTests
+{
+    private static final boolean VERBOSE = !System.getProperties().containsKey("SILENT");
+
+    private static final PrintStream PS = VERBOSE ? System.out : new PrintStream(new OutputStream()
+    {
+        public void write(int b)
+        {
+            //DO NOTHING
+        }
+    });
+
+    private static final int MAX_LEMMAS = 20000;
+
+    private static final int CACHED_ROUNDS = 200;
+
+    private static final int READS = 10000000;
+
+    private static IDictionary dict;
+
+    private static List<String> lemmas;
+
+    @BeforeAll
+    public static void init() throws IOException
+    {
+        String wnHome = System.getProperty("SOURCE");
+        dict = new DataSourceDictionary(new FileProvider(new File(wnHome)));
+        dict.open();
+
+        lemmas = new ArrayList<>();
+        Iterator<IIndexWord> it = dict.getIndexWordIterator(POS.NOUN);
+        while (it.hasNext() && lemmas.size() < MAX_LEMMAS)
+        {
+            lemmas.add(it.next().getLemma());
+        }
+    }
+
+    @AfterAll
+    public static void close()
+    {
+        dict.close();
+    }
+
+    @Test
+    public void concurrentIndexLookups() throws Exception
+    {
+        int cores = Runtime.getRuntime().availableProcessors();
+        for (int threads = 1; threads <= cores; threads *= 2)
+        {
+            long start = System.nanoTime();
+            int found = lookup(dict, threads, 1);
+            long elapsed = System.nanoTime() - start;
+
+            assertEquals(threads * lemmas.size(), found);
+            PS.printf("threads=%d lookups=%d time=%dms throughput=%d/ms%n", threads, found, elapsed / 1000000, found * 1000000L / Math.max(1, elapsed));
+        }
+    }
+
+    @Test
+    public void cachedLookups() throws Exception
+    {
+        String wnHome = System.getProperty("SOURCE");
+        IDictionary cached = new CachingDictionary(new DataSourceDictionary(new FileProvider(new File(wnHome))))
+        {
+            protected IItemCache createCache()
+            {
+                // shared by the threads
+                return new ConcurrentItemCache();
+            }
+        };
+        cached.open();
+        try
+        {
+            lookup(cached, 1, 1);
+            int threads = Math.max(2, Runtime.getRuntime().availableProcessors());
+            for (int t = 1; t <= threads; t *= 2)
+            {
+                long start = System.nanoTime();
+                int found = lookup(cached, t, CACHED_ROUNDS);
+                long elapsed = System.nanoTime() - start;
+
+                assertEquals(t * CACHED_ROUNDS * lemmas.size(), found);
+                PS.printf("cached threads=%d lookups=%d time=%dms throughput=%d/ms%n", t, found, elapsed / 1000000, found * 1000000L / Math.max(1, elapsed));
+            }
+        }
+        finally
+        {
+            cached.close();
+        }
+    }
+
+    @Test
+    public void closeDuringLookups() throws Exception
+    {
+        String wnHome = System.getProperty("SOURCE");
+        int threads = Math.max(2, Runtime.getRuntime().availableProcessors());
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try
+        {
+            for (int round = 0; round < 10; round++)
+            {
+                IDictionary dict2 = new DataSourceDictionary(new FileProvider(new File(wnHome)));
+                dict2.open();
+                List<Future<Integer>> futures = new ArrayList<>();
+                for (int i = 0; i < threads; i++)
+                {
+                    futures.add(executor.submit(() -> {
+                        // look up until the dictionary is closed
+                        int found = 0;
+                        try
+                        {
+                            while (true)
+                            {
+                                for (String lemma : lemmas)
+                                {
+                                    if (dict2.getIndexWord(lemma, POS.NOUN) != null)
+                                    {
+                                        found++;
+                                    }
+                                }
+                            }
+                        }
+                        catch (ObjectClosedException e)
+                        {
+                            return found;
+                        }
+                    }));
+                }
+                TimeUnit.MILLISECONDS.sleep(20);
+                dict2.close();
+                int found = 0;
+                for (Future<Integer> future : futures)
+                {
+                    found += future.get();
+                }
+                assertTrue(found > 0);
+                PS.printf("round=%d lookups before close=%d%n", round, found);
+            }
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void readBookkeeping() throws Exception
+    {
+        ReadCountingFile file = new ReadCountingFile();
+        file.open();
+        AtomicInteger shared = new AtomicInteger();
+        try
+        {
+            int cores = Runtime.getRuntime().availableProcessors();
+            for (int threads = 1; threads <= Math.max(2, cores); threads *= 2)
+            {
+                long fileTime = time(threads, () -> {
+                    for (int i = 0; i < READS; i++)
+                    {
+                        file.read();
+                    }
+                });
+                long sharedTime = time(threads, () -> {
+                    for (int i = 0; i < READS; i++)
+                    {
+                        shared.incrementAndGet();
+                        shared.decrementAndGet();
+                    }
+                });
+                assertEquals(0, shared.get());
+                PS.printf("threads=%d reads=%d file=%dms shared counter=%dms%n", threads, threads * READS, fileTime / 1000000, sharedTime / 1000000);
+            }
+        }
+        finally
+        {
+            file.close();
+        }
+    }
+
+    private static long time(int threads, Runnable task) throws Exception
+    {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try
+        {
+            List<Future<?>> futures = new ArrayList<>();
+            long start = System.nanoTime();
+            for (int i = 0; i < threads; i++)
+            {
+                futures.add(executor.submit(task));
+            }
+            for (Future<?> future : futures)
+            {
+                future.get();
+            }
+            return System.nanoTime() - start;
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * A file of one line, whose reads do nothing but the bookkeeping.
+     */
+    private static class ReadCountingFile extends DirectAccessWordnetFile<IIndexWord>
+    {
+        public ReadCountingFile()
+        {
+            super("index.noun", ByteBuffer.wrap("a n 1 0 1 0 00000001\n".getBytes(StandardCharsets.US_ASCII)), ContentType.INDEX_NOUN);
+        }
+
+        public void read()
+        {
+            beginRead();
+            endRead();
+        }
+    }
+
+    private static int lookup(IDictionary dict, int threads, int rounds) throws Exception
+    {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try
+        {
+            List<Future<Integer>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++)
+            {
+                futures.add(executor.submit(() -> {
+                    int found = 0;
+                    for (int round = 0; round < rounds; round++)
+                    {
+                        for (String lemma : lemmas)
+                        {
+                            if (dict.getIndexWord(lemma, POS.NOUN) != null)
+                            {
+                                found++;
+                            }
+                        }
+                    }
+                    return found;
+                }));
+            }
+            int found = 0;
+            for (Future<Integer> future : futures)
+            {
+                found += future.get();
+            }
+            return found;
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,555 @@
+package edu.mit.jwi.test;
+
+import edu.mit.jwi.DataSourceDictionary;
+import edu.mit.jwi.DataSourceDictionary.FileIterator;
+import edu.mit.jwi.IDictionary;
+import edu.mit.jwi.ItemWeigher;
+import edu.mit.jwi.data.*;
+import edu.mit.jwi.data.parse.DataLineParser;
+import edu.mit.jwi.data.parse.IndexLineParser;
+import edu.mit.jwi.item.*;
+import edu.mit.jwi.item.Synset.IWordBuilder;
+import edu.mit.jwi.item.Synset.WordBuilder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks the cursor-based data line parser against a reference parser built
+ * on a string tokenizer, the parsers working on bytes and the lazy synsets
+ * against the same parsers working on strings, checks that lazy synsets are
+ * weighed about as much before they are parsed as after, without being parsed
+ * by it, checks that the cursor allocates less than the tokenizer, and reports
+ * the time and the bytes allocated per parsed synset with each.
+ */
+public class DataLineParserTests
+{
+    private static final boolean VERBOSE = !System.getProperties().containsKey("SILENT");
+
+    private static final PrintStream PS = VERBOSE ? System.out : new PrintStream(new OutputStream()
+    {
+        public void write(int b)
+        {
+            //DO NOTHING
+        }
+    });
+
+    private static final int ROUNDS = 20;
+
+    private static List<String> lines;
+
+    private static List<String> indexLines;
+
+    // the settings of the parsers, which some tests change
+    private int poolSize;
+
+    private boolean lazySynsets;
+
+    @BeforeAll
+    public static void init() throws IOException
+    {
+        lines = readLines("data");
+        indexLines = readLines("index");
+    }
+
+    @BeforeEach
+    public void saveSettings()
+    {
+        poolSize = IDPool.getPoolSize();
+        lazySynsets = DataLineParser.getLazySynsets();
+    }
+
+    @AfterEach
+    public void restoreSettings()
+    {
+        IDPool.setPoolSize(poolSize);
+        DataLineParser.setLazySynsets(lazySynsets);
+    }
+
+    private static List<String> readLines(String prefix) throws IOException
+    {
+        String wnHome = System.getProperty("SOURCE");
+        List<String> result = new ArrayList<>();
+        for (String pos : new String[]{"noun", "verb", "adj", "adv"})
+        {
+            for (String line : Files.readAllLines(new File(wnHome, prefix + "." + pos).toPath(), StandardCharsets.UTF_8))
+            {
+                if (!line.startsWith("  "))
+                {
+                    result.add(line);
+                }
+            }
+        }
+        return result;
+    }
+
+    private static ByteBuffer toBytes(String line)
+    {
+        return ByteBuffer.wrap(line.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void sameSynsets()
+    {
+        DataLineParser parser = DataLineParser.getInstance();
+        for (String line : lines)
+        {
+            ISynset expected = referenceParse(line);
+            ISynset actual = parser.parseLine(line);
+            assertSameSynset(expected, actual);
+        }
+    }
+
+    @Test
+    public void sameSynsetsFromBytes()
+    {
+        DataLineParser parser = DataLineParser.getInstance();
+        for (String line : lines)
+        {
+            assertSameSynset(parser.parseLine(line), parser.parseLine(toBytes(line), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    public void sameIndexWordsFromBytes()
+    {
+        IndexLineParser parser = IndexLineParser.getInstance();
+        for (String line : indexLines)
+        {
+            IIndexWord expected = parser.parseLine(line);
+            IIndexWord actual = parser.parseLine(toBytes(line), StandardCharsets.UTF_8);
+            assertEquals(expected.getID(), actual.getID());
+            assertEquals(expected.getTagSenseCount(), actual.getTagSenseCount());
+            assertEquals(expected.getPointers(), actual.getPointers());
+            assertEquals(expected.getWordIDs(), actual.getWordIDs());
+        }
+    }
+
+    @Test
+    public void currentLinesDecoded() throws IOException
+    {
+        // the iterators parse the bytes of the files, and decode a line only
+        // when it is asked for
+        IDictionary dict = new DataSourceDictionary(new FileProvider(new File(System.getProperty("SOURCE"))));
+        dict.open();
+        try
+        {
+            List<String> dataLines = new ArrayList<>();
+            List<String> indexWordLines = new ArrayList<>();
+            for (POS pos : POS.values())
+            {
+                for (Iterator<ISynset> it = dict.getSynsetIterator(pos); it.hasNext(); )
+                {
+                    ISynset synset = it.next();
+                    String line = ((FileIterator<?, ?>) it).getCurrentLine();
+                    assertEquals(synset.getID().getOffset(), Integer.parseInt(line.substring(0, 8)));
+                    dataLines.add(line);
+                }
+                for (Iterator<IIndexWord> it = dict.getIndexWordIterator(pos); it.hasNext(); )
+                {
+                    it.next();
+                    indexWordLines.add(((FileIterator<?, ?>) it).getCurrentLine());
+                }
+            }
+            assertEquals(lines, dataLines);
+            assertEquals(indexLines, indexWordLines);
+        }
+        finally
+        {
+            dict.close();
+        }
+    }
+
+    @Test
+    public void stringParserOverrideHonoured() throws IOException
+    {
+        // a parser that overrides its parsing of strings only must be given
+        // strings, by lookups, iterators and streams alike
+        Set<String> parsed = Collections.newSetFromMap(new ConcurrentHashMap<>());
+        DataLineParser parser = new DataLineParser()
+        {
+            public ISynset parseLine(String line)
+            {
+                parsed.add(line);
+                return super.parseLine(line);
+            }
+        };
+        IDataType<ISynset> dataType = new DataType<>("Data", true, parser, DataType.DATA.getResourceNameHints());
+        List<IContentType<?>> types = new ArrayList<>();
+        for (ContentType<?> type : ContentType.values())
+        {
+            if (type != ContentType.DATA_NOUN)
+            {
+                types.add(type);
+            }
+        }
+        types.add(new ContentType<ISynset>(ContentTypeKey.DATA_NOUN, ContentType.DATA_NOUN.getLineComparator(), ContentType.DATA_NOUN.getCharset())
+        {
+            public IDataType<ISynset> getDataType()
+            {
+                return dataType;
+            }
+        });
+        IDictionary dict = new DataSourceDictionary(new FileProvider(new File(System.getProperty("SOURCE")), ILoadPolicy.NO_LOAD, types));
+        dict.open();
+        try
+        {
+            List<ISynsetID> ids = new ArrayList<>();
+            for (Iterator<ISynset> it = dict.getSynsetIterator(POS.NOUN); it.hasNext(); )
+            {
+                ids.add(it.next().getID());
+            }
+            assertFalse(ids.isEmpty());
+            assertEquals(ids.size(), parsed.size());
+
+            parsed.clear();
+            for (ISynsetID id : ids)
+            {
+                assertEquals(id, dict.getSynset(id).getID());
+            }
+            assertEquals(ids.size(), parsed.size());
+
+            parsed.clear();
+            assertEquals(ids, dict.getSynsetStream(POS.NOUN).map(ISynset::getID).collect(Collectors.toList()));
+            assertEquals(ids.size(), parsed.size());
+        }
+        finally
+        {
+            dict.close();
+        }
+    }
+
+    @Test
+    public void sameLazySynsets()
+    {
+        DataLineParser parser = DataLineParser.getInstance();
+        for (String line : lines)
+        {
+            ISynset expected = parser.parseLine(line);
+            ISynset actual = lazyParse(parser, line);
+            assertTrue(actual instanceof LazySynset);
+            assertFalse(((LazySynset) actual).hasWords());
+            assertEquals(expected.getRelatedSynsets(), actual.getRelatedSynsets());
+            assertFalse(((LazySynset) actual).hasWords());
+            assertSameSynset(expected, actual);
+            assertEquals(actual, expected);
+            assertEquals(expected.hashCode(), actual.hashCode());
+        }
+    }
+
+    @Test
+    public void lazyWeighedAsParsed()
+    {
+        DataLineParser parser = DataLineParser.getInstance();
+        long before = 0, after = 0;
+        for (String line : lines)
+        {
+            LazySynset synset = (LazySynset) lazyParse(parser, line);
+            int unparsed = ItemWeigher.weigh(synset);
+            synset.getWords();
+            int partly = ItemWeigher.weigh(synset);
+
+            // weighing parses no section
+            assertFalse(synset.hasRelated());
+            assertFalse(synset.hasGloss());
+            synset.getGloss();
+            synset.getRelatedSynsets();
+            int parsed = ItemWeigher.weigh(synset);
+            assertTrue(unparsed * 4 >= parsed * 3 && unparsed * 3 <= parsed * 4, "unparsed=" + unparsed + " parsed=" + parsed + " " + line);
+            assertTrue(partly * 4 >= parsed * 3 && partly * 3 <= parsed * 4, "partly=" + partly + " parsed=" + parsed + " " + line);
+            before += unparsed;
+            after += parsed;
+        }
+        PS.printf("synsets=%d weight unparsed=%d parsed=%d%n", lines.size(), before, after);
+        assertTrue(Math.abs(before - after) * 20 <= after);
+    }
+
+    @Test
+    public void lazyWordsMadeOnce() throws Exception
+    {
+        DataLineParser parser = DataLineParser.getInstance();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try
+        {
+            for (String line : lines.subList(0, Math.min(200, lines.size())))
+            {
+                ISynset synset = lazyParse(parser, line);
+                List<Future<List<IWord>>> futures = new ArrayList<>();
+                for (int i = 0; i < 4; i++)
+                {
+                    futures.add(executor.submit(synset::getWords));
+                }
+                for (Future<List<IWord>> future : futures)
+                {
+                    assertSame(synset.getWords(), future.get());
+                }
+            }
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void pooledIDsShared()
+    {
+        DataLineParser parser = DataLineParser.getInstance();
+
+        // a slot may be taken by another id of the same line
+        IDPool.setPoolSize(1 << 20);
+        int ids = 0, shared = 0;
+        for (String line : lines)
+        {
+            ISynset first = parser.parseLine(line);
+            ISynset second = parser.parseLine(line);
+            ids += 1 + first.getWords().size();
+            shared += first.getID() == second.getID() ? 1 : 0;
+            for (int i = 0; i < first.getWords().size(); i++)
+            {
+                IWord word = first.getWords().get(i);
+                if (!first.isAdjectiveSatellite())
+                {
+                    assertEquals(word.getSenseKey(), second.getWords().get(i).getSenseKey());
+                }
+                shared += word.getID() == second.getWords().get(i).getID() ? 1 : 0;
+            }
+        }
+        PS.printf("%d of %d ids shared%n", shared, ids);
+        assertTrue(shared >= ids * 0.99);
+
+        IDPool.setPoolSize(0);
+        String line = lines.get(0);
+        assertFalse(parser.parseLine(line).getID() == parser.parseLine(line).getID());
+    }
+
+    @Test
+    public void lazyCost()
+    {
+        DataLineParser parser = DataLineParser.getInstance();
+        report("eager words", line -> parser.parseLine(line), s -> s.getWords().size());
+        report("lazy words", line -> lazyParse(parser, line), s -> s.getWords().size());
+        report("eager hypernyms", line -> parser.parseLine(line), s -> s.getRelatedSynsets(Pointer.HYPERNYM).size());
+        report("lazy hypernyms", line -> lazyParse(parser, line), s -> s.getRelatedSynsets(Pointer.HYPERNYM).size());
+    }
+
+    private static ISynset lazyParse(DataLineParser parser, String line)
+    {
+        boolean lazy = DataLineParser.getLazySynsets();
+        DataLineParser.setLazySynsets(true);
+        try
+        {
+            return parser.parseLine(line);
+        }
+        finally
+        {
+            DataLineParser.setLazySynsets(lazy);
+        }
+    }
+
+    private static void assertSameSynset(ISynset expected, ISynset actual)
+    {
+        assertEquals(expected, actual);
+        assertEquals(expected.getLexicalFile(), actual.getLexicalFile());
+        assertEquals(expected.isAdjectiveHead(), actual.isAdjectiveHead());
+        assertEquals(expected.isAdjectiveSatellite(), actual.isAdjectiveSatellite());
+        assertEquals(expected.getGloss(), actual.getGloss());
+        assertEquals(expected.getRelatedMap(), actual.getRelatedMap());
+        assertEquals(expected.getWords().size(), actual.getWords().size());
+        for (int i = 0; i < expected.getWords().size(); i++)
+        {
+            IWord w1 = expected.getWords().get(i);
+            IWord w2 = actual.getWords().get(i);
+            assertEquals(w1.getID(), w2.getID());
+            assertEquals(w1.getLexicalID(), w2.getLexicalID());
+            assertEquals(w1.getAdjectiveMarker(), w2.getAdjectiveMarker());
+            assertEquals(w1.getRelatedMap(), w2.getRelatedMap());
+            assertEquals(w1.getVerbFrames(), w2.getVerbFrames());
+        }
+    }
+
+    @Test
+    public void parseCost()
+    {
+        DataLineParser parser = DataLineParser.getInstance();
+
+        // the byte parser reads the undecoded lines, as found in the file
+        Map<String, ByteBuffer> bytes = new HashMap<>();
+        for (String line : lines)
+        {
+            bytes.put(line, toBytes(line));
+        }
+        Function<String, ISynset> fromBytes = line -> parser.parseLine(bytes.get(line).duplicate(), StandardCharsets.UTF_8);
+
+        // the three parse every line of the files alike
+        for (String line : lines)
+        {
+            ISynset expected = referenceParse(line);
+            assertSameSynset(expected, parser.parseLine(line));
+            assertSameSynset(expected, fromBytes.apply(line));
+        }
+
+        // and the cursor allocates less than the tokenizer, from strings or
+        // from bytes
+        long tokenizer = report("tokenizer", DataLineParserTests::referenceParse);
+        long cursor = report("cursor", parser::parseLine);
+        long cursorBytes = report("bytes", fromBytes);
+        if (tokenizer >= 0)
+        {
+            assertTrue(cursor < tokenizer, "cursor=" + cursor + " tokenizer=" + tokenizer);
+            assertTrue(cursorBytes < tokenizer, "bytes=" + cursorBytes + " tokenizer=" + tokenizer);
+        }
+    }
+
+    private static long report(String name, Function<String, ISynset> parse)
+    {
+        return report(name, parse, s -> s.getWords().size());
+    }
+
+    /**
+     * Reports the time and the bytes allocated per synset by the specified
+     * parse, and returns the bytes, or -1 if they cannot be measured.
+     */
+    private static long report(String name, Function<String, ISynset> parse, ToIntFunction<ISynset> use)
+    {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        com.sun.management.ThreadMXBean allocs = threads instanceof com.sun.management.ThreadMXBean ? (com.sun.management.ThreadMXBean) threads : null;
+        long id = Thread.currentThread().getId();
+        long best = Long.MAX_VALUE;
+        long bytes = -1;
+        int sink = 0;
+        for (int round = 0; round < ROUNDS; round++)
+        {
+            long before = allocs == null ? 0 : allocs.getThreadAllocatedBytes(id);
+            long start = System.nanoTime();
+            for (String line : lines)
+            {
+                sink += use.applyAsInt(parse.apply(line));
+            }
+            best = Math.min(best, System.nanoTime() - start);
+            if (allocs != null)
+            {
+                bytes = allocs.getThreadAllocatedBytes(id) - before;
+            }
+        }
+        PS.printf("%s: synsets=%d time=%dns/synset alloc=%dB/synset (%d)%n", name, lines.size(), best / lines.size(), bytes / lines.size(), sink);
+        return bytes < 0 ? -1 : bytes / lines.size();
+    }
+
+    // reference implementation: the tokenizer-based parser
+    private static ISynset referenceParse(String line)
+    {
+        StringTokenizer tokenizer = new StringTokenizer(line, " ");
+        int offset = Integer.parseInt(tokenizer.nextToken());
+        int lexFileNum = Integer.parseInt(tokenizer.nextToken());
+        ILexFile lexFile = LexFile.getLexicalFile(lexFileNum);
+        if (lexFile == null)
+        {
+            lexFile = UnknownLexFile.getUnknownLexicalFile(lexFileNum);
+        }
+        char tag = tokenizer.nextToken().charAt(0);
+        POS pos = POS.getPartOfSpeech(tag);
+        ISynsetID synsetID = new SynsetID(offset, pos);
+        boolean isAdjSat = tag == 's';
+        boolean isAdjHead = !isAdjSat && lexFileNum == 0;
+
+        int wordCount = Integer.parseInt(tokenizer.nextToken(), 16);
+        IWordBuilder[] builders = new IWordBuilder[wordCount];
+        for (int i = 0; i < wordCount; i++)
+        {
+            String lemma = tokenizer.nextToken();
+            AdjMarker marker = null;
+            if (pos == POS.ADJECTIVE)
+            {
+                for (AdjMarker adjMarker : AdjMarker.values())
+                {
+                    if (lemma.endsWith(adjMarker.getSymbol()))
+                    {
+                        marker = adjMarker;
+                        lemma = lemma.substring(0, lemma.length() - adjMarker.getSymbol().length());
+                    }
+                }
+            }
+            int lexID = Integer.parseInt(tokenizer.nextToken(), 16);
+            builders[i] = new WordBuilder(i + 1, lemma, lexID, marker);
+        }
+
+        int pointerCount = Integer.parseInt(tokenizer.nextToken());
+        Map<IPointer, ArrayList<ISynsetID>> pointers = null;
+        for (int i = 0; i < pointerCount; i++)
+        {
+            IPointer type = Pointer.getPointerType(tokenizer.nextToken(), pos);
+            int targetOffset = Integer.parseInt(tokenizer.nextToken());
+            POS targetPos = POS.getPartOfSpeech(tokenizer.nextToken().charAt(0));
+            ISynsetID target = new SynsetID(targetOffset, targetPos);
+            int sourceTarget = Integer.parseInt(tokenizer.nextToken(), 16);
+            if (sourceTarget == 0)
+            {
+                if (pointers == null)
+                {
+                    pointers = new HashMap<>();
+                }
+                pointers.computeIfAbsent(type, k -> new ArrayList<>()).add(target);
+            }
+            else
+            {
+                builders[sourceTarget / 256 - 1].addRelatedWord(type, new WordID(target, sourceTarget & 255));
+            }
+        }
+
+        if (pos == POS.VERB)
+        {
+            String peek = tokenizer.nextToken();
+            if (!peek.startsWith("|"))
+            {
+                int frameCount = Integer.parseInt(peek);
+                for (int i = 0; i < frameCount; i++)
+                {
+                    tokenizer.nextToken();
+                    IVerbFrame frame = VerbFrame.getFrame(Integer.parseInt(tokenizer.nextToken()));
+                    int wordNum = Integer.parseInt(tokenizer.nextToken(), 16);
+                    if (wordNum > 0)
+                    {
+                        builders[wordNum - 1].addVerbFrame(frame);
+                    }
+                    else
+                    {
+                        for (IWordBuilder builder : builders)
+                        {
+                            builder.addVerbFrame(frame);
+                        }
+                    }
+                }
+            }
+        }
+
+        String gloss = "";
+        int index = line.indexOf('|');
+        if (index > 0)
+        {
+            gloss = line.substring(index + 2).trim();
+        }
+        return new Synset(synsetID, lexFile, isAdjSat, isAdjHead, gloss, Arrays.asList(builders), pointers);
+    }
+}
@@ -0,0 +1,164 @@
+package edu.mit.jwi.test;
+
+import edu.mit.jwi.data.ContentType;
+import edu.mit.jwi.data.LineHashIndex;
+import edu.mit.jwi.data.compare.ICommentDetector;
+import edu.mit.jwi.data.compare.ILineComparator;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that the hash index of a file is written to its sidecar and read
+ * back unchanged, and that a sidecar is not used once the file it was written
+ * for has changed, even in place with its size and modification time kept,
+ * or is read with another character set.
+ */
+public class HashIndexTests
+{
+    private static final boolean VERBOSE = !System.getProperties().containsKey("SILENT");
+
+    private static final PrintStream PS = VERBOSE ? System.out : new PrintStream(new OutputStream()
+    {
+        public void write(int b)
+        {
+            //DO NOTHING
+        }
+    });
+
+    private static final ILineComparator COMPARATOR = ContentType.INDEX_NOUN.getLineComparator();
+
+    private static final ICommentDetector DETECTOR = COMPARATOR.getCommentDetector();
+
+    private static final Charset CS = StandardCharsets.UTF_8;
+
+    private static File dir;
+
+    private static File file;
+
+    private static byte[] content;
+
+    private static List<String> lemmas;
+
+    @BeforeAll
+    public static void init() throws IOException
+    {
+        // work on a copy, as the file is going to be edited
+        File source = new File(System.getProperty("SOURCE"), "index.noun");
+        dir = Files.createTempDirectory("jwi-hash").toFile();
+        file = new File(dir, source.getName());
+        content = Files.readAllBytes(source.toPath());
+        lemmas = new ArrayList<>();
+        for (String line : new String(content, CS).split("\n"))
+        {
+            if (!DETECTOR.isCommentLine(line))
+            {
+                lemmas.add(line.substring(0, line.indexOf(' ')));
+            }
+        }
+    }
+
+    @AfterAll
+    public static void cleanup() throws IOException
+    {
+        File[] files = dir.listFiles();
+        if (files != null)
+        {
+            for (File f : files)
+            {
+                Files.delete(f.toPath());
+            }
+        }
+        Files.delete(dir.toPath());
+    }
+
+    @Test
+    public void sidecarRoundTrip() throws IOException
+    {
+        Files.write(file.toPath(), content);
+        File sidecar = LineHashIndex.getSidecarFile(file);
+        Files.deleteIfExists(sidecar.toPath());
+        ByteBuffer buf = ByteBuffer.wrap(content);
+
+        LineHashIndex built = LineHashIndex.obtain(file, buf, CS, DETECTOR);
+        assertTrue(sidecar.exists());
+        assertEquals(LineHashIndex.checksum(buf), built.getChecksum());
+        LineHashIndex read = LineHashIndex.read(sidecar, file.length(), file.lastModified(), built.getChecksum(), CS);
+        assertNotNull(read);
+        PS.printf("lemmas=%d sidecar=%d bytes%n", lemmas.size(), sidecar.length());
+
+        for (String lemma : lemmas)
+        {
+            int offset = built.find(buf, lemma, COMPARATOR, CS);
+            assertTrue(offset >= 0, lemma);
+            assertEquals(offset, read.find(buf, lemma, COMPARATOR, CS), lemma);
+            assertTrue(new String(content, offset, lemma.length() + 1, CS).equals(lemma + " "), lemma);
+        }
+        assertEquals(-1, read.find(buf, "nosuchlemma", COMPARATOR, CS));
+
+        // a sidecar that cannot be written leaves the index in memory only
+        assertFalse(built.write(new File(new File(dir, "missing"), sidecar.getName()), file.length(), file.lastModified(), CS));
+    }
+
+    @Test
+    public void staleSidecarRebuilt() throws IOException
+    {
+        Files.write(file.toPath(), content);
+        File sidecar = LineHashIndex.getSidecarFile(file);
+        Files.deleteIfExists(sidecar.toPath());
+        LineHashIndex original = LineHashIndex.obtain(file, ByteBuffer.wrap(content), CS, DETECTOR);
+        long length = file.length();
+        long modified = file.lastModified();
+        long checksum = original.getChecksum();
+        assertNotNull(LineHashIndex.read(sidecar, length, modified, checksum, CS));
+
+        // any difference in the stamp makes the sidecar stale
+        assertNull(LineHashIndex.read(sidecar, length + 1, modified, checksum, CS));
+        assertNull(LineHashIndex.read(sidecar, length, modified + 1000, checksum, CS));
+        assertNull(LineHashIndex.read(sidecar, length, modified, checksum + 1, CS));
+        assertNull(LineHashIndex.read(sidecar, length, modified, checksum, StandardCharsets.ISO_8859_1));
+        assertNull(LineHashIndex.read(sidecar, length, modified, checksum, null));
+
+        // rename a lemma in place, keeping the size and modification time
+        Set<String> known = new HashSet<>(lemmas);
+        String lemma = lemmas.get(lemmas.size() / 2);
+        char[] chars = new char[lemma.length()];
+        Arrays.fill(chars, 'q');
+        String renamed = new String(chars);
+        assertFalse(known.contains(renamed));
+        byte[] edited = content.clone();
+        int at = original.find(ByteBuffer.wrap(content), lemma, COMPARATOR, CS);
+        System.arraycopy(renamed.getBytes(CS), 0, edited, at, renamed.length());
+        Files.write(file.toPath(), edited);
+        assertTrue(file.setLastModified(modified));
+        assertEquals(length, file.length());
+        assertEquals(modified, file.lastModified());
+
+        ByteBuffer buf = ByteBuffer.wrap(edited);
+        assertEquals(-1, original.find(buf, renamed, COMPARATOR, CS));
+        LineHashIndex rebuilt = LineHashIndex.obtain(file, buf, CS, DETECTOR);
+        assertTrue(rebuilt.getChecksum() != checksum);
+        assertEquals(at, rebuilt.find(buf, renamed, COMPARATOR, CS));
+        assertEquals(-1, rebuilt.find(buf, lemma, COMPARATOR, CS));
+
+        // the sidecar was rewritten for the new content
+        assertNull(LineHashIndex.read(sidecar, length, modified, checksum, CS));
+        assertNotNull(LineHashIndex.read(sidecar, length, modified, rebuilt.getChecksum(), CS));
+    }
+}
@@ -0,0 +1,173 @@
+package edu.mit.jwi.test;
+
+import edu.mit.jwi.DataSourceDictionary;
+import edu.mit.jwi.IDictionary;
+import edu.mit.jwi.data.FileProvider;
+import edu.mit.jwi.data.ILoadPolicy;
+import edu.mit.jwi.data.InMemoryProvider;
+import edu.mit.jwi.item.IIndexWord;
+import edu.mit.jwi.item.ISynset;
+import edu.mit.jwi.item.IWordID;
+import edu.mit.jwi.item.POS;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Iterator;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Packs the Wordnet files into a zip archive, and into a jar put on the
+ * classpath, opens dictionaries over them and over the directory itself with
+ * in-memory providers, on the heap and off it, and checks that lookups give
+ * the same results as with a file provider over the directory.
+ */
+public class InMemoryProviderTests
+{
+    private static final boolean VERBOSE = !System.getProperties().containsKey("SILENT");
+
+    private static final PrintStream PS = VERBOSE ? System.out : new PrintStream(new OutputStream()
+    {
+        public void write(int b)
+        {
+            //DO NOTHING
+        }
+    });
+
+    private static final int MAX_LEMMAS = 2000;
+
+    @Test
+    public void zipMatchesDirectory() throws IOException
+    {
+        String wnHome = System.getProperty("SOURCE");
+        File zip = File.createTempFile("wordnet", ".zip");
+        zip.deleteOnExit();
+        try (ZipOutputStream out = new ZipOutputStream(Files.newOutputStream(zip.toPath())))
+        {
+            File[] files = new File(wnHome).listFiles(File::isFile);
+            assertNotNull(files);
+            for (File file : files)
+            {
+                out.putNextEntry(new ZipEntry("dict/" + file.getName()));
+                Files.copy(file.toPath(), out);
+                out.closeEntry();
+            }
+        }
+
+        for (int policy : new int[]{ILoadPolicy.NO_LOAD, ILoadPolicy.OFF_HEAP})
+        {
+            checkSame(new InMemoryProvider(zip, policy), "zip policy=" + policy);
+        }
+    }
+
+    @Test
+    public void directoryMatchesDirectory() throws IOException
+    {
+        File dir = new File(System.getProperty("SOURCE"));
+        for (int policy : new int[]{ILoadPolicy.NO_LOAD, ILoadPolicy.OFF_HEAP})
+        {
+            checkSame(new InMemoryProvider(dir, policy), "directory policy=" + policy);
+        }
+    }
+
+    @Test
+    public void classpathJarMatchesDirectory() throws IOException
+    {
+        // a jar with the files in a directory, and a decoy next to it
+        String wnHome = System.getProperty("SOURCE");
+        File jar = File.createTempFile("wordnet", ".jar");
+        jar.deleteOnExit();
+        try (JarOutputStream out = new JarOutputStream(Files.newOutputStream(jar.toPath())))
+        {
+            out.putNextEntry(new JarEntry("wordnet/"));
+            out.closeEntry();
+            out.putNextEntry(new JarEntry("wordnet/dict/"));
+            out.closeEntry();
+            File[] files = new File(wnHome).listFiles(File::isFile);
+            assertNotNull(files);
+            for (File file : files)
+            {
+                out.putNextEntry(new JarEntry("wordnet/dict/" + file.getName()));
+                Files.copy(file.toPath(), out);
+                out.closeEntry();
+            }
+            out.putNextEntry(new JarEntry("wordnet/index.noun"));
+            out.write("decoy 0\n".getBytes(StandardCharsets.US_ASCII));
+            out.closeEntry();
+        }
+
+        Thread thread = Thread.currentThread();
+        ClassLoader saved = thread.getContextClassLoader();
+        try (URLClassLoader loader = new URLClassLoader(new URL[]{jar.toURI().toURL()}, null))
+        {
+            thread.setContextClassLoader(loader);
+            InMemoryProvider provider = InMemoryProvider.fromClasspath("wordnet/dict");
+            URL url = provider.getSource();
+            assertNotNull(url);
+            assertEquals("jar", url.getProtocol());
+            checkSame(provider, "classpath");
+            assertThrows(IOException.class, () -> InMemoryProvider.fromClasspath("wordnet/nosuchdir"));
+        }
+        finally
+        {
+            thread.setContextClassLoader(saved);
+        }
+    }
+
+    private static void checkSame(InMemoryProvider provider, String label) throws IOException
+    {
+        IDictionary expected = new DataSourceDictionary(new FileProvider(new File(System.getProperty("SOURCE"))));
+        IDictionary actual = new DataSourceDictionary(provider);
+        expected.open();
+        actual.open();
+        try
+        {
+            assertEquals(expected.getVersion(), actual.getVersion());
+            int n = 0;
+            for (POS pos : POS.values())
+            {
+                Iterator<IIndexWord> it = expected.getIndexWordIterator(pos);
+                for (int i = 0; it.hasNext() && i < MAX_LEMMAS; i++)
+                {
+                    IIndexWord word = it.next();
+                    IIndexWord found = actual.getIndexWord(word.getLemma(), pos);
+                    assertNotNull(found);
+                    assertEquals(word.getWordIDs(), found.getWordIDs());
+                    for (IWordID id : word.getWordIDs())
+                    {
+                        ISynset synset = actual.getSynset(id.getSynsetID());
+                        assertNotNull(synset);
+                        assertEquals(expected.getSynset(id.getSynsetID()).getGloss(), synset.getGloss());
+                    }
+                    n++;
+                }
+            }
+            PS.printf("%s lookups=%d%n", label, n);
+        }
+        finally
+        {
+            actual.close();
+            expected.close();
+        }
+    }
+
+    @Test
+    public void reloadOnChangeUnsupported()
+    {
+        InMemoryProvider provider = new InMemoryProvider(new File(System.getProperty("SOURCE")));
+        assertThrows(UnsupportedOperationException.class, () -> provider.setReloadOnChange(true));
+    }
+}
@@ -0,0 +1,148 @@
+package edu.mit.jwi.test;
+
+import edu.mit.jwi.data.ContentType;
+import edu.mit.jwi.data.ContentTypeKey;
+import edu.mit.jwi.data.DirectAccessWordnetFile;
+import edu.mit.jwi.data.WordnetFile;
+import edu.mit.jwi.data.compare.DataLineComparator;
+import edu.mit.jwi.item.ISynset;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Checks the line decoding of WordnetFile against a plain CharsetDecoder
+ * pass, and times full-file iteration with both.
+ */
+public class LineDecodingTests
+{
+    private static final boolean VERBOSE = !System.getProperties().containsKey("SILENT");
+
+    private static final PrintStream PS = VERBOSE ? System.out : new PrintStream(new OutputStream()
+    {
+        public void write(int b)
+        {
+            //DO NOTHING
+        }
+    });
+
+    private static final int ROUNDS = 5;
+
+    private static final Charset CHARSET = StandardCharsets.UTF_8;
+
+    private static WordnetFile<ISynset> file;
+
+    @BeforeAll
+    public static void init() throws IOException
+    {
+        String wnHome = System.getProperty("SOURCE");
+        ContentType<ISynset> contentType = new ContentType<>(ContentTypeKey.DATA_NOUN, DataLineComparator.getInstance(), CHARSET);
+        file = new DirectAccessWordnetFile<>(new File(wnHome, "data.noun"), contentType);
+        file.open();
+    }
+
+    @AfterAll
+    public static void close()
+    {
+        file.close();
+    }
+
+    @Test
+    public void linesMatchDecoder()
+    {
+        ByteBuffer buf1 = file.getBuffer().duplicate();
+        ByteBuffer buf2 = file.getBuffer().duplicate();
+        buf1.clear();
+        buf2.clear();
+        String line;
+        while ((line = WordnetFile.getLine(buf1, CHARSET)) != null)
+        {
+            assertEquals(decodeLine(buf2), line);
+            assertEquals(buf2.position(), buf1.position());
+        }
+        assertNull(decodeLine(buf2));
+    }
+
+    @Test
+    public void iterationTime()
+    {
+        long decoderTime = Long.MAX_VALUE;
+        long fileTime = Long.MAX_VALUE;
+        int lines = 0;
+        for (int i = 0; i < ROUNDS; i++)
+        {
+            long start = System.nanoTime();
+            ByteBuffer buf = file.getBuffer().duplicate();
+            buf.clear();
+            int count = 0;
+            while (decodeLine(buf) != null)
+            {
+                count++;
+            }
+            decoderTime = Math.min(decoderTime, System.nanoTime() - start);
+
+            start = System.nanoTime();
+            lines = 0;
+            Iterator<String> it = file.iterator();
+            while (it.hasNext())
+            {
+                it.next();
+                lines++;
+            }
+            fileTime = Math.min(fileTime, System.nanoTime() - start);
+            assertEquals(count, lines + commentCount());
+        }
+        PS.printf("lines=%d decoder=%dus iterator=%dus speedup=%.1f%n", lines, decoderTime / 1000, fileTime / 1000, (double) decoderTime / fileTime);
+    }
+
+    private static int commentCount()
+    {
+        ByteBuffer buf = file.getBuffer().duplicate();
+        buf.clear();
+        int count = 0;
+        String line;
+        while ((line = WordnetFile.getLine(buf, CHARSET)) != null && line.startsWith("  "))
+        {
+            count++;
+        }
+        return count;
+    }
+
+    // reference implementation: locate the newline, then run the decoder
+    private static String decodeLine(ByteBuffer buf)
+    {
+        int limit = buf.limit();
+        int start = buf.position();
+        if (start == limit)
+        {
+            return null;
+        }
+        int end = start;
+        while (end < limit && buf.get(end) != '\n' && buf.get(end) != '\r')
+        {
+            end++;
+        }
+        int next = end;
+        if (next < limit && buf.get(next++) == '\r' && next < limit && buf.get(next) == '\n')
+        {
+            next++;
+        }
+        ByteBuffer slice = buf.duplicate();
+        slice.position(start);
+        slice.limit(end);
+        buf.position(next);
+        return CHARSET.decode(slice).toString();
+    }
+}
@@ -0,0 +1,225 @@
+package edu.mit.jwi.test;
+
+import edu.mit.jwi.CachingDictionary;
+import edu.mit.jwi.DataSourceDictionary;
+import edu.mit.jwi.IDictionary;
+import edu.mit.jwi.data.FileProvider;
+import edu.mit.jwi.item.*;
+import edu.mit.jwi.morph.WordnetStemmer;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that the miss cache of the caching dictionary never hides an index
+ * word or exception entry that is in the files, that it is dropped when the
+ * files are reloaded, and reports how many lookups reach the files when words
+ * are stemmed with and without it.
+ */
+public class MissCacheTests
+{
+    private static final boolean VERBOSE = !System.getProperties().containsKey("SILENT");
+
+    private static final PrintStream PS = VERBOSE ? System.out : new PrintStream(new OutputStream()
+    {
+        public void write(int b)
+        {
+            //DO NOTHING
+        }
+    });
+
+    private static File source;
+
+    private static Map<POS, List<String>> lemmas;
+
+    private static Map<POS, List<String>> surfaceForms;
+
+    @BeforeAll
+    public static void init() throws IOException
+    {
+        source = new File(System.getProperty("SOURCE"));
+        IDictionary dict = new DataSourceDictionary(new FileProvider(source));
+        dict.open();
+        lemmas = new EnumMap<>(POS.class);
+        surfaceForms = new EnumMap<>(POS.class);
+        for (POS pos : POS.values())
+        {
+            List<String> list = new ArrayList<>();
+            for (Iterator<IIndexWord> it = dict.getIndexWordIterator(pos); it.hasNext(); )
+            {
+                list.add(it.next().getLemma());
+            }
+            lemmas.put(pos, list);
+            list = new ArrayList<>();
+            for (Iterator<IExceptionEntry> it = dict.getExceptionEntryIterator(pos); it.hasNext(); )
+            {
+                list.add(it.next().getSurfaceForm());
+            }
+            surfaceForms.put(pos, list);
+        }
+        dict.close();
+    }
+
+    @Test
+    public void noFalseMisses() throws IOException
+    {
+        CachingDictionary dict = new CachingDictionary(new DataSourceDictionary(new FileProvider(source)));
+        dict.open();
+        try
+        {
+            for (POS pos : POS.values())
+            {
+                assertNull(dict.getIndexWord("nosuchlemma", pos));
+                assertNull(dict.getExceptionEntry("nosuchform", pos));
+                for (String lemma : lemmas.get(pos))
+                {
+                    assertNotNull(dict.getIndexWord(lemma, pos), lemma);
+                }
+                for (String form : surfaceForms.get(pos))
+                {
+                    assertNotNull(dict.getExceptionEntry(form, pos), form);
+                }
+                List<IIndexWordID> ids = new ArrayList<>();
+                for (String lemma : lemmas.get(pos))
+                {
+                    ids.add(new IndexWordID(lemma, pos));
+                    ids.add(new IndexWordID(lemma + "zz", pos));
+                }
+                List<IIndexWord> words = dict.getIndexWords(ids);
+                for (int i = 0; i < ids.size(); i++)
+                {
+                    assertEquals(i % 2 == 0, words.get(i) != null, ids.get(i).getLemma());
+                }
+            }
+        }
+        finally
+        {
+            dict.close();
+        }
+    }
+
+    @Test
+    public void fewerProbesWhenStemming() throws IOException
+    {
+        // the lemmas, and regular inflections of them
+        List<String> words = new ArrayList<>();
+        for (POS pos : POS.values())
+        {
+            for (String lemma : lemmas.get(pos))
+            {
+                words.add(lemma);
+                words.add(lemma + "s");
+                words.add(lemma + "ed");
+                words.add(lemma + "ing");
+            }
+        }
+        words.addAll(new ArrayList<>(words));
+
+        AtomicInteger withoutProbes = new AtomicInteger();
+        List<Set<String>> without = stem(words, withoutProbes, false);
+        AtomicInteger withProbes = new AtomicInteger();
+        List<Set<String>> with = stem(words, withProbes, true);
+        PS.printf("words=%d probes without=%d with=%d%n", words.size(), withoutProbes.get(), withProbes.get());
+        assertEquals(without, with);
+        assertTrue(withProbes.get() < withoutProbes.get() / 2);
+    }
+
+    private static List<Set<String>> stem(List<String> words, AtomicInteger probes, boolean filter) throws IOException
+    {
+        CachingDictionary dict = new CachingDictionary(new DataSourceDictionary(new FileProvider(source))
+        {
+            public IIndexWord getIndexWord(IIndexWordID id)
+            {
+                probes.incrementAndGet();
+                return super.getIndexWord(id);
+            }
+
+            public IExceptionEntry getExceptionEntry(IExceptionEntryID id)
+            {
+                probes.incrementAndGet();
+                return super.getExceptionEntry(id);
+            }
+        });
+        dict.getMissCache().setEnabled(filter);
+        dict.open();
+        try
+        {
+            WordnetStemmer stemmer = new WordnetStemmer(dict);
+            // the order of the stems of collocations is not fixed
+            List<Set<String>> result = new ArrayList<>();
+            for (String word : words)
+            {
+                result.add(new HashSet<>(stemmer.findStems(word, null)));
+            }
+            return result;
+        }
+        finally
+        {
+            dict.close();
+        }
+    }
+
+    @Test
+    public void droppedOnReload() throws IOException
+    {
+        // work on a copy, as a file is going to be replaced
+        Path dir = Files.createTempDirectory("jwi-misses");
+        File[] files = source.listFiles(File::isFile);
+        assertNotNull(files);
+        for (File file : files)
+        {
+            Files.copy(file.toPath(), dir.resolve(file.getName()));
+        }
+        try
+        {
+            // leave a lemma out of the noun index
+            Path index = dir.resolve("index.noun");
+            List<String> lines = Files.readAllLines(index, StandardCharsets.UTF_8);
+            String lemma = lemmas.get(POS.NOUN).get(lemmas.get(POS.NOUN).size() / 2);
+            List<String> without = new ArrayList<>(lines);
+            assertTrue(without.removeIf(line -> line.startsWith(lemma + " ")));
+            Files.write(index, without, StandardCharsets.UTF_8);
+
+            FileProvider provider = new FileProvider(dir.toFile());
+            CachingDictionary dict = new CachingDictionary(new DataSourceDictionary(provider));
+            dict.open();
+            try
+            {
+                assertNull(dict.getIndexWord(lemma, POS.NOUN));
+                assertNull(dict.getIndexWord(lemma, POS.NOUN));
+
+                // put it back
+                Files.write(index, lines, StandardCharsets.UTF_8);
+                assertTrue(provider.reload());
+                assertNotNull(dict.getIndexWord(lemma, POS.NOUN));
+            }
+            finally
+            {
+                dict.close();
+            }
+        }
+        finally
+        {
+            File[] copies = dir.toFile().listFiles();
+            if (copies != null)
+            {
+                for (File file : copies)
+                {
+                    Files.delete(file.toPath());
+                }
+            }
+            Files.delete(dir);
+        }
+    }
+}
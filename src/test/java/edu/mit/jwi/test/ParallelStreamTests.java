@@ -0,0 +1,181 @@
+package edu.mit.jwi.test;
+
+import edu.mit.jwi.DataSourceDictionary;
+import edu.mit.jwi.IDictionary;
+import edu.mit.jwi.RAMDictionary;
+import edu.mit.jwi.data.CompressedProvider;
+import edu.mit.jwi.data.CompressedWordnetFile;
+import edu.mit.jwi.data.FileProvider;
+import edu.mit.jwi.data.ILoadPolicy;
+import edu.mit.jwi.data.WordnetFile;
+import edu.mit.jwi.item.*;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks that the parallel streams of the dictionaries give the same items, in
+ * the same order, as their iterators, on mapped, segmented, compressed and
+ * in-memory files, and compares the time a parallel stream takes to parse all
+ * synsets with a sequential one.
+ */
+public class ParallelStreamTests
+{
+    private static final boolean VERBOSE = !System.getProperties().containsKey("SILENT");
+
+    private static final PrintStream PS = VERBOSE ? System.out : new PrintStream(new OutputStream()
+    {
+        public void write(int b)
+        {
+            //DO NOTHING
+        }
+    });
+
+    private static final int ROUNDS = 10;
+
+    private static File source;
+
+    private static File compressed;
+
+    @BeforeAll
+    public static void init() throws IOException
+    {
+        source = new File(System.getProperty("SOURCE"));
+        compressed = Files.createTempDirectory("wordnet-jwz").toFile();
+
+        // small blocks, so that the compressed files split too
+        CompressedWordnetFile.compressDirectory(source, compressed, 1 << 10);
+    }
+
+    @AfterAll
+    public static void cleanup()
+    {
+        File[] files = compressed.listFiles();
+        if (files != null)
+        {
+            for (File file : files)
+            {
+                file.delete();
+            }
+        }
+        compressed.delete();
+    }
+
+    @Test
+    public void sameAsIteratorsMapped() throws IOException
+    {
+        checkSame(new DataSourceDictionary(new FileProvider(source)));
+    }
+
+    @Test
+    public void sameAsIteratorsSegmented() throws IOException
+    {
+        int size = WordnetFile.getSegmentSize();
+        int overlap = WordnetFile.getSegmentOverlap();
+        try
+        {
+            WordnetFile.setSegmentSize(1 << 12);
+            WordnetFile.setSegmentOverlap(1 << 11);
+            checkSame(new DataSourceDictionary(new FileProvider(source)));
+        }
+        finally
+        {
+            WordnetFile.setSegmentSize(size);
+            WordnetFile.setSegmentOverlap(overlap);
+        }
+    }
+
+    @Test
+    public void sameAsIteratorsCompressed() throws IOException
+    {
+        checkSame(new DataSourceDictionary(new CompressedProvider(compressed)));
+    }
+
+    @Test
+    public void sameAsIteratorsInMemory() throws IOException
+    {
+        checkSame(new RAMDictionary(source, ILoadPolicy.IMMEDIATE_LOAD));
+    }
+
+    @Test
+    public void parallelTime() throws IOException
+    {
+        IDictionary dict = new DataSourceDictionary(new FileProvider(source));
+        dict.open();
+        try
+        {
+            long sequential = Long.MAX_VALUE, parallel = Long.MAX_VALUE;
+            int count = 0;
+            for (int round = 0; round < ROUNDS; round++)
+            {
+                long start = System.nanoTime();
+                count = countSynsets(dict, false);
+                sequential = Math.min(sequential, System.nanoTime() - start);
+                start = System.nanoTime();
+                assertEquals(count, countSynsets(dict, true));
+                parallel = Math.min(parallel, System.nanoTime() - start);
+            }
+            PS.printf("synsets=%d cores=%d sequential=%dus parallel=%dus%n", count, Runtime.getRuntime().availableProcessors(),
+                    TimeUnit.NANOSECONDS.toMicros(sequential), TimeUnit.NANOSECONDS.toMicros(parallel));
+        }
+        finally
+        {
+            dict.close();
+        }
+    }
+
+    private static int countSynsets(IDictionary dict, boolean parallel)
+    {
+        int count = 0;
+        for (POS pos : POS.values())
+        {
+            Stream<ISynset> synsets = dict.getSynsetStream(pos);
+            count += (int) (parallel ? synsets.parallel() : synsets).mapToInt(s -> s.getWords().size()).count();
+        }
+        return count;
+    }
+
+    private static void checkSame(IDictionary dict) throws IOException
+    {
+        dict.open();
+        try
+        {
+            for (POS pos : POS.values())
+            {
+                assertSame(dict.getSynsetIterator(pos), dict.getSynsetStream(pos), s -> s.getID() + " " + s.getWords() + " " + s.getRelatedMap() + " " + s.getGloss());
+                assertSame(dict.getIndexWordIterator(pos), dict.getIndexWordStream(pos), w -> w.getID() + " " + w.getWordIDs());
+                assertSame(dict.getExceptionEntryIterator(pos), dict.getExceptionEntryStream(pos), e -> e.getID() + " " + e.getRootForms());
+            }
+            assertSame(dict.getSenseEntryIterator(), dict.getSenseEntryStream(), e -> e.getSenseKey() + " " + e.getOffset());
+        }
+        finally
+        {
+            dict.close();
+        }
+    }
+
+    private static <T> void assertSame(Iterator<T> expected, Stream<T> actual, Function<T, String> describe)
+    {
+        List<String> items = new ArrayList<>();
+        while (expected.hasNext())
+        {
+            items.add(describe.apply(expected.next()));
+        }
+        assertEquals(items, actual.parallel().map(describe).collect(Collectors.toList()));
+    }
+}
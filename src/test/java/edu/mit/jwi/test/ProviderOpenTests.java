@@ -0,0 +1,239 @@
+package edu.mit.jwi.test;
+
+import edu.mit.jwi.DataSourceDictionary;
+import edu.mit.jwi.IDictionary;
+import edu.mit.jwi.data.BinarySearchWordnetFile;
+import edu.mit.jwi.data.ContentTypeKey;
+import edu.mit.jwi.data.FileProvider;
+import edu.mit.jwi.data.IContentType;
+import edu.mit.jwi.data.ILoadPolicy;
+import edu.mit.jwi.data.ILoadableDataSource;
+import edu.mit.jwi.data.Residency;
+import edu.mit.jwi.item.POS;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Times the opening of a file provider with immediate loading, with its
+ * sources opened and loaded one at a time and in parallel, and reports the
+ * time each source took to become ready, and where each source holds its
+ * content under the different load policies, including the adaptive policy,
+ * which only loads the sources that get used, and leaves a source whose
+ * loading fails where it was.
+ */
+public class ProviderOpenTests
+{
+    private static final boolean VERBOSE = !System.getProperties().containsKey("SILENT");
+
+    private static final PrintStream PS = VERBOSE ? System.out : new PrintStream(new OutputStream()
+    {
+        public void write(int b)
+        {
+            //DO NOTHING
+        }
+    });
+
+    @Test
+    public void openSequentialAndParallel() throws IOException
+    {
+        ExecutorService single = Executors.newSingleThreadExecutor();
+        try
+        {
+            long sequential = open(single);
+            long parallel = open(null);
+            PS.printf("sequential=%dms parallel=%dms%n", TimeUnit.NANOSECONDS.toMillis(sequential), TimeUnit.NANOSECONDS.toMillis(parallel));
+        }
+        finally
+        {
+            single.shutdown();
+        }
+    }
+
+    @Test
+    public void residency() throws IOException
+    {
+        String wnHome = System.getProperty("SOURCE");
+        int[] policies = {ILoadPolicy.NO_LOAD, ILoadPolicy.IMMEDIATE_LOAD, ILoadPolicy.IMMEDIATE_LOAD | ILoadPolicy.OFF_HEAP, ILoadPolicy.IMMEDIATE_LOAD | ILoadPolicy.RESIDENT};
+        for (int policy : policies)
+        {
+            FileProvider provider = new FileProvider(new File(wnHome), policy);
+            provider.open();
+            try
+            {
+                long heap = 0, offHeap = 0, mapped = 0;
+                for (Residency r : provider.getResidency().values())
+                {
+                    heap += r.getHeapBytes();
+                    offHeap += r.getOffHeapBytes();
+                    mapped += r.getMappedBytes();
+                }
+                PS.printf("policy=%d heap=%d offheap=%d mapped=%d%n", policy, heap, offHeap, mapped);
+                long total = heap + offHeap + mapped;
+                assertTrue(total > 0);
+                if ((policy & ILoadPolicy.RESIDENT) != 0 || policy == ILoadPolicy.NO_LOAD)
+                {
+                    assertEquals(total, mapped);
+                }
+                else if ((policy & ILoadPolicy.OFF_HEAP) != 0)
+                {
+                    assertEquals(total, offHeap);
+                }
+                else
+                {
+                    assertEquals(total, heap);
+                }
+            }
+            finally
+            {
+                provider.close();
+            }
+        }
+    }
+
+    @Test
+    public void adaptiveLoad() throws Exception
+    {
+        String wnHome = System.getProperty("SOURCE");
+        FileProvider provider = new FileProvider(new File(wnHome), ILoadPolicy.ADAPTIVE_LOAD);
+        provider.setAdaptiveThreshold(100);
+        IDictionary dict = new DataSourceDictionary(provider);
+        dict.open();
+        try
+        {
+            // only the noun index gets used
+            for (int i = 0; i < 200; i++)
+            {
+                dict.getIndexWord("entity", POS.NOUN);
+            }
+
+            // the promotion runs in the background
+            Residency hot = null;
+            for (int i = 0; i < 100; i++)
+            {
+                hot = residency(provider, ContentTypeKey.INDEX_NOUN);
+                if (hot.getHeapBytes() > 0)
+                {
+                    break;
+                }
+                TimeUnit.MILLISECONDS.sleep(50);
+            }
+            Residency cold = residency(provider, ContentTypeKey.EXCEPTION_ADVERB);
+            PS.printf("hot=%s cold=%s%n", hot, cold);
+            assertTrue(hot.getHeapBytes() > 0);
+            assertEquals(0, cold.getHeapBytes());
+            assertTrue(cold.getMappedBytes() > 0);
+        }
+        finally
+        {
+            dict.close();
+        }
+    }
+
+    @Test
+    public void adaptiveLoadFailure() throws Exception
+    {
+        String wnHome = System.getProperty("SOURCE");
+        FileProvider provider = new FileProvider(new File(wnHome), ILoadPolicy.ADAPTIVE_LOAD)
+        {
+            protected <T> ILoadableDataSource<T> createBinarySearch(File file, IContentType<T> contentType)
+            {
+                return new BinarySearchWordnetFile<T>(file, contentType)
+                {
+                    public void load(boolean block)
+                    {
+                        throw new IllegalStateException("cannot load " + file.getName());
+                    }
+                };
+            }
+        };
+        provider.setAdaptiveThreshold(100);
+        IDictionary dict = new DataSourceDictionary(provider);
+        dict.open();
+        try
+        {
+            String lemma = dict.getIndexWordIterator(POS.NOUN).next().getLemma();
+            for (int i = 0; i < 200; i++)
+            {
+                assertNotNull(dict.getIndexWord(lemma, POS.NOUN));
+            }
+
+            // the failure is recorded in the background
+            Throwable failure = null;
+            for (int i = 0; i < 100 && failure == null; i++)
+            {
+                for (Map.Entry<IContentType<?>, Throwable> e : provider.getPromotionFailures().entrySet())
+                {
+                    if (e.getKey().getKey() == ContentTypeKey.INDEX_NOUN)
+                    {
+                        failure = e.getValue();
+                    }
+                }
+                if (failure == null)
+                {
+                    TimeUnit.MILLISECONDS.sleep(50);
+                }
+            }
+            PS.printf("failure=%s%n", failure);
+            assertTrue(failure instanceof IllegalStateException);
+
+            // the source is still read where it was
+            Residency noun = residency(provider, ContentTypeKey.INDEX_NOUN);
+            assertEquals(0, noun.getHeapBytes());
+            assertTrue(noun.getMappedBytes() > 0);
+            assertNotNull(dict.getIndexWord(lemma, POS.NOUN));
+        }
+        finally
+        {
+            dict.close();
+        }
+    }
+
+    private static Residency residency(FileProvider provider, ContentTypeKey key)
+    {
+        for (Map.Entry<IContentType<?>, Residency> e : provider.getResidency().entrySet())
+        {
+            if (e.getKey().getKey() == key)
+            {
+                return e.getValue();
+            }
+        }
+        throw new IllegalArgumentException(key.toString());
+    }
+
+    private static long open(ExecutorService executor) throws IOException
+    {
+        String wnHome = System.getProperty("SOURCE");
+        FileProvider provider = new FileProvider(new File(wnHome), ILoadPolicy.IMMEDIATE_LOAD);
+        provider.setExecutor(executor);
+        long start = System.nanoTime();
+        provider.open();
+        long elapsed = System.nanoTime() - start;
+        try
+        {
+            assertTrue(provider.isLoaded());
+            Map<IContentType<?>, Long> times = provider.getReadyTimes();
+            assertEquals(provider.getTypes().size(), times.size());
+            for (Map.Entry<IContentType<?>, Long> e : times.entrySet())
+            {
+                PS.printf("  %s %dus%n", e.getKey(), TimeUnit.NANOSECONDS.toMicros(e.getValue()));
+            }
+            return elapsed;
+        }
+        finally
+        {
+            provider.close();
+        }
+    }
+}
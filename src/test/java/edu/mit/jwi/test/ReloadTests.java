@@ -0,0 +1,262 @@
+package edu.mit.jwi.test;
+
+import edu.mit.jwi.DataSourceDictionary;
+import edu.mit.jwi.IDictionary;
+import edu.mit.jwi.data.ContentType;
+import edu.mit.jwi.data.FileProvider;
+import edu.mit.jwi.data.IDataSource;
+import edu.mit.jwi.item.IIndexWord;
+import edu.mit.jwi.item.POS;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Replaces a file of a dictionary directory while lookups run against a file
+ * provider that watches the directory: the provider must pick up the new file
+ * without any lookup failing. The replaced files must stay open for the
+ * iterators started on them, and be closed as soon as these run out, or after
+ * the reload delay for those that are left unfinished. A provider opened again
+ * after a close must watch with a single thread.
+ */
+public class ReloadTests
+{
+    private static final boolean VERBOSE = !System.getProperties().containsKey("SILENT");
+
+    private static final PrintStream PS = VERBOSE ? System.out : new PrintStream(new OutputStream()
+    {
+        public void write(int b)
+        {
+            //DO NOTHING
+        }
+    });
+
+    private static Path dir;
+
+    @BeforeAll
+    public static void init() throws IOException
+    {
+        // work on a copy, as files are going to be replaced
+        String wnHome = System.getProperty("SOURCE");
+        dir = Files.createTempDirectory("jwi-reload");
+        File[] files = new File(wnHome).listFiles(File::isFile);
+        assertNotNull(files);
+        for (File file : files)
+        {
+            Files.copy(file.toPath(), dir.resolve(file.getName()));
+        }
+    }
+
+    @AfterAll
+    public static void cleanup() throws IOException
+    {
+        File[] files = dir.toFile().listFiles();
+        if (files != null)
+        {
+            for (File file : files)
+            {
+                Files.delete(file.toPath());
+            }
+        }
+        Files.delete(dir);
+    }
+
+    @Test
+    public void reloadUnderLoad() throws Exception
+    {
+        FileProvider provider = new FileProvider(dir.toFile());
+        provider.setReloadOnChange(true);
+        provider.setReloadDelay(100);
+        IDictionary dict = new DataSourceDictionary(provider);
+        dict.open();
+        String lemma = dict.getIndexWordIterator(POS.NOUN).next().getLemma();
+
+        int threads = Math.max(2, Runtime.getRuntime().availableProcessors());
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        AtomicBoolean stop = new AtomicBoolean();
+        try
+        {
+            // look up until told to stop; any exception fails the test
+            List<Future<Integer>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++)
+            {
+                futures.add(executor.submit(() -> {
+                    int found = 0;
+                    while (!stop.get())
+                    {
+                        if (dict.getIndexWord(lemma, POS.NOUN) != null)
+                        {
+                            found++;
+                        }
+                    }
+                    return found;
+                }));
+            }
+
+            // replace the noun index with a copy of itself
+            IDataSource<?> before = provider.getSource(ContentType.INDEX_NOUN);
+            Path index = dir.resolve("index.noun");
+            Path temp = dir.resolve("index.noun.new");
+            Files.copy(index, temp);
+            Files.move(temp, index, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+            // wait for the reload
+            IDataSource<?> after = before;
+            for (int i = 0; i < 200 && after == before; i++)
+            {
+                TimeUnit.MILLISECONDS.sleep(50);
+                after = provider.getSource(ContentType.INDEX_NOUN);
+            }
+            assertNotSame(before, after);
+
+            // let lookups run past the retirement of the old sources
+            TimeUnit.MILLISECONDS.sleep(300);
+            stop.set(true);
+            int found = 0;
+            for (Future<Integer> future : futures)
+            {
+                found += future.get();
+            }
+            assertTrue(found > 0);
+            PS.printf("lookups=%d%n", found);
+        }
+        finally
+        {
+            stop.set(true);
+            executor.shutdown();
+            dict.close();
+        }
+    }
+
+    @Test
+    public void reopenWatchedOnce() throws Exception
+    {
+        // let the watchers of the other tests stop
+        for (int i = 0; i < 100 && countWatchers() > 0; i++)
+        {
+            TimeUnit.MILLISECONDS.sleep(50);
+        }
+        assertEquals(0, countWatchers());
+
+        FileProvider provider = new FileProvider(dir.toFile());
+        provider.setReloadOnChange(true);
+        provider.setReloadDelay(100);
+        try
+        {
+            for (int i = 0; i < 5; i++)
+            {
+                assertTrue(provider.open());
+                assertEquals(1, countWatchers());
+                provider.close();
+            }
+        }
+        finally
+        {
+            provider.close();
+        }
+    }
+
+    private static int countWatchers()
+    {
+        int count = 0;
+        for (Thread thread : Thread.getAllStackTraces().keySet())
+        {
+            if (thread.isAlive() && thread.getName().equals("JWIReloadWatcher"))
+            {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Test
+    public void reloadDrainsIterators() throws Exception
+    {
+        FileProvider provider = new FileProvider(dir.toFile());
+        provider.setReloadDelay(TimeUnit.MINUTES.toMillis(10));
+        IDictionary dict = new DataSourceDictionary(provider);
+        dict.open();
+        try
+        {
+            int count = 0;
+            for (Iterator<IIndexWord> it = dict.getIndexWordIterator(POS.NOUN); it.hasNext(); it.next())
+            {
+                count++;
+            }
+
+            // an iterator started before the reload runs to its end
+            IDataSource<?> before = provider.getSource(ContentType.INDEX_NOUN);
+            Iterator<IIndexWord> it = dict.getIndexWordIterator(POS.NOUN);
+            it.next();
+            assertTrue(provider.reload());
+            assertNotSame(before, provider.getSource(ContentType.INDEX_NOUN));
+            assertTrue(before.isOpen());
+            int seen = 1;
+            for (; it.hasNext(); it.next())
+            {
+                seen++;
+            }
+            assertEquals(count, seen);
+
+            // and the old file is closed once it has, long before the delay
+            assertTrue(awaitClosed(before));
+        }
+        finally
+        {
+            dict.close();
+        }
+    }
+
+    @Test
+    public void reloadExpiresIterators() throws Exception
+    {
+        FileProvider provider = new FileProvider(dir.toFile());
+        provider.setReloadDelay(100);
+        IDictionary dict = new DataSourceDictionary(provider);
+        dict.open();
+        try
+        {
+            // an iterator left unfinished keeps the old file open no
+            // longer than the reload delay
+            IDataSource<?> before = provider.getSource(ContentType.INDEX_NOUN);
+            dict.getIndexWordIterator(POS.NOUN).next();
+            assertTrue(provider.reload());
+            assertTrue(before.isOpen());
+            assertTrue(awaitClosed(before));
+        }
+        finally
+        {
+            dict.close();
+        }
+    }
+
+    private static boolean awaitClosed(IDataSource<?> source) throws InterruptedException
+    {
+        for (int i = 0; i < 100 && source.isOpen(); i++)
+        {
+            TimeUnit.MILLISECONDS.sleep(20);
+        }
+        return !source.isOpen();
+    }
+}
@@ -0,0 +1,155 @@
+package edu.mit.jwi.test;
+
+import edu.mit.jwi.DataSourceDictionary;
+import edu.mit.jwi.IDictionary;
+import edu.mit.jwi.data.ContentType;
+import edu.mit.jwi.data.FileProvider;
+import edu.mit.jwi.data.WordnetFile;
+import edu.mit.jwi.item.*;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Maps the Wordnet files in segments much smaller than the files, and checks
+ * that lookups and iterations give the same results as on files mapped in a
+ * single buffer, for the lines that run across the ends of segments too. A
+ * file holding a line longer than the overlap of the segments is checked to
+ * be refused rather than read with that line cut short.
+ */
+public class SegmentedFileTests
+{
+    private static final boolean VERBOSE = !System.getProperties().containsKey("SILENT");
+
+    private static final PrintStream PS = VERBOSE ? System.out : new PrintStream(new OutputStream()
+    {
+        public void write(int b)
+        {
+            //DO NOTHING
+        }
+    });
+
+    // much smaller than the files, and larger than any of their lines
+    private static final int SMALL_SEGMENT_SIZE = 1 << 12;
+
+    private static final int SMALL_SEGMENT_OVERLAP = 1 << 13;
+
+    private static File source;
+
+    @BeforeAll
+    public static void init()
+    {
+        source = new File(System.getProperty("SOURCE"));
+    }
+
+    @Test
+    public void sameAsMapped() throws IOException
+    {
+        IDictionary mapped = new DataSourceDictionary(new FileProvider(source));
+        mapped.open();
+        FileProvider provider = new FileProvider(source);
+        IDictionary segmented = new DataSourceDictionary(provider);
+        int size = WordnetFile.getSegmentSize();
+        int overlap = WordnetFile.getSegmentOverlap();
+        try
+        {
+            WordnetFile.setSegmentSize(SMALL_SEGMENT_SIZE);
+            WordnetFile.setSegmentOverlap(SMALL_SEGMENT_OVERLAP);
+            segmented.open();
+            WordnetFile<?> file = (WordnetFile<?>) provider.getSource(ContentType.DATA_NOUN);
+            assertNotNull(file);
+            assertNotNull(file.getSegments());
+            PS.printf("data.noun segments=%d%n", file.getSegments().length);
+
+            for (POS pos : POS.values())
+            {
+                // iterations
+                List<String> lemmas = new ArrayList<>();
+                Iterator<IIndexWord> indexWords = segmented.getIndexWordIterator(pos);
+                for (Iterator<IIndexWord> it = mapped.getIndexWordIterator(pos); it.hasNext(); )
+                {
+                    IIndexWord word = it.next();
+                    assertTrue(indexWords.hasNext());
+                    assertEquals(word.getID(), indexWords.next().getID());
+                    lemmas.add(word.getLemma());
+                }
+                assertFalse(indexWords.hasNext());
+                List<ISynset> synsets = new ArrayList<>();
+                Iterator<ISynset> segmentedSynsets = segmented.getSynsetIterator(pos);
+                for (Iterator<ISynset> it = mapped.getSynsetIterator(pos); it.hasNext(); )
+                {
+                    ISynset synset = it.next();
+                    assertTrue(segmentedSynsets.hasNext());
+                    checkSame(synset, segmentedSynsets.next());
+                    synsets.add(synset);
+                }
+                assertFalse(segmentedSynsets.hasNext());
+
+                // lookups
+                for (String lemma : lemmas)
+                {
+                    IIndexWord word = segmented.getIndexWord(lemma, pos);
+                    assertNotNull(word, lemma);
+                    assertEquals(mapped.getIndexWord(lemma, pos).getWordIDs(), word.getWordIDs(), lemma);
+                }
+                assertNull(segmented.getIndexWord("nosuchlemma", pos));
+                for (ISynset synset : synsets)
+                {
+                    checkSame(synset, segmented.getSynset(synset.getID()));
+                }
+            }
+        }
+        finally
+        {
+            WordnetFile.setSegmentSize(size);
+            WordnetFile.setSegmentOverlap(overlap);
+            segmented.close();
+            mapped.close();
+        }
+    }
+
+    @Test
+    public void longLineRefused() throws IOException
+    {
+        int size = WordnetFile.getSegmentSize();
+        int overlap = WordnetFile.getSegmentOverlap();
+        try
+        {
+            // no overlap at all, so that the lines running across the ends
+            // of segments are all too long
+            WordnetFile.setSegmentSize(SMALL_SEGMENT_SIZE);
+            WordnetFile.setSegmentOverlap(0);
+            FileProvider provider = new FileProvider(source);
+            IOException e = assertThrows(IOException.class, provider::open);
+            PS.println(e.getMessage());
+            assertFalse(provider.isOpen());
+        }
+        finally
+        {
+            WordnetFile.setSegmentSize(size);
+            WordnetFile.setSegmentOverlap(overlap);
+        }
+    }
+
+    private static void checkSame(ISynset expected, ISynset actual)
+    {
+        assertNotNull(actual, expected.getID().toString());
+        assertEquals(expected.getID(), actual.getID());
+        assertEquals(expected.getGloss(), actual.getGloss());
+        assertEquals(expected.getWords().size(), actual.getWords().size());
+        for (int i = 0; i < expected.getWords().size(); i++)
+        {
+            assertEquals(expected.getWords().get(i).getLemma(), actual.getWords().get(i).getLemma());
+        }
+        assertEquals(expected.getRelatedMap(), actual.getRelatedMap());
+    }
+}